@@ -0,0 +1,122 @@
+package com.badlogic.ashley.benchmark.jmh;
+
+import com.badlogic.ashley.benchmark.Constants;
+import com.badlogic.ashley.benchmark.Constants.ComponentType;
+import com.badlogic.ashley.benchmark.ashley.components.MovementComponent;
+import com.badlogic.ashley.benchmark.ashley.components.PositionComponent;
+import com.badlogic.ashley.benchmark.ashley.components.RadiusComponent;
+import com.badlogic.ashley.benchmark.ashley.components.StateComponent;
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Shared setup for the JMH benchmarks: builds engines and populates them with the same component distribution as
+ * {@link com.badlogic.ashley.benchmark.ashley.AshleyBenchmark}.
+ */
+final class BenchmarkWorld {
+    private BenchmarkWorld() {
+    }
+
+    static Engine createEngine(boolean pooled, boolean archetypeStorage) {
+        if (pooled) {
+            return new PooledEngine(10, Integer.MAX_VALUE, 10, Integer.MAX_VALUE, archetypeStorage);
+        }
+
+        return new Engine(archetypeStorage);
+    }
+
+    static void populate(Engine engine, int numEntities) {
+        MathUtils.random.setSeed(42);
+
+        for (int i = 0; i < numEntities; ++i) {
+            engine.addEntity(createEntity(engine, i));
+        }
+    }
+
+    static Entity createEntity(Engine engine, int index) {
+        Entity entity = engine.createEntity();
+
+        if (Constants.shouldHaveComponent(ComponentType.POSITION, index)) {
+            PositionComponent pos = engine.createComponent(PositionComponent.class);
+            pos.pos.x = MathUtils.random(Constants.MIN_POS, Constants.MAX_POS);
+            pos.pos.y = MathUtils.random(Constants.MIN_POS, Constants.MAX_POS);
+            pos.pos.z = MathUtils.random(Constants.MIN_POS, Constants.MAX_POS);
+            entity.add(pos);
+        }
+
+        if (Constants.shouldHaveComponent(ComponentType.MOVEMENT, index)) {
+            MovementComponent mov = engine.createComponent(MovementComponent.class);
+            mov.velocity.x = MathUtils.random(Constants.MIN_VEL, Constants.MAX_VEL);
+            mov.velocity.y = MathUtils.random(Constants.MIN_VEL, Constants.MAX_VEL);
+            mov.accel.x = MathUtils.random(Constants.MIN_ACC, Constants.MAX_ACC);
+            mov.accel.y = MathUtils.random(Constants.MIN_ACC, Constants.MAX_ACC);
+            entity.add(mov);
+        }
+
+        if (Constants.shouldHaveComponent(ComponentType.RADIUS, index)) {
+            RadiusComponent rad = engine.createComponent(RadiusComponent.class);
+            rad.radius = MathUtils.random(Constants.MIN_RADIUS, Constants.MAX_RADIUS);
+            entity.add(rad);
+        }
+
+        if (Constants.shouldHaveComponent(ComponentType.STATE, index)) {
+            entity.add(engine.createComponent(StateComponent.class));
+        }
+
+        return entity;
+    }
+
+    /**
+     * @return Up to 60 distinct families built from the benchmark component types, so membership updates have real work to do.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static Array<Family> createFamilies(int count) {
+        Class<? extends Component>[] types = new Class[]{PositionComponent.class, MovementComponent.class, RadiusComponent.class,
+                StateComponent.class};
+        Array<Family> families = new Array<Family>();
+
+        for (int kind = 0; kind < 4; ++kind) {
+            for (int mask = 1; mask < 1 << types.length && families.size < count; ++mask) {
+                Class<? extends Component>[] subset = subset(types, mask, true);
+                Class<? extends Component>[] complement = subset(types, mask, false);
+
+                switch (kind) {
+                    case 0:
+                        families.add(Family.all(subset).get());
+                        break;
+                    case 1:
+                        families.add(Family.one(subset).get());
+                        break;
+                    case 2:
+                        families.add(Family.exclude(subset).get());
+                        break;
+                    default:
+                        families.add(Family.all(subset).exclude(complement).get());
+                        break;
+                }
+            }
+        }
+
+        return families;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Class<? extends Component>[] subset(Class<? extends Component>[] types, int mask, boolean included) {
+        int size = 0;
+        for (int i = 0; i < types.length; ++i) {
+            if (((mask & (1 << i)) != 0) == included) size++;
+        }
+
+        Class<? extends Component>[] result = new Class[size];
+        for (int i = 0, j = 0; i < types.length; ++i) {
+            if (((mask & (1 << i)) != 0) == included) result[j++] = types[i];
+        }
+
+        return result;
+    }
+}
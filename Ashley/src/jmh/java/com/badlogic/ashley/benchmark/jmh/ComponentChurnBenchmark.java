@@ -0,0 +1,94 @@
+package com.badlogic.ashley.benchmark.jmh;
+
+import com.badlogic.ashley.benchmark.ashley.components.StateComponent;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityCommandBuffer;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding and removing a component on every entity while the engine tracks a varying number of families, which measures family
+ * membership updates and listener dispatch. Components are allocated once during setup so only the engine bookkeeping is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ComponentChurnBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"4", "60"})
+    public int familyCount;
+
+    @Param({"false", "true"})
+    public boolean archetypeStorage;
+
+    private Engine engine;
+    private ImmutableArray<Entity> entities;
+    private StateComponent[] states;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = BenchmarkWorld.createEngine(false, archetypeStorage);
+        Array<Family> families = BenchmarkWorld.createFamilies(familyCount);
+        for (Family family : families) {
+            engine.getEntitiesFor(family);
+        }
+
+        BenchmarkWorld.populate(engine, entityCount);
+        for (Entity entity : engine.getEntities()) {
+            entity.remove(StateComponent.class);
+        }
+
+        entities = engine.getEntities();
+        states = new StateComponent[entities.size()];
+        for (int i = 0; i < states.length; ++i) {
+            states[i] = new StateComponent();
+        }
+    }
+
+    @Benchmark
+    public int addRemove() {
+        for (int i = 0; i < entities.size(); ++i) {
+            entities.get(i).add(states[i]);
+        }
+        for (int i = 0; i < entities.size(); ++i) {
+            entities.get(i).remove(StateComponent.class);
+        }
+        return entities.size();
+    }
+
+    @Benchmark
+    public int addRemoveWithCommandBuffer() {
+        EntityCommandBuffer buffer = engine.getCommandBuffer();
+        for (int i = 0; i < entities.size(); ++i) {
+            buffer.addComponent(entities.get(i), states[i]);
+        }
+        buffer.playback();
+        for (int i = 0; i < entities.size(); ++i) {
+            buffer.removeComponent(entities.get(i), StateComponent.class);
+        }
+        buffer.playback();
+        return entities.size();
+    }
+}
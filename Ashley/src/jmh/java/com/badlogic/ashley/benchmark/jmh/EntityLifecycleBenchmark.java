@@ -0,0 +1,58 @@
+package com.badlogic.ashley.benchmark.jmh;
+
+import com.badlogic.ashley.benchmark.ashley.systems.CollisionSystem;
+import com.badlogic.ashley.benchmark.ashley.systems.MovementSystem;
+import com.badlogic.ashley.benchmark.ashley.systems.StateSystem;
+import com.badlogic.ashley.core.Engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a batch of entities, adding them to an engine whose systems watch several families, then removing all of them. With
+ * pooling enabled, entities and components come back from the {@link com.badlogic.ashley.core.PooledEngine} pools after the first
+ * invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EntityLifecycleBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    private Engine engine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = BenchmarkWorld.createEngine(pooled, false);
+        engine.addSystem(new MovementSystem());
+        engine.addSystem(new StateSystem());
+        engine.addSystem(new CollisionSystem());
+    }
+
+    @Benchmark
+    public int createAndDestroy() {
+        BenchmarkWorld.populate(engine, entityCount);
+        int size = engine.getEntities().size();
+        engine.removeAllEntities();
+        return size;
+    }
+}
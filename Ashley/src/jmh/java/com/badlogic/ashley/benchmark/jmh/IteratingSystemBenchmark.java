@@ -0,0 +1,124 @@
+package com.badlogic.ashley.benchmark.jmh;
+
+import com.badlogic.ashley.benchmark.Constants;
+import com.badlogic.ashley.benchmark.ashley.components.MovementComponent;
+import com.badlogic.ashley.benchmark.ashley.components.PositionComponent;
+import com.badlogic.ashley.benchmark.ashley.systems.MovementSystem;
+import com.badlogic.ashley.core.ArchetypeChunk;
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.ComponentType;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.ChunkIteratingSystem;
+import com.badlogic.ashley.systems.ParallelIteratingSystem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One engine update running a movement system over every moving entity, using a plain {@link MovementSystem}, a
+ * {@link ChunkIteratingSystem} walking archetype chunks and a {@link ParallelIteratingSystem} on the common pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IteratingSystemBenchmark {
+    private static final Family MOVING = Family.all(PositionComponent.class, MovementComponent.class).get();
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    private Engine iteratingEngine;
+    private Engine chunkEngine;
+    private Engine parallelEngine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        iteratingEngine = BenchmarkWorld.createEngine(false, false);
+        iteratingEngine.addSystem(new MovementSystem());
+        BenchmarkWorld.populate(iteratingEngine, entityCount);
+
+        chunkEngine = BenchmarkWorld.createEngine(false, true);
+        chunkEngine.addSystem(new ChunkMovementSystem());
+        BenchmarkWorld.populate(chunkEngine, entityCount);
+
+        parallelEngine = BenchmarkWorld.createEngine(false, false);
+        parallelEngine.addSystem(new ParallelMovementSystem());
+        BenchmarkWorld.populate(parallelEngine, entityCount);
+    }
+
+    @Benchmark
+    public Engine iteratingSystem() {
+        iteratingEngine.update(Constants.DELTA_TIME);
+        return iteratingEngine;
+    }
+
+    @Benchmark
+    public Engine chunkIteratingSystem() {
+        chunkEngine.update(Constants.DELTA_TIME);
+        return chunkEngine;
+    }
+
+    @Benchmark
+    public Engine parallelIteratingSystem() {
+        parallelEngine.update(Constants.DELTA_TIME);
+        return parallelEngine;
+    }
+
+    private static void move(PositionComponent pos, MovementComponent mov, float deltaTime) {
+        mov.velocity.x += mov.accel.x * deltaTime;
+        mov.velocity.y += mov.accel.y * deltaTime;
+        pos.pos.x += mov.velocity.x * deltaTime;
+        pos.pos.y += mov.velocity.y * deltaTime;
+    }
+
+    private static class ChunkMovementSystem extends ChunkIteratingSystem {
+        private final ComponentType position = ComponentType.getFor(PositionComponent.class);
+        private final ComponentType movement = ComponentType.getFor(MovementComponent.class);
+
+        ChunkMovementSystem() {
+            super(MOVING);
+        }
+
+        @Override
+        protected void processChunk(ArchetypeChunk chunk, float deltaTime) {
+            Component[] positions = chunk.getComponents(position);
+            Component[] movements = chunk.getComponents(movement);
+
+            for (int i = 0, n = chunk.size(); i < n; ++i) {
+                move((PositionComponent) positions[i], (MovementComponent) movements[i], deltaTime);
+            }
+        }
+    }
+
+    private static class ParallelMovementSystem extends ParallelIteratingSystem {
+        private final ComponentMapper<PositionComponent> pm = ComponentMapper.getFor(PositionComponent.class);
+        private final ComponentMapper<MovementComponent> mm = ComponentMapper.getFor(MovementComponent.class);
+
+        ParallelMovementSystem() {
+            super(MOVING);
+        }
+
+        @Override
+        protected void processEntity(Entity entity, float deltaTime) {
+            move(pm.get(entity), mm.get(entity), deltaTime);
+        }
+    }
+}
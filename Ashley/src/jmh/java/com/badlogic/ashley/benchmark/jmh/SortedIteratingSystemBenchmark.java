@@ -0,0 +1,109 @@
+package com.badlogic.ashley.benchmark.jmh;
+
+import com.badlogic.ashley.benchmark.Constants;
+import com.badlogic.ashley.benchmark.ashley.components.PositionComponent;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.SortedIteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depth sorted iteration where entities move each frame, forcing a re-sort of an almost sorted array on every update. Either every
+ * entity moves a little or one entity in a hundred jumps to a random depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SortedIteratingSystemBenchmark {
+    private static final ComponentMapper<PositionComponent> pm = ComponentMapper.getFor(PositionComponent.class);
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"comparator", "incremental", "radix"})
+    public String mode;
+
+    private Engine engine;
+    private DepthSystem system;
+    private ImmutableArray<Entity> entities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = BenchmarkWorld.createEngine(false, false);
+        system = "radix".equals(mode) ? new DepthSystem(new DepthKey()) : new DepthSystem(mode);
+        engine.addSystem(system);
+        BenchmarkWorld.populate(engine, entityCount);
+        entities = engine.getEntitiesFor(system.getFamily());
+    }
+
+    @Benchmark
+    public Engine resortAfterMove() {
+        for (int i = 0; i < entities.size(); ++i) {
+            pm.get(entities.get(i)).pos.z += MathUtils.random(-0.01f, 0.01f);
+        }
+        system.forceSort();
+        engine.update(Constants.DELTA_TIME);
+        return engine;
+    }
+
+    @Benchmark
+    public Engine resortAfterFewMoves() {
+        for (int i = 0; i < entities.size(); i += 100) {
+            pm.get(entities.get(i)).pos.z = MathUtils.random(Constants.MIN_POS, Constants.MAX_POS);
+        }
+        system.forceSort();
+        engine.update(Constants.DELTA_TIME);
+        return engine;
+    }
+
+    private static class DepthSystem extends SortedIteratingSystem {
+        DepthSystem(String mode) {
+            super(Family.all(PositionComponent.class).get(), new DepthComparator(), 0, "incremental".equals(mode));
+        }
+
+        DepthSystem(FloatKey key) {
+            super(Family.all(PositionComponent.class).get(), key, 0);
+        }
+
+        @Override
+        protected void processEntity(Entity entity, float deltaTime) {
+            pm.get(entity).rotation += deltaTime;
+        }
+    }
+
+    private static class DepthKey implements SortedIteratingSystem.FloatKey {
+        @Override
+        public float getKey(Entity entity) {
+            return pm.get(entity).pos.z;
+        }
+    }
+
+    private static class DepthComparator implements Comparator<Entity> {
+        @Override
+        public int compare(Entity a, Entity b) {
+            return Float.compare(pm.get(a).pos.z, pm.get(b).pos.z);
+        }
+    }
+}
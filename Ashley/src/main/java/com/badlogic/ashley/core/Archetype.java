@@ -0,0 +1,150 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+/**
+ * Group of {@link Entity} objects sharing the exact same set of {@link Component} types. The entities of an archetype are packed
+ * into fixed size {@link ArchetypeChunk}s so their components can be walked linearly, column by column. Archetypes are only created
+ * by an {@link Engine} running in archetype storage mode, see {@link Engine#getArchetypesFor(Family)}.
+ * <p>
+ * All chunks but the last one are always full: removing an entity moves the last entity of the archetype into the freed slot.
+ */
+public class Archetype {
+    private final Bits componentBits;
+    private final int[] typeIndices;
+    private final int[] columns;
+    private final int chunkCapacity;
+    private final Array<ArchetypeChunk> chunks = new Array<ArchetypeChunk>(false, 4);
+    private final ImmutableArray<ArchetypeChunk> immutableChunks = new ImmutableArray<ArchetypeChunk>(chunks);
+    private ArchetypeChunk spareChunk;
+    private int size;
+
+    Archetype(Bits componentBits, int chunkCapacity) {
+        this.componentBits = new Bits(componentBits);
+        this.chunkCapacity = chunkCapacity;
+
+        int numTypes = 0;
+        for (int i = componentBits.nextSetBit(0); i >= 0; i = componentBits.nextSetBit(i + 1)) {
+            numTypes++;
+        }
+
+        typeIndices = new int[numTypes];
+        columns = new int[componentBits.length()];
+
+        int column = 0;
+        for (int i = 0; i < columns.length; ++i) {
+            if (componentBits.get(i)) {
+                typeIndices[column] = i;
+                columns[i] = column++;
+            } else {
+                columns[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * @return The chunks holding the entities of this archetype. Only the last chunk may be partially filled.
+     */
+    public ImmutableArray<ArchetypeChunk> getChunks() {
+        return immutableChunks;
+    }
+
+    /**
+     * @return The number of entities in this archetype.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of component types making up this archetype.
+     */
+    public int getNumComponentTypes() {
+        return typeIndices.length;
+    }
+
+    /**
+     * @return Whether or not entities of this archetype have a {@link Component} of the specified type.
+     */
+    public boolean has(ComponentType componentType) {
+        return getColumn(componentType.getIndex()) >= 0;
+    }
+
+    /**
+     * @return The column used to store components of the specified type index, -1 if the archetype does not contain that type.
+     */
+    int getColumn(int componentTypeIndex) {
+        return componentTypeIndex < columns.length ? columns[componentTypeIndex] : -1;
+    }
+
+    Bits getComponentBits() {
+        return componentBits;
+    }
+
+    void add(Entity entity) {
+        ArchetypeChunk chunk = chunks.size > 0 ? chunks.peek() : null;
+
+        if (chunk == null || chunk.size == chunkCapacity) {
+            if (spareChunk != null) {
+                chunk = spareChunk;
+                spareChunk = null;
+            } else {
+                chunk = new ArchetypeChunk(this, chunkCapacity, typeIndices.length);
+            }
+            chunks.add(chunk);
+        }
+
+        int index = chunk.size++;
+        chunk.entities[index] = entity;
+        entity.chunk = chunk;
+        entity.chunkIndex = index;
+        write(entity);
+        size++;
+    }
+
+    /**
+     * Refreshes the component references stored for an entity already living in this archetype, e.g. after one of its components was
+     * replaced by another instance of the same type.
+     */
+    void write(Entity entity) {
+        ArchetypeChunk chunk = entity.chunk;
+        int index = entity.chunkIndex;
+
+        for (int column = 0; column < typeIndices.length; ++column) {
+            chunk.columns[column][index] = entity.getComponentAt(typeIndices[column]);
+        }
+    }
+
+    void remove(Entity entity) {
+        ArchetypeChunk chunk = entity.chunk;
+        int index = entity.chunkIndex;
+        ArchetypeChunk lastChunk = chunks.peek();
+        int lastIndex = --lastChunk.size;
+
+        if (chunk != lastChunk || index != lastIndex) {
+            Entity moved = lastChunk.entities[lastIndex];
+            chunk.entities[index] = moved;
+            for (int column = 0; column < typeIndices.length; ++column) {
+                chunk.columns[column][index] = lastChunk.columns[column][lastIndex];
+            }
+            moved.chunk = chunk;
+            moved.chunkIndex = index;
+        }
+
+        lastChunk.entities[lastIndex] = null;
+        for (int column = 0; column < typeIndices.length; ++column) {
+            lastChunk.columns[column][lastIndex] = null;
+        }
+
+        if (lastChunk.size == 0) {
+            chunks.pop();
+            spareChunk = lastChunk;
+        }
+
+        entity.chunk = null;
+        entity.chunkIndex = -1;
+        size--;
+    }
+}
@@ -0,0 +1,71 @@
+package com.badlogic.ashley.core;
+
+/**
+ * Fixed size block of entities belonging to the same {@link Archetype}. Components are stored column-wise: one contiguous array per
+ * component type, where the component at index {@code i} belongs to the entity at index {@code i}. Only indices below
+ * {@link #size()} hold valid data.
+ * <p>
+ * Chunks are managed by the {@link Engine}; entities may move between slots and chunks whenever components are added or removed, so
+ * indices should not be kept across structural changes.
+ */
+public class ArchetypeChunk {
+    final Archetype archetype;
+    final Entity[] entities;
+    final Component[][] columns;
+    int size;
+
+    ArchetypeChunk(Archetype archetype, int capacity, int numColumns) {
+        this.archetype = archetype;
+        this.entities = new Entity[capacity];
+        this.columns = new Component[numColumns][capacity];
+    }
+
+    /**
+     * @return The {@link Archetype} this chunk belongs to.
+     */
+    public Archetype getArchetype() {
+        return archetype;
+    }
+
+    /**
+     * @return The number of entities stored in this chunk.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The maximum number of entities this chunk can hold.
+     */
+    public int capacity() {
+        return entities.length;
+    }
+
+    /**
+     * @return The {@link Entity} stored at the given index.
+     */
+    public Entity getEntity(int index) {
+        return entities[index];
+    }
+
+    /**
+     * @return The {@link Component} of the specified type belonging to the entity at the given index, null if the archetype does not
+     * contain that type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T get(ComponentType componentType, int index) {
+        int column = archetype.getColumn(componentType.getIndex());
+        return column >= 0 ? (T) columns[column][index] : null;
+    }
+
+    /**
+     * Gives direct access to the column storing all components of the specified type. The returned array must not be modified and is
+     * only valid up to {@link #size()}.
+     *
+     * @return The backing array of the column, null if the archetype does not contain that type.
+     */
+    public Component[] getComponents(ComponentType componentType) {
+        int column = archetype.getColumn(componentType.getIndex());
+        return column >= 0 ? columns[column] : null;
+    }
+}
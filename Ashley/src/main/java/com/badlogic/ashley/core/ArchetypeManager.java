@@ -0,0 +1,90 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectMap;
+
+class ArchetypeManager {
+    private final int chunkCapacity;
+    private final ObjectMap<Bits, Archetype> archetypes = new ObjectMap<Bits, Archetype>();
+    private final Array<Archetype> archetypeList = new Array<Archetype>(false, 16);
+    private final ImmutableArray<Archetype> immutableArchetypes = new ImmutableArray<Archetype>(archetypeList);
+    private final ObjectMap<Family, Array<Archetype>> families = new ObjectMap<Family, Array<Archetype>>();
+    private final ObjectMap<Family, ImmutableArray<Archetype>> immutableFamilies = new ObjectMap<Family, ImmutableArray<Archetype>>();
+
+    public ArchetypeManager(int chunkCapacity) {
+        if (chunkCapacity <= 0) {
+            throw new IllegalArgumentException("chunkCapacity must be greater than zero.");
+        }
+
+        this.chunkCapacity = chunkCapacity;
+    }
+
+    public ImmutableArray<Archetype> getArchetypesFor(Family family) {
+        ImmutableArray<Archetype> familyArchetypes = immutableFamilies.get(family);
+
+        if (familyArchetypes == null) {
+            Array<Archetype> matching = new Array<Archetype>(false, 16);
+            for (Archetype archetype : archetypeList) {
+                if (family.matches(archetype.getComponentBits())) {
+                    matching.add(archetype);
+                }
+            }
+
+            familyArchetypes = new ImmutableArray<Archetype>(matching);
+            families.put(family, matching);
+            immutableFamilies.put(family, familyArchetypes);
+        }
+
+        return familyArchetypes;
+    }
+
+    public ImmutableArray<Archetype> getArchetypes() {
+        return immutableArchetypes;
+    }
+
+    /**
+     * Places the entity in the archetype matching its current component bits, moving it out of its previous one if needed.
+     */
+    public void updateArchetype(Entity entity) {
+        ArchetypeChunk chunk = entity.chunk;
+
+        if (chunk != null) {
+            Archetype current = chunk.archetype;
+
+            if (current.getComponentBits().equals(entity.getComponentBits())) {
+                current.write(entity);
+                return;
+            }
+
+            current.remove(entity);
+        }
+
+        getArchetype(entity).add(entity);
+    }
+
+    public void removeEntity(Entity entity) {
+        if (entity.chunk != null) {
+            entity.chunk.archetype.remove(entity);
+        }
+    }
+
+    private Archetype getArchetype(Entity entity) {
+        Archetype archetype = archetypes.get(entity.getComponentBits());
+
+        if (archetype == null) {
+            archetype = new Archetype(entity.getComponentBits(), chunkCapacity);
+            archetypes.put(archetype.getComponentBits(), archetype);
+            archetypeList.add(archetype);
+
+            for (ObjectMap.Entry<Family, Array<Archetype>> entry : families) {
+                if (entry.key.matches(archetype.getComponentBits())) {
+                    entry.value.add(archetype);
+                }
+            }
+        }
+
+        return archetype;
+    }
+}
@@ -26,6 +26,20 @@ public final class ComponentMapper<T extends Component> {
         return entity.getComponent(componentType);
     }
 
+    /**
+     * @return The {@link Component} of the specified class belonging to the entity stored at index in the chunk.
+     */
+    public T get(ArchetypeChunk chunk, int index) {
+        return chunk.get(componentType, index);
+    }
+
+    /**
+     * Flags the {@link Component} of the specified class as changed on the entity, see {@link Entity#markChanged(Class)}.
+     */
+    public void markChanged(Entity entity) {
+        entity.markChanged(componentType.getIndex());
+    }
+
     /**
      * @return Whether or not entity has the component of the specified class.
      */
@@ -14,9 +14,12 @@ class ComponentOperationHandler {
 
     public void add(Entity entity) {
         if (delayed.value()) {
-            ComponentOperation operation = operationPool.obtain();
-            operation.makeAdd(entity);
-            operations.add(operation);
+            // Systems updated in parallel may record operations concurrently.
+            synchronized (operations) {
+                ComponentOperation operation = operationPool.obtain();
+                operation.makeAdd(entity);
+                operations.add(operation);
+            }
         } else {
             entity.notifyComponentAdded();
         }
@@ -24,9 +27,12 @@ class ComponentOperationHandler {
 
     public void remove(Entity entity) {
         if (delayed.value()) {
-            ComponentOperation operation = operationPool.obtain();
-            operation.makeRemove(entity);
-            operations.add(operation);
+            // Systems updated in parallel may record operations concurrently.
+            synchronized (operations) {
+                ComponentOperation operation = operationPool.obtain();
+                operation.makeRemove(entity);
+                operations.add(operation);
+            }
         } else {
             entity.notifyComponentRemoved();
         }
@@ -0,0 +1,25 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.gdx.utils.DataInput;
+import com.badlogic.gdx.utils.DataOutput;
+
+import java.io.IOException;
+
+/**
+ * Writes the state of a {@link Component} to a snapshot and reads it back into an existing instance. Register one per component
+ * class with {@link EngineSerializer#register(Class, ComponentSerializer)} to avoid the reflection based default.
+ *
+ * @param <T> the class type of the {@link Component}.
+ */
+public interface ComponentSerializer<T extends Component> {
+    /**
+     * Writes the state of the component.
+     */
+    void write(DataOutput output, T component) throws IOException;
+
+    /**
+     * Reads the state written by {@link #write(DataOutput, Component)} into the component, which may be a fresh or pooled instance or
+     * the one the entity already had.
+     */
+    void read(DataInput input, T component) throws IOException;
+}
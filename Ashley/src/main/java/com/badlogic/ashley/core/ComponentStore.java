@@ -0,0 +1,158 @@
+package com.badlogic.ashley.core;
+
+/**
+ * Sparse set holding every {@link Component} of one {@link ComponentType} attached to the entities of an {@link Engine}. Components
+ * and their entities are kept packed in dense arrays, so all instances of the type can be walked linearly from index 0 to
+ * {@link #size()}, while the sparse side maps an entity to its dense slot in O(1). The sparse side is split into pages allocated on
+ * demand, so its size follows the ids in use rather than the number of entities of the Engine.
+ * <p>
+ * A store is an additional view for iteration: entities still hold their components, and {@link ComponentMapper} and
+ * {@link Entity#getComponent(Class)} read them from the entity, not from the store. Every store adds to the memory used by the
+ * {@link Engine}.
+ * <p>
+ * Stores are created and kept up to date by the Engine, see {@link Engine#getComponentStore(Class)}. Removing a component moves the
+ * last one into its slot, so dense indices should not be kept across structural changes.
+ *
+ * @param <T> the class type of the {@link Component}.
+ */
+public final class ComponentStore<T extends Component> {
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final ComponentType componentType;
+    // Dense slot + 1 for each entity id, 0 meaning the entity has no component in this store. Id 0 is never assigned.
+    private int[][] pages = new int[4][];
+    private Entity[] entities = new Entity[16];
+    private Component[] components = new Component[16];
+    private int size;
+
+    ComponentStore(ComponentType componentType) {
+        this.componentType = componentType;
+    }
+
+    /**
+     * @return The {@link ComponentType} stored.
+     */
+    public ComponentType getComponentType() {
+        return componentType;
+    }
+
+    /**
+     * @return The number of components in this store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Whether or not the entity has a component in this store.
+     */
+    public boolean has(Entity entity) {
+        return slotOf(entity.id) >= 0;
+    }
+
+    /**
+     * @return The component belonging to the entity, null if it has none.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(Entity entity) {
+        int slot = slotOf(entity.id);
+        return slot >= 0 ? (T) components[slot] : null;
+    }
+
+    /**
+     * @return The component stored at the given dense index.
+     */
+    @SuppressWarnings("unchecked")
+    public T getComponent(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+        return (T) components[index];
+    }
+
+    /**
+     * @return The entity owning the component stored at the given dense index.
+     */
+    public Entity getEntity(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("index can't be >= size: " + index + " >= " + size);
+        return entities[index];
+    }
+
+    /**
+     * Gives direct access to the dense component array. The returned array must not be modified, is only valid up to
+     * {@link #size()} and may be replaced when the store grows.
+     */
+    public Component[] getComponents() {
+        return components;
+    }
+
+    void put(Entity entity, Component component) {
+        int id = entity.id;
+        int slot = slotOf(id);
+
+        if (slot >= 0) {
+            components[slot] = component;
+            return;
+        }
+
+        if (size == components.length) {
+            int capacity = size << 1;
+            Entity[] newEntities = new Entity[capacity];
+            Component[] newComponents = new Component[capacity];
+            System.arraycopy(entities, 0, newEntities, 0, size);
+            System.arraycopy(components, 0, newComponents, 0, size);
+            entities = newEntities;
+            components = newComponents;
+        }
+
+        entities[size] = entity;
+        components[size] = component;
+        page(id)[id & PAGE_MASK] = ++size;
+    }
+
+    void remove(Entity entity) {
+        int id = entity.id;
+        int slot = slotOf(id);
+
+        if (slot < 0) {
+            return;
+        }
+
+        int last = --size;
+        if (slot != last) {
+            Entity moved = entities[last];
+            entities[slot] = moved;
+            components[slot] = components[last];
+            pages[moved.id >>> PAGE_BITS][moved.id & PAGE_MASK] = slot + 1;
+        }
+
+        entities[last] = null;
+        components[last] = null;
+        pages[id >>> PAGE_BITS][id & PAGE_MASK] = 0;
+    }
+
+    private int slotOf(int id) {
+        int pageIndex = id >>> PAGE_BITS;
+        if (pageIndex >= pages.length) return -1;
+        int[] page = pages[pageIndex];
+        return page == null ? -1 : page[id & PAGE_MASK] - 1;
+    }
+
+    private int[] page(int id) {
+        int pageIndex = id >>> PAGE_BITS;
+
+        if (pageIndex >= pages.length) {
+            int[][] newPages = new int[Math.max(pageIndex + 1, pages.length << 1)][];
+            System.arraycopy(pages, 0, newPages, 0, pages.length);
+            pages = newPages;
+        }
+
+        int[] page = pages[pageIndex];
+        if (page == null) {
+            page = new int[PAGE_SIZE];
+            pages[pageIndex] = page;
+        }
+
+        return page;
+    }
+}
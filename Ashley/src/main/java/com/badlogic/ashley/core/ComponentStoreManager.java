@@ -0,0 +1,118 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+class ComponentStoreManager {
+    private final ImmutableArray<Entity> entities;
+    private final Array<ComponentStore<?>> storesByType = new Array<ComponentStore<?>>();
+    private final Array<ComponentStore<?>> stores = new Array<ComponentStore<?>>(false, 8);
+
+    public ComponentStoreManager(ImmutableArray<Entity> entities) {
+        this.entities = entities;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Component> ComponentStore<T> getStore(Class<T> componentClass) {
+        ComponentType componentType = ComponentType.getFor(componentClass);
+        int typeIndex = componentType.getIndex();
+
+        if (typeIndex >= storesByType.size) {
+            storesByType.setSize(typeIndex + 1);
+        }
+
+        ComponentStore<T> store = (ComponentStore<T>) storesByType.get(typeIndex);
+
+        if (store == null) {
+            store = new ComponentStore<T>(componentType);
+            storesByType.set(typeIndex, store);
+            stores.add(store);
+
+            for (int i = 0; i < entities.size(); ++i) {
+                Entity entity = entities.get(i);
+                if (entity.storeChanges == null) {
+                    entity.storeChanges = new Bits();
+                }
+
+                Component component = entity.getComponentAt(typeIndex);
+                if (component != null) {
+                    store.put(entity, component);
+                }
+            }
+        }
+
+        return store;
+    }
+
+    public void entityAdded(Entity entity) {
+        if (stores.size == 0) {
+            return;
+        }
+
+        if (entity.storeChanges == null) {
+            entity.storeChanges = new Bits();
+        }
+
+        ImmutableArray<Component> components = entity.getComponents();
+        for (int i = 0; i < components.size(); ++i) {
+            Component component = components.get(i);
+            ComponentStore<?> store = storeAt(ComponentType.getIndexFor(component.getClass()));
+
+            if (store != null) {
+                store.put(entity, component);
+            }
+        }
+        entity.storeChanges.clear();
+    }
+
+    /**
+     * Updates the stores of the component types that were added to or removed from the entity since the last update.
+     */
+    public void updateEntity(Entity entity) {
+        if (stores.size == 0) {
+            return;
+        }
+
+        Bits changes = entity.storeChanges;
+        for (int index = changes.nextSetBit(0); index >= 0; index = changes.nextSetBit(index + 1)) {
+            ComponentStore<?> store = storeAt(index);
+
+            if (store != null) {
+                Component component = entity.getComponentAt(index);
+
+                if (component != null) {
+                    store.put(entity, component);
+                } else {
+                    store.remove(entity);
+                }
+            }
+        }
+        changes.clear();
+    }
+
+    public void entityRemoved(Entity entity) {
+        if (stores.size == 0) {
+            return;
+        }
+
+        // The entity is in the stores of its components and of the ones removed since the last update.
+        Bits changes = entity.storeChanges;
+        ImmutableArray<Component> components = entity.getComponents();
+        for (int i = 0; i < components.size(); ++i) {
+            changes.set(ComponentType.getIndexFor(components.get(i).getClass()));
+        }
+        for (int index = changes.nextSetBit(0); index >= 0; index = changes.nextSetBit(index + 1)) {
+            ComponentStore<?> store = storeAt(index);
+
+            if (store != null) {
+                store.remove(entity);
+            }
+        }
+        changes.clear();
+    }
+
+    private ComponentStore<?> storeAt(int typeIndex) {
+        return typeIndex < storesByType.size ? storesByType.get(typeIndex) : null;
+    }
+}
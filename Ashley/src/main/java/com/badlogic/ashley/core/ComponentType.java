@@ -1,7 +1,8 @@
 package com.badlogic.ashley.core;
 
 import com.badlogic.gdx.utils.Bits;
-import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Uniquely identifies a {@link Component} sub-class. It assigns them an index which is used internally for fast comparison and
@@ -10,7 +11,8 @@ import com.badlogic.gdx.utils.ObjectMap;
  * return the same instance of ComponentType.
  */
 public final class ComponentType {
-    private static final ObjectMap<Class<? extends Component>, ComponentType> assignedComponentTypes = new ObjectMap<>();
+    // Types may be looked up from systems updated in parallel.
+    private static final ConcurrentHashMap<Class<? extends Component>, ComponentType> assignedComponentTypes = new ConcurrentHashMap<>();
     private static int typeIndex = 0;
 
     private final int index;
@@ -27,8 +29,13 @@ public final class ComponentType {
         ComponentType type = assignedComponentTypes.get(componentType);
 
         if (type == null) {
-            type = new ComponentType();
-            assignedComponentTypes.put(componentType, type);
+            synchronized (assignedComponentTypes) {
+                type = assignedComponentTypes.get(componentType);
+                if (type == null) {
+                    type = new ComponentType();
+                    assignedComponentTypes.put(componentType, type);
+                }
+            }
         }
 
         return type;
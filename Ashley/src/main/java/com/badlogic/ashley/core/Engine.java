@@ -5,9 +5,13 @@ import com.badlogic.ashley.core.SystemManager.SystemListener;
 import com.badlogic.ashley.signals.Listener;
 import com.badlogic.ashley.signals.Signal;
 import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The heart of the Entity framework. It is responsible for keeping track of {@link Entity} and
  * managing {@link EntitySystem} objects. The Engine should be updated every tick via the {@link #update(float)} method.
@@ -23,16 +27,56 @@ import com.badlogic.gdx.utils.reflect.ReflectionException;
  * </ul>
  */
 public class Engine {
+    /**
+     * Number of entities per {@link ArchetypeChunk} when archetype storage is enabled without an explicit capacity.
+     */
+    public static final int DEFAULT_CHUNK_CAPACITY = 128;
     private static final Family empty = Family.all().get();
 
-    private final Listener<Entity> componentAdded = new ComponentListener();
-    private final Listener<Entity> componentRemoved = new ComponentListener();
+    private final Listener<Entity> componentListener = new ComponentListener();
 
     private final SystemManager systemManager = new SystemManager(new EngineSystemListener());
     private final EntityManager entityManager = new EntityManager(new EngineEntityListener());
     private final ComponentOperationHandler componentOperationHandler = new ComponentOperationHandler(new EngineDelayedInformer());
     private final FamilyManager familyManager = new FamilyManager(entityManager.getEntities());
+    private final EntityBatchManager entityBatchManager = new EntityBatchManager(familyManager);
+    private final QueryManager queryManager = new QueryManager();
+    private final ComponentStoreManager componentStoreManager = new ComponentStoreManager(entityManager.getEntities());
+    private final ArchetypeManager archetypeManager;
+    private final SystemScheduler systemScheduler = new SystemScheduler();
+    private final EntityCommandBuffer commandBuffer = new EntityCommandBuffer(this);
+    private ForkJoinPool systemExecutor;
     private boolean updating;
+    private final IntArray freeEntityIds = new IntArray();
+    private int lastEntityId;
+
+    /**
+     * Creates an Engine that keeps components only in their entities.
+     */
+    public Engine() {
+        this(false);
+    }
+
+    /**
+     * Creates an Engine, optionally grouping entities with the same component types into {@link Archetype}s of
+     * {@value #DEFAULT_CHUNK_CAPACITY} entities per chunk.
+     *
+     * @param archetypeStorage whether entities should also be stored in {@link Archetype} chunks.
+     */
+    public Engine(boolean archetypeStorage) {
+        this(archetypeStorage, DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Creates an Engine, optionally grouping entities with the same component types into {@link Archetype}s. Entities and their
+     * {@link ComponentMapper}s keep working the same way; chunks are an additional, linear view over the same components.
+     *
+     * @param archetypeStorage whether entities should also be stored in {@link Archetype} chunks.
+     * @param chunkCapacity    number of entities per {@link ArchetypeChunk}.
+     */
+    public Engine(boolean archetypeStorage, int chunkCapacity) {
+        archetypeManager = archetypeStorage ? new ArchetypeManager(chunkCapacity) : null;
+    }
 
     /**
      * Creates a new Entity object.
@@ -153,6 +197,48 @@ public class Engine {
         return systemManager.getSystems();
     }
 
+    /**
+     * Returns the {@link ComponentStore} holding every component of the specified class attached to the entities of this Engine.
+     * The store is created on the first call and kept up to date from then on; it returns the same instance every time for the
+     * same class. Stores hold references in addition to the components kept by each {@link Entity}, so they cost memory rather
+     * than save it; only request stores for types that are iterated often. A store is only updated when a component of its type
+     * is added or removed.
+     */
+    public <T extends Component> ComponentStore<T> getComponentStore(Class<T> componentClass) {
+        return componentStoreManager.getStore(componentClass);
+    }
+
+    /**
+     * Sets the pool used to update systems in parallel. Consecutive systems (in priority order) that declared their component
+     * access through {@link EntitySystem#reads} and {@link EntitySystem#writes} and do not conflict with each other are updated at
+     * the same time; all other systems still run one after another. Entity and component operations requested while systems run
+     * are delayed as usual and processed once the whole batch is done.
+     *
+     * @param executor the pool to run systems on, or null to update all systems on the calling thread.
+     */
+    public void setSystemExecutor(ForkJoinPool executor) {
+        if (updating) {
+            throw new IllegalStateException("Cannot change the system executor while the Engine is updating.");
+        }
+
+        systemExecutor = executor;
+    }
+
+    /**
+     * @return the pool used to update systems in parallel, null if systems are updated on the calling thread.
+     */
+    public ForkJoinPool getSystemExecutor() {
+        return systemExecutor;
+    }
+
+    /**
+     * Returns the {@link EntityCommandBuffer} of this Engine. Operations recorded into it are played back once at the end of every
+     * {@link #update(float)}, after all systems ran, so each touched entity has its family membership recomputed only once per frame.
+     */
+    public EntityCommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+
     /**
      * Returns immutable collection of entities for the specified {@link Family}.
      * Returns the same instance every time for the same Family.
@@ -161,6 +247,60 @@ public class Engine {
         return familyManager.getEntitiesFor(family);
     }
 
+    /**
+     * @return Whether this Engine groups its entities into {@link Archetype}s.
+     */
+    public boolean isArchetypeStorage() {
+        return archetypeManager != null;
+    }
+
+    /**
+     * Returns immutable collection of {@link Archetype}s whose entities match the specified {@link Family}. Returns the same
+     * instance every time for the same Family; archetypes created later are appended to it. Iterating the chunks of these
+     * archetypes visits the same entities as {@link #getEntitiesFor(Family)}, but in storage order.
+     *
+     * @throws IllegalStateException if the Engine was not created with archetype storage.
+     */
+    public ImmutableArray<Archetype> getArchetypesFor(Family family) {
+        if (archetypeManager == null) {
+            throw new IllegalStateException("Archetype storage is not enabled for this Engine.");
+        }
+
+        return archetypeManager.getArchetypesFor(family);
+    }
+
+    /**
+     * @return immutable array of all the {@link Archetype}s created so far.
+     * @throws IllegalStateException if the Engine was not created with archetype storage.
+     */
+    public ImmutableArray<Archetype> getArchetypes() {
+        if (archetypeManager == null) {
+            throw new IllegalStateException("Archetype storage is not enabled for this Engine.");
+        }
+
+        return archetypeManager.getArchetypes();
+    }
+
+    /**
+     * Starts building a {@link Query} over the entities of this Engine.
+     */
+    public Query.Builder query() {
+        return new Query.Builder(this);
+    }
+
+    Query createQuery(Family family, Bits changed, Bits added) {
+        Query query = new Query(familyManager.getEntitiesFor(family), family, changed, added, queryManager);
+        queryManager.addQuery(query);
+        return query;
+    }
+
+    /**
+     * Stops maintaining the given {@link Query}. Its entities won't be updated anymore.
+     */
+    public void removeQuery(Query query) {
+        queryManager.removeQuery(query);
+    }
+
     /**
      * Adds an {@link EntityListener}.
      * <p>
@@ -204,6 +344,40 @@ public class Engine {
         familyManager.removeEntityListener(listener);
     }
 
+    /**
+     * Adds an {@link EntityBatchListener}. The listener will be notified once per update of all the entities added/removed to/from
+     * the engine during the last frame.
+     */
+    public void addEntityBatchListener(EntityBatchListener listener) {
+        addEntityBatchListener(empty, listener);
+    }
+
+    /**
+     * Adds an {@link EntityBatchListener} for a specific {@link Family}. The listener will be notified at the end of every update of
+     * all the entities added/removed to/from the given family since the previous update, instead of once per entity.
+     */
+    public void addEntityBatchListener(Family family, EntityBatchListener listener) {
+        entityBatchManager.addListener(family, listener);
+    }
+
+    /**
+     * Removes an {@link EntityBatchListener}. Pending entities are dropped without notifying it.
+     */
+    public void removeEntityBatchListener(EntityBatchListener listener) {
+        entityBatchManager.removeListener(listener);
+    }
+
+    /**
+     * @return Whether the entity is registered with this Engine, not counting delayed additions.
+     */
+    boolean hasEntity(Entity entity) {
+        return entityManager.contains(entity);
+    }
+
+    boolean isUpdating() {
+        return updating || familyManager.notifying();
+    }
+
     /**
      * Updates all the systems in this Engine.
      *
@@ -217,42 +391,106 @@ public class Engine {
         updating = true;
         ImmutableArray<EntitySystem> systems = systemManager.getSystems();
         try {
-            for (int i = 0; i < systems.size(); ++i) {
-                EntitySystem system = systems.get(i);
-
-                if (system.checkProcessing()) {
-                    system.update(deltaTime);
+            if (systemExecutor != null) {
+                for (int i = 0; i < systemScheduler.getNumBatches(systems); ++i) {
+                    systemScheduler.runBatch(i, systemExecutor, deltaTime);
+                    processPendingOperations();
                 }
+            } else {
+                for (int i = 0; i < systems.size(); ++i) {
+                    EntitySystem system = systems.get(i);
 
-                while (componentOperationHandler.hasOperationsToProcess() || entityManager.hasPendingOperations()) {
-                    componentOperationHandler.processOperations();
-                    entityManager.processPendingOperations();
+                    if (system.checkProcessing()) {
+                        system.update(deltaTime);
+                    }
+
+                    processPendingOperations();
                 }
             }
+
+            commandBuffer.playback();
+            processPendingOperations();
+
+            flushEntityBatches();
+            processPendingOperations();
         } finally {
             updating = false;
         }
     }
 
+    /**
+     * Notifies the {@link EntityBatchListener}s of the entities added and removed since the last call.
+     */
+    void flushEntityBatches() {
+        entityBatchManager.flush();
+    }
+
+    boolean hasEntityBatchListeners() {
+        return entityBatchManager.hasListeners();
+    }
+
+    private void processPendingOperations() {
+        while (componentOperationHandler.hasOperationsToProcess() || entityManager.hasPendingOperations()) {
+            componentOperationHandler.processOperations();
+            entityManager.processPendingOperations();
+        }
+    }
+
     protected void addEntityInternal(Entity entity) {
-        entity.componentAdded.add(componentAdded);
-        entity.componentRemoved.add(componentRemoved);
+        // Entities restored from a snapshot come with their id.
+        if (entity.id == 0) {
+            entity.id = freeEntityIds.size > 0 ? freeEntityIds.pop() : ++lastEntityId;
+        } else {
+            claimEntityId(entity.id);
+        }
+        entity.componentListener = componentListener;
         entity.componentOperationHandler = componentOperationHandler;
+        queryManager.entityAdded(entity);
+
+        if (archetypeManager != null) {
+            archetypeManager.updateArchetype(entity);
+        }
 
+        componentStoreManager.entityAdded(entity);
         familyManager.updateFamilyMembership(entity);
     }
 
     protected void removeEntityInternal(Entity entity) {
+        if (archetypeManager != null) {
+            archetypeManager.removeEntity(entity);
+        }
+
+        componentStoreManager.entityRemoved(entity);
+
         familyManager.updateFamilyMembership(entity);
 
-        entity.componentAdded.remove(componentAdded);
-        entity.componentRemoved.remove(componentRemoved);
+        entity.componentListener = null;
         entity.componentOperationHandler = null;
+        entity.queryManager = null;
+        freeEntityIds.add(entity.id);
+        entity.id = 0;
+    }
+
+    private void claimEntityId(int id) {
+        if (id > lastEntityId) {
+            for (int skipped = lastEntityId + 1; skipped < id; ++skipped) {
+                freeEntityIds.add(skipped);
+            }
+            lastEntityId = id;
+        } else {
+            freeEntityIds.removeValue(id);
+        }
     }
 
     private class ComponentListener implements Listener<Entity> {
         @Override
         public void receive(Signal<Entity> signal, Entity object) {
+            if (archetypeManager != null) {
+                archetypeManager.updateArchetype(object);
+            }
+
+            componentStoreManager.updateEntity(object);
+
             familyManager.updateFamilyMembership(object);
         }
     }
@@ -260,11 +498,13 @@ public class Engine {
     private class EngineSystemListener implements SystemListener {
         @Override
         public void systemAdded(EntitySystem system) {
+            systemScheduler.invalidate();
             system.addedToEngineInternal(Engine.this);
         }
 
         @Override
         public void systemRemoved(EntitySystem system) {
+            systemScheduler.invalidate();
             system.removedFromEngineInternal(Engine.this);
         }
     }
@@ -0,0 +1,301 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.DataInput;
+import com.badlogic.gdx.utils.DataOutput;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the entities and components of an {@link Engine} to a compact binary snapshot and restores them, for saving, rolling back
+ * a simulation or forking a world into another Engine.
+ * <p>
+ * Components are written by the {@link ComponentSerializer} registered for their class, falling back to a reflection based one
+ * that handles primitive, string and enum fields. Restoring works in place: every entity is written with the id the Engine assigned
+ * to it, and the live entity with the same id is reused and its components are overwritten when their class matches the snapshot,
+ * so references held by the game stay valid when restoring a snapshot of the same world. Entities that are not in the snapshot are
+ * removed. Missing entities and components are obtained from {@link Engine#createEntity()} and
+ * {@link Engine#createComponent(Class)}, so a {@link PooledEngine} reuses pooled instances; restored entities keep the id from the
+ * snapshot, so later snapshots of a copied world match them too. The Engine reuses the ids of removed entities, so an entity added
+ * after a snapshot may take the place of one removed since.
+ * <p>
+ * Snapshots store component class names once per snapshot, followed by the entities. Only classes implementing {@link Component}
+ * are restored; when snapshots come from an untrusted source, use {@link #setRequireRegistration(boolean)} so only registered
+ * classes are loaded. Systems are not part of a snapshot. Neither writing nor restoring can happen while the Engine is updating.
+ */
+public class EngineSerializer {
+    private static final int VERSION = 2;
+
+    private final ObjectMap<Class<? extends Component>, ComponentSerializer<?>> serializers =
+            new ObjectMap<Class<? extends Component>, ComponentSerializer<?>>();
+    private final ObjectMap<String, Class<? extends Component>> registeredTypes = new ObjectMap<String, Class<? extends Component>>();
+    private final ObjectIntMap<Class<? extends Component>> typeIds = new ObjectIntMap<Class<? extends Component>>();
+    private final Array<Class<? extends Component>> types = new Array<Class<? extends Component>>();
+    private final Array<ComponentSerializer<?>> typeSerializers = new Array<ComponentSerializer<?>>();
+    private final IntMap<Entity> liveEntities = new IntMap<Entity>();
+    private final IntSet restoredIds = new IntSet();
+    private final IntArray componentTypes = new IntArray();
+    private final Bits restoredTypes = new Bits();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+    private boolean requireRegistration;
+
+    /**
+     * Registers the serializer used for components of the given class.
+     *
+     * @return this for chaining
+     */
+    public <T extends Component> EngineSerializer register(Class<T> componentClass, ComponentSerializer<? super T> serializer) {
+        if (componentClass == null) {
+            throw new IllegalArgumentException("componentClass cannot be null.");
+        }
+        if (serializer == null) {
+            throw new IllegalArgumentException("serializer cannot be null.");
+        }
+
+        serializers.put(componentClass, serializer);
+        registeredTypes.put(componentClass.getName(), componentClass);
+        return this;
+    }
+
+    /**
+     * Sets whether restoring only accepts the component classes registered with {@link #register(Class, ComponentSerializer)}.
+     * Otherwise any class implementing {@link Component} named by the snapshot is loaded and instantiated. Default is false.
+     */
+    public void setRequireRegistration(boolean requireRegistration) {
+        this.requireRegistration = requireRegistration;
+    }
+
+    /**
+     * Writes every entity of the engine with its components.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void write(Engine engine, DataOutput output) throws IOException {
+        checkNotUpdating(engine);
+
+        ImmutableArray<Entity> entities = engine.getEntities();
+
+        // Collect the component classes first so the header can be written before the entities.
+        typeIds.clear();
+        types.clear();
+        for (int i = 0; i < entities.size(); ++i) {
+            ImmutableArray<Component> components = entities.get(i).getComponents();
+            for (int j = 0; j < components.size(); ++j) {
+                Class<? extends Component> type = components.get(j).getClass();
+                if (!typeIds.containsKey(type)) {
+                    typeIds.put(type, types.size);
+                    types.add(type);
+                }
+            }
+        }
+
+        output.writeInt(VERSION, true);
+        output.writeInt(types.size, true);
+        typeSerializers.clear();
+        for (int i = 0; i < types.size; ++i) {
+            output.writeString(types.get(i).getName());
+            typeSerializers.add(getSerializer(types.get(i)));
+        }
+
+        output.writeInt(entities.size(), true);
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            ImmutableArray<Component> components = entity.getComponents();
+
+            output.writeInt(entity.id, true);
+            output.writeInt(entity.flags);
+            output.writeInt(components.size(), true);
+            for (int j = 0; j < components.size(); ++j) {
+                Component component = components.get(j);
+                int typeId = typeIds.get(component.getClass(), -1);
+                output.writeInt(typeId, true);
+                ((ComponentSerializer) typeSerializers.get(typeId)).write(output, component);
+            }
+        }
+
+        typeSerializers.clear();
+    }
+
+    /**
+     * @return a snapshot of the engine.
+     */
+    public byte[] write(Engine engine) {
+        buffer.reset();
+        try {
+            DataOutput output = new DataOutput(buffer);
+            write(engine, output);
+            output.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write snapshot.", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Restores a snapshot written by {@link #write(Engine, DataOutput)}, replacing the entities of the engine.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void read(Engine engine, DataInput input) throws IOException {
+        checkNotUpdating(engine);
+
+        int version = input.readInt(true);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+
+        types.clear();
+        typeSerializers.clear();
+        int typeCount = input.readInt(true);
+        for (int i = 0; i < typeCount; ++i) {
+            Class<? extends Component> type = readType(input.readString());
+            types.add(type);
+            typeSerializers.add(getSerializer(type));
+        }
+
+        ImmutableArray<Entity> engineEntities = engine.getEntities();
+        liveEntities.clear();
+        for (int i = 0; i < engineEntities.size(); ++i) {
+            Entity entity = engineEntities.get(i);
+            liveEntities.put(entity.id, entity);
+        }
+
+        try {
+            int entityCount = input.readInt(true);
+            for (int i = 0; i < entityCount; ++i) {
+                int id = input.readInt(true);
+                if (id <= 0 || !restoredIds.add(id)) {
+                    throw new IOException("Invalid entity id: " + id);
+                }
+
+                Entity entity = liveEntities.remove(id);
+                boolean reused = entity != null;
+                if (!reused) {
+                    entity = engine.createEntity();
+                    entity.id = id;
+                }
+                entity.flags = input.readInt();
+
+                restoredTypes.clear();
+                int componentCount = input.readInt(true);
+                for (int j = 0; j < componentCount; ++j) {
+                    int typeId = input.readInt(true);
+                    if (typeId >= types.size) {
+                        throw new IOException("Invalid component type: " + typeId);
+                    }
+                    Class<? extends Component> type = types.get(typeId);
+                    ComponentType componentType = ComponentType.getFor(type);
+                    restoredTypes.set(componentType.getIndex());
+
+                    Component component = entity.getComponentAt(componentType.getIndex());
+                    if (component == null || component.getClass() != type) {
+                        component = engine.createComponent(type);
+                        if (component == null) {
+                            throw new IOException("Cannot create component: " + type.getName());
+                        }
+                        ((ComponentSerializer) typeSerializers.get(typeId)).read(input, component);
+                        entity.add(component);
+                    } else {
+                        ((ComponentSerializer) typeSerializers.get(typeId)).read(input, component);
+                    }
+                }
+
+                if (reused) {
+                    removeComponentsNotIn(entity, restoredTypes);
+                } else {
+                    engine.addEntity(entity);
+                }
+            }
+
+            for (Entity entity : liveEntities.values()) {
+                engine.removeEntity(entity);
+            }
+        } finally {
+            liveEntities.clear();
+            restoredIds.clear();
+            typeSerializers.clear();
+        }
+    }
+
+    /**
+     * Restores a snapshot returned by {@link #write(Engine)}.
+     */
+    public void read(Engine engine, byte[] snapshot) {
+        try {
+            read(engine, new DataInput(new ByteArrayInputStream(snapshot)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid snapshot.", e);
+        }
+    }
+
+    /**
+     * Replaces the entities of the destination engine with copies of the source engine's entities.
+     */
+    public void copy(Engine source, Engine destination) {
+        read(destination, write(source));
+    }
+
+    private void removeComponentsNotIn(Entity entity, Bits types) {
+        Bits componentBits = entity.getComponentBits();
+        for (int index = componentBits.nextSetBit(0); index >= 0; index = componentBits.nextSetBit(index + 1)) {
+            if (!types.get(index)) {
+                componentTypes.add(index);
+            }
+        }
+
+        for (int i = 0; i < componentTypes.size; ++i) {
+            entity.remove(entity.getComponentAt(componentTypes.get(i)).getClass());
+        }
+        componentTypes.clear();
+    }
+
+    private Class<? extends Component> readType(String name) throws IOException {
+        Class<? extends Component> registered = registeredTypes.get(name);
+        if (registered != null) {
+            return registered;
+        }
+        if (requireRegistration) {
+            throw new IOException("Component class is not registered: " + name);
+        }
+
+        Class<?> type;
+        try {
+            type = ClassReflection.forName(name);
+        } catch (ReflectionException e) {
+            throw new IOException("Unknown component class: " + name, e);
+        }
+        if (!ClassReflection.isAssignableFrom(Component.class, type)) {
+            throw new IOException("Not a component class: " + name);
+        }
+        return type.asSubclass(Component.class);
+    }
+
+    private ComponentSerializer<?> getSerializer(Class<? extends Component> type) {
+        ComponentSerializer<?> serializer = serializers.get(type);
+
+        if (serializer == null) {
+            serializer = new ReflectionComponentSerializer(type);
+            serializers.put(type, serializer);
+        }
+
+        return serializer;
+    }
+
+    private static void checkNotUpdating(Engine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("engine cannot be null.");
+        }
+        if (engine.isUpdating()) {
+            throw new IllegalStateException("Cannot snapshot an Engine that is updating.");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.badlogic.ashley.core;
 
+import com.badlogic.ashley.signals.Listener;
 import com.badlogic.ashley.signals.Signal;
 import com.badlogic.ashley.utils.Bag;
 import com.badlogic.ashley.utils.ImmutableArray;
@@ -12,6 +13,8 @@ import com.badlogic.gdx.utils.Bits;
  * @author Stefan Bachmann
  */
 public class Entity {
+    private static final int[] EMPTY_VERSIONS = new int[0];
+
     /**
      * Will dispatch an event when a component is added.
      */
@@ -25,6 +28,10 @@ public class Entity {
     private final ImmutableArray<Component> immutableComponentsArray;
     private final Bits componentBits;
     private final Bits familyBits;
+    private final Bits matchedComponentBits;
+    private int[] familySlots;
+    private int[] addedVersions = EMPTY_VERSIONS;
+    private int[] changedVersions = EMPTY_VERSIONS;
     /**
      * A flag that can be used to bit mask this entity. Up to the user to manage.
      */
@@ -32,6 +39,19 @@ public class Entity {
     boolean scheduledForRemoval;
     boolean removing;
     ComponentOperationHandler componentOperationHandler;
+    /**
+     * The listener of the {@link Engine} this Entity belongs to, notified before the signals. Keeping it out of the signals means
+     * adding the Entity to an Engine does not copy their listener arrays.
+     */
+    Listener<Entity> componentListener;
+    ArchetypeChunk chunk;
+    int chunkIndex = -1;
+    // Assigned by the Engine the Entity belongs to, 0 if none, and reused once the Entity is removed. ComponentStores index their
+    // entities by it and snapshots use it to match their entities with live ones.
+    int id;
+    // Types added or removed since the ComponentStores were last updated, only tracked once the Engine has a store.
+    Bits storeChanges;
+    QueryManager queryManager;
 
     /**
      * Creates an empty Entity.
@@ -42,6 +62,8 @@ public class Entity {
         immutableComponentsArray = new ImmutableArray<>(componentsArray);
         componentBits = new Bits();
         familyBits = new Bits();
+        matchedComponentBits = new Bits();
+        familySlots = new int[16];
         flags = 0;
 
         componentAdded = new Signal<>();
@@ -111,6 +133,22 @@ public class Entity {
         }
     }
 
+    /**
+     * Flags the {@link Component} of the specified class as changed, so {@link Query}s filtering on changes to it report this Entity
+     * on their next update. Does nothing if the Entity is not in an {@link Engine}.
+     */
+    public void markChanged(Class<? extends Component> componentClass) {
+        markChanged(ComponentType.getIndexFor(componentClass));
+    }
+
+    void markChanged(int componentTypeIndex) {
+        QueryManager queryManager = this.queryManager;
+
+        if (queryManager != null) {
+            queryManager.componentChanged(this, componentTypeIndex);
+        }
+    }
+
     /**
      * @return immutable collection with all the Entity {@link Component}s.
      */
@@ -147,6 +185,15 @@ public class Entity {
         }
     }
 
+    /**
+     * Internal use.
+     *
+     * @return The {@link Component} stored for the specified type index, null if the Entity does not have any.
+     */
+    Component getComponentAt(int componentTypeIndex) {
+        return componentTypeIndex < components.getCapacity() ? components.get(componentTypeIndex) : null;
+    }
+
     /**
      * @return Whether or not the Entity has a {@link Component} for the specified class.
      */
@@ -168,6 +215,62 @@ public class Entity {
         return familyBits;
     }
 
+    /**
+     * @return The component bits this Entity had when its {@link Family} membership was last computed.
+     */
+    Bits getMatchedComponentBits() {
+        return matchedComponentBits;
+    }
+
+    /**
+     * @return The index of this Entity within the entity array of the {@link Family} with the given index.
+     */
+    int getFamilySlot(int familyIndex) {
+        return familySlots[familyIndex];
+    }
+
+    /**
+     * @return The {@link Engine} version at which the component with the given type index was last added, 0 if never.
+     */
+    int getAddedVersion(int componentTypeIndex) {
+        return componentTypeIndex < addedVersions.length ? addedVersions[componentTypeIndex] : 0;
+    }
+
+    /**
+     * @return The {@link Engine} version at which the component with the given type index was last added or marked changed, 0 if
+     * never.
+     */
+    int getChangedVersion(int componentTypeIndex) {
+        return componentTypeIndex < changedVersions.length ? changedVersions[componentTypeIndex] : 0;
+    }
+
+    void setVersions(int componentTypeIndex, int version, boolean added) {
+        if (componentTypeIndex >= changedVersions.length) {
+            int length = Math.max(componentTypeIndex + 1, changedVersions.length * 2);
+            int[] newAdded = new int[length];
+            int[] newChanged = new int[length];
+            System.arraycopy(addedVersions, 0, newAdded, 0, addedVersions.length);
+            System.arraycopy(changedVersions, 0, newChanged, 0, changedVersions.length);
+            addedVersions = newAdded;
+            changedVersions = newChanged;
+        }
+
+        if (added) {
+            addedVersions[componentTypeIndex] = version;
+        }
+        changedVersions[componentTypeIndex] = version;
+    }
+
+    void setFamilySlot(int familyIndex, int slot) {
+        if (familyIndex >= familySlots.length) {
+            int[] newSlots = new int[Math.max(familyIndex + 1, familySlots.length * 2)];
+            System.arraycopy(familySlots, 0, newSlots, 0, familySlots.length);
+            familySlots = newSlots;
+        }
+
+        familySlots[familyIndex] = slot;
+    }
+
     /**
      * @return whether or not the component was added.
      */
@@ -188,6 +291,14 @@ public class Entity {
         componentsArray.add(component);
         componentBits.set(componentTypeIndex);
 
+        if (storeChanges != null) {
+            storeChanges.set(componentTypeIndex);
+        }
+
+        if (queryManager != null) {
+            queryManager.componentAdded(this, componentTypeIndex);
+        }
+
         return true;
     }
 
@@ -204,6 +315,10 @@ public class Entity {
             componentsArray.removeValue(removeComponent, true);
             componentBits.clear(componentTypeIndex);
 
+            if (storeChanges != null) {
+                storeChanges.set(componentTypeIndex);
+            }
+
             return removeComponent;
         }
 
@@ -211,13 +326,34 @@ public class Entity {
     }
 
     void notifyComponentAdded() {
+        if (componentListener != null) {
+            componentListener.receive(componentAdded, this);
+        }
         componentAdded.dispatch(this);
     }
 
     void notifyComponentRemoved() {
+        if (componentListener != null) {
+            componentListener.receive(componentRemoved, this);
+        }
         componentRemoved.dispatch(this);
     }
 
+    /**
+     * Notifies the {@link Engine} once for several component changes, then dispatches the signals of the changes that happened.
+     */
+    void notifyComponentsChanged(boolean added, boolean removed) {
+        if (componentListener != null) {
+            componentListener.receive(added ? componentAdded : componentRemoved, this);
+        }
+        if (removed) {
+            componentRemoved.dispatch(this);
+        }
+        if (added) {
+            componentAdded.dispatch(this);
+        }
+    }
+
     /**
      * @return true if the entity is scheduled to be removed
      */
@@ -0,0 +1,26 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+
+/**
+ * Gets notified once per {@link Engine#update(float)} of every {@link Entity} added to or removed from a {@link Family} since the
+ * previous update. See {@link Engine#addEntityBatchListener(Family, EntityBatchListener)}.
+ * <p>
+ * Only the net change is reported: an entity added and removed again before the batch is delivered appears in neither array. The
+ * arrays are reused once the callback returns and must not be kept.
+ * <p>
+ * A {@link PooledEngine} keeps removed entities out of its pool until the batch is delivered, so removed entities still hold their
+ * components and are never reused as another entity in the same batch.
+ */
+public interface EntityBatchListener {
+    /**
+     * Called with the entities added to the {@link Family}, in the order they were added.
+     */
+    void entitiesAdded(ImmutableArray<Entity> entities);
+
+    /**
+     * Called with the entities removed from the {@link Family}, in the order they were removed, before
+     * {@link #entitiesAdded(ImmutableArray)}.
+     */
+    void entitiesRemoved(ImmutableArray<Entity> entities);
+}
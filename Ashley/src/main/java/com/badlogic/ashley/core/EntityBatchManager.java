@@ -0,0 +1,115 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+class EntityBatchManager {
+    private final FamilyManager familyManager;
+    private final Array<EntityBatch> batches = new Array<EntityBatch>(false, 8);
+
+    public EntityBatchManager(FamilyManager familyManager) {
+        this.familyManager = familyManager;
+    }
+
+    public void addListener(Family family, EntityBatchListener listener) {
+        EntityBatch batch = new EntityBatch(listener);
+        batches.add(batch);
+        familyManager.addEntityListener(family, 0, batch);
+    }
+
+    public void removeListener(EntityBatchListener listener) {
+        for (int i = batches.size - 1; i >= 0; --i) {
+            EntityBatch batch = batches.get(i);
+
+            if (batch.listener == listener) {
+                familyManager.removeEntityListener(batch);
+                batches.removeIndex(i);
+            }
+        }
+    }
+
+    public boolean hasListeners() {
+        return batches.size > 0;
+    }
+
+    public void flush() {
+        for (int i = 0; i < batches.size; ++i) {
+            batches.get(i).flush();
+        }
+    }
+
+    private static class EntityBatch implements EntityListener {
+        final EntityBatchListener listener;
+        // Index of the last event of each entity, shifted left by one, with the lowest bit set if its first event was a removal.
+        private final ObjectIntMap<Entity> lastEvents = new ObjectIntMap<Entity>();
+        private final Array<Entity> events = new Array<Entity>(true, 16);
+        private final BooleanArray removals = new BooleanArray(true, 16);
+        private final Array<Entity> added = new Array<Entity>(false, 16);
+        private final Array<Entity> removed = new Array<Entity>(false, 16);
+        private final ImmutableArray<Entity> immutableAdded = new ImmutableArray<Entity>(added);
+        private final ImmutableArray<Entity> immutableRemoved = new ImmutableArray<Entity>(removed);
+
+        EntityBatch(EntityBatchListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void entityAdded(Entity entity) {
+            record(entity, false);
+        }
+
+        @Override
+        public void entityRemoved(Entity entity) {
+            record(entity, true);
+        }
+
+        private void record(Entity entity, boolean removal) {
+            int previous = lastEvents.get(entity, -1);
+            int firstRemoval = previous == -1 ? (removal ? 1 : 0) : previous & 1;
+
+            lastEvents.put(entity, events.size << 1 | firstRemoval);
+            events.add(entity);
+            removals.add(removal);
+        }
+
+        void flush() {
+            if (events.size == 0) {
+                return;
+            }
+
+            // Events of an entity alternate, so it changed if its last event matches its first one. Entities are reported in the
+            // order of their last event.
+            for (int i = 0; i < events.size; ++i) {
+                Entity entity = events.get(i);
+                boolean removal = removals.get(i);
+                int last = lastEvents.get(entity, -1);
+
+                if (last >>> 1 == i && (last & 1) == (removal ? 1 : 0)) {
+                    if (removal) {
+                        removed.add(entity);
+                    } else {
+                        added.add(entity);
+                    }
+                }
+            }
+
+            events.clear();
+            removals.clear();
+            lastEvents.clear();
+
+            try {
+                if (removed.size > 0) {
+                    listener.entitiesRemoved(immutableRemoved);
+                }
+                if (added.size > 0) {
+                    listener.entitiesAdded(immutableAdded);
+                }
+            } finally {
+                added.clear();
+                removed.clear();
+            }
+        }
+    }
+}
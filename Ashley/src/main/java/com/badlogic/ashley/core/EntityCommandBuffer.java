@@ -0,0 +1,174 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Records structural changes (adding and removing entities and components) so they can be applied later, all at once. Changes are
+ * grouped per {@link Entity} on {@link #playback()}: components are attached and detached silently, then every touched entity has its
+ * {@link Family} membership recomputed and its component signals dispatched once, no matter how many operations were recorded for it.
+ * Only the net change of membership is applied: removing and adding back an entity that is already in the {@link Engine} keeps it
+ * there, and only its component changes are applied.
+ * <p>
+ * Recording is thread safe, which makes a command buffer the safe way to request structural changes from systems running in
+ * parallel. Playback must happen on a single thread while nothing is being recorded. The buffer of an {@link Engine} (see
+ * {@link Engine#getCommandBuffer()}) is played back at the end of every {@link Engine#update(float)}.
+ */
+public class EntityCommandBuffer {
+    private static final int ADD_ENTITY = 0;
+    private static final int REMOVE_ENTITY = 1;
+    private static final int ADD_COMPONENT = 2;
+    private static final int REMOVE_COMPONENT = 3;
+
+    private static final int ADDED = 1;
+    private static final int REMOVED = 1 << 1;
+    private static final int COMPONENT_ADDED = 1 << 2;
+    private static final int COMPONENT_REMOVED = 1 << 3;
+    private static final int READDED = 1 << 4;
+
+    private final Engine engine;
+    private final IntArray commands = new IntArray();
+    private final Array<Entity> entities = new Array<Entity>(false, 16);
+    private final Array<Object> arguments = new Array<Object>(false, 16);
+    private final ObjectIntMap<Entity> changes = new ObjectIntMap<Entity>();
+    private final Array<Entity> touched = new Array<Entity>(false, 16);
+
+    /**
+     * Creates a command buffer applying its changes to the given {@link Engine}.
+     */
+    public EntityCommandBuffer(Engine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("engine cannot be null.");
+        }
+
+        this.engine = engine;
+    }
+
+    /**
+     * Records adding the entity to the {@link Engine}.
+     */
+    public void addEntity(Entity entity) {
+        record(ADD_ENTITY, entity, null);
+    }
+
+    /**
+     * Records removing the entity from the {@link Engine}. Component changes recorded for the same entity are still applied.
+     */
+    public void removeEntity(Entity entity) {
+        record(REMOVE_ENTITY, entity, null);
+    }
+
+    /**
+     * Records adding a {@link Component} to the entity, replacing any component of the same type.
+     */
+    public void addComponent(Entity entity, Component component) {
+        if (component == null) {
+            throw new IllegalArgumentException("component cannot be null.");
+        }
+
+        record(ADD_COMPONENT, entity, component);
+    }
+
+    /**
+     * Records removing the {@link Component} of the specified type from the entity.
+     */
+    public void removeComponent(Entity entity, Class<? extends Component> componentClass) {
+        if (componentClass == null) {
+            throw new IllegalArgumentException("componentClass cannot be null.");
+        }
+
+        record(REMOVE_COMPONENT, entity, componentClass);
+    }
+
+    /**
+     * @return The number of recorded operations waiting for {@link #playback()}.
+     */
+    public synchronized int size() {
+        return commands.size;
+    }
+
+    /**
+     * Drops every recorded operation without applying it.
+     */
+    public synchronized void clear() {
+        commands.clear();
+        entities.clear();
+        arguments.clear();
+    }
+
+    /**
+     * Applies every recorded operation in recording order, then updates each touched entity once.
+     */
+    @SuppressWarnings("unchecked")
+    public void playback() {
+        if (commands.size == 0) {
+            return;
+        }
+
+        try {
+            for (int i = 0; i < commands.size; ++i) {
+                Entity entity = entities.get(i);
+                int flags = changes.get(entity, -1);
+
+                if (flags == -1) {
+                    touched.add(entity);
+                    flags = 0;
+                }
+
+                switch (commands.get(i)) {
+                    case ADD_ENTITY:
+                        if ((flags & REMOVED) != 0) {
+                            flags |= READDED;
+                        }
+                        flags = (flags | ADDED) & ~REMOVED;
+                        break;
+                    case REMOVE_ENTITY:
+                        flags = (flags | REMOVED) & ~(ADDED | READDED);
+                        break;
+                    case ADD_COMPONENT:
+                        if (entity.addInternal((Component) arguments.get(i))) {
+                            flags |= COMPONENT_ADDED;
+                        }
+                        break;
+                    case REMOVE_COMPONENT:
+                        if (entity.removeInternal((Class<? extends Component>) arguments.get(i)) != null) {
+                            flags |= COMPONENT_REMOVED;
+                        }
+                        break;
+                    default:
+                        throw new AssertionError("Unexpected command type");
+                }
+
+                changes.put(entity, flags);
+            }
+
+            for (int i = 0; i < touched.size; ++i) {
+                Entity entity = touched.get(i);
+                int flags = changes.get(entity, 0);
+
+                if ((flags & REMOVED) != 0) {
+                    engine.removeEntity(entity);
+                } else if ((flags & ADDED) != 0 && ((flags & READDED) == 0 || !engine.hasEntity(entity))) {
+                    engine.addEntity(entity);
+                } else if ((flags & (COMPONENT_ADDED | COMPONENT_REMOVED)) != 0) {
+                    entity.notifyComponentsChanged((flags & COMPONENT_ADDED) != 0, (flags & COMPONENT_REMOVED) != 0);
+                }
+            }
+        } finally {
+            clear();
+            changes.clear();
+            touched.clear();
+        }
+    }
+
+    private synchronized void record(int command, Entity entity, Object argument) {
+        if (entity == null) {
+            throw new IllegalArgumentException("entity cannot be null.");
+        }
+
+        commands.add(command);
+        entities.add(entity);
+        arguments.add(argument);
+    }
+}
@@ -24,10 +24,13 @@ class EntityManager {
     public void addEntity(Entity entity, boolean delayed) {
         entity.scheduledForRemoval = false;
         if (delayed) {
-            EntityOperation operation = entityOperationPool.obtain();
-            operation.entity = entity;
-            operation.type = EntityOperation.Type.Add;
-            pendingOperations.add(operation);
+            // Systems updated in parallel may record operations concurrently.
+            synchronized (pendingOperations) {
+                EntityOperation operation = entityOperationPool.obtain();
+                operation.entity = entity;
+                operation.type = EntityOperation.Type.Add;
+                pendingOperations.add(operation);
+            }
         } else {
             addEntityInternal(entity);
         }
@@ -39,14 +42,16 @@ class EntityManager {
 
     public void removeEntity(Entity entity, boolean delayed) {
         if (delayed) {
-            if (entity.scheduledForRemoval) {
-                return;
+            synchronized (pendingOperations) {
+                if (entity.scheduledForRemoval) {
+                    return;
+                }
+                entity.scheduledForRemoval = true;
+                EntityOperation operation = entityOperationPool.obtain();
+                operation.entity = entity;
+                operation.type = EntityOperation.Type.Remove;
+                pendingOperations.add(operation);
             }
-            entity.scheduledForRemoval = true;
-            EntityOperation operation = entityOperationPool.obtain();
-            operation.entity = entity;
-            operation.type = EntityOperation.Type.Remove;
-            pendingOperations.add(operation);
         } else {
             removeEntityInternal(entity);
         }
@@ -66,13 +71,15 @@ class EntityManager {
 
     public void removeAllEntities(ImmutableArray<Entity> entities, boolean delayed) {
         if (delayed) {
-            for (Entity entity : entities) {
-                entity.scheduledForRemoval = true;
+            synchronized (pendingOperations) {
+                for (int i = 0; i < entities.size(); ++i) {
+                    entities.get(i).scheduledForRemoval = true;
+                }
+                EntityOperation operation = entityOperationPool.obtain();
+                operation.type = EntityOperation.Type.RemoveAll;
+                operation.entities = entities;
+                pendingOperations.add(operation);
             }
-            EntityOperation operation = entityOperationPool.obtain();
-            operation.type = EntityOperation.Type.RemoveAll;
-            operation.entities = entities;
-            pendingOperations.add(operation);
         } else {
             while (entities.size() > 0) {
                 removeEntity(entities.first(), false);
@@ -80,6 +87,10 @@ class EntityManager {
         }
     }
 
+    public boolean contains(Entity entity) {
+        return entitySet.contains(entity);
+    }
+
     public ImmutableArray<Entity> getEntities() {
         return immutableEntities;
     }
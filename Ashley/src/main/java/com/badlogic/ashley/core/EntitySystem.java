@@ -1,5 +1,7 @@
 package com.badlogic.ashley.core;
 
+import com.badlogic.gdx.utils.Bits;
+
 /**
  * Abstract class for processing sets of {@link Entity} objects.
  */
@@ -9,7 +11,10 @@ public abstract class EntitySystem {
      */
     public int priority;
 
+    private final Bits readTypes = new Bits();
+    private final Bits writeTypes = new Bits();
     private boolean processing;
+    private boolean accessDeclared;
     private Engine engine;
 
     /**
@@ -67,6 +72,58 @@ public abstract class EntitySystem {
         this.processing = processing;
     }
 
+    /**
+     * Declares component types this system reads during {@link #update(float)}. Systems which declared their component access may
+     * be run at the same time as other declared systems they do not conflict with, see {@link Engine#setSystemExecutor}. Systems
+     * that declare nothing always run on their own. Must be called before the system is added to an {@link Engine}.
+     */
+    @SafeVarargs
+    protected final void reads(Class<? extends Component>... componentTypes) {
+        declareAccess();
+        for (Class<? extends Component> componentType : componentTypes) {
+            readTypes.set(ComponentType.getIndexFor(componentType));
+        }
+    }
+
+    /**
+     * Declares component types this system writes during {@link #update(float)}. A system writing a type never runs at the same time
+     * as another system reading or writing it. Must be called before the system is added to an {@link Engine}.
+     */
+    @SafeVarargs
+    protected final void writes(Class<? extends Component>... componentTypes) {
+        declareAccess();
+        for (Class<? extends Component> componentType : componentTypes) {
+            writeTypes.set(ComponentType.getIndexFor(componentType));
+        }
+    }
+
+    /**
+     * @return Whether this system declared its component access and may run alongside other systems.
+     */
+    public boolean isAccessDeclared() {
+        return accessDeclared;
+    }
+
+    /**
+     * @return Whether this system and the other one cannot safely run at the same time, either because one of them did not
+     * declare its component access or because one writes a component type the other reads or writes.
+     */
+    public boolean conflictsWith(EntitySystem other) {
+        if (!accessDeclared || !other.accessDeclared) {
+            return true;
+        }
+
+        return writeTypes.intersects(other.readTypes) || writeTypes.intersects(other.writeTypes) || readTypes.intersects(other.writeTypes);
+    }
+
+    private void declareAccess() {
+        if (engine != null) {
+            throw new IllegalStateException("Component access must be declared before the system is added to an Engine.");
+        }
+
+        accessDeclared = true;
+    }
+
     /**
      * @return engine instance the system is registered to.
      * It will be null if the system is not associated to any engine instance.
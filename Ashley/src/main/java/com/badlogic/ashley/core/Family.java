@@ -17,6 +17,7 @@ public class Family {
     private final Bits all;
     private final Bits one;
     private final Bits exclude;
+    private final Bits componentTypes;
     private final int index;
 
     /**
@@ -26,6 +27,10 @@ public class Family {
         this.all = all;
         this.one = any;
         this.exclude = exclude;
+        this.componentTypes = new Bits();
+        this.componentTypes.or(all);
+        this.componentTypes.or(any);
+        this.componentTypes.or(exclude);
         this.index = familyIndex++;
     }
 
@@ -56,6 +61,19 @@ public class Family {
         return builder.reset().exclude(componentTypes);
     }
 
+    /**
+     * @return The family for the given component bits, which must not be modified afterwards.
+     */
+    static Family getFor(Bits all, Bits one, Bits exclude) {
+        String hash = getFamilyHash(all, one, exclude);
+        Family family = families.get(hash, null);
+        if (family == null) {
+            family = new Family(all, one, exclude);
+            families.put(hash, family);
+        }
+        return family;
+    }
+
     private static String getFamilyHash(Bits all, Bits one, Bits exclude) {
         StringBuilder stringBuilder = new StringBuilder();
         if (!all.isEmpty()) {
@@ -88,12 +106,25 @@ public class Family {
         return this.index;
     }
 
+    /**
+     * @return Bits of every component type this family refers to. Membership can only change when one of these types is added to or
+     * removed from an entity.
+     */
+    Bits getComponentTypes() {
+        return componentTypes;
+    }
+
     /**
      * @return Whether the entity matches the family requirements or not
      */
     public boolean matches(Entity entity) {
-        Bits entityComponentBits = entity.getComponentBits();
+        return matches(entity.getComponentBits());
+    }
 
+    /**
+     * @return Whether a set of component bits matches the family requirements or not
+     */
+    boolean matches(Bits entityComponentBits) {
         if (!entityComponentBits.containsAll(all)) {
             return false;
         }
@@ -170,13 +201,7 @@ public class Family {
          * @return A family for the configured component types
          */
         public Family get() {
-            String hash = getFamilyHash(all, one, exclude);
-            Family family = families.get(hash, null);
-            if (family == null) {
-                family = new Family(all, one, exclude);
-                families.put(hash, family);
-            }
-            return family;
+            return getFor(all, one, exclude);
         }
     }
 }
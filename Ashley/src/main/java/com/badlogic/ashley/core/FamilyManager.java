@@ -3,6 +3,7 @@ package com.badlogic.ashley.core;
 import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.SnapshotArray;
@@ -13,6 +14,9 @@ class FamilyManager {
     private final ObjectMap<Family, ImmutableArray<Entity>> immutableFamilies = new ObjectMap<Family, ImmutableArray<Entity>>();
     private final SnapshotArray<EntityListenerData> entityListeners = new SnapshotArray<EntityListenerData>(true, 16);
     private final ObjectMap<Family, Bits> entityListenerMasks = new ObjectMap<Family, Bits>();
+    private final IntMap<Family> familiesByIndex = new IntMap<Family>();
+    private final Array<Array<Family>> familiesByComponentType = new Array<Array<Family>>();
+    private final Array<Family> unconstrainedFamilies = new Array<Family>(false, 4);
     private final BitsPool bitsPool = new BitsPool();
     private boolean notifying = false;
 
@@ -86,26 +90,40 @@ class FamilyManager {
         Bits addListenerBits = bitsPool.obtain();
         Bits removeListenerBits = bitsPool.obtain();
 
-        for (Family family : entityListenerMasks.keys()) {
-            final int familyIndex = family.getIndex();
-            final Bits entityFamilyBits = entity.getFamilyBits();
-
-            boolean belongsToFamily = entityFamilyBits.get(familyIndex);
-            boolean matches = family.matches(entity) && !entity.removing;
-
-            if (belongsToFamily != matches) {
-                final Bits listenersMask = entityListenerMasks.get(family);
-                final Array<Entity> familyEntities = families.get(family);
-                if (matches) {
-                    addListenerBits.or(listenersMask);
-                    familyEntities.add(entity);
-                    entityFamilyBits.set(familyIndex);
-                } else {
-                    removeListenerBits.or(listenersMask);
-                    familyEntities.removeValue(entity, true);
-                    entityFamilyBits.clear(familyIndex);
+        if (entity.removing) {
+            // Only the families the entity currently belongs to can lose it.
+            Bits entityFamilyBits = entity.getFamilyBits();
+            for (int i = entityFamilyBits.nextSetBit(0); i >= 0; i = entityFamilyBits.nextSetBit(i + 1)) {
+                Family family = familiesByIndex.get(i);
+                if (family != null) {
+                    updateFamily(entity, family, addListenerBits, removeListenerBits);
                 }
             }
+            entity.getMatchedComponentBits().clear();
+        } else {
+            // Only families referring to a component type that changed since the last update can be affected,
+            // plus the families without any component constraint which every entity belongs to.
+            Bits changedBits = bitsPool.obtain();
+            Bits matchedBits = entity.getMatchedComponentBits();
+            changedBits.or(entity.getComponentBits());
+            changedBits.xor(matchedBits);
+
+            for (int i = 0; i < unconstrainedFamilies.size; ++i) {
+                updateFamily(entity, unconstrainedFamilies.get(i), addListenerBits, removeListenerBits);
+            }
+
+            for (int i = changedBits.nextSetBit(0); i >= 0 && i < familiesByComponentType.size; i = changedBits.nextSetBit(i + 1)) {
+                Array<Family> affected = familiesByComponentType.get(i);
+                if (affected == null) continue;
+                for (int j = 0; j < affected.size; ++j) {
+                    updateFamily(entity, affected.get(j), addListenerBits, removeListenerBits);
+                }
+            }
+
+            matchedBits.clear();
+            matchedBits.or(entity.getComponentBits());
+            changedBits.clear();
+            bitsPool.free(changedBits);
         }
 
         // Notify listeners; set bits match indices of listeners
@@ -130,6 +148,43 @@ class FamilyManager {
         }
     }
 
+    private void updateFamily(Entity entity, Family family, Bits addListenerBits, Bits removeListenerBits) {
+        final int familyIndex = family.getIndex();
+        final Bits entityFamilyBits = entity.getFamilyBits();
+
+        boolean belongsToFamily = entityFamilyBits.get(familyIndex);
+        boolean matches = family.matches(entity) && !entity.removing;
+
+        if (belongsToFamily != matches) {
+            final Bits listenersMask = entityListenerMasks.get(family);
+            final Array<Entity> familyEntities = families.get(family);
+            if (matches) {
+                addListenerBits.or(listenersMask);
+                addToFamily(entity, familyIndex, familyEntities);
+            } else {
+                removeListenerBits.or(listenersMask);
+                removeFromFamily(entity, familyIndex, familyEntities);
+            }
+        }
+    }
+
+    private void addToFamily(Entity entity, int familyIndex, Array<Entity> familyEntities) {
+        entity.setFamilySlot(familyIndex, familyEntities.size);
+        familyEntities.add(entity);
+        entity.getFamilyBits().set(familyIndex);
+    }
+
+    private void removeFromFamily(Entity entity, int familyIndex, Array<Entity> familyEntities) {
+        // Swap the last entity of the family into the freed slot instead of searching for the entity.
+        int slot = entity.getFamilySlot(familyIndex);
+        Entity last = familyEntities.pop();
+        if (last != entity) {
+            familyEntities.set(slot, last);
+            last.setFamilySlot(familyIndex, slot);
+        }
+        entity.getFamilyBits().clear(familyIndex);
+    }
+
     private ImmutableArray<Entity> registerFamily(Family family) {
         ImmutableArray<Entity> entitiesInFamily = immutableFamilies.get(family);
 
@@ -139,9 +194,30 @@ class FamilyManager {
             families.put(family, familyEntities);
             immutableFamilies.put(family, entitiesInFamily);
             entityListenerMasks.put(family, new Bits());
+            familiesByIndex.put(family.getIndex(), family);
 
+            Bits componentTypes = family.getComponentTypes();
+            if (componentTypes.isEmpty()) {
+                unconstrainedFamilies.add(family);
+            }
+            for (int i = componentTypes.nextSetBit(0); i >= 0; i = componentTypes.nextSetBit(i + 1)) {
+                if (i >= familiesByComponentType.size) {
+                    familiesByComponentType.setSize(i + 1);
+                }
+                Array<Family> typeFamilies = familiesByComponentType.get(i);
+                if (typeFamilies == null) {
+                    typeFamilies = new Array<Family>(false, 8);
+                    familiesByComponentType.set(i, typeFamilies);
+                }
+                typeFamilies.add(family);
+            }
+
+            // The new family has no listeners yet, so matching entities can be added without notifications.
+            final int familyIndex = family.getIndex();
             for (Entity entity : entities) {
-                updateFamilyMembership(entity);
+                if (family.matches(entity) && !entity.removing) {
+                    addToFamily(entity, familyIndex, familyEntities);
+                }
             }
         }
 
@@ -14,12 +14,16 @@ import com.badlogic.gdx.utils.ReflectionPool;
  * <li>Create components using {@link #createComponent(Class)}</li>
  * <li>Components should implement the {@link Poolable} interface when in need to reset its state upon removal</li>
  * </ul>
+ * The pools are synchronized, so entities and components can be created and removed from systems updated in parallel. When
+ * {@link EntityBatchListener}s are registered, removed entities are only returned to the pool once they have been delivered.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class PooledEngine extends Engine {
 
     private final EntityPool entityPool;
     private final ComponentPools componentPools;
+    // Removed entities kept out of the pool until the EntityBatchListeners have seen them with their components.
+    private final Array<PooledEntity> removedEntities = new Array<PooledEntity>(false, 16);
 
     /**
      * Creates a new PooledEngine with a maximum of 100 entities and 100 components of each type. Use
@@ -38,7 +42,21 @@ public class PooledEngine extends Engine {
      * @param componentPoolMaxSize     maximum size for each component type pool.
      */
     public PooledEngine(int entityPoolInitialSize, int entityPoolMaxSize, int componentPoolInitialSize, int componentPoolMaxSize) {
-        super();
+        this(entityPoolInitialSize, entityPoolMaxSize, componentPoolInitialSize, componentPoolMaxSize, false);
+    }
+
+    /**
+     * Creates new PooledEngine with the specified pools size configurations, optionally grouping entities into {@link Archetype}s.
+     *
+     * @param entityPoolInitialSize    initial number of pre-allocated entities.
+     * @param entityPoolMaxSize        maximum number of pooled entities.
+     * @param componentPoolInitialSize initial size for each component type pool.
+     * @param componentPoolMaxSize     maximum size for each component type pool.
+     * @param archetypeStorage         whether entities should also be stored in {@link Archetype} chunks.
+     */
+    public PooledEngine(int entityPoolInitialSize, int entityPoolMaxSize, int componentPoolInitialSize, int componentPoolMaxSize,
+                        boolean archetypeStorage) {
+        super(archetypeStorage);
 
         entityPool = new EntityPool(entityPoolInitialSize, entityPoolMaxSize);
         componentPools = new ComponentPools(componentPoolInitialSize, componentPoolMaxSize);
@@ -49,7 +67,9 @@ public class PooledEngine extends Engine {
      */
     @Override
     public Entity createEntity() {
-        return entityPool.obtain();
+        synchronized (entityPool) {
+            return entityPool.obtain();
+        }
     }
 
     /**
@@ -67,7 +87,9 @@ public class PooledEngine extends Engine {
      * free up memory.
      */
     public void clearPools() {
-        entityPool.clear();
+        synchronized (entityPool) {
+            entityPool.clear();
+        }
         componentPools.clear();
     }
 
@@ -76,11 +98,48 @@ public class PooledEngine extends Engine {
         super.removeEntityInternal(entity);
 
         if (entity instanceof PooledEntity) {
-            entityPool.free((PooledEntity) entity);
+            PooledEntity pooledEntity = (PooledEntity) entity;
+
+            if (hasEntityBatchListeners()) {
+                if (!pooledEntity.awaitingBatch) {
+                    pooledEntity.awaitingBatch = true;
+                    removedEntities.add(pooledEntity);
+                }
+            } else {
+                synchronized (entityPool) {
+                    entityPool.free(pooledEntity);
+                }
+            }
         }
     }
 
+    @Override
+    void flushEntityBatches() {
+        // Entities removed while the listeners are notified are delivered by the next flush.
+        int delivered = removedEntities.size;
+        super.flushEntityBatches();
+
+        if (delivered == 0) {
+            return;
+        }
+
+        synchronized (entityPool) {
+            for (int i = 0; i < delivered; ++i) {
+                PooledEntity entity = removedEntities.get(i);
+                entity.awaitingBatch = false;
+
+                // The entity may have been added back, it is then pooled the next time it is removed.
+                if (!hasEntity(entity)) {
+                    entityPool.free(entity);
+                }
+            }
+        }
+        removedEntities.removeRange(0, delivered - 1);
+    }
+
     private class PooledEntity extends Entity implements Poolable {
+        boolean awaitingBatch;
+
         @Override
         Component removeInternal(Class<? extends Component> componentClass) {
             Component removed = super.removeInternal(componentClass);
@@ -134,7 +193,7 @@ public class PooledEngine extends Engine {
             this.maxSize = maxSize;
         }
 
-        public <T> T obtain(Class<T> type) {
+        public synchronized <T> T obtain(Class<T> type) {
             ReflectionPool pool = pools.get(type);
 
             if (pool == null) {
@@ -145,7 +204,7 @@ public class PooledEngine extends Engine {
             return (T) pool.obtain();
         }
 
-        public void free(Object object) {
+        public synchronized void free(Object object) {
             if (object == null) {
                 throw new IllegalArgumentException("object cannot be null.");
             }
@@ -159,7 +218,7 @@ public class PooledEngine extends Engine {
             pool.free(object);
         }
 
-        public void freeAll(Array objects) {
+        public synchronized void freeAll(Array objects) {
             if (objects == null) throw new IllegalArgumentException("objects cannot be null.");
 
             for (int i = 0, n = objects.size; i < n; i++) {
@@ -169,7 +228,7 @@ public class PooledEngine extends Engine {
             }
         }
 
-        public void clear() {
+        public synchronized void clear() {
             for (Pool pool : pools.values()) {
                 pool.clear();
             }
@@ -0,0 +1,216 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * A view over the entities of an {@link Engine}, built with {@link Engine#query()}. The structural part of a query ({@code with},
+ * {@code without} and {@code any}) is a {@link Family}, and is maintained by the Engine as entities and components come and go.
+ * <p>
+ * A query can also filter on changes: {@code changed} keeps only the entities whose components of the given types were added or
+ * {@link Entity#markChanged(Class) marked changed}, and {@code added} only those whose components of the given types were added,
+ * since the previous {@link #update()}. Changes are pushed to the query as they happen, so an update only visits the entities that
+ * changed instead of the whole family. Each query tracks its own last update, so change queries should not be shared by systems.
+ *
+ * <pre>
+ * Query query = engine.query().with(Position.class).changed(Position.class).get();
+ *
+ * // Once per frame, in a system
+ * ImmutableArray&lt;Entity&gt; moved = query.update();
+ * </pre>
+ */
+public class Query {
+    private final ImmutableArray<Entity> familyEntities;
+    private final Family family;
+    private final Bits changedTypes;
+    private final Bits addedTypes;
+    private final QueryManager queryManager;
+    private final ObjectSet<Entity> candidateSet = new ObjectSet<Entity>();
+    private final Array<Entity> candidates = new Array<Entity>(false, 16);
+    private final Array<Entity> entities = new Array<Entity>(false, 16);
+    private final ImmutableArray<Entity> immutableEntities = new ImmutableArray<Entity>(entities);
+    private int lastVersion;
+
+    Query(ImmutableArray<Entity> familyEntities, Family family, Bits changedTypes, Bits addedTypes, QueryManager queryManager) {
+        this.familyEntities = familyEntities;
+        this.family = family;
+        this.changedTypes = changedTypes;
+        this.addedTypes = addedTypes;
+        this.queryManager = queryManager;
+
+        // Entities already in the engine count as added for the first update.
+        for (int i = 0; i < familyEntities.size(); ++i) {
+            addCandidate(familyEntities.get(i));
+        }
+    }
+
+    /**
+     * @return The {@link Family} describing the structural part of this query.
+     */
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * @return Whether this query filters on changed or added components.
+     */
+    public boolean isChangeQuery() {
+        return !changedTypes.isEmpty() || !addedTypes.isEmpty();
+    }
+
+    /**
+     * Collects the entities changed since the previous update and starts tracking the next changes. For queries without change
+     * filters, this is the live family view.
+     *
+     * @return The entities matching this query, see {@link #getEntities()}
+     */
+    public ImmutableArray<Entity> update() {
+        if (!isChangeQuery()) {
+            return familyEntities;
+        }
+
+        int since = lastVersion;
+        entities.clear();
+
+        synchronized (this) {
+            for (int i = 0; i < candidates.size; ++i) {
+                Entity entity = candidates.get(i);
+
+                if (matches(entity, since)) {
+                    entities.add(entity);
+                }
+            }
+
+            candidates.clear();
+            candidateSet.clear();
+        }
+
+        lastVersion = queryManager.nextVersion();
+        return immutableEntities;
+    }
+
+    /**
+     * @return The entities matching this query. For change queries, these are the entities collected by the latest
+     * {@link #update()}; otherwise it is the live family view.
+     */
+    public ImmutableArray<Entity> getEntities() {
+        return isChangeQuery() ? immutableEntities : familyEntities;
+    }
+
+    Bits getChangedTypes() {
+        return changedTypes;
+    }
+
+    Bits getAddedTypes() {
+        return addedTypes;
+    }
+
+    synchronized void addCandidate(Entity entity) {
+        if (candidateSet.add(entity)) {
+            candidates.add(entity);
+        }
+    }
+
+    private boolean matches(Entity entity, int since) {
+        if (entity.queryManager != queryManager || !entity.getFamilyBits().get(family.getIndex())) {
+            return false;
+        }
+
+        for (int index = changedTypes.nextSetBit(0); index >= 0; index = changedTypes.nextSetBit(index + 1)) {
+            if (entity.getChangedVersion(index) <= since) {
+                return false;
+            }
+        }
+
+        for (int index = addedTypes.nextSetBit(0); index >= 0; index = addedTypes.nextSetBit(index + 1)) {
+            if (entity.getAddedVersion(index) <= since) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Describes a {@link Query}. All the component types given to {@code changed} and {@code added} are also required, as with
+     * {@code with}.
+     */
+    public static class Builder {
+        private final Engine engine;
+        private final Bits with = new Bits();
+        private final Bits without = new Bits();
+        private final Bits any = new Bits();
+        private final Bits changed = new Bits();
+        private final Bits added = new Bits();
+
+        Builder(Engine engine) {
+            this.engine = engine;
+        }
+
+        /**
+         * @param componentTypes entities will have to contain all of the specified components.
+         * @return This builder for chaining
+         */
+        @SafeVarargs
+        public final Builder with(Class<? extends Component>... componentTypes) {
+            with.or(ComponentType.getBitsFor(componentTypes));
+            return this;
+        }
+
+        /**
+         * @param componentTypes entities cannot contain any of the specified components.
+         * @return This builder for chaining
+         */
+        @SafeVarargs
+        public final Builder without(Class<? extends Component>... componentTypes) {
+            without.or(ComponentType.getBitsFor(componentTypes));
+            return this;
+        }
+
+        /**
+         * @param componentTypes entities will have to contain at least one of the specified components.
+         * @return This builder for chaining
+         */
+        @SafeVarargs
+        public final Builder any(Class<? extends Component>... componentTypes) {
+            any.or(ComponentType.getBitsFor(componentTypes));
+            return this;
+        }
+
+        /**
+         * @param componentTypes each of the specified components will have to be added or marked changed since the last update.
+         * @return This builder for chaining
+         */
+        @SafeVarargs
+        public final Builder changed(Class<? extends Component>... componentTypes) {
+            changed.or(ComponentType.getBitsFor(componentTypes));
+            return this;
+        }
+
+        /**
+         * @param componentTypes each of the specified components will have to be added since the last update.
+         * @return This builder for chaining
+         */
+        @SafeVarargs
+        public final Builder added(Class<? extends Component>... componentTypes) {
+            added.or(ComponentType.getBitsFor(componentTypes));
+            return this;
+        }
+
+        /**
+         * @return A new {@link Query} maintained by the {@link Engine} until {@link Engine#removeQuery(Query)} is called.
+         */
+        public Query get() {
+            Bits all = new Bits();
+            all.or(with);
+            all.or(changed);
+            all.or(added);
+
+            Family family = Family.getFor(all, new Bits(any), new Bits(without));
+
+            return engine.createQuery(family, new Bits(changed), new Bits(added));
+        }
+    }
+}
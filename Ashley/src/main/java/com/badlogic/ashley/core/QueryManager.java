@@ -0,0 +1,89 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+class QueryManager {
+    private final Array<Array<Query>> changedQueries = new Array<Array<Query>>();
+    private final Array<Array<Query>> addedQueries = new Array<Array<Query>>();
+    private int version = 1;
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Starts a new version, so changes made from now on are told apart from the ones made before.
+     *
+     * @return The version that just ended
+     */
+    public synchronized int nextVersion() {
+        return version++;
+    }
+
+    public void addQuery(Query query) {
+        index(changedQueries, query.getChangedTypes(), query, true);
+        index(addedQueries, query.getAddedTypes(), query, true);
+    }
+
+    public void removeQuery(Query query) {
+        index(changedQueries, query.getChangedTypes(), query, false);
+        index(addedQueries, query.getAddedTypes(), query, false);
+    }
+
+    public void entityAdded(Entity entity) {
+        entity.queryManager = this;
+
+        ImmutableArray<Component> components = entity.getComponents();
+        for (int i = 0; i < components.size(); ++i) {
+            componentAdded(entity, ComponentType.getIndexFor(components.get(i).getClass()));
+        }
+    }
+
+    public void componentAdded(Entity entity, int componentTypeIndex) {
+        entity.setVersions(componentTypeIndex, version, true);
+        notifyQueries(changedQueries, entity, componentTypeIndex);
+        notifyQueries(addedQueries, entity, componentTypeIndex);
+    }
+
+    public void componentChanged(Entity entity, int componentTypeIndex) {
+        entity.setVersions(componentTypeIndex, version, false);
+        notifyQueries(changedQueries, entity, componentTypeIndex);
+    }
+
+    private void notifyQueries(Array<Array<Query>> queriesByType, Entity entity, int componentTypeIndex) {
+        if (componentTypeIndex >= queriesByType.size) {
+            return;
+        }
+
+        Array<Query> queries = queriesByType.get(componentTypeIndex);
+        if (queries == null) {
+            return;
+        }
+
+        for (int i = 0; i < queries.size; ++i) {
+            queries.get(i).addCandidate(entity);
+        }
+    }
+
+    private static void index(Array<Array<Query>> queriesByType, Bits types, Query query, boolean add) {
+        for (int index = types.nextSetBit(0); index >= 0; index = types.nextSetBit(index + 1)) {
+            if (index >= queriesByType.size) {
+                queriesByType.setSize(index + 1);
+            }
+
+            Array<Query> queries = queriesByType.get(index);
+            if (queries == null) {
+                queries = new Array<Query>(false, 4);
+                queriesByType.set(index, queries);
+            }
+
+            if (add) {
+                queries.add(query);
+            } else {
+                queries.removeValue(query, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.DataInput;
+import com.badlogic.gdx.utils.DataOutput;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import java.io.IOException;
+
+/**
+ * Serializes the non static, non transient fields of a component through reflection. Only primitives, their wrappers, strings and
+ * enums are supported.
+ */
+class ReflectionComponentSerializer implements ComponentSerializer<Component> {
+    private final Field[] fields;
+
+    ReflectionComponentSerializer(Class<? extends Component> componentClass) {
+        Array<Field> fields = new Array<Field>();
+
+        for (Class<?> type = componentClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : ClassReflection.getDeclaredFields(type)) {
+                if (field.isStatic() || field.isTransient() || field.isSynthetic()) {
+                    continue;
+                }
+
+                if (!isSupported(field.getType())) {
+                    throw new IllegalArgumentException("Field " + field.getName() + " of " + componentClass.getName()
+                            + " has an unsupported type, register a ComponentSerializer for it.");
+                }
+
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+
+        this.fields = fields.toArray(Field[]::new);
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        return type.isPrimitive() || type == String.class || ClassReflection.isEnum(type) || type == Integer.class
+                || type == Float.class || type == Boolean.class || type == Long.class || type == Double.class || type == Short.class
+                || type == Byte.class || type == Character.class;
+    }
+
+    @Override
+    public void write(DataOutput output, Component component) throws IOException {
+        try {
+            for (Field field : fields) {
+                Class<?> type = field.getType();
+                Object value = field.get(component);
+
+                if (!type.isPrimitive()) {
+                    output.writeBoolean(value != null);
+                    if (value == null) {
+                        continue;
+                    }
+                }
+
+                if (type == String.class) {
+                    output.writeString((String) value);
+                } else if (ClassReflection.isEnum(type)) {
+                    output.writeInt(((Enum<?>) value).ordinal(), true);
+                } else if (type == int.class || type == Integer.class) {
+                    output.writeInt((Integer) value);
+                } else if (type == float.class || type == Float.class) {
+                    output.writeFloat((Float) value);
+                } else if (type == boolean.class || type == Boolean.class) {
+                    output.writeBoolean((Boolean) value);
+                } else if (type == long.class || type == Long.class) {
+                    output.writeLong((Long) value);
+                } else if (type == double.class || type == Double.class) {
+                    output.writeDouble((Double) value);
+                } else if (type == short.class || type == Short.class) {
+                    output.writeShort((Short) value);
+                } else if (type == byte.class || type == Byte.class) {
+                    output.writeByte((Byte) value);
+                } else {
+                    output.writeChar((Character) value);
+                }
+            }
+        } catch (ReflectionException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void read(DataInput input, Component component) throws IOException {
+        try {
+            for (Field field : fields) {
+                Class<?> type = field.getType();
+
+                if (!type.isPrimitive() && !input.readBoolean()) {
+                    field.set(component, null);
+                    continue;
+                }
+
+                Object value;
+                if (type == String.class) {
+                    value = input.readString();
+                } else if (ClassReflection.isEnum(type)) {
+                    Object[] constants = ClassReflection.getEnumConstants(type);
+                    int ordinal = input.readInt(true);
+                    if (ordinal >= constants.length) {
+                        throw new IOException("Invalid ordinal " + ordinal + " for enum " + type.getName());
+                    }
+                    value = constants[ordinal];
+                } else if (type == int.class || type == Integer.class) {
+                    value = input.readInt();
+                } else if (type == float.class || type == Float.class) {
+                    value = input.readFloat();
+                } else if (type == boolean.class || type == Boolean.class) {
+                    value = input.readBoolean();
+                } else if (type == long.class || type == Long.class) {
+                    value = input.readLong();
+                } else if (type == double.class || type == Double.class) {
+                    value = input.readDouble();
+                } else if (type == short.class || type == Short.class) {
+                    value = input.readShort();
+                } else if (type == byte.class || type == Byte.class) {
+                    value = input.readByte();
+                } else {
+                    value = input.readChar();
+                }
+
+                field.set(component, value);
+            }
+        } catch (ReflectionException e) {
+            throw new IOException(e);
+        }
+    }
+}
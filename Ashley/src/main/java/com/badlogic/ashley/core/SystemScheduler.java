@@ -0,0 +1,124 @@
+package com.badlogic.ashley.core;
+
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the priority ordered systems of an {@link Engine} into batches of consecutive systems that do not conflict with each other
+ * and runs the systems of a batch at the same time on a {@link ForkJoinPool}.
+ */
+class SystemScheduler {
+    private final Array<Array<SystemTask>> batches = new Array<Array<SystemTask>>();
+    private final BatchTask batchTask = new BatchTask();
+    private boolean dirty = true;
+
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public int getNumBatches(ImmutableArray<EntitySystem> systems) {
+        rebuild(systems);
+        return batches.size;
+    }
+
+    /**
+     * Runs a batch of systems, blocking until all of them have been updated.
+     */
+    public void runBatch(int batchIndex, ForkJoinPool pool, float deltaTime) {
+        Array<SystemTask> batch = batches.get(batchIndex);
+
+        if (batch.size == 1) {
+            EntitySystem system = batch.first().system;
+            if (system.checkProcessing()) {
+                system.update(deltaTime);
+            }
+            return;
+        }
+
+        for (int i = 0; i < batch.size; ++i) {
+            SystemTask task = batch.get(i);
+            task.deltaTime = deltaTime;
+            task.reinitialize();
+        }
+
+        batchTask.batch = batch;
+        batchTask.reinitialize();
+        try {
+            pool.invoke(batchTask);
+        } finally {
+            batchTask.batch = null;
+        }
+    }
+
+    private void rebuild(ImmutableArray<EntitySystem> systems) {
+        if (!dirty) {
+            return;
+        }
+
+        batches.clear();
+        Array<SystemTask> current = null;
+
+        for (int i = 0; i < systems.size(); ++i) {
+            EntitySystem system = systems.get(i);
+
+            if (current == null || conflicts(current, system)) {
+                current = new Array<SystemTask>(false, 4);
+                batches.add(current);
+            }
+
+            current.add(new SystemTask(system));
+        }
+
+        dirty = false;
+    }
+
+    private boolean conflicts(Array<SystemTask> batch, EntitySystem system) {
+        for (int i = 0; i < batch.size; ++i) {
+            if (batch.get(i).system.conflictsWith(system)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static class SystemTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final EntitySystem system;
+        float deltaTime;
+
+        SystemTask(EntitySystem system) {
+            this.system = system;
+        }
+
+        @Override
+        protected void compute() {
+            if (system.checkProcessing()) {
+                system.update(deltaTime);
+            }
+        }
+    }
+
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        Array<SystemTask> batch;
+
+        @Override
+        protected void compute() {
+            for (int i = 1; i < batch.size; ++i) {
+                batch.get(i).fork();
+            }
+
+            batch.first().invoke();
+
+            for (int i = 1; i < batch.size; ++i) {
+                batch.get(i).join();
+            }
+        }
+    }
+}
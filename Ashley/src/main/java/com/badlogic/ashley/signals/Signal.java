@@ -1,16 +1,18 @@
 package com.badlogic.ashley.signals;
 
-import com.badlogic.gdx.utils.SnapshotArray;
-
 /**
  * A Signal is a basic event class that can dispatch an event to multiple listeners. It uses generics to allow any type of object
  * to be passed around on dispatch.
+ * <p>
+ * Listeners are kept in an array that is copied whenever a listener is added or removed and never modified in place, so dispatching
+ * only walks the current array: it does not allocate, and listeners added or removed during a dispatch take effect on the next one.
  */
 public class Signal<T> {
-    private final SnapshotArray<Listener<T>> listeners;
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] listeners = EMPTY;
 
     public Signal() {
-        listeners = new SnapshotArray<>();
     }
 
     /**
@@ -19,7 +21,11 @@ public class Signal<T> {
      * @param listener The Listener to be added
      */
     public void add(Listener<T> listener) {
-        listeners.add(listener);
+        Object[] listeners = this.listeners;
+        Object[] newListeners = new Object[listeners.length + 1];
+        System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+        newListeners[listeners.length] = listener;
+        this.listeners = newListeners;
     }
 
     /**
@@ -28,14 +34,36 @@ public class Signal<T> {
      * @param listener The Listener to remove
      */
     public void remove(Listener<T> listener) {
-        listeners.removeValue(listener, true);
+        Object[] listeners = this.listeners;
+
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                if (listeners.length == 1) {
+                    this.listeners = EMPTY;
+                    return;
+                }
+
+                Object[] newListeners = new Object[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+                this.listeners = newListeners;
+                return;
+            }
+        }
     }
 
     /**
      * Removes all listeners attached to this {@link Signal}.
      */
     public void removeAllListeners() {
-        listeners.clear();
+        listeners = EMPTY;
+    }
+
+    /**
+     * @return Whether or not any listener is attached to this {@link Signal}.
+     */
+    public boolean hasListeners() {
+        return listeners.length > 0;
     }
 
     /**
@@ -43,12 +71,12 @@ public class Signal<T> {
      *
      * @param object The object to send off
      */
+    @SuppressWarnings("unchecked")
     public void dispatch(T object) {
-        final Object[] items = listeners.begin();
-        for (int i = 0, n = listeners.size; i < n; i++) {
+        final Object[] items = listeners;
+        for (int i = 0, n = items.length; i < n; i++) {
             Listener<T> listener = (Listener<T>) items[i];
             listener.receive(this, object);
         }
-        listeners.end();
     }
 }
@@ -0,0 +1,99 @@
+package com.badlogic.ashley.systems;
+
+import com.badlogic.ashley.core.Archetype;
+import com.badlogic.ashley.core.ArchetypeChunk;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+
+/**
+ * A simple EntitySystem that walks the {@link ArchetypeChunk}s of every {@link Archetype} matching a Family and calls
+ * processChunk() for each chunk every time the EntitySystem is updated. Components of the same type are laid out next to each other
+ * in a chunk, so processing them column by column avoids jumping from one entity to another. Requires an {@link Engine} created with
+ * archetype storage.
+ */
+public abstract class ChunkIteratingSystem extends EntitySystem {
+    private final Family family;
+    private ImmutableArray<Archetype> archetypes;
+
+    /**
+     * Instantiates a system that will iterate over the chunks of the archetypes described by the Family.
+     *
+     * @param family The family of entities iterated over in this System
+     */
+    public ChunkIteratingSystem(Family family) {
+        this(family, 0);
+    }
+
+    /**
+     * Instantiates a system that will iterate over the chunks of the archetypes described by the Family, with a specific priority.
+     *
+     * @param family   The family of entities iterated over in this System
+     * @param priority The priority to execute this system with (lower means higher priority)
+     */
+    public ChunkIteratingSystem(Family family, int priority) {
+        super(priority);
+
+        this.family = family;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        archetypes = engine.getArchetypesFor(family);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        archetypes = null;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        startProcessing();
+        for (int i = 0; i < archetypes.size(); ++i) {
+            ImmutableArray<ArchetypeChunk> chunks = archetypes.get(i).getChunks();
+            for (int j = 0; j < chunks.size(); ++j) {
+                processChunk(chunks.get(j), deltaTime);
+            }
+        }
+        endProcessing();
+    }
+
+    /**
+     * @return archetypes processed by the system
+     */
+    public ImmutableArray<Archetype> getArchetypes() {
+        return archetypes;
+    }
+
+    /**
+     * @return the Family used when the system was created
+     */
+    public Family getFamily() {
+        return family;
+    }
+
+    /**
+     * This method is called on every non empty chunk on every update call of the EntitySystem. Override this to implement your
+     * system's specific processing, usually looping from 0 to {@link ArchetypeChunk#size()}.
+     *
+     * @param chunk     The current chunk being processed
+     * @param deltaTime The delta time between the last and current frame
+     */
+    protected abstract void processChunk(ArchetypeChunk chunk, float deltaTime);
+
+    /**
+     * This method is called once on every update call of the EntitySystem, before chunk processing begins. Override this method to
+     * implement your specific startup conditions.
+     */
+    public void startProcessing() {
+    }
+
+    /**
+     * This method is called once on every update call of the EntitySystem after chunk processing is complete. Override this method to
+     * implement your specific end conditions.
+     */
+    public void endProcessing() {
+    }
+}
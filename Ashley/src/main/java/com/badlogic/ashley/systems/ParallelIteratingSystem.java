@@ -0,0 +1,128 @@
+package com.badlogic.ashley.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An {@link IteratingSystem} that splits the entities of its family into ranges and processes them on a {@link ForkJoinPool}.
+ * processEntity() may be called from several threads at the same time, so it must only touch the entity it is given (and data that
+ * is safe to share). Structural changes should be recorded into the engine's {@link com.badlogic.ashley.core.EntityCommandBuffer},
+ * whose recording is thread safe; changing entities directly is delayed as usual, but two threads must never modify the same entity.
+ * Components may be created and removed from processEntity(), including on a {@link com.badlogic.ashley.core.PooledEngine}, whose
+ * pools are synchronized.
+ */
+public abstract class ParallelIteratingSystem extends IteratingSystem {
+    /**
+     * Default minimum number of entities processed by a single task.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    /**
+     * Instantiates a system that will iterate over the entities described by the Family on the common {@link ForkJoinPool}.
+     *
+     * @param family The family of entities iterated over in this System
+     */
+    public ParallelIteratingSystem(Family family) {
+        this(family, 0);
+    }
+
+    /**
+     * Instantiates a system that will iterate over the entities described by the Family on the common {@link ForkJoinPool}, with a
+     * specific priority.
+     *
+     * @param family   The family of entities iterated over in this System
+     * @param priority The priority to execute this system with (lower means higher priority)
+     */
+    public ParallelIteratingSystem(Family family, int priority) {
+        this(family, priority, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Instantiates a system that will iterate over the entities described by the Family on the given pool.
+     *
+     * @param family    The family of entities iterated over in this System
+     * @param priority  The priority to execute this system with (lower means higher priority)
+     * @param pool      The pool processing the entities
+     * @param batchSize The minimum number of entities processed by a single task
+     */
+    public ParallelIteratingSystem(Family family, int priority, ForkJoinPool pool, int batchSize) {
+        super(family, priority);
+
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than zero.");
+        }
+
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        ImmutableArray<Entity> entities = getEntities();
+
+        startProcessing();
+        if (entities.size() <= batchSize) {
+            processRange(entities, 0, entities.size(), deltaTime);
+        } else {
+            pool.invoke(new RangeTask(entities, 0, entities.size(), deltaTime));
+        }
+        endProcessing();
+    }
+
+    /**
+     * @return the pool processing the entities
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return the minimum number of entities processed by a single task
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void processRange(ImmutableArray<Entity> entities, int start, int end, float deltaTime) {
+        for (int i = start; i < end; ++i) {
+            processEntity(entities.get(i), deltaTime);
+        }
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ImmutableArray<Entity> entities;
+        private final int start;
+        private final int end;
+        private final float deltaTime;
+
+        RangeTask(ImmutableArray<Entity> entities, int start, int end, float deltaTime) {
+            this.entities = entities;
+            this.start = start;
+            this.end = end;
+            this.deltaTime = deltaTime;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= batchSize) {
+                processRange(entities, start, end, deltaTime);
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new RangeTask(entities, start, middle, deltaTime), new RangeTask(entities, middle, end, deltaTime));
+        }
+    }
+}
@@ -15,13 +15,29 @@ import java.util.Comparator;
  * processEntity() for each entity every time the EntitySystem is updated. This is really just a convenience class as rendering
  * systems tend to iterate over a list of entities in a sorted manner. Adding entities will cause the entity list to be resorted.
  * Call forceSort() if you changed your sorting criteria.
+ * <p>
+ * In incremental mode, forceSort() runs an insertion sort, which is close to linear when only a few entities moved since the last
+ * sort, and added entities are binary inserted into the sorted list instead of triggering a full sort. Alternatively the entities
+ * can be ordered by a {@link FloatKey} or {@link IntKey}, in which case they are sorted with a stable radix sort in linear time.
  */
 public abstract class SortedIteratingSystem extends EntitySystem implements EntityListener {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_SIZE = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX_SIZE - 1;
+
     private final ImmutableArray<Entity> entities;
     private final Family family;
     private final Array<Entity> sortedEntities;
+    private final Array<Entity> addedEntities;
     private boolean shouldSort;
     private final Comparator<Entity> comparator;
+    private final boolean incremental;
+    private final FloatKey floatKey;
+    private final IntKey intKey;
+    private int[] keys;
+    private int[] swapKeys;
+    private Entity[] swapEntities;
+    private int[] counts;
 
     /**
      * Instantiates a system that will iterate over the entities described by the Family.
@@ -41,12 +57,66 @@ public abstract class SortedIteratingSystem extends EntitySystem implements Enti
      * @param priority   The priority to execute this system with (lower means higher priority)
      */
     public SortedIteratingSystem(Family family, Comparator<Entity> comparator, int priority) {
+        this(family, comparator, priority, false);
+    }
+
+    /**
+     * Instantiates a system that will iterate over the entities described by the Family, with a specific priority.
+     *
+     * @param family      The family of entities iterated over in this System
+     * @param comparator  The comparator to sort the entities
+     * @param priority    The priority to execute this system with (lower means higher priority)
+     * @param incremental Whether to use insertion sort and binary insertion, which is faster when the order changes little between
+     *                    two sorts
+     */
+    public SortedIteratingSystem(Family family, Comparator<Entity> comparator, int priority, boolean incremental) {
+        this(family, comparator, priority, incremental, null, null);
+    }
+
+    /**
+     * Instantiates a system that will iterate over the entities described by the Family in ascending key order, with a specific
+     * priority.
+     *
+     * @param family   The family of entities iterated over in this System
+     * @param key      The key of each entity
+     * @param priority The priority to execute this system with (lower means higher priority)
+     */
+    public SortedIteratingSystem(Family family, FloatKey key, int priority) {
+        this(family, null, priority, false, key, null);
+
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null.");
+        }
+    }
+
+    /**
+     * Instantiates a system that will iterate over the entities described by the Family in ascending key order, with a specific
+     * priority.
+     *
+     * @param family   The family of entities iterated over in this System
+     * @param key      The key of each entity
+     * @param priority The priority to execute this system with (lower means higher priority)
+     */
+    public SortedIteratingSystem(Family family, IntKey key, int priority) {
+        this(family, null, priority, false, null, key);
+
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null.");
+        }
+    }
+
+    private SortedIteratingSystem(Family family, Comparator<Entity> comparator, int priority, boolean incremental, FloatKey floatKey,
+                                  IntKey intKey) {
         super(priority);
 
         this.family = family;
-        sortedEntities = new Array<Entity>(false, 16);
+        sortedEntities = new Array<Entity>(true, 16, Entity[]::new);
+        addedEntities = new Array<Entity>(false, 16);
         entities = new ImmutableArray<Entity>(sortedEntities);
         this.comparator = comparator;
+        this.incremental = incremental;
+        this.floatKey = floatKey;
+        this.intKey = intKey;
     }
 
     /**
@@ -56,24 +126,177 @@ public abstract class SortedIteratingSystem extends EntitySystem implements Enti
         shouldSort = true;
     }
 
+    /**
+     * @return whether added entities are binary inserted and forced sorts use an insertion sort
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
     private void sort() {
+        if (addedEntities.size > 0 && (!incremental || shouldSort || addedEntities.size > 16 + (sortedEntities.size >> 3))) {
+            sortedEntities.addAll(addedEntities);
+            addedEntities.clear();
+            shouldSort = true;
+        }
+
         if (shouldSort) {
-            sortedEntities.sort(comparator);
+            if (comparator == null) {
+                radixSort();
+            } else if (!incremental || !insertionSort()) {
+                sortedEntities.sort(comparator);
+            }
             shouldSort = false;
         }
+
+        for (int i = 0; i < addedEntities.size; ++i) {
+            binaryInsert(addedEntities.get(i));
+        }
+        addedEntities.clear();
+    }
+
+    /**
+     * Sorts the entities in place, giving up once the number of moves shows the entities are far from sorted.
+     *
+     * @return false if the sort was abandoned, leaving the entities partially sorted
+     */
+    private boolean insertionSort() {
+        Entity[] items = sortedEntities.items;
+        int size = sortedEntities.size;
+        int moveBudget = size;
+
+        for (int i = 1; i < size; ++i) {
+            Entity entity = items[i];
+            int j = i - 1;
+
+            if (comparator.compare(items[j], entity) <= 0) {
+                continue;
+            }
+
+            do {
+                items[j + 1] = items[j];
+                --j;
+            } while (j >= 0 && comparator.compare(items[j], entity) > 0);
+
+            items[j + 1] = entity;
+            moveBudget -= i - j - 1;
+
+            if (moveBudget < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void binaryInsert(Entity entity) {
+        Entity[] items = sortedEntities.items;
+        int low = 0;
+        int high = sortedEntities.size;
+
+        // Insert after equal entities, so entities added in the same order keep it, as with a stable sort.
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(items[middle], entity) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        sortedEntities.insert(low, entity);
+    }
+
+    private void radixSort() {
+        int size = sortedEntities.size;
+
+        if (size < 2) {
+            return;
+        }
+
+        if (keys == null || keys.length < size) {
+            int capacity = Math.max(16, size + (size >> 1));
+            keys = new int[capacity];
+            swapKeys = new int[capacity];
+            swapEntities = new Entity[capacity];
+            counts = new int[RADIX_SIZE];
+        }
+
+        Entity[] items = sortedEntities.items;
+        int[] keys = this.keys;
+        int[] swapKeys = this.swapKeys;
+        Entity[] swapEntities = this.swapEntities;
+
+        // Map the keys to ints whose unsigned order matches the key order.
+        for (int i = 0; i < size; ++i) {
+            int key;
+            if (floatKey != null) {
+                key = Float.floatToIntBits(floatKey.getKey(items[i]));
+                key ^= (key >> 31) | Integer.MIN_VALUE;
+            } else {
+                key = intKey.getKey(items[i]) ^ Integer.MIN_VALUE;
+            }
+            keys[i] = key;
+        }
+
+        for (int shift = 0; shift < 32; shift += RADIX_BITS) {
+            int[] counts = this.counts;
+            for (int i = 0; i < RADIX_SIZE; ++i) {
+                counts[i] = 0;
+            }
+            for (int i = 0; i < size; ++i) {
+                ++counts[(keys[i] >>> shift) & RADIX_MASK];
+            }
+
+            // All keys share this digit, the pass would not move anything.
+            if (counts[(keys[0] >>> shift) & RADIX_MASK] == size) {
+                continue;
+            }
+
+            int offset = 0;
+            for (int i = 0; i < RADIX_SIZE; ++i) {
+                int count = counts[i];
+                counts[i] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; ++i) {
+                int destination = counts[(keys[i] >>> shift) & RADIX_MASK]++;
+                swapKeys[destination] = keys[i];
+                swapEntities[destination] = items[i];
+            }
+
+            int[] tmpKeys = keys;
+            keys = swapKeys;
+            swapKeys = tmpKeys;
+            Entity[] tmpEntities = items;
+            items = swapEntities;
+            swapEntities = tmpEntities;
+        }
+
+        if (items != sortedEntities.items) {
+            System.arraycopy(items, 0, sortedEntities.items, 0, size);
+            swapEntities = items;
+        }
+
+        for (int i = 0; i < size; ++i) {
+            swapEntities[i] = null;
+        }
+
+        this.keys = keys;
+        this.swapKeys = swapKeys;
+        this.swapEntities = swapEntities;
     }
 
     @Override
     public void addedToEngine(Engine engine) {
         ImmutableArray<Entity> newEntities = engine.getEntitiesFor(family);
         sortedEntities.clear();
-        if (newEntities.size() > 0) {
-            for (int i = 0; i < newEntities.size(); ++i) {
-                sortedEntities.add(newEntities.get(i));
-            }
-            sortedEntities.sort(comparator);
+        addedEntities.clear();
+        for (int i = 0; i < newEntities.size(); ++i) {
+            sortedEntities.add(newEntities.get(i));
         }
-        shouldSort = false;
+        shouldSort = sortedEntities.size > 0;
+        sort();
         engine.addEntityListener(family, this);
     }
 
@@ -81,19 +304,21 @@ public abstract class SortedIteratingSystem extends EntitySystem implements Enti
     public void removedFromEngine(Engine engine) {
         engine.removeEntityListener(this);
         sortedEntities.clear();
+        addedEntities.clear();
         shouldSort = false;
     }
 
     @Override
     public void entityAdded(Entity entity) {
-        sortedEntities.add(entity);
-        shouldSort = true;
+        addedEntities.add(entity);
     }
 
     @Override
     public void entityRemoved(Entity entity) {
-        sortedEntities.removeValue(entity, true);
-        shouldSort = true;
+        // The entities are kept in an ordered array, so removing one leaves the rest sorted.
+        if (!addedEntities.removeValue(entity, true)) {
+            sortedEntities.removeValue(entity, true);
+        }
     }
 
     @Override
@@ -143,4 +368,18 @@ public abstract class SortedIteratingSystem extends EntitySystem implements Enti
      */
     public void endProcessing() {
     }
+
+    /**
+     * Gives the float key entities are sorted by, in ascending order.
+     */
+    public interface FloatKey {
+        float getKey(Entity entity);
+    }
+
+    /**
+     * Gives the int key entities are sorted by, in ascending order.
+     */
+    public interface IntKey {
+        int getKey(Entity entity);
+    }
 }
@@ -0,0 +1,157 @@
+package com.badlogic.ashley.core
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ArchetypeTest {
+
+    class ComponentA : Component
+    class ComponentB : Component
+    class ComponentC : Component
+
+    private val am = ComponentMapper.getFor(ComponentA::class.java)
+    private val bm = ComponentMapper.getFor(ComponentB::class.java)
+
+    @Test
+    fun disabledByDefault() {
+        val engine = Engine()
+        assertFalse(engine.isArchetypeStorage)
+
+        try {
+            engine.getArchetypesFor(Family.all().get())
+            assertTrue(false)
+        } catch (expected: IllegalStateException) {
+        }
+    }
+
+    @Test
+    fun groupsEntitiesBySignature() {
+        val engine = Engine(true)
+        val family = Family.all(ComponentA::class.java).get()
+        val archetypes = engine.getArchetypesFor(family)
+
+        val ab1 = Entity().add(ComponentA()).add(ComponentB())
+        val ab2 = Entity().add(ComponentB()).add(ComponentA())
+        val a = Entity().add(ComponentA())
+        val b = Entity().add(ComponentB())
+
+        engine.addEntity(ab1)
+        engine.addEntity(ab2)
+        engine.addEntity(a)
+        engine.addEntity(b)
+
+        assertEquals(3, engine.archetypes.size())
+        assertEquals(2, archetypes.size())
+        assertSame(ab1.chunk.archetype, ab2.chunk.archetype)
+        assertEquals(2, ab1.chunk.archetype.size())
+
+        var count = 0
+        for (archetype in archetypes) {
+            for (chunk in archetype.chunks) {
+                for (i in 0 until chunk.size()) {
+                    val entity = chunk.getEntity(i)
+                    assertSame(am.get(entity), am.get(chunk, i))
+                    count++
+                }
+            }
+        }
+        assertEquals(3, count)
+    }
+
+    @Test
+    fun movesEntityWhenComponentsChange() {
+        val engine = Engine(true)
+        val entity = Entity().add(ComponentA())
+        engine.addEntity(entity)
+
+        val first = entity.chunk.archetype
+        val componentB = ComponentB()
+        entity.add(componentB)
+
+        val second = entity.chunk.archetype
+        assertFalse(first === second)
+        assertEquals(0, first.size())
+        assertEquals(0, first.chunks.size())
+        assertSame(componentB, bm.get(entity.chunk, entity.chunkIndex))
+
+        val replacement = ComponentB()
+        entity.add(replacement)
+        assertSame(second, entity.chunk.archetype)
+        assertSame(replacement, bm.get(entity.chunk, entity.chunkIndex))
+
+        entity.remove(ComponentB::class.java)
+        assertSame(first, entity.chunk.archetype)
+        assertNull(bm.get(entity.chunk, entity.chunkIndex))
+    }
+
+    @Test
+    fun removalKeepsChunksPacked() {
+        val engine = Engine(true, 4)
+        val entities = Array(10) { Entity().add(ComponentA()) }
+        entities.forEach { engine.addEntity(it) }
+
+        val archetype = entities[0].chunk.archetype
+        assertEquals(3, archetype.chunks.size())
+        assertEquals(2, archetype.chunks.peek().size())
+
+        engine.removeEntity(entities[1])
+        engine.removeEntity(entities[2])
+        engine.removeEntity(entities[3])
+
+        assertEquals(7, archetype.size())
+        assertEquals(2, archetype.chunks.size())
+        assertEquals(4, archetype.chunks.get(0).size())
+        assertEquals(3, archetype.chunks.get(1).size())
+        assertNull(entities[1].chunk)
+
+        for (chunk in archetype.chunks) {
+            val column = chunk.getComponents(ComponentType.getFor(ComponentA::class.java))
+            for (i in 0 until chunk.size()) {
+                val entity = chunk.getEntity(i)
+                assertSame(chunk, entity.chunk)
+                assertEquals(i, entity.chunkIndex)
+                assertSame(am.get(entity), column[i])
+            }
+        }
+    }
+
+    @Test
+    fun delayedOperationsDuringUpdate() {
+        val engine = Engine(true)
+        val family = Family.all(ComponentA::class.java, ComponentC::class.java).get()
+        val archetypes = engine.getArchetypesFor(family)
+        val entity = Entity().add(ComponentA())
+        engine.addEntity(entity)
+
+        engine.addSystem(object : EntitySystem() {
+            override fun update(deltaTime: Float) {
+                entity.add(ComponentC())
+                assertEquals(0, archetypes.size())
+            }
+        })
+
+        engine.update(0f)
+
+        assertEquals(1, archetypes.size())
+        assertEquals(1, archetypes.first().size())
+    }
+
+    @Test
+    fun pooledEngine() {
+        val engine = PooledEngine(10, 100, 10, 100, true)
+        val entity = engine.createEntity()
+        entity.add(engine.createComponent(ComponentA::class.java))
+        engine.addEntity(entity)
+
+        val archetype = entity.chunk.archetype
+        assertEquals(1, archetype.size())
+
+        engine.removeEntity(entity)
+        assertEquals(0, archetype.size())
+        assertNull(entity.chunk)
+    }
+}
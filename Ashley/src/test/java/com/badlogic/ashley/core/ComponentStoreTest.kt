@@ -0,0 +1,115 @@
+package com.badlogic.ashley.core
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ComponentStoreTest {
+
+    private class ComponentA : Component
+    private class ComponentB : Component
+
+    @Test
+    fun tracksExistingAndNewEntities() {
+        val engine = Engine()
+        val existing = Entity().add(ComponentA())
+        engine.addEntity(existing)
+        engine.addEntity(Entity().add(ComponentB()))
+
+        val store = engine.getComponentStore(ComponentA::class.java)
+        assertSame(store, engine.getComponentStore(ComponentA::class.java))
+        assertEquals(1, store.size())
+        assertTrue(store.has(existing))
+        assertSame(existing.getComponent(ComponentA::class.java), store.get(existing))
+
+        val added = Entity().add(ComponentA())
+        engine.addEntity(added)
+        assertEquals(2, store.size())
+        assertSame(added.getComponent(ComponentA::class.java), store.get(added))
+    }
+
+    @Test
+    fun followsComponentChanges() {
+        val engine = Engine()
+        val store = engine.getComponentStore(ComponentA::class.java)
+        val entity = Entity()
+        engine.addEntity(entity)
+
+        assertFalse(store.has(entity))
+        assertNull(store.get(entity))
+
+        val first = ComponentA()
+        entity.add(first)
+        assertSame(first, store.get(entity))
+
+        val second = ComponentA()
+        entity.add(second)
+        assertEquals(1, store.size())
+        assertSame(second, store.get(entity))
+
+        entity.remove(ComponentA::class.java)
+        assertEquals(0, store.size())
+        assertFalse(store.has(entity))
+    }
+
+    @Test
+    fun denseIterationAfterRemovals() {
+        val engine = Engine()
+        val store = engine.getComponentStore(ComponentA::class.java)
+        val entities = Array(3000) { i -> Entity().apply { if (i % 3 == 0) add(ComponentA()) } }
+        entities.forEach { engine.addEntity(it) }
+
+        assertEquals(1000, store.size())
+
+        for (i in 0 until 3000 step 6) {
+            engine.removeEntity(entities[i])
+        }
+
+        assertEquals(500, store.size())
+        for (i in 0 until store.size()) {
+            val entity = store.getEntity(i)
+            assertSame(entity.getComponent(ComponentA::class.java), store.getComponent(i))
+            assertSame(store.getComponent(i), store.components[i])
+            assertSame(store.getComponent(i), store.get(entity))
+        }
+        for (i in 0 until 3000 step 6) {
+            assertFalse(store.has(entities[i]))
+        }
+
+        // Ids of removed entities are reused
+        val reused = Entity().add(ComponentA())
+        engine.addEntity(reused)
+        assertEquals(2995, reused.id)
+        assertEquals(501, store.size())
+        assertTrue(store.has(reused))
+    }
+
+    @Test
+    fun delayedChangesAndRemoval() {
+        val engine = Engine()
+        val storeA = engine.getComponentStore(ComponentA::class.java)
+        val storeB = engine.getComponentStore(ComponentB::class.java)
+        val swapped = Entity().add(ComponentB())
+        val removed = Entity().add(ComponentA()).add(ComponentB())
+        engine.addEntity(swapped)
+        engine.addEntity(removed)
+
+        engine.addSystem(object : EntitySystem() {
+            override fun update(deltaTime: Float) {
+                swapped.remove(ComponentB::class.java)
+                swapped.add(ComponentA())
+                removed.remove(ComponentB::class.java)
+                engine.removeEntity(removed)
+            }
+        })
+        engine.update(0f)
+
+        assertEquals(1, storeA.size())
+        assertSame(swapped.getComponent(ComponentA::class.java), storeA.get(swapped))
+        assertEquals(0, storeB.size())
+        assertFalse(storeA.has(removed))
+    }
+}
@@ -0,0 +1,292 @@
+package com.badlogic.ashley.core
+
+import com.badlogic.ashley.systems.IteratingSystem
+import com.badlogic.gdx.utils.DataInput
+import com.badlogic.gdx.utils.DataOutput
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+
+class EngineSerializerTest {
+
+    enum class State { IDLE, RUNNING }
+
+    class PositionComponent : Component {
+        var x = 0f
+        var y = 0f
+    }
+
+    class InfoComponent : Component {
+        var name: String? = null
+        var state: State? = null
+        var health = 0
+        var alive = false
+        var id: Long? = null
+    }
+
+    class TagComponent : Component
+
+    class StateComponent : Component {
+        var state: State? = null
+    }
+
+    class PositionSerializer : ComponentSerializer<PositionComponent> {
+        var writes = 0
+
+        override fun write(output: DataOutput, component: PositionComponent) {
+            ++writes
+            output.writeFloat(component.x)
+            output.writeFloat(component.y)
+        }
+
+        override fun read(input: DataInput, component: PositionComponent) {
+            component.x = input.readFloat()
+            component.y = input.readFloat()
+        }
+    }
+
+    private fun createEntity(engine: Engine, x: Float, name: String?): Entity {
+        val entity = engine.createEntity()
+        entity.add(engine.createComponent(PositionComponent::class.java).apply { this.x = x; y = -x })
+        entity.add(engine.createComponent(InfoComponent::class.java).apply {
+            this.name = name
+            state = State.RUNNING
+            health = x.toInt()
+            alive = true
+            id = if (name == null) null else x.toLong()
+        })
+        engine.addEntity(entity)
+        return entity
+    }
+
+    @Test
+    fun copyToAnotherEngine() {
+        val positionSerializer = PositionSerializer()
+        val serializer = EngineSerializer().register(PositionComponent::class.java, positionSerializer)
+        val source = Engine()
+        createEntity(source, 1f, "a")
+        createEntity(source, 2f, null).add(TagComponent()).flags = 42
+
+        val destination = PooledEngine()
+        serializer.copy(source, destination)
+
+        assertEquals(2, positionSerializer.writes)
+        assertEquals(2, destination.entities.size())
+        for (i in 0..<2) {
+            val expected = source.entities.get(i)
+            val actual = destination.entities.get(i)
+            assertEquals(expected.flags, actual.flags)
+            assertEquals(expected.components.size(), actual.components.size())
+            assertEquals(expected.getComponent(PositionComponent::class.java).y, actual.getComponent(PositionComponent::class.java).y, 0f)
+
+            val expectedInfo = expected.getComponent(InfoComponent::class.java)
+            val actualInfo = actual.getComponent(InfoComponent::class.java)
+            assertEquals(expectedInfo.name, actualInfo.name)
+            assertEquals(expectedInfo.state, actualInfo.state)
+            assertEquals(expectedInfo.health, actualInfo.health)
+            assertEquals(expectedInfo.alive, actualInfo.alive)
+            assertEquals(expectedInfo.id, actualInfo.id)
+        }
+        assertEquals(1, destination.getEntitiesFor(Family.all(TagComponent::class.java).get()).size())
+    }
+
+    @Test
+    fun rollbackReusesEntitiesAndComponents() {
+        val serializer = EngineSerializer()
+        val engine = Engine()
+        val a = createEntity(engine, 1f, "a")
+        val b = createEntity(engine, 2f, "b")
+        val position = a.getComponent(PositionComponent::class.java)
+
+        val snapshot = serializer.write(engine)
+
+        position.x = 100f
+        a.remove(InfoComponent::class.java)
+        b.add(TagComponent())
+        createEntity(engine, 3f, "c")
+
+        serializer.read(engine, snapshot)
+
+        assertEquals(2, engine.entities.size())
+        assertSame(a, engine.entities.get(0))
+        assertSame(b, engine.entities.get(1))
+        assertSame(position, a.getComponent(PositionComponent::class.java))
+        assertEquals(1f, position.x, 0f)
+        assertEquals("a", a.getComponent(InfoComponent::class.java).name)
+        assertNull(b.getComponent(TagComponent::class.java))
+        assertEquals(0, engine.getEntitiesFor(Family.all(TagComponent::class.java).get()).size())
+        assertEquals(2, engine.getEntitiesFor(Family.all(InfoComponent::class.java).get()).size())
+    }
+
+    @Test
+    fun restoreUsesPooledComponents() {
+        val serializer = EngineSerializer()
+        val engine = PooledEngine()
+        createEntity(engine, 1f, "a")
+        val snapshot = serializer.write(engine)
+
+        val removed = engine.entities.get(0)
+        val position = removed.getComponent(PositionComponent::class.java)
+        engine.removeAllEntities()
+
+        serializer.read(engine, snapshot)
+
+        val restored = engine.entities.get(0)
+        assertSame(removed, restored)
+        assertSame(position, restored.getComponent(PositionComponent::class.java))
+        assertEquals(-1f, position.y, 0f)
+    }
+
+    @Test
+    fun freshInstancesWhenClassChanges() {
+        val serializer = EngineSerializer()
+        val source = Engine()
+        val destination = Engine()
+        createEntity(source, 1f, "a")
+        val existing = destination.createEntity().add(TagComponent())
+        destination.addEntity(existing)
+
+        serializer.copy(source, destination)
+
+        assertSame(existing, destination.entities.get(0))
+        assertNull(existing.getComponent(TagComponent::class.java))
+        assertNotSame(source.entities.get(0).getComponent(PositionComponent::class.java), existing.getComponent(PositionComponent::class.java))
+        assertEquals(1f, existing.getComponent(PositionComponent::class.java).x, 0f)
+    }
+
+    @Test
+    fun rollbackAfterRemovalMatchesEntitiesById() {
+        val serializer = EngineSerializer()
+        val engine = Engine()
+        val a = createEntity(engine, 1f, "a")
+        val b = createEntity(engine, 2f, "b")
+        val c = createEntity(engine, 3f, "c")
+        val snapshot = serializer.write(engine)
+
+        // Removing the first entity moves the last one into its place
+        engine.removeEntity(a)
+        b.getComponent(PositionComponent::class.java).x = 20f
+        serializer.read(engine, snapshot)
+
+        assertEquals(3, engine.entities.size())
+        assertTrue(engine.entities.contains(b, true))
+        assertTrue(engine.entities.contains(c, true))
+        assertFalse(engine.entities.contains(a, true))
+        assertEquals(2f, b.getComponent(PositionComponent::class.java).x, 0f)
+        assertEquals(3f, c.getComponent(PositionComponent::class.java).x, 0f)
+        assertEquals("c", c.getComponent(InfoComponent::class.java).name)
+
+        val restored = engine.entities.first { it !== b && it !== c }
+        assertEquals("a", restored.getComponent(InfoComponent::class.java).name)
+
+        // The restored entity keeps its id, so the next rollback reuses it
+        restored.getComponent(PositionComponent::class.java).x = 10f
+        serializer.read(engine, snapshot)
+        assertTrue(engine.entities.contains(restored, true))
+        assertEquals(1f, restored.getComponent(PositionComponent::class.java).x, 0f)
+    }
+
+    @Test
+    fun restoredIdsAreClaimed() {
+        val source = Engine()
+        createEntity(source, 1f, "a")
+        val b = createEntity(source, 2f, "b")
+        createEntity(source, 3f, "c")
+        source.removeEntity(b)
+
+        val destination = Engine()
+        val store = destination.getComponentStore(PositionComponent::class.java)
+        EngineSerializer().read(destination, EngineSerializer().write(source))
+        val added = createEntity(destination, 4f, "d")
+
+        // The id skipped by the snapshot is handed out instead of one in use
+        assertEquals(2, added.id)
+        assertEquals(3, store.size())
+        for (entity in destination.entities) {
+            assertSame(entity.getComponent(PositionComponent::class.java), store.get(entity))
+        }
+    }
+
+    @Test
+    fun rejectsInvalidEnumOrdinals() {
+        val bytes = ByteArrayOutputStream()
+        val output = DataOutput(bytes)
+        output.writeInt(2, true)
+        output.writeInt(1, true)
+        output.writeString(StateComponent::class.java.name)
+        output.writeInt(1, true)
+        output.writeInt(1, true)
+        output.writeInt(0)
+        output.writeInt(1, true)
+        output.writeInt(0, true)
+        output.writeBoolean(true)
+        output.writeInt(State.values().size, true)
+        output.flush()
+
+        try {
+            EngineSerializer().read(Engine(), bytes.toByteArray())
+            fail()
+        } catch (expected: IllegalArgumentException) {
+            assertTrue(expected.cause!!.message!!.startsWith("Invalid ordinal"))
+        }
+    }
+
+    @Test
+    fun rejectsClassesThatAreNotComponents() {
+        try {
+            EngineSerializer().read(Engine(), snapshotOf(java.lang.StringBuilder::class.java.name))
+            fail()
+        } catch (expected: IllegalArgumentException) {
+            assertTrue(expected.cause!!.message!!.startsWith("Not a component class"))
+        }
+    }
+
+    @Test
+    fun requireRegistrationRejectsUnregisteredClasses() {
+        val serializer = EngineSerializer()
+        serializer.setRequireRegistration(true)
+        try {
+            serializer.read(Engine(), snapshotOf(TagComponent::class.java.name))
+            fail()
+        } catch (expected: IllegalArgumentException) {
+            assertTrue(expected.cause!!.message!!.startsWith("Component class is not registered"))
+        }
+
+        serializer.register(PositionComponent::class.java, PositionSerializer())
+        val source = Engine()
+        createEntity(source, 1f, null).remove(InfoComponent::class.java)
+        val destination = Engine()
+        serializer.copy(source, destination)
+        assertEquals(1f, destination.entities.first().getComponent(PositionComponent::class.java).x, 0f)
+    }
+
+    private fun snapshotOf(className: String): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        val output = DataOutput(bytes)
+        output.writeInt(2, true)
+        output.writeInt(1, true)
+        output.writeString(className)
+        output.writeInt(0, true)
+        output.flush()
+        return bytes.toByteArray()
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun cannotSnapshotWhileUpdating() {
+        val serializer = EngineSerializer()
+        val engine = Engine()
+        createEntity(engine, 1f, "a")
+        engine.addSystem(object : IteratingSystem(Family.all(PositionComponent::class.java).get()) {
+            override fun processEntity(entity: Entity, deltaTime: Float) {
+                serializer.write(engine)
+            }
+        })
+        engine.update(0f)
+    }
+}
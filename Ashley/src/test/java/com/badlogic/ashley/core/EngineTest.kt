@@ -1,8 +1,10 @@
 package com.badlogic.ashley.core
 
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNotNull
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
 import org.junit.Test
 
 class EngineTest {
@@ -150,4 +152,21 @@ class EngineTest {
         engine.removeAllSystems()
         assertEquals(0, engine.systems.size())
     }
+
+    @Test
+    fun engineDoesNotListenThroughEntitySignals() {
+        val engine = Engine()
+        val entity = Entity()
+        val family = engine.getEntitiesFor(Family.all(ComponentA::class.java).get())
+
+        engine.addEntity(entity)
+        assertFalse(entity.componentAdded.hasListeners())
+        assertFalse(entity.componentRemoved.hasListeners())
+
+        entity.add(ComponentA())
+        assertTrue(family.contains(entity, true))
+
+        entity.remove(ComponentA::class.java)
+        assertEquals(0, family.size())
+    }
 }
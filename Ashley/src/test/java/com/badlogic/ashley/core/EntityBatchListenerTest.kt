@@ -0,0 +1,163 @@
+package com.badlogic.ashley.core
+
+import com.badlogic.ashley.utils.ImmutableArray
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class EntityBatchListenerTest {
+
+    class ComponentA : Component
+
+    private class BatchListenerMock : EntityBatchListener {
+        val added = ArrayList<List<Entity>>()
+        val removed = ArrayList<List<Entity>>()
+
+        override fun entitiesAdded(entities: ImmutableArray<Entity>) {
+            added.add(entities.toList())
+        }
+
+        override fun entitiesRemoved(entities: ImmutableArray<Entity>) {
+            removed.add(entities.toList())
+        }
+    }
+
+    @Test
+    fun oneCallbackPerUpdate() {
+        val engine = Engine()
+        val listener = BatchListenerMock()
+        engine.addEntityBatchListener(Family.all(ComponentA::class.java).get(), listener)
+
+        val entities = List(5) { Entity() }
+        entities.forEach { engine.addEntity(it) }
+        entities.forEach { it.add(ComponentA()) }
+        assertEquals(0, listener.added.size)
+
+        engine.update(0f)
+        assertEquals(1, listener.added.size)
+        assertEquals(entities, listener.added[0])
+        assertEquals(0, listener.removed.size)
+
+        engine.update(0f)
+        assertEquals(1, listener.added.size)
+
+        engine.removeEntity(entities[1])
+        entities[3].remove(ComponentA::class.java)
+        engine.update(0f)
+        assertEquals(1, listener.added.size)
+        assertEquals(1, listener.removed.size)
+        assertEquals(listOf(entities[1], entities[3]), listener.removed[0])
+    }
+
+    @Test
+    fun netChangesOnly() {
+        val engine = Engine()
+        val listener = BatchListenerMock()
+        engine.addEntityBatchListener(listener)
+
+        val transient = Entity()
+        val kept = Entity()
+        engine.addEntity(kept)
+        engine.addEntity(transient)
+        engine.removeEntity(transient)
+        engine.update(0f)
+
+        assertEquals(listOf(kept), listener.added[0])
+        assertEquals(0, listener.removed.size)
+
+        // Removed and added back within a frame: no change
+        engine.removeEntity(kept)
+        engine.addEntity(kept)
+        engine.update(0f)
+        assertEquals(1, listener.added.size)
+        assertEquals(0, listener.removed.size)
+
+        engine.removeEntityBatchListener(listener)
+        engine.removeEntity(kept)
+        engine.update(0f)
+        assertEquals(0, listener.removed.size)
+    }
+
+    @Test
+    fun changesMadeByListenerAreDeliveredNextUpdate() {
+        val engine = Engine()
+        val spawned = Entity()
+        val listener = object : EntityBatchListener {
+            var calls = 0
+            var last: Entity? = null
+
+            override fun entitiesAdded(entities: ImmutableArray<Entity>) {
+                ++calls
+                last = entities.get(entities.size() - 1)
+                if (calls == 1) {
+                    engine.addEntity(spawned)
+                }
+            }
+
+            override fun entitiesRemoved(entities: ImmutableArray<Entity>) {
+            }
+        }
+        engine.addEntityBatchListener(listener)
+        engine.addEntity(Entity())
+
+        engine.update(0f)
+        assertEquals(1, listener.calls)
+        assertEquals(2, engine.entities.size())
+
+        engine.update(0f)
+        assertEquals(2, listener.calls)
+        assertSame(spawned, listener.last)
+    }
+
+    @Test
+    fun reportsInOrderOfLastChange() {
+        val engine = Engine()
+        val listener = BatchListenerMock()
+        engine.addEntityBatchListener(listener)
+
+        val first = Entity()
+        val second = Entity()
+        engine.addEntity(second)
+        engine.removeEntity(second)
+        engine.addEntity(first)
+        engine.addEntity(second)
+        engine.update(0f)
+
+        assertEquals(listOf(first, second), listener.added[0])
+    }
+
+    @Test
+    fun pooledEntitiesAreRecycledAfterDelivery() {
+        val engine = PooledEngine()
+        var componentsOnRemoval: ComponentA? = null
+        var removedCount = 0
+        engine.addEntityBatchListener(Family.all(ComponentA::class.java).get(), object : EntityBatchListener {
+            override fun entitiesAdded(entities: ImmutableArray<Entity>) {
+            }
+
+            override fun entitiesRemoved(entities: ImmutableArray<Entity>) {
+                removedCount += entities.size()
+                componentsOnRemoval = entities.first().getComponent(ComponentA::class.java)
+            }
+        })
+
+        val entity = engine.createEntity()
+        entity.add(engine.createComponent(ComponentA::class.java))
+        engine.addEntity(entity)
+        engine.update(0f)
+
+        engine.removeEntity(entity)
+        val recycled = engine.createEntity()
+        assertNotSame(entity, recycled)
+        recycled.add(engine.createComponent(ComponentA::class.java))
+        engine.addEntity(recycled)
+        engine.update(0f)
+
+        assertEquals(1, removedCount)
+        assertNotNull(componentsOnRemoval)
+        assertNull(entity.getComponent(ComponentA::class.java))
+    }
+}
@@ -0,0 +1,190 @@
+package com.badlogic.ashley.core
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import com.badlogic.ashley.signals.Listener
+import com.badlogic.ashley.signals.Signal
+import org.junit.Test
+import java.util.concurrent.ForkJoinPool
+
+class EntityCommandBufferTest {
+
+    private class ComponentA : Component
+    private class ComponentB : Component
+    private class ComponentC : Component
+
+    private class CountingListener : EntityListener {
+        var added = 0
+        var removed = 0
+
+        override fun entityAdded(entity: Entity) {
+            added++
+        }
+
+        override fun entityRemoved(entity: Entity) {
+            removed++
+        }
+    }
+
+    @Test
+    fun groupsChangesPerEntity() {
+        val engine = Engine()
+        val family = Family.all(ComponentA::class.java, ComponentB::class.java).exclude(ComponentC::class.java).get()
+        val listener = CountingListener()
+        engine.addEntityListener(family, listener)
+
+        val entity = Entity()
+        engine.addEntity(entity)
+
+        val buffer = EntityCommandBuffer(engine)
+        buffer.addComponent(entity, ComponentA())
+        buffer.addComponent(entity, ComponentC())
+        buffer.addComponent(entity, ComponentB())
+        buffer.removeComponent(entity, ComponentC::class.java)
+
+        assertEquals(4, buffer.size())
+        assertNull(entity.getComponent(ComponentA::class.java))
+
+        buffer.playback()
+
+        assertEquals(0, buffer.size())
+        assertEquals(1, listener.added)
+        assertEquals(0, listener.removed)
+        assertEquals(1, engine.getEntitiesFor(family).size())
+        assertNull(entity.getComponent(ComponentC::class.java))
+    }
+
+    @Test
+    fun addAndRemoveEntities() {
+        val engine = Engine()
+        val family = Family.all(ComponentA::class.java).get()
+        val listener = CountingListener()
+        engine.addEntityListener(family, listener)
+        val buffer = engine.commandBuffer
+
+        val entity = Entity()
+        buffer.addEntity(entity)
+        buffer.addComponent(entity, ComponentA())
+        buffer.playback()
+
+        assertEquals(1, engine.entities.size())
+        assertEquals(1, listener.added)
+
+        val other = Entity()
+        buffer.addEntity(other)
+        buffer.removeEntity(other)
+        buffer.removeComponent(entity, ComponentA::class.java)
+        buffer.removeEntity(entity)
+        buffer.playback()
+
+        assertEquals(0, engine.entities.size())
+        assertEquals(1, listener.removed)
+    }
+
+    @Test
+    fun removeAndAddLiveEntity() {
+        val engine = Engine()
+        val family = Family.all(ComponentA::class.java).get()
+        val listener = CountingListener()
+        engine.addEntityListener(family, listener)
+        val entity = Entity().add(ComponentA())
+        engine.addEntity(entity)
+
+        val buffer = engine.commandBuffer
+        buffer.removeEntity(entity)
+        buffer.addEntity(entity)
+        buffer.playback()
+
+        assertEquals(1, engine.entities.size())
+        assertEquals(1, listener.added)
+        assertEquals(0, listener.removed)
+
+        buffer.removeEntity(entity)
+        buffer.addComponent(entity, ComponentB())
+        buffer.addEntity(entity)
+        buffer.removeComponent(entity, ComponentA::class.java)
+        buffer.playback()
+
+        assertTrue(engine.entities.contains(entity, true))
+        assertEquals(1, listener.removed)
+        assertNotNull(entity.getComponent(ComponentB::class.java))
+    }
+
+    @Test
+    fun updatesMembershipOncePerEntity() {
+        val engine = Engine()
+        val entity = Entity().add(ComponentC())
+        engine.addEntity(entity)
+        val engineListener = entity.componentListener
+        var updates = 0
+        entity.componentListener = Listener { signal: Signal<Entity>, e: Entity ->
+            updates++
+            engineListener.receive(signal, e)
+        }
+        var signals = 0
+        entity.componentAdded.add { _, _ -> signals++ }
+        entity.componentRemoved.add { _, _ -> signals++ }
+
+        val buffer = engine.commandBuffer
+        buffer.addComponent(entity, ComponentA())
+        buffer.removeComponent(entity, ComponentC::class.java)
+        buffer.addComponent(entity, ComponentB())
+        buffer.playback()
+
+        assertEquals(1, updates)
+        assertEquals(2, signals)
+        assertEquals(1, engine.getEntitiesFor(Family.all(ComponentA::class.java, ComponentB::class.java).get()).size())
+        assertEquals(0, engine.getEntitiesFor(Family.all(ComponentC::class.java).get()).size())
+    }
+
+    @Test
+    fun playsBackAtEndOfUpdate() {
+        val engine = Engine()
+        val family = Family.all(ComponentA::class.java).get()
+        val entities = engine.getEntitiesFor(family)
+        val entity = Entity()
+        engine.addEntity(entity)
+
+        engine.addSystem(object : EntitySystem() {
+            override fun update(deltaTime: Float) {
+                engine.commandBuffer.addComponent(entity, ComponentA())
+            }
+        })
+
+        engine.addSystem(object : EntitySystem(1) {
+            override fun update(deltaTime: Float) {
+                assertFalse(entities.contains(entity, true))
+            }
+        })
+
+        engine.update(0f)
+
+        assertTrue(entities.contains(entity, true))
+        assertEquals(0, engine.commandBuffer.size())
+    }
+
+    @Test
+    fun recordsFromManyThreads() {
+        val engine = Engine()
+        val pool = ForkJoinPool(4)
+        try {
+            val entities = Array(1000) { Entity() }
+            entities.forEach { engine.addEntity(it) }
+
+            pool.submit {
+                entities.toList().parallelStream().forEach { engine.commandBuffer.addComponent(it, ComponentA()) }
+            }.get()
+
+            assertEquals(1000, engine.commandBuffer.size())
+            engine.commandBuffer.playback()
+
+            assertEquals(1000, engine.getEntitiesFor(Family.all(ComponentA::class.java).get()).size())
+            entities.forEach { assertNotNull(it.getComponent(ComponentA::class.java)) }
+        } finally {
+            pool.shutdown()
+        }
+    }
+}
@@ -262,6 +262,86 @@ class FamilyManagerTests {
         assertFalse(manager.notifying())
     }
 
+    @Test
+    fun swapRemoveKeepsFamilyConsistent() {
+        val entities = Array<Entity>()
+        val immutableEntities = ImmutableArray(entities)
+        val manager = FamilyManager(immutableEntities)
+
+        val family = Family.all(ComponentA::class.java).get()
+        val familyEntities = manager.getEntitiesFor(family)
+
+        for (i in 0 until 10) {
+            val entity = Entity()
+            entity.add(ComponentA())
+            entities.add(entity)
+            manager.updateFamilyMembership(entity)
+        }
+
+        assertEquals(10, familyEntities.size())
+
+        // Remove from the front, the middle and the back
+        for (index in intArrayOf(0, 4, 7)) {
+            entities.get(index).remove(ComponentA::class.java)
+            manager.updateFamilyMembership(entities.get(index))
+        }
+
+        assertEquals(7, familyEntities.size())
+        for (i in 0 until entities.size) {
+            val entity = entities.get(i)
+            assertEquals(entity.getComponent(ComponentA::class.java) != null, familyEntities.contains(entity, true))
+        }
+
+        for (i in 0 until entities.size) {
+            val entity = entities.get(i)
+            entity.remove(ComponentA::class.java)
+            manager.updateFamilyMembership(entity)
+        }
+
+        assertEquals(0, familyEntities.size())
+    }
+
+    @Test
+    fun unrelatedComponentChangeKeepsMembership() {
+        val entities = Array<Entity>()
+        val immutableEntities = ImmutableArray(entities)
+        val manager = FamilyManager(immutableEntities)
+
+        val familyA = manager.getEntitiesFor(Family.all(ComponentA::class.java).get())
+        val everything = manager.getEntitiesFor(Family.all().get())
+
+        val entity = Entity()
+        entity.add(ComponentA())
+        entities.add(entity)
+        manager.updateFamilyMembership(entity)
+
+        assertEquals(1, familyA.size())
+        assertEquals(1, everything.size())
+
+        entity.add(ComponentC())
+        manager.updateFamilyMembership(entity)
+        entity.remove(ComponentC::class.java)
+        manager.updateFamilyMembership(entity)
+
+        assertEquals(1, familyA.size())
+        assertEquals(1, everything.size())
+
+        // Families registered later must still see existing entities
+        val familyAC = manager.getEntitiesFor(Family.all(ComponentA::class.java, ComponentC::class.java).get())
+        assertEquals(0, familyAC.size())
+        entity.add(ComponentC())
+        manager.updateFamilyMembership(entity)
+        assertEquals(1, familyAC.size())
+
+        entity.removing = true
+        manager.updateFamilyMembership(entity)
+        entity.removing = false
+
+        assertEquals(0, familyA.size())
+        assertEquals(0, familyAC.size())
+        assertEquals(0, everything.size())
+    }
+
     private class ComponentA : Component
     private class ComponentB : Component
     private class ComponentC : Component
@@ -0,0 +1,116 @@
+package com.badlogic.ashley.core
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class QueryTest {
+
+    private class ComponentA : Component
+    private class ComponentB : Component
+    private class ComponentC : Component
+
+    @Test
+    fun structuralQueryUsesFamily() {
+        val engine = Engine()
+        val query = engine.query().with(ComponentA::class.java).without(ComponentC::class.java).get()
+
+        assertFalse(query.isChangeQuery)
+        assertSame(Family.all(ComponentA::class.java).exclude(ComponentC::class.java).get(), query.family)
+
+        val a = Entity().add(ComponentA())
+        engine.addEntity(a)
+        engine.addEntity(Entity().add(ComponentA()).add(ComponentC()))
+
+        assertEquals(listOf(a), query.update().toList())
+        assertSame(engine.getEntitiesFor(query.family), query.entities)
+    }
+
+    @Test
+    fun changedSinceLastUpdate() {
+        val engine = Engine()
+        val existing = Entity().add(ComponentA())
+        engine.addEntity(existing)
+
+        val query = engine.query().changed(ComponentA::class.java).get()
+        val entity = Entity().add(ComponentA())
+        engine.addEntity(entity)
+        engine.addEntity(Entity().add(ComponentB()))
+
+        // Entities present when the query is created and added since both count as changed
+        assertEquals(setOf(existing, entity), query.update().toSet())
+        assertEquals(0, query.update().size())
+
+        entity.markChanged(ComponentA::class.java)
+        entity.markChanged(ComponentA::class.java)
+        assertEquals(listOf(entity), query.update().toList())
+        assertEquals(listOf(entity), query.entities.toList())
+
+        ComponentMapper.getFor(ComponentA::class.java).markChanged(existing)
+        engine.removeEntity(existing)
+        assertEquals(0, query.update().size())
+
+        // Changes to other components are ignored
+        entity.add(ComponentB())
+        entity.markChanged(ComponentB::class.java)
+        assertEquals(0, query.update().size())
+    }
+
+    @Test
+    fun allChangeFiltersMustHold() {
+        val engine = Engine()
+        val entity = Entity().add(ComponentA()).add(ComponentB())
+        engine.addEntity(entity)
+
+        val query = engine.query().changed(ComponentA::class.java).added(ComponentB::class.java).get()
+        assertEquals(1, query.update().size())
+
+        entity.markChanged(ComponentA::class.java)
+        assertEquals(0, query.update().size())
+
+        entity.markChanged(ComponentA::class.java)
+        entity.add(ComponentB())
+        assertEquals(1, query.update().size())
+    }
+
+    @Test
+    fun queriesTrackChangesIndependently() {
+        val engine = Engine()
+        val entity = Entity().add(ComponentA())
+        engine.addEntity(entity)
+
+        val first = engine.query().changed(ComponentA::class.java).get()
+        val second = engine.query().changed(ComponentA::class.java).get()
+        first.update()
+        second.update()
+
+        entity.markChanged(ComponentA::class.java)
+        assertEquals(1, first.update().size())
+        assertEquals(1, second.update().size())
+
+        engine.removeQuery(second)
+        entity.markChanged(ComponentA::class.java)
+        assertEquals(1, first.update().size())
+        assertEquals(0, second.update().size())
+    }
+
+    @Test
+    fun delayedChangesDuringUpdate() {
+        val engine = Engine()
+        val entity = Entity()
+        engine.addEntity(entity)
+        val query = engine.query().added(ComponentA::class.java).any(ComponentB::class.java, ComponentC::class.java).get()
+
+        engine.addSystem(object : EntitySystem() {
+            override fun update(deltaTime: Float) {
+                entity.add(ComponentA())
+                entity.add(ComponentC())
+            }
+        })
+        engine.update(0f)
+
+        assertTrue(query.update().contains(entity, true))
+    }
+}
@@ -0,0 +1,151 @@
+package com.badlogic.ashley.core
+
+import com.badlogic.ashley.utils.ImmutableArray
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+
+class SystemSchedulerTest {
+
+    private class ComponentA : Component
+    private class ComponentB : Component
+
+    private class ReaderA(priority: Int) : EntitySystem(priority) {
+        init {
+            reads(ComponentA::class.java)
+        }
+    }
+
+    private class WriterA(priority: Int) : EntitySystem(priority) {
+        init {
+            writes(ComponentA::class.java)
+        }
+    }
+
+    private class WriterB(priority: Int) : EntitySystem(priority) {
+        init {
+            reads(ComponentA::class.java)
+            writes(ComponentB::class.java)
+        }
+    }
+
+    private class Undeclared(priority: Int) : EntitySystem(priority)
+
+    private open class LatchSystem(private val latch: CountDownLatch) : EntitySystem() {
+        var met = false
+
+        init {
+            reads(ComponentA::class.java)
+        }
+
+        override fun update(deltaTime: Float) {
+            latch.countDown()
+            // Only succeeds if both systems are running at the same time
+            met = latch.await(5, TimeUnit.SECONDS)
+        }
+    }
+
+    private class LatchSystemA(latch: CountDownLatch) : LatchSystem(latch)
+    private class LatchSystemB(latch: CountDownLatch) : LatchSystem(latch)
+
+    private open class SpawnSystem(private val entities: ImmutableArray<Entity>) : EntitySystem() {
+        init {
+            reads(ComponentA::class.java)
+        }
+
+        override fun update(deltaTime: Float) {
+            for (j in 0 until 100) {
+                engine.addEntity(Entity().add(ComponentB()))
+            }
+            assertEquals(0, entities.size())
+        }
+    }
+
+    private class SpawnSystemA(entities: ImmutableArray<Entity>) : SpawnSystem(entities)
+    private class SpawnSystemB(entities: ImmutableArray<Entity>) : SpawnSystem(entities)
+    private class SpawnSystemC(entities: ImmutableArray<Entity>) : SpawnSystem(entities)
+    private class SpawnSystemD(entities: ImmutableArray<Entity>) : SpawnSystem(entities)
+
+    @Test
+    fun conflicts() {
+        assertFalse(ReaderA(0).conflictsWith(ReaderA(0)))
+        assertTrue(ReaderA(0).conflictsWith(WriterA(0)))
+        assertTrue(WriterA(0).conflictsWith(ReaderA(0)))
+        assertTrue(WriterA(0).conflictsWith(WriterB(0)))
+        assertFalse(WriterB(0).conflictsWith(ReaderA(0)))
+        assertTrue(Undeclared(0).conflictsWith(ReaderA(0)))
+        assertTrue(ReaderA(0).conflictsWith(Undeclared(0)))
+    }
+
+    @Test
+    fun batchesFollowPriorityOrder() {
+        val engine = Engine()
+        engine.addSystem(ReaderA(0))
+        engine.addSystem(WriterB(1))
+        engine.addSystem(WriterA(2))
+        engine.addSystem(Undeclared(3))
+
+        // ReaderA + WriterB | WriterA | Undeclared
+        assertEquals(3, SystemScheduler().getNumBatches(engine.systems))
+
+        // A conflicting system between two compatible ones splits them
+        engine.addSystem(Undeclared(0))
+        assertEquals(4, SystemScheduler().getNumBatches(engine.systems))
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun declareAfterAdd() {
+        val engine = Engine()
+        val system = object : EntitySystem() {
+            fun declare() = reads(ComponentA::class.java)
+        }
+        engine.addSystem(system)
+        system.declare()
+    }
+
+    @Test
+    fun runsNonConflictingSystemsTogether() {
+        val pool = ForkJoinPool(2)
+        try {
+            val latch = CountDownLatch(2)
+            val a = LatchSystemA(latch)
+            val b = LatchSystemB(latch)
+            val engine = Engine()
+            engine.systemExecutor = pool
+            engine.addSystem(a)
+            engine.addSystem(b)
+
+            engine.update(0f)
+
+            assertTrue(a.met)
+            assertTrue(b.met)
+        } finally {
+            pool.shutdown()
+        }
+    }
+
+    @Test
+    fun delaysOperationsUntilBatchEnds() {
+        val pool = ForkJoinPool(4)
+        try {
+            val engine = Engine()
+            engine.systemExecutor = pool
+            val entities = engine.getEntitiesFor(Family.all(ComponentB::class.java).get())
+
+            engine.addSystem(SpawnSystemA(entities))
+            engine.addSystem(SpawnSystemB(entities))
+            engine.addSystem(SpawnSystemC(entities))
+            engine.addSystem(SpawnSystemD(entities))
+
+            engine.update(0f)
+
+            assertEquals(400, entities.size())
+        } finally {
+            pool.shutdown()
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.badlogic.ashley.signals
 
 import com.badlogic.gdx.utils.Array
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
 import org.junit.Test
 
 class SignalTests {
@@ -125,6 +127,31 @@ class SignalTests {
         assertEquals(1, listenerB.count)
     }
 
+    @Test
+    fun addWhileDispatch() {
+        val dummy = Dummy()
+        val signal = Signal<Dummy>()
+        val listenerB = ListenerMock()
+        val listenerA = object : Listener<Dummy> {
+            override fun receive(signal: Signal<Dummy>, receivedObject: Dummy) {
+                signal.add(listenerB)
+            }
+        }
+
+        signal.add(listenerA)
+        assertTrue(signal.hasListeners())
+
+        signal.dispatch(dummy)
+        assertEquals(0, listenerB.count)
+
+        signal.remove(listenerA)
+        signal.dispatch(dummy)
+        assertEquals(1, listenerB.count)
+
+        signal.remove(listenerB)
+        assertFalse(signal.hasListeners())
+    }
+
     private class Dummy
 
     private class ListenerMock : Listener<Dummy> {
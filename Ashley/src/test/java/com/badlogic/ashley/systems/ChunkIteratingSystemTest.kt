@@ -0,0 +1,71 @@
+package com.badlogic.ashley.systems
+
+import com.badlogic.ashley.core.ArchetypeChunk
+import com.badlogic.ashley.core.Component
+import com.badlogic.ashley.core.ComponentMapper
+import com.badlogic.ashley.core.ComponentType
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.Family
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class ChunkIteratingSystemTest {
+
+    private class PositionComponent : Component {
+        var x = 0f
+    }
+
+    private class VelocityComponent : Component {
+        var x = 0f
+    }
+
+    private class TagComponent : Component
+
+    private class MovementSystem : ChunkIteratingSystem(Family.all(PositionComponent::class.java, VelocityComponent::class.java).get()) {
+        var chunks = 0
+
+        override fun processChunk(chunk: ArchetypeChunk, deltaTime: Float) {
+            val positions = chunk.getComponents(POSITION)
+            val velocities = chunk.getComponents(VELOCITY)
+            for (i in 0 until chunk.size()) {
+                (positions[i] as PositionComponent).x += (velocities[i] as VelocityComponent).x * deltaTime
+            }
+            chunks++
+        }
+    }
+
+    @Test
+    fun processesEveryMatchingChunk() {
+        val engine = Engine(true, 8)
+        val system = MovementSystem()
+        engine.addSystem(system)
+
+        for (i in 0 until 20) {
+            val entity = Entity()
+            entity.add(PositionComponent())
+            entity.add(VelocityComponent().apply { x = 1f })
+            if (i % 2 == 0) entity.add(TagComponent())
+            engine.addEntity(entity)
+        }
+        engine.addEntity(Entity().add(PositionComponent()))
+
+        engine.update(2f)
+
+        // 10 tagged and 10 untagged entities, 8 per chunk
+        assertEquals(4, system.chunks)
+
+        val pm = ComponentMapper.getFor(PositionComponent::class.java)
+        val entities = engine.getEntitiesFor(Family.all(PositionComponent::class.java).get())
+        var moved = 0
+        for (entity in entities) {
+            if (pm.get(entity).x == 2f) moved++
+        }
+        assertEquals(20, moved)
+    }
+
+    companion object {
+        private val POSITION = ComponentType.getFor(PositionComponent::class.java)
+        private val VELOCITY = ComponentType.getFor(VelocityComponent::class.java)
+    }
+}
@@ -0,0 +1,107 @@
+package com.badlogic.ashley.systems
+
+import com.badlogic.ashley.core.Component
+import com.badlogic.ashley.core.ComponentMapper
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.core.PooledEngine
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelIteratingSystemTest {
+
+    class CounterComponent : Component {
+        var count = 0
+    }
+
+    class RemovalComponent : Component
+
+    class SwappedComponent : Component
+
+    private class SwapSystem(pool: ForkJoinPool) :
+        ParallelIteratingSystem(Family.all(CounterComponent::class.java).get(), 0, pool, 16) {
+        override fun processEntity(entity: Entity, deltaTime: Float) {
+            if (entity.remove(RemovalComponent::class.java) != null) {
+                entity.add(engine.createComponent(SwappedComponent::class.java))
+            } else {
+                entity.remove(SwappedComponent::class.java)
+                entity.add(engine.createComponent(RemovalComponent::class.java))
+            }
+        }
+    }
+
+    private class CounterSystem(pool: ForkJoinPool) :
+        ParallelIteratingSystem(Family.all(CounterComponent::class.java).get(), 0, pool, 16) {
+        val processed = AtomicInteger()
+
+        override fun processEntity(entity: Entity, deltaTime: Float) {
+            cm.get(entity).count++
+            processed.incrementAndGet()
+            if (entity.getComponent(RemovalComponent::class.java) != null) {
+                engine.removeEntity(entity)
+            }
+        }
+    }
+
+    @Test
+    fun processesEveryEntityOnce() {
+        val pool = ForkJoinPool(4)
+        try {
+            val engine = Engine()
+            val system = CounterSystem(pool)
+            engine.addSystem(system)
+
+            for (i in 0 until 1000) {
+                val entity = Entity().add(CounterComponent())
+                if (i % 10 == 0) entity.add(RemovalComponent())
+                engine.addEntity(entity)
+            }
+
+            engine.update(DELTA_TIME)
+
+            assertEquals(1000, system.processed.get())
+            assertEquals(900, engine.entities.size())
+            for (entity in engine.entities) {
+                assertEquals(1, cm.get(entity).count)
+            }
+        } finally {
+            pool.shutdown()
+        }
+    }
+
+    @Test
+    fun createsAndRemovesPooledComponents() {
+        val pool = ForkJoinPool(4)
+        try {
+            val engine = PooledEngine()
+            engine.addSystem(SwapSystem(pool))
+
+            for (i in 0 until 1000) {
+                val entity = engine.createEntity()
+                entity.add(engine.createComponent(CounterComponent::class.java))
+                entity.add(engine.createComponent(RemovalComponent::class.java))
+                engine.addEntity(entity)
+            }
+
+            for (i in 0 until 5) {
+                engine.update(DELTA_TIME)
+            }
+
+            val swapped = engine.getEntitiesFor(Family.all(SwappedComponent::class.java).get())
+            assertEquals(1000, swapped.size())
+            for (entity in swapped) {
+                assertEquals(null, entity.getComponent(RemovalComponent::class.java))
+            }
+        } finally {
+            pool.shutdown()
+        }
+    }
+
+    companion object {
+        private const val DELTA_TIME = 0.16f
+        private val cm = ComponentMapper.getFor(CounterComponent::class.java)
+    }
+}
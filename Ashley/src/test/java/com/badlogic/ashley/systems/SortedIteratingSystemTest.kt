@@ -11,6 +11,7 @@ import org.junit.Assert.assertNotNull
 import org.junit.Assert.assertTrue
 import org.junit.Test
 import java.util.LinkedList
+import java.util.Random
 
 class SortedIteratingSystemTest {
     @Test
@@ -169,6 +170,81 @@ class SortedIteratingSystemTest {
         assertEquals(2, system.numEndProcessing.toLong())
     }
 
+    @Test
+    fun incrementalEntityOrder() {
+        val engine = Engine()
+        val system = IntKeySystem()
+        val incrementalSystem = IncrementalSystem()
+        engine.addSystem(system)
+        engine.addSystem(incrementalSystem)
+
+        val random = Random(7)
+        val entities = ArrayList<Entity>()
+        for (i in 0..<500) {
+            val entity = createOrderEntity("" + i, random.nextInt(1000) - 500)
+            entities.add(entity)
+            engine.addEntity(entity)
+        }
+        engine.update(0f)
+        assertSorted(system.order)
+        assertSorted(incrementalSystem.order)
+
+        // A few entities moved and a few were added
+        for (i in 0..<10) {
+            orderMapper.get(entities[random.nextInt(entities.size)]).zLayer = random.nextInt(1000) - 500
+        }
+        for (i in 0..<5) {
+            engine.addEntity(createOrderEntity("added$i", random.nextInt(1000) - 500))
+        }
+        engine.removeEntity(entities[0])
+        system.forceSort()
+        incrementalSystem.forceSort()
+        engine.update(0f)
+        assertEquals(504, system.order.size)
+        assertEquals(system.order.size, incrementalSystem.order.size)
+        assertSorted(system.order)
+        assertSorted(incrementalSystem.order)
+
+        // Binary insertion without forced sort
+        engine.addEntity(createOrderEntity("first", -1000))
+        engine.addEntity(createOrderEntity("last", 1000))
+        engine.update(0f)
+        assertEquals("first", incrementalSystem.order.first().name)
+        assertEquals("last", incrementalSystem.order.last().name)
+        assertSorted(incrementalSystem.order)
+
+        // Reversed order exceeds the insertion sort budget and falls back to a full sort
+        for (entity in entities) {
+            orderMapper.get(entity).zLayer = -orderMapper.get(entity).zLayer
+        }
+        system.forceSort()
+        incrementalSystem.forceSort()
+        engine.update(0f)
+        assertSorted(system.order)
+        assertSorted(incrementalSystem.order)
+    }
+
+    @Test
+    fun floatKeyOrder() {
+        val engine = Engine()
+        val values = floatArrayOf(3.5f, -0.5f, 0f, -100f, 1e10f, -1e-10f, 2f, 3.5f)
+        val system = FloatKeySystem()
+        engine.addSystem(system)
+
+        for (value in values) {
+            engine.addEntity(createOrderEntity(value.toString(), 0))
+        }
+        engine.update(0f)
+
+        assertEquals(values.sorted().map { it.toString() }, system.order.map { it.name })
+    }
+
+    private fun assertSorted(order: List<OrderComponent>) {
+        for (i in 1..<order.size) {
+            assertTrue(order[i - 1].zLayer <= order[i].zLayer)
+        }
+    }
+
     private class ComponentB : Component
 
     private class ComponentC : Component
@@ -244,6 +320,36 @@ class SortedIteratingSystemTest {
         }
     }
 
+    private class IntKeySystem : SortedIteratingSystem(Family.all(OrderComponent::class.java).get(), IntKey { orderMapper.get(it).zLayer }, 0) {
+        val order = ArrayList<OrderComponent>()
+
+        override fun startProcessing() = order.clear()
+
+        override fun processEntity(entity: Entity, deltaTime: Float) {
+            order.add(orderMapper.get(entity))
+        }
+    }
+
+    private class FloatKeySystem : SortedIteratingSystem(Family.all(OrderComponent::class.java).get(), FloatKey { orderMapper.get(it).name.toFloat() }, 0) {
+        val order = ArrayList<OrderComponent>()
+
+        override fun startProcessing() = order.clear()
+
+        override fun processEntity(entity: Entity, deltaTime: Float) {
+            order.add(orderMapper.get(entity))
+        }
+    }
+
+    private class IncrementalSystem : SortedIteratingSystem(Family.all(OrderComponent::class.java).get(), comparator, 0, true) {
+        val order = ArrayList<OrderComponent>()
+
+        override fun startProcessing() = order.clear()
+
+        override fun processEntity(entity: Entity, deltaTime: Float) {
+            order.add(orderMapper.get(entity))
+        }
+    }
+
     private class OrderComparator : Comparator<Entity> {
         override fun compare(a: Entity, b: Entity): Int {
             val ac: OrderComponent = orderMapper.get(a)
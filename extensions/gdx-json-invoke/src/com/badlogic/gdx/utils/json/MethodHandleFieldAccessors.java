@@ -0,0 +1,104 @@
+package com.badlogic.gdx.utils.json;
+
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.Json.FieldAccessor;
+import com.badlogic.gdx.utils.Json.FieldAccessorFactory;
+import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates field accessors that read and write fields through method handles created once per field, which avoids the checks of
+ * reflection on each access. Only for desktop and server code: method handles aren't available on all the platforms supported by
+ * libGDX.
+ *
+ * <pre>
+ * json.setFieldAccessorFactory(new MethodHandleFieldAccessors());
+ * </pre>
+ * <p>
+ * Fields whose getter can't be created are left to reflection. Final fields and fields whose setter can't be created are still
+ * read through a method handle but written with reflection.
+ *
+ * @see Json#setFieldAccessorFactory(FieldAccessorFactory)
+ */
+public class MethodHandleFieldAccessors implements FieldAccessorFactory {
+    static private final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    static private final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @Override
+    public @Null FieldAccessor newFieldAccessor(Field field) {
+        java.lang.reflect.Field javaField;
+        try {
+            javaField = field.getDeclaringClass().getDeclaredField(field.getName());
+            javaField.setAccessible(true);
+        } catch (NoSuchFieldException | SecurityException ex) {
+            return null;
+        }
+        MethodHandle getter;
+        try {
+            getter = lookup.unreflectGetter(javaField).asType(getterType);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+        // Whether a final field gets a setter depends on the JVM, so final fields are always written with reflection.
+        MethodHandle setter = null;
+        if (!field.isFinal()) {
+            try {
+                setter = lookup.unreflectSetter(javaField).asType(setterType);
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        return new MethodHandleFieldAccessor(field, getter, setter);
+    }
+
+    static private class MethodHandleFieldAccessor implements FieldAccessor {
+        final Field field;
+        final MethodHandle getter;
+        @Null
+        final MethodHandle setter;
+        final boolean primitive;
+
+        MethodHandleFieldAccessor(Field field, MethodHandle getter, @Null MethodHandle setter) {
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+            primitive = field.getType().isPrimitive();
+        }
+
+        @Override
+        public Object get(Object object) throws ReflectionException {
+            try {
+                return (Object) getter.invokeExact(object);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new ReflectionException("Error getting field: " + field.getName(), ex);
+            }
+        }
+
+        /**
+         * Primitive fields are unboxed and widened like {@link java.lang.reflect.Field#set(Object, Object)} does. Null into a
+         * primitive field goes through reflection to fail the same way.
+         */
+        @Override
+        public void set(Object object, @Null Object value) throws ReflectionException {
+            if (setter == null || (value == null && primitive)) {
+                field.set(object, value);
+                return;
+            }
+            try {
+                setter.invokeExact(object, value);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new ReflectionException("Error setting field: " + field.getName(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.badlogic.gdx.utils.json
+
+import com.badlogic.gdx.utils.Json
+import com.badlogic.gdx.utils.SerializationException
+import com.badlogic.gdx.utils.reflect.ClassReflection
+import com.badlogic.gdx.utils.reflect.Field
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class MethodHandleFieldAccessorsTest {
+    @Test
+    fun testWidening() {
+        val field = field(WideData::class.java, "total")
+        val accessor = MethodHandleFieldAccessors().newFieldAccessor(field)!!
+
+        val reflected = WideData()
+        field.set(reflected, 5)
+        val handled = WideData()
+        accessor.set(handled, 5)
+        assertEquals(5L, reflected.total)
+        assertEquals(reflected.total, handled.total)
+        assertEquals(5L, accessor.get(handled))
+    }
+
+    @Test
+    fun testFinalField() {
+        val accessor = MethodHandleFieldAccessors().newFieldAccessor(field(FinalData::class.java, "id"))!!
+        val data = FinalData()
+        accessor.set(data, 7)
+        assertEquals(7, data.id)
+        assertEquals(7, accessor.get(data))
+
+        val json = Json()
+        json.setFieldAccessorFactory(MethodHandleFieldAccessors())
+        assertEquals(9, json.fromJson(FinalData::class.java, "{id:9}").id)
+    }
+
+    @Test
+    fun testNullPrimitiveField() {
+        val json = Json()
+        json.setFieldAccessorFactory(MethodHandleFieldAccessors())
+        try {
+            json.fromJson(FieldData::class.java, "{count:null}")
+            throw AssertionError()
+        } catch (ex: SerializationException) {
+            assertNotNull(ex.cause)
+        }
+        assertNull(json.fromJson(FieldData::class.java, "{name:null}").name)
+    }
+
+    @Test
+    fun testRoundTrip() {
+        val data = FieldData()
+        data.count = 3
+        data.total = 1L shl 40
+        data.ratio = 1.5f
+        data.flag = true
+        data.name = "a"
+        data.values = intArrayOf(1, 2)
+        data.skipped = 9
+
+        val json = Json()
+        json.setFieldAccessorFactory(MethodHandleFieldAccessors())
+        val text = json.toJson(data)
+        assertEquals("{count:3,total:1099511627776,ratio:1.5,flag:true,name:a,values:[1,2]}", text)
+
+        val read = json.fromJson(FieldData::class.java, text)
+        assertEquals(3, read.count)
+        assertEquals(1L shl 40, read.total)
+        assertEquals(1.5f, read.ratio, 0f)
+        assertEquals(true, read.flag)
+        assertEquals("a", read.name)
+        assertEquals(2, read.values!![1])
+        assertEquals(0, read.skipped)
+        assertEquals(text, Json().toJson(read))
+    }
+
+    private fun field(type: Class<*>, name: String): Field {
+        val field = ClassReflection.getDeclaredField(type, name)
+        field.isAccessible = true
+        return field
+    }
+
+    class WideData {
+        var total = 0L
+    }
+
+    class FinalData {
+        val id = 1
+    }
+
+    class FieldData {
+        var count = 0
+        var total = 0L
+        var ratio = 0f
+        var flag = false
+        var name: String? = null
+        var values: IntArray? = null
+
+        @Transient
+        var skipped = 0
+    }
+}
@@ -0,0 +1,846 @@
+package com.badlogic.gdx.ai.btree;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.btree.branch.DynamicGuardSelector;
+import com.badlogic.gdx.ai.btree.branch.Parallel;
+import com.badlogic.gdx.ai.btree.branch.RandomSelector;
+import com.badlogic.gdx.ai.btree.branch.RandomSequence;
+import com.badlogic.gdx.ai.btree.branch.Selector;
+import com.badlogic.gdx.ai.btree.branch.Sequence;
+import com.badlogic.gdx.ai.btree.decorator.AlwaysFail;
+import com.badlogic.gdx.ai.btree.decorator.AlwaysSucceed;
+import com.badlogic.gdx.ai.btree.decorator.Include;
+import com.badlogic.gdx.ai.btree.decorator.Invert;
+import com.badlogic.gdx.ai.btree.decorator.Random;
+import com.badlogic.gdx.ai.btree.decorator.Repeat;
+import com.badlogic.gdx.ai.btree.decorator.SemaphoreGuard;
+import com.badlogic.gdx.ai.btree.decorator.UntilFail;
+import com.badlogic.gdx.ai.btree.decorator.UntilSuccess;
+import com.badlogic.gdx.ai.btree.leaf.Failure;
+import com.badlogic.gdx.ai.btree.leaf.Success;
+import com.badlogic.gdx.ai.btree.leaf.Wait;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeLibraryManager;
+import com.badlogic.gdx.ai.utils.NonBlockingSemaphore;
+import com.badlogic.gdx.ai.utils.NonBlockingSemaphoreRepository;
+import com.badlogic.gdx.ai.utils.random.FloatDistribution;
+import com.badlogic.gdx.ai.utils.random.IntegerDistribution;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A {@code CompiledBehaviorTree} is a behavior tree flattened into an immutable template that any number of agents can share. The
+ * tasks of the tree become nodes numbered in depth-first order, described by parallel arrays, while everything that changes while
+ * running lives in a small {@link State} per agent: a status, a child index and one more integer per node, plus a few extra slots
+ * for the tasks that need them. Stepping a state runs the same logic as {@link BehaviorTree#step()} on the original tasks, without
+ * cloning the task graph for every agent.
+ * <p>
+ * All the branches and decorators of this library can be compiled. A non-lazy or lazy {@link Include} is grafted at compile time,
+ * so a subtree can't include itself, even lazily. Any other {@link LeafTask} is shared by all the agents: it is started, executed
+ * and ended on behalf of each agent in turn, with {@link Task#getObject()} returning the blackboard of the agent being stepped.
+ * Such a leaf must therefore keep everything that belongs to one agent in the blackboard rather than in its fields, and must not
+ * rely on {@link Task#getStatus()}. Custom branches and decorators can't be compiled, because their behavior is defined by
+ * callbacks on their own object.
+ * <p>
+ * Since shared leaves are bound to the agent being stepped, the states of a template must be stepped from one thread at a time.
+ * Listeners are not supported.
+ *
+ * @param <E> type of the blackboard object that tasks use to read or modify game state
+ */
+public class CompiledBehaviorTree<E> {
+
+    // Node kinds
+    static final byte LEAF = 0;
+    static final byte SUCCESS = 1;
+    static final byte FAILURE = 2;
+    static final byte WAIT = 3;
+    static final byte SEQUENCE = 4;
+    static final byte SELECTOR = 5;
+    static final byte RANDOM_SEQUENCE = 6;
+    static final byte RANDOM_SELECTOR = 7;
+    static final byte PARALLEL = 8;
+    static final byte DYNAMIC_GUARD_SELECTOR = 9;
+    static final byte ALWAYS_FAIL = 10;
+    static final byte ALWAYS_SUCCEED = 11;
+    static final byte INVERT = 12;
+    static final byte REPEAT = 13;
+    static final byte UNTIL_FAIL = 14;
+    static final byte UNTIL_SUCCESS = 15;
+    static final byte RANDOM = 16;
+    static final byte SEMAPHORE_GUARD = 17;
+
+    // Controls that are not nodes
+    static final int TREE = -1;
+    static final int GUARD_EVALUATOR = -2;
+
+    // Parallel flags, stored in the template, and parallel state bits, stored in the auxiliary value of the node
+    static final int SELECTOR_POLICY = 1;
+    static final int JOIN_ORCHESTRATOR = 2;
+    static final int NO_RUNNING_TASKS = 1;
+    static final int LAST_RESULT_SUCCEEDED = 2;
+    static final int LAST_RESULT_FAILED = 4;
+
+    static final byte FRESH = (byte) Task.Status.FRESH.ordinal();
+    static final byte RUNNING = (byte) Task.Status.RUNNING.ordinal();
+    static final byte FAILED = (byte) Task.Status.FAILED.ordinal();
+    static final byte SUCCEEDED = (byte) Task.Status.SUCCEEDED.ordinal();
+    static final byte CANCELLED = (byte) Task.Status.CANCELLED.ordinal();
+    private static final Task.Status[] STATUSES = Task.Status.values();
+
+    final byte[] kinds;
+    final int[] controls;
+    final int[] childStarts;
+    final int[] childCounts;
+    final int[] children;
+    final int[] guards;
+    final byte[] flags;
+    final Object[] attributes;
+    final int[] floatOffsets;
+    final int[] orderOffsets;
+    final int floatCount;
+    final int orderCount;
+
+    /**
+     * The tree shared leaves belong to while they run; its blackboard is the one of the agent being stepped.
+     */
+    private final BehaviorTree<E> context;
+
+    /**
+     * Compiles the given behavior tree. The tree is only read, except that its shared leaves are attached to this template; it
+     * shouldn't be run anymore.
+     *
+     * @param tree the behavior tree to compile
+     * @throws IllegalArgumentException if the tree has no root task, contains tasks that can't be compiled or includes a subtree
+     *                                  including itself
+     */
+    public CompiledBehaviorTree(BehaviorTree<E> tree) {
+        if (tree.getChildCount() == 0) throw new IllegalArgumentException("The behavior tree has no root task");
+        this.context = new BehaviorTree<>();
+
+        Compiler<E> compiler = new Compiler<>(context);
+        compiler.compile(tree.getChild(0), TREE);
+
+        int nodeCount = compiler.kinds.size;
+        this.kinds = Arrays.copyOf(compiler.kinds.items, nodeCount);
+        this.controls = compiler.controls.toArray();
+        this.childStarts = compiler.childStarts.toArray();
+        this.childCounts = compiler.childCounts.toArray();
+        this.children = compiler.children.toArray();
+        this.guards = compiler.guards.toArray();
+        this.flags = Arrays.copyOf(compiler.flags.items, nodeCount);
+        this.attributes = compiler.attributes.toArray(Object[]::new);
+        this.floatOffsets = compiler.floatOffsets.toArray();
+        this.orderOffsets = compiler.orderOffsets.toArray();
+        this.floatCount = compiler.floatCount;
+        this.orderCount = compiler.children.size;
+    }
+
+    /**
+     * Returns the number of nodes of this template, including the nodes of guards.
+     */
+    public int getNodeCount() {
+        return kinds.length;
+    }
+
+    /**
+     * Creates the state of a new agent running this template.
+     *
+     * @param object the blackboard of the agent. It can be {@code null}.
+     */
+    public State<E> newState(E object) {
+        return new State<>(this, object);
+    }
+
+    /**
+     * Steps the given state once, like {@link BehaviorTree#step()}.
+     */
+    public void step(State<E> s) {
+        context.setObject(s.object);
+        try {
+            int root = 0;
+            if (s.statuses[root] == RUNNING) {
+                run(s, root);
+            } else {
+                start(s, root);
+                if (checkGuard(s, root))
+                    run(s, root);
+                else
+                    fail(s, root);
+            }
+        } finally {
+            context.setObject(null);
+        }
+    }
+
+    /**
+     * Cancels the running tasks of the given state, then resets it to make it restart from scratch on next step, like
+     * {@link BehaviorTree#resetTask()}.
+     */
+    public void resetState(State<E> s) {
+        context.setObject(s.object);
+        try {
+            if (s.statuses[0] == RUNNING) cancel(s, 0);
+        } finally {
+            context.setObject(null);
+        }
+        s.clear();
+    }
+
+    private void start(State<E> s, int n) {
+        switch (kinds[n]) {
+            case LEAF:
+                ((LeafTask<?>) attributes[n]).start();
+                break;
+            case WAIT:
+                s.floats[floatOffsets[n]] = ((FloatDistribution) attributes[n]).nextFloat();
+                s.floats[floatOffsets[n] + 1] = GdxAI.getTimepiece().getTime();
+                break;
+            case SEQUENCE:
+            case SELECTOR:
+            case RANDOM_SEQUENCE:
+            case RANDOM_SELECTOR:
+                s.indices[n] = 0;
+                s.aux[n] = -1;
+                break;
+            case REPEAT:
+                s.indices[n] = ((IntegerDistribution) attributes[n]).nextInt();
+                break;
+            case RANDOM:
+                s.floats[floatOffsets[n]] = ((FloatDistribution) attributes[n]).nextFloat();
+                break;
+            case SEMAPHORE_GUARD:
+                s.aux[n] = getSemaphore(n).acquire() ? 1 : 0;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void end(State<E> s, int n) {
+        switch (kinds[n]) {
+            case LEAF:
+                ((LeafTask<?>) attributes[n]).end();
+                break;
+            case SEMAPHORE_GUARD:
+                if (s.aux[n] != 0) {
+                    getSemaphore(n).release();
+                    s.aux[n] = 0;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void run(State<E> s, int n) {
+        switch (kinds[n]) {
+            case LEAF: {
+                Task.Status result = ((LeafTask<?>) attributes[n]).execute();
+                if (result == null) throw new IllegalStateException("Invalid status 'null' returned by the execute method");
+                switch (result) {
+                    case SUCCEEDED:
+                        success(s, n);
+                        return;
+                    case FAILED:
+                        fail(s, n);
+                        return;
+                    case RUNNING:
+                        running(s, n);
+                        return;
+                    default:
+                        throw new IllegalStateException("Invalid status '" + result.name() + "' returned by the execute method");
+                }
+            }
+            case SUCCESS:
+                success(s, n);
+                return;
+            case FAILURE:
+                fail(s, n);
+                return;
+            case WAIT:
+                if (GdxAI.getTimepiece().getTime() - s.floats[floatOffsets[n] + 1] < s.floats[floatOffsets[n]])
+                    running(s, n);
+                else
+                    success(s, n);
+                return;
+            case SEQUENCE:
+            case SELECTOR:
+            case RANDOM_SEQUENCE:
+            case RANDOM_SELECTOR:
+                runSingleRunningChildBranch(s, n);
+                return;
+            case PARALLEL:
+                runParallel(s, n);
+                return;
+            case DYNAMIC_GUARD_SELECTOR:
+                runDynamicGuardSelector(s, n);
+                return;
+            case REPEAT:
+            case UNTIL_FAIL:
+            case UNTIL_SUCCESS:
+                // The loop flag is the auxiliary value
+                s.aux[n] = 1;
+                while (s.aux[n] != 0 && (kinds[n] != REPEAT || s.indices[n] != 0))
+                    runChild(s, n, children[childStarts[n]]);
+                return;
+            case RANDOM:
+                if (childCounts[n] > 0)
+                    runChild(s, n, children[childStarts[n]]);
+                else
+                    decide(s, n);
+                return;
+            case SEMAPHORE_GUARD:
+                if (s.aux[n] != 0)
+                    runChild(s, n, children[childStarts[n]]);
+                else
+                    fail(s, n);
+                return;
+            default:
+                runChild(s, n, children[childStarts[n]]);
+        }
+    }
+
+    /**
+     * Runs the given child, starting it first if it's not running, like {@link Decorator#run()}.
+     */
+    private void runChild(State<E> s, int n, int child) {
+        if (s.statuses[child] == RUNNING) {
+            run(s, child);
+        } else {
+            start(s, child);
+            if (checkGuard(s, child))
+                run(s, child);
+            else
+                fail(s, child);
+        }
+    }
+
+    private void runSingleRunningChildBranch(State<E> s, int n) {
+        if (s.aux[n] >= 0) {
+            run(s, s.aux[n]);
+        } else if (s.indices[n] < childCounts[n]) {
+            int current = s.indices[n];
+            int child;
+            if (kinds[n] == RANDOM_SEQUENCE || kinds[n] == RANDOM_SELECTOR) {
+                int[] order = s.orders;
+                int offset = orderOffsets[n];
+                int last = childCounts[n] - 1;
+                if (current < last) {
+                    int other = MathUtils.random(current, last);
+                    int tmp = order[offset + current];
+                    order[offset + current] = order[offset + other];
+                    order[offset + other] = tmp;
+                }
+                child = children[childStarts[n] + order[offset + current]];
+            } else {
+                child = children[childStarts[n] + current];
+            }
+            s.aux[n] = child;
+            start(s, child);
+            if (!checkGuard(s, child))
+                fail(s, child);
+            else
+                run(s, n);
+        }
+    }
+
+    private void runParallel(State<E> s, int n) {
+        boolean join = (flags[n] & JOIN_ORCHESTRATOR) != 0;
+        s.aux[n] = NO_RUNNING_TASKS;
+        for (s.indices[n] = 0; s.indices[n] < childCounts[n]; s.indices[n]++) {
+            int child = children[childStarts[n] + s.indices[n]];
+            byte status = s.statuses[child];
+            if (!join || (status != SUCCEEDED && status != FAILED)) runChild(s, n, child);
+
+            int lastResult = s.aux[n] & (LAST_RESULT_SUCCEEDED | LAST_RESULT_FAILED);
+            if (lastResult != 0) { // Current child has finished either with success or fail
+                cancelRunningChildren(s, n, (s.aux[n] & NO_RUNNING_TASKS) != 0 ? s.indices[n] + 1 : 0);
+                if (join) {
+                    for (int i = 0; i < childCounts[n]; i++)
+                        s.statuses[children[childStarts[n] + i]] = FRESH;
+                }
+                if (lastResult == LAST_RESULT_SUCCEEDED)
+                    success(s, n);
+                else
+                    fail(s, n);
+                return;
+            }
+        }
+        running(s, n);
+    }
+
+    private void runDynamicGuardSelector(State<E> s, int n) {
+        // Check guards
+        int childToRun = -1;
+        for (int i = 0; i < childCounts[n]; i++) {
+            int child = children[childStarts[n] + i];
+            if (checkGuard(s, child)) {
+                childToRun = child;
+                break;
+            }
+        }
+
+        if (s.aux[n] >= 0 && s.aux[n] != childToRun) {
+            cancel(s, s.aux[n]);
+            s.aux[n] = -1;
+        }
+        if (childToRun < 0) {
+            fail(s, n);
+        } else {
+            if (s.aux[n] < 0) {
+                s.aux[n] = childToRun;
+                start(s, childToRun);
+            }
+            run(s, childToRun);
+        }
+    }
+
+    private void decide(State<E> s, int n) {
+        if (MathUtils.random() <= s.floats[floatOffsets[n]])
+            success(s, n);
+        else
+            fail(s, n);
+    }
+
+    private void running(State<E> s, int n) {
+        s.statuses[n] = RUNNING;
+        int control = controls[n];
+        if (control >= 0) {
+            childRunning(s, control, n);
+        } else if (control == TREE) {
+            s.status = RUNNING;
+        }
+    }
+
+    private void success(State<E> s, int n) {
+        s.statuses[n] = SUCCEEDED;
+        end(s, n);
+        int control = controls[n];
+        if (control >= 0) {
+            childSuccess(s, control, n);
+        } else if (control == TREE) {
+            s.status = SUCCEEDED;
+        }
+    }
+
+    private void fail(State<E> s, int n) {
+        s.statuses[n] = FAILED;
+        end(s, n);
+        int control = controls[n];
+        if (control >= 0) {
+            childFail(s, control, n);
+        } else if (control == TREE) {
+            s.status = FAILED;
+        }
+    }
+
+    private void cancel(State<E> s, int n) {
+        cancelRunningChildren(s, n, 0);
+        s.statuses[n] = CANCELLED;
+        end(s, n);
+    }
+
+    private void cancelRunningChildren(State<E> s, int n, int startIndex) {
+        for (int i = startIndex; i < childCounts[n]; i++) {
+            int child = children[childStarts[n] + i];
+            if (s.statuses[child] == RUNNING) cancel(s, child);
+        }
+        switch (kinds[n]) {
+            case SEQUENCE:
+            case SELECTOR:
+            case RANDOM_SEQUENCE:
+            case RANDOM_SELECTOR:
+                s.aux[n] = -1;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean checkGuard(State<E> s, int n) {
+        // No guard to check
+        int guard = guards[n];
+        if (guard < 0) return true;
+
+        // Check the guard of the guard recursively
+        if (!checkGuard(s, guard)) return false;
+
+        // The control of a guard is the guard evaluator, which ignores its callbacks
+        start(s, guard);
+        run(s, guard);
+        byte status = s.statuses[guard];
+        if (status == SUCCEEDED) return true;
+        if (status == FAILED) return false;
+        throw new IllegalStateException("Illegal guard status '" + STATUSES[status] + "'. Guards must either succeed or fail in one step.");
+    }
+
+    private void childRunning(State<E> s, int n, int child) {
+        switch (kinds[n]) {
+            case SEQUENCE:
+            case SELECTOR:
+            case RANDOM_SEQUENCE:
+            case RANDOM_SELECTOR:
+            case DYNAMIC_GUARD_SELECTOR:
+                s.aux[n] = child;
+                running(s, n);
+                return;
+            case PARALLEL:
+                s.aux[n] &= ~NO_RUNNING_TASKS;
+                return;
+            case REPEAT:
+            case UNTIL_FAIL:
+            case UNTIL_SUCCESS:
+                running(s, n);
+                s.aux[n] = 0;
+                return;
+            default:
+                running(s, n);
+        }
+    }
+
+    private void childSuccess(State<E> s, int n, int child) {
+        switch (kinds[n]) {
+            case SEQUENCE:
+            case RANDOM_SEQUENCE:
+                s.aux[n] = -1;
+                if (++s.indices[n] < childCounts[n])
+                    run(s, n); // Run next child
+                else
+                    success(s, n); // All children processed, return success status
+                return;
+            case SELECTOR:
+            case RANDOM_SELECTOR:
+            case DYNAMIC_GUARD_SELECTOR:
+                s.aux[n] = -1;
+                success(s, n);
+                return;
+            case PARALLEL:
+                if ((flags[n] & SELECTOR_POLICY) != 0 || (s.aux[n] & NO_RUNNING_TASKS) != 0 && ((flags[n] & JOIN_ORCHESTRATOR) != 0
+                        ? s.statuses[children[childStarts[n] + childCounts[n] - 1]] == SUCCEEDED
+                        : s.indices[n] == childCounts[n] - 1))
+                    s.aux[n] |= LAST_RESULT_SUCCEEDED;
+                return;
+            case ALWAYS_FAIL:
+            case INVERT:
+                fail(s, n);
+                return;
+            case REPEAT:
+                if (s.indices[n] > 0) s.indices[n]--;
+                if (s.indices[n] == 0) {
+                    success(s, n);
+                    s.aux[n] = 0;
+                } else {
+                    s.aux[n] = 1;
+                }
+                return;
+            case UNTIL_FAIL:
+                s.aux[n] = 1;
+                return;
+            case UNTIL_SUCCESS:
+                success(s, n);
+                s.aux[n] = 0;
+                return;
+            case RANDOM:
+                decide(s, n);
+                return;
+            default:
+                success(s, n);
+        }
+    }
+
+    private void childFail(State<E> s, int n, int child) {
+        switch (kinds[n]) {
+            case SEQUENCE:
+            case RANDOM_SEQUENCE:
+            case DYNAMIC_GUARD_SELECTOR:
+                s.aux[n] = -1;
+                fail(s, n);
+                return;
+            case SELECTOR:
+            case RANDOM_SELECTOR:
+                s.aux[n] = -1;
+                if (++s.indices[n] < childCounts[n])
+                    run(s, n); // Run next child
+                else
+                    fail(s, n); // All children processed, return failure status
+                return;
+            case PARALLEL:
+                if ((flags[n] & SELECTOR_POLICY) == 0
+                        || (s.aux[n] & NO_RUNNING_TASKS) != 0 && s.indices[n] == childCounts[n] - 1)
+                    s.aux[n] |= LAST_RESULT_FAILED;
+                return;
+            case ALWAYS_SUCCEED:
+            case INVERT:
+                success(s, n);
+                return;
+            case REPEAT:
+                childSuccess(s, n, child);
+                return;
+            case UNTIL_FAIL:
+                success(s, n);
+                s.aux[n] = 0;
+                return;
+            case UNTIL_SUCCESS:
+                s.aux[n] = 1;
+                return;
+            case RANDOM:
+                decide(s, n);
+                return;
+            default:
+                fail(s, n);
+        }
+    }
+
+    private NonBlockingSemaphore getSemaphore(int n) {
+        return NonBlockingSemaphoreRepository.getSemaphore((String) attributes[n]);
+    }
+
+    /**
+     * The state of one agent running a {@link CompiledBehaviorTree}.
+     *
+     * @param <E> type of the blackboard object that tasks use to read or modify game state
+     */
+    public static class State<E> {
+        final CompiledBehaviorTree<E> template;
+        E object;
+        byte status;
+
+        /**
+         * The status of every node, as the ordinal of its {@link Task.Status}.
+         */
+        final byte[] statuses;
+
+        /**
+         * The index of the current child of every branch, or the remaining count of a {@link Repeat}.
+         */
+        final int[] indices;
+
+        /**
+         * The running child of a single running child branch, the flags of a parallel, the loop flag of a loop decorator or the
+         * acquisition of a semaphore guard.
+         */
+        final int[] aux;
+
+        /**
+         * The order of the children of random branches.
+         */
+        final int[] orders;
+
+        /**
+         * The timers of waits and the probabilities of random decorators.
+         */
+        final float[] floats;
+
+        State(CompiledBehaviorTree<E> template, E object) {
+            this.template = template;
+            this.object = object;
+            int nodeCount = template.getNodeCount();
+            this.statuses = new byte[nodeCount];
+            this.indices = new int[nodeCount];
+            this.aux = new int[nodeCount];
+            this.orders = new int[template.orderCount];
+            this.floats = new float[template.floatCount];
+            clear();
+        }
+
+        /**
+         * Returns the template this state runs.
+         */
+        public CompiledBehaviorTree<E> getTemplate() {
+            return template;
+        }
+
+        /**
+         * Returns the blackboard of this agent.
+         */
+        public E getObject() {
+            return object;
+        }
+
+        /**
+         * Sets the blackboard of this agent.
+         */
+        public void setObject(E object) {
+            this.object = object;
+        }
+
+        /**
+         * Returns the status of the whole tree, like {@link BehaviorTree#getStatus()}.
+         */
+        public Task.Status getStatus() {
+            return STATUSES[status];
+        }
+
+        /**
+         * Returns the status of the given node, numbered in depth-first order with the root task as node 0 and the guard of a task
+         * right after the task itself.
+         */
+        public Task.Status getStatus(int node) {
+            return STATUSES[statuses[node]];
+        }
+
+        /**
+         * Steps this agent once. This is a shortcut for {@code getTemplate().step(this)}.
+         */
+        public void step() {
+            template.step(this);
+        }
+
+        /**
+         * Resets this agent to make it restart from scratch on next step. This is a shortcut for {@code getTemplate().resetState(this)}.
+         */
+        public void resetTask() {
+            template.resetState(this);
+        }
+
+        void clear() {
+            status = FRESH;
+            Arrays.fill(statuses, FRESH);
+            Arrays.fill(indices, 0);
+            Arrays.fill(floats, 0);
+            byte[] kinds = template.kinds;
+            for (int n = 0; n < kinds.length; n++) {
+                switch (kinds[n]) {
+                    case SEQUENCE:
+                    case SELECTOR:
+                    case RANDOM_SEQUENCE:
+                    case RANDOM_SELECTOR:
+                    case DYNAMIC_GUARD_SELECTOR:
+                        aux[n] = -1;
+                        break;
+                    case PARALLEL:
+                        aux[n] = NO_RUNNING_TASKS;
+                        break;
+                    default:
+                        aux[n] = 0;
+                }
+                if (kinds[n] == RANDOM_SEQUENCE || kinds[n] == RANDOM_SELECTOR) {
+                    for (int i = 0; i < template.childCounts[n]; i++)
+                        orders[template.orderOffsets[n] + i] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flattens a task graph into growable arrays, in depth-first order with the guard of a task right after the task.
+     */
+    private static class Compiler<E> {
+        final BehaviorTree<E> context;
+        final ByteArray kinds = new ByteArray();
+        final IntArray controls = new IntArray();
+        final IntArray childStarts = new IntArray();
+        final IntArray childCounts = new IntArray();
+        final IntArray children = new IntArray();
+        final IntArray guards = new IntArray();
+        final ByteArray flags = new ByteArray();
+        final Array<Object> attributes = new Array<>();
+        final IntArray floatOffsets = new IntArray();
+        final IntArray orderOffsets = new IntArray();
+        int floatCount;
+
+        // The subtree references of the includes being grafted, from the root down to the task being compiled
+        final Array<String> includedSubtrees = new Array<>();
+
+        Compiler(BehaviorTree<E> context) {
+            this.context = context;
+        }
+
+        int compile(Task<E> task, int control) {
+            // Includes are grafted now, unless a subtree includes itself
+            int includeCount = 0;
+            while (task instanceof Include) {
+                Include<E> include = (Include<E>) task;
+                if (includedSubtrees.contains(include.subtree, false))
+                    throw new IllegalArgumentException("The subtree " + include.subtree + " includes itself");
+                includedSubtrees.add(include.subtree);
+                includeCount++;
+                Task<E> subtree = BehaviorTreeLibraryManager.getInstance().createRootTask(include.subtree);
+                if (include.getGuard() != null) subtree.setGuard(include.getGuard().cloneTask());
+                task = subtree;
+            }
+
+            int n = kinds.size;
+            byte kind = kindOf(task);
+            kinds.add(kind);
+            controls.add(control);
+            childStarts.add(0);
+            childCounts.add(0);
+            guards.add(-1);
+            flags.add((byte) 0);
+            attributes.add(null);
+            floatOffsets.add(-1);
+            orderOffsets.add(-1);
+
+            switch (kind) {
+                case LEAF:
+                    task.tree = context;
+                    attributes.set(n, task);
+                    break;
+                case WAIT:
+                    attributes.set(n, ((Wait<E>) task).seconds);
+                    floatOffsets.set(n, floatCount);
+                    floatCount += 2;
+                    break;
+                case RANDOM:
+                    attributes.set(n, ((Random<E>) task).success);
+                    floatOffsets.set(n, floatCount);
+                    floatCount += 1;
+                    break;
+                case REPEAT:
+                    attributes.set(n, ((Repeat<E>) task).times);
+                    break;
+                case SEMAPHORE_GUARD:
+                    attributes.set(n, ((SemaphoreGuard<E>) task).name);
+                    break;
+                case PARALLEL:
+                    Parallel<E> parallel = (Parallel<E>) task;
+                    flags.set(n, (byte) ((parallel.policy == Parallel.Policy.Selector ? SELECTOR_POLICY : 0)
+                            | (parallel.orchestrator == Parallel.Orchestrator.Join ? JOIN_ORCHESTRATOR : 0)));
+                    break;
+                default:
+                    break;
+            }
+
+            // The guard follows its task and is controlled by the guard evaluator
+            if (task.getGuard() != null) guards.set(n, compile(task.getGuard(), GUARD_EVALUATOR));
+
+            int childCount = task.getChildCount();
+            int[] childNodes = new int[childCount];
+            for (int i = 0; i < childCount; i++)
+                childNodes[i] = compile(task.getChild(i), n);
+            childStarts.set(n, children.size);
+            childCounts.set(n, childCount);
+            if (kind == RANDOM_SEQUENCE || kind == RANDOM_SELECTOR) orderOffsets.set(n, children.size);
+            children.addAll(childNodes);
+            includedSubtrees.truncate(includedSubtrees.size - includeCount);
+            return n;
+        }
+
+        private byte kindOf(Task<E> task) {
+            Class<?> type = task.getClass();
+            if (type == Success.class) return SUCCESS;
+            if (type == Failure.class) return FAILURE;
+            if (type == Wait.class) return WAIT;
+            if (type == Sequence.class) return SEQUENCE;
+            if (type == Selector.class) return SELECTOR;
+            if (type == RandomSequence.class) return RANDOM_SEQUENCE;
+            if (type == RandomSelector.class) return RANDOM_SELECTOR;
+            if (type == Parallel.class) return PARALLEL;
+            if (type == DynamicGuardSelector.class) return DYNAMIC_GUARD_SELECTOR;
+            if (type == AlwaysFail.class) return ALWAYS_FAIL;
+            if (type == AlwaysSucceed.class) return ALWAYS_SUCCEED;
+            if (type == Invert.class) return INVERT;
+            if (type == Repeat.class) return REPEAT;
+            if (type == UntilFail.class) return UNTIL_FAIL;
+            if (type == UntilSuccess.class) return UNTIL_SUCCESS;
+            if (type == Random.class) return RANDOM;
+            if (type == SemaphoreGuard.class) return SEMAPHORE_GUARD;
+            if (task instanceof LeafTask) return LEAF;
+            throw new IllegalArgumentException("Task " + type.getName() + " cannot be compiled");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.Files.FileType;
 import com.badlogic.gdx.ai.FileSystem;
 import com.badlogic.gdx.ai.GdxAI;
 import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.CompiledBehaviorTree;
 import com.badlogic.gdx.ai.btree.Task;
 import com.badlogic.gdx.ai.btree.TaskCloneException;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
@@ -17,6 +18,7 @@ import com.badlogic.gdx.utils.SerializationException;
 public class BehaviorTreeLibrary {
 
     protected ObjectMap<String, BehaviorTree<?>> repository;
+    protected ObjectMap<String, CompiledBehaviorTree<?>> compiledRepository;
     protected FileHandleResolver resolver;
     protected BehaviorTreeParser<?> parser;
 
@@ -56,6 +58,7 @@ public class BehaviorTreeLibrary {
     public BehaviorTreeLibrary(FileHandleResolver resolver, int parseDebugLevel) {
         this.resolver = resolver;
         this.repository = new ObjectMap<>();
+        this.compiledRepository = new ObjectMap<>();
         this.parser = new BehaviorTreeParser<>(parseDebugLevel);
     }
 
@@ -100,6 +103,26 @@ public class BehaviorTreeLibrary {
         return bt;
     }
 
+    /**
+     * Returns the {@link CompiledBehaviorTree} for the specified reference, compiling a clone of the archetype the first time. The
+     * returned template is shared by all the callers; each agent runs it through its own {@link CompiledBehaviorTree.State}.
+     *
+     * @param treeReference the tree identifier, typically a path
+     * @return the template compiled from the archetype.
+     * @throws SerializationException   if the reference cannot be successfully parsed.
+     * @throws TaskCloneException       if the archetype cannot be successfully cloned.
+     * @throws IllegalArgumentException if the archetype contains tasks that cannot be compiled.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompiledBehaviorTree<T> createCompiledBehaviorTree(String treeReference) {
+        CompiledBehaviorTree<T> compiledTree = (CompiledBehaviorTree<T>) compiledRepository.get(treeReference);
+        if (compiledTree == null) {
+            compiledTree = new CompiledBehaviorTree<>((BehaviorTree<T>) retrieveArchetypeTree(treeReference).cloneTask());
+            compiledRepository.put(treeReference, compiledTree);
+        }
+        return compiledTree;
+    }
+
     /**
      * Retrieves the archetype tree from the library. If the library doesn't contain the archetype tree it is loaded and added to
      * the library.
@@ -130,6 +153,7 @@ public class BehaviorTreeLibrary {
             throw new IllegalArgumentException("The registered archetype must not be null.");
         }
         repository.put(treeReference, archetypeTree);
+        compiledRepository.remove(treeReference);
     }
 
     /**
@@ -0,0 +1,219 @@
+package com.badlogic.gdx.ai.msg;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@code ConcurrentMessageDispatcher} is a {@link MessageDispatcher} accepting telegrams from any thread, so that AI workers and
+ * network threads can post them directly.
+ * <p>
+ * Telegrams dispatched by the dispatch thread, that is the last thread which called {@link #update()} or the thread that created
+ * the dispatcher if it has never been updated, are handled exactly like {@link MessageDispatcher} does. Telegrams dispatched by any
+ * other thread are posted to a queue owned by that thread and merged into the dispatcher on the next {@link #update()}: immediate
+ * telegrams are then discharged, and delayed ones are stored in the queue of delayed telegrams with their delay counted from that
+ * update. Telegrams posted by the same thread are merged in the order they were posted; no order is guaranteed between threads.
+ * <p>
+ * The queue of each thread is a bounded ring of telegrams preallocated on the first post, which makes posting free of locks and
+ * allocations. Once a ring is full the telegrams are posted to an unbounded overflow queue of that thread, which allocates, until
+ * the dispatch thread has caught up. Queues are never released, so the dispatcher is meant to be fed by a bounded set of threads
+ * like a thread pool.
+ * <p>
+ * Listeners, providers and the queue of delayed telegrams still belong to the dispatch thread: they must only be registered,
+ * removed, cleared or scanned from it, and telegrams are always handled on it.
+ */
+public class ConcurrentMessageDispatcher extends MessageDispatcher {
+
+    private final int capacity;
+
+    private final ThreadLocal<PostQueue> localQueue = new ThreadLocal<>();
+
+    private final Object registrationLock = new Object();
+
+    private volatile PostQueue[] postQueues = new PostQueue[0];
+
+    private volatile Thread dispatchThread;
+
+    /**
+     * Creates a {@code ConcurrentMessageDispatcher} whose threads can post up to 256 telegrams between two updates without
+     * allocating.
+     */
+    public ConcurrentMessageDispatcher() {
+        this(256);
+    }
+
+    /**
+     * Creates a {@code ConcurrentMessageDispatcher} whose threads can post up to the specified number of telegrams between two
+     * updates without allocating.
+     *
+     * @param capacity the capacity of the queue of each thread, rounded up to the next power of two
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public ConcurrentMessageDispatcher(int capacity) {
+        super();
+        this.capacity = checkCapacity(capacity);
+        this.dispatchThread = Thread.currentThread();
+    }
+
+    /**
+     * Creates a {@code ConcurrentMessageDispatcher} with the specified telegram pool, only used by the dispatch thread, and whose
+     * threads can post up to the specified number of telegrams between two updates without allocating.
+     *
+     * @param pool     the pool of the telegrams handled by the dispatch thread
+     * @param capacity the capacity of the queue of each thread, rounded up to the next power of two
+     * @throws IllegalArgumentException if the pool is {@code null} or the capacity is not positive
+     */
+    public ConcurrentMessageDispatcher(Pool<Telegram> pool, int capacity) {
+        super(pool);
+        this.capacity = checkCapacity(capacity);
+        this.dispatchThread = Thread.currentThread();
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be greater than zero");
+        return MathUtils.nextPowerOfTwo(capacity);
+    }
+
+    /**
+     * Returns the thread handling the telegrams, that is the last thread which called {@link #update()} or the thread that created
+     * this dispatcher if it has never been updated.
+     */
+    public Thread getDispatchThread() {
+        return dispatchThread;
+    }
+
+    /**
+     * Given a message, a receiver, a sender and any time delay, this method routes the message to the correct agents (if no delay)
+     * or stores in the message queue to be dispatched at the correct time. When it's not called by the dispatch thread, the
+     * telegram is posted and only routed or stored on the next {@link #update()}.
+     *
+     * @param delay              the delay in seconds
+     * @param sender             the sender of the telegram
+     * @param receiver           the receiver of the telegram; if it's {@code null} the telegram is broadcasted to all the receivers
+     *                           registered for the specified message code
+     * @param msg                the message code
+     * @param extraInfo          an optional object
+     * @param needsReturnReceipt whether the return receipt is needed or not
+     * @throws IllegalArgumentException if the sender is {@code null} and the return receipt is needed
+     */
+    @Override
+    public void dispatchMessage(float delay, Telegraph sender, Telegraph receiver, int msg, Object extraInfo,
+                                boolean needsReturnReceipt) {
+        if (Thread.currentThread() == dispatchThread) {
+            super.dispatchMessage(delay, sender, receiver, msg, extraInfo, needsReturnReceipt);
+            return;
+        }
+        if (sender == null && needsReturnReceipt)
+            throw new IllegalArgumentException("Sender cannot be null when a return receipt is needed");
+
+        PostQueue postQueue = localQueue.get();
+        if (postQueue == null) postQueue = registerPostQueue();
+        postQueue.post(delay, sender, receiver, msg, extraInfo,
+                needsReturnReceipt ? Telegram.RETURN_RECEIPT_NEEDED : Telegram.RETURN_RECEIPT_UNNEEDED);
+    }
+
+    /**
+     * Merges the telegrams posted by other threads, then dispatches any delayed telegrams with a timestamp that has expired. The
+     * calling thread becomes the dispatch thread.
+     *
+     * @see MessageDispatcher#update()
+     */
+    @Override
+    public void update() {
+        dispatchThread = Thread.currentThread();
+        PostQueue[] postQueues = this.postQueues;
+        for (PostQueue postQueue : postQueues)
+            postQueue.merge(this, false);
+        super.update();
+    }
+
+    /**
+     * Discards the telegrams posted by other threads and not merged yet, then removes all the telegrams from the queue and releases
+     * them to the internal pool.
+     */
+    @Override
+    public void clearQueue() {
+        PostQueue[] postQueues = this.postQueues;
+        for (PostQueue postQueue : postQueues)
+            postQueue.merge(this, true);
+        super.clearQueue();
+    }
+
+    private void dispatchPosted(Telegram telegram) {
+        super.dispatchMessage(telegram.getTimestamp(), telegram.sender, telegram.receiver, telegram.message, telegram.extraInfo,
+                telegram.returnReceiptStatus == Telegram.RETURN_RECEIPT_NEEDED);
+    }
+
+    private PostQueue registerPostQueue() {
+        PostQueue postQueue = new PostQueue(capacity);
+        synchronized (registrationLock) {
+            PostQueue[] oldQueues = postQueues;
+            PostQueue[] newQueues = new PostQueue[oldQueues.length + 1];
+            System.arraycopy(oldQueues, 0, newQueues, 0, oldQueues.length);
+            newQueues[oldQueues.length] = postQueue;
+            postQueues = newQueues;
+        }
+        localQueue.set(postQueue);
+        return postQueue;
+    }
+
+    /**
+     * The queue of the telegrams posted by one thread and merged by the dispatch thread. The telegrams of the ring are only used to
+     * carry the fields of the posted telegrams, with the delay stored as their timestamp.
+     */
+    private static final class PostQueue {
+        final Telegram[] ring;
+        final int mask;
+
+        // The producer only writes the tail and the consumer only writes the head
+        final AtomicLong head = new AtomicLong();
+        final AtomicLong tail = new AtomicLong();
+
+        final ConcurrentLinkedQueue<Telegram> overflow = new ConcurrentLinkedQueue<>();
+
+        PostQueue(int capacity) {
+            this.ring = new Telegram[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < capacity; i++)
+                ring[i] = new Telegram();
+        }
+
+        void post(float delay, Telegraph sender, Telegraph receiver, int msg, Object extraInfo, int returnReceiptStatus) {
+            Telegram telegram;
+            long t = tail.get();
+            // Once the ring has overflowed the telegrams must follow the overflow queue until it's drained, to preserve their order
+            boolean useRing = overflow.isEmpty() && t - head.get() < ring.length;
+            telegram = useRing ? ring[(int) t & mask] : new Telegram();
+            telegram.sender = sender;
+            telegram.receiver = receiver;
+            telegram.message = msg;
+            telegram.extraInfo = extraInfo;
+            telegram.returnReceiptStatus = returnReceiptStatus;
+            telegram.setTimestamp(delay);
+            if (useRing)
+                tail.lazySet(t + 1);
+            else
+                overflow.add(telegram);
+        }
+
+        void merge(ConcurrentMessageDispatcher dispatcher, boolean discard) {
+            // The ring is drained first since the producer stops using it as soon as something overflows
+            long h = head.get();
+            while (h < tail.get()) {
+                Telegram telegram = ring[(int) h & mask];
+                try {
+                    if (!discard) dispatcher.dispatchPosted(telegram);
+                } finally {
+                    telegram.reset();
+                    head.lazySet(++h);
+                }
+            }
+            Telegram telegram;
+            while ((telegram = overflow.poll()) != null) {
+                if (!discard) dispatcher.dispatchPosted(telegram);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.sched.Schedulable;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@code ConcurrentPathFinderQueue} serves {@link PathFinderRequest}s on a pool of worker threads instead of time slicing them on
+ * the main thread like {@link PathFinderQueue} does. Path finders are usually not thread-safe since they reuse their node records
+ * across searches, so every worker gets its own {@link PathFinder} from the factory given at construction time.
+ * <p>
+ * Requests are sent to this queue through a {@link Telegram} exactly like for {@link PathFinderQueue}. Once a search has completed,
+ * the request is handed back to the thread calling {@link #run(long)}, which dispatches it to the client through the request's
+ * {@link MessageDispatcher} with the request's {@link PathFinderRequest#responseMessageCode response message code}. This way clients
+ * are only ever notified on the thread driving the queue, typically by a scheduler on the main thread.
+ * <p>
+ * Notice that {@link PathFinderRequest#initializeSearch(long)}, {@link PathFinderRequest#search(PathFinder, long)} and
+ * {@link PathFinderRequest#finalizeSearch(long)} run on a worker thread, and that the graph must not be modified while searches are
+ * in progress.
+ *
+ * @param <N> Type of node
+ */
+public class ConcurrentPathFinderQueue<N> implements Schedulable, Telegraph {
+
+    private static final String LOG_TAG = ConcurrentPathFinderQueue.class.getSimpleName();
+
+    final LinkedBlockingQueue<PathFinderRequest<N>> requestQueue;
+
+    final ConcurrentLinkedQueue<PathFinderRequest<N>> resultQueue;
+
+    final AtomicInteger pendingRequests;
+
+    final Worker<N>[] workers;
+
+    /**
+     * Creates a {@code ConcurrentPathFinderQueue} with a worker for each available processor but one, and at least one worker.
+     *
+     * @param pathFinderFactory the factory creating the path finder of each worker
+     */
+    public ConcurrentPathFinderQueue(PathFinderFactory<N> pathFinderFactory) {
+        this(pathFinderFactory, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Creates a {@code ConcurrentPathFinderQueue} with the given number of workers.
+     *
+     * @param pathFinderFactory the factory creating the path finder of each worker
+     * @param numWorkers        the number of worker threads
+     */
+    public ConcurrentPathFinderQueue(PathFinderFactory<N> pathFinderFactory, int numWorkers) {
+        if (pathFinderFactory == null) throw new IllegalArgumentException("pathFinderFactory cannot be null");
+        if (numWorkers <= 0) throw new IllegalArgumentException("numWorkers must be greater than zero");
+
+        this.requestQueue = new LinkedBlockingQueue<>();
+        this.resultQueue = new ConcurrentLinkedQueue<>();
+        this.pendingRequests = new AtomicInteger();
+        @SuppressWarnings("unchecked")
+        Worker<N>[] workers = (Worker<N>[]) new Worker<?>[numWorkers];
+        this.workers = workers;
+        for (int i = 0; i < numWorkers; i++) {
+            workers[i] = new Worker<>(this, pathFinderFactory.newPathFinder(), i);
+        }
+        for (Worker<N> worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Dispatches the results of completed requests to their clients until the given time has run out.
+     *
+     * @param timeToRun the time in nanoseconds that this call can use on the current frame
+     */
+    @Override
+    public void run(long timeToRun) {
+        long lastTime = TimeUtils.nanoTime();
+
+        PathFinderRequest<N> request;
+        while ((request = resultQueue.poll()) != null) {
+            pendingRequests.decrementAndGet();
+
+            // Search finished, send result to the client
+            MessageDispatcher dispatcher = request.dispatcher != null ? request.dispatcher : MessageManager.getInstance();
+            dispatcher.dispatchMessage(this, request.client, request.responseMessageCode, request);
+
+            long currentTime = TimeUtils.nanoTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return;
+            lastTime = currentTime;
+        }
+    }
+
+    @Override
+    public boolean handleMessage(Telegram telegram) {
+        @SuppressWarnings("unchecked")
+        PathFinderRequest<N> pfr = (PathFinderRequest<N>) telegram.extraInfo;
+        pfr.client = telegram.sender; // set the client to be notified once the request has completed
+        pfr.status = PathFinderRequest.SEARCH_NEW; // Reset status
+        pfr.statusChanged = true; // Status has just changed
+        pfr.executionFrames = 0; // Reset execution frames counter
+        pfr.pathFound = false;
+        pendingRequests.incrementAndGet();
+        requestQueue.add(pfr);
+        return true;
+    }
+
+    /**
+     * Returns the number of requests that have been received and whose result has not been dispatched yet.
+     */
+    public int size() {
+        return pendingRequests.get();
+    }
+
+    /**
+     * Returns the number of worker threads.
+     */
+    public int getNumWorkers() {
+        return workers.length;
+    }
+
+    /**
+     * Stops the worker threads. Requests still waiting in the queue are never served and results not dispatched yet are dropped.
+     */
+    public void dispose() {
+        for (Worker<N> worker : workers) {
+            worker.interrupt();
+        }
+        requestQueue.clear();
+        resultQueue.clear();
+        pendingRequests.set(0);
+    }
+
+    /**
+     * Creates the path finder used by a worker thread. Each call must return a new instance, unless the path finder is thread-safe.
+     *
+     * @param <N> Type of node
+     */
+    public interface PathFinderFactory<N> {
+
+        PathFinder<N> newPathFinder();
+    }
+
+    static class Worker<N> extends Thread {
+        final ConcurrentPathFinderQueue<N> queue;
+        final PathFinder<N> pathFinder;
+
+        Worker(ConcurrentPathFinderQueue<N> queue, PathFinder<N> pathFinder, int index) {
+            super(LOG_TAG + "-" + index);
+            this.queue = queue;
+            this.pathFinder = pathFinder;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                PathFinderRequest<N> request;
+                try {
+                    request = queue.requestQueue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                try {
+                    execute(request);
+                } catch (RuntimeException e) {
+                    GdxAI.getLogger().error(LOG_TAG, "Search failed", e);
+                    request.pathFound = false;
+                    request.changeStatus(PathFinderRequest.SEARCH_FINALIZED);
+                }
+                queue.resultQueue.add(request);
+            }
+        }
+
+        void execute(PathFinderRequest<N> request) {
+            request.executionFrames++;
+
+            while (!request.initializeSearch(Long.MAX_VALUE)) ;
+            request.changeStatus(PathFinderRequest.SEARCH_INITIALIZED);
+
+            while (!request.search(pathFinder, Long.MAX_VALUE)) ;
+            request.changeStatus(PathFinderRequest.SEARCH_DONE);
+
+            while (!request.finalizeSearch(Long.MAX_VALUE)) ;
+            request.changeStatus(PathFinderRequest.SEARCH_FINALIZED);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderQueue;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * A {@link PathFinder} running two A* searches at the same time, one from the start node and one from the end node, until they
+ * meet. It can perform both interruptible and non-interruptible pathfinding.
+ * <p>
+ * The search always expands the side with the smaller open list and stops as soon as the best path found through a node reached by
+ * both searches is no longer than the lowest estimated total cost of either open list, which keeps the result optimal as long as
+ * the heuristic is consistent. When the cheap part of the graph is around the start or the end node, e.g. an agent inside a maze
+ * going to an open area, this expands far fewer nodes than {@link IndexedAStarPathFinder}.
+ * <p>
+ * The backward search walks the connections of a reverse graph, in which each connection of the graph goes the other way with the
+ * same cost. For undirected graphs, where every connection has a twin going back with the same cost, the graph is its own reverse.
+ * The heuristic must be symmetric, as it is used both towards the end node and towards the start node. Node records are stored in
+ * primitive arrays indexed by {@link IndexedGraph#getIndex(Object)}.
+ *
+ * @param <N> Type of node
+ */
+public class BidirectionalAStarPathFinder<N> implements PathFinder<N> {
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    public IndexedAStarPathFinder.Metrics metrics;
+    private final IndexedGraph<N> graph;
+    private final IndexedGraph<N> reverseGraph;
+    private final Object[] nodes;
+    private final float[][] costSoFar = new float[2][];
+    private final Connection<N>[][] connections;
+    private final int[][] searchIds = new int[2][];
+    private final int[][] closedIds = new int[2][];
+    private final IntBinaryHeap[] openLists = new IntBinaryHeap[2];
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+    private N startNode;
+    private N endNode;
+    private float bestCost;
+    private int meetingNode;
+
+    /**
+     * Creates a finder for an undirected graph, i.e. its own reverse graph.
+     */
+    public BidirectionalAStarPathFinder(IndexedGraph<N> graph) {
+        this(graph, graph, false);
+    }
+
+    public BidirectionalAStarPathFinder(IndexedGraph<N> graph, IndexedGraph<N> reverseGraph, boolean calculateMetrics) {
+        this.graph = graph;
+        this.reverseGraph = reverseGraph;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = new Object[nodeCount];
+        @SuppressWarnings("unchecked")
+        Connection<N>[][] connections = (Connection<N>[][]) new Connection<?>[2][nodeCount];
+        this.connections = connections;
+        for (int side = FORWARD; side <= BACKWARD; side++) {
+            costSoFar[side] = new float[nodeCount];
+            searchIds[side] = new int[nodeCount];
+            closedIds[side] = new int[nodeCount];
+            openLists[side] = new IntBinaryHeap(nodeCount);
+        }
+        if (calculateMetrics) this.metrics = new IndexedAStarPathFinder.Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            generateConnectionPath(outPath);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            generateNodePath(outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+        initSearch(startNode, endNode, heuristic);
+
+        while (!isSearchOver()) {
+            expand(heuristic);
+        }
+
+        return bestCost < Float.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        long lastTime = TimeUtils.nanoTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            initSearch(request.startNode, request.endNode, request.heuristic);
+            request.statusChanged = false;
+        }
+
+        while (!isSearchOver()) {
+
+            // Check the available time
+            long currentTime = TimeUtils.nanoTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return false;
+
+            expand(request.heuristic);
+
+            // Store the current time
+            lastTime = currentTime;
+        }
+
+        request.pathFound = bestCost < Float.POSITIVE_INFINITY;
+        if (request.pathFound) generateNodePath(request.resultPath);
+        return true;
+    }
+
+    protected void initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id, forgetting older searches on overflow
+        if (++searchId < 0) {
+            for (int side = FORWARD; side <= BACKWARD; side++) {
+                Arrays.fill(searchIds[side], 0);
+                Arrays.fill(closedIds[side], 0);
+            }
+            searchId = 1;
+        }
+
+        this.startNode = startNode;
+        this.endNode = endNode;
+        bestCost = Float.POSITIVE_INFINITY;
+        meetingNode = -1;
+
+        openLists[FORWARD].clear();
+        openLists[BACKWARD].clear();
+        float estimate = heuristic.estimate(startNode, endNode);
+        visit(FORWARD, startNode, graph.getIndex(startNode), null, 0, estimate);
+        visit(BACKWARD, endNode, graph.getIndex(endNode), null, 0, estimate);
+    }
+
+    private boolean isSearchOver() {
+        IntBinaryHeap forward = openLists[FORWARD];
+        IntBinaryHeap backward = openLists[BACKWARD];
+        return forward.size() == 0 || backward.size() == 0 || forward.peekValue() >= bestCost || backward.peekValue() >= bestCost;
+    }
+
+    /**
+     * Expands the best node of the side with the smaller open list.
+     */
+    @SuppressWarnings("unchecked")
+    protected void expand(Heuristic<N> heuristic) {
+        int side = openLists[FORWARD].size() <= openLists[BACKWARD].size() ? FORWARD : BACKWARD;
+        int other = 1 - side;
+        IndexedGraph<N> sideGraph = side == FORWARD ? graph : reverseGraph;
+        N target = side == FORWARD ? endNode : startNode;
+        float[] costs = costSoFar[side];
+        int[] ids = searchIds[side];
+        int[] closed = closedIds[side];
+
+        int current = openLists[side].pop();
+        closed[current] = searchId;
+
+        Array<Connection<N>> outgoing = sideGraph.getConnections((N) nodes[current]);
+        for (int i = 0; i < outgoing.size; i++) {
+            if (metrics != null) metrics.visitedNodes++;
+
+            Connection<N> connection = outgoing.get(i);
+            N node = connection.getToNode();
+            int index = graph.getIndex(node);
+            float cost = costs[current] + connection.getCost();
+
+            // With a consistent heuristic closed nodes can't be improved; open ones only when the route is shorter
+            if (ids[index] == searchId && (closed[index] == searchId || costs[index] <= cost)) continue;
+
+            visit(side, node, index, connection, cost, cost + heuristic.estimate(node, target));
+
+            // Try to connect both searches through this node
+            if (searchIds[other][index] == searchId) {
+                float total = cost + costSoFar[other][index];
+                if (total < bestCost) {
+                    bestCost = total;
+                    meetingNode = index;
+                }
+            }
+        }
+    }
+
+    private void visit(int side, N node, int index, Connection<N> connection, float cost, float estimatedTotalCost) {
+        nodes[index] = node;
+        searchIds[side][index] = searchId;
+        costSoFar[side][index] = cost;
+        connections[side][index] = connection;
+        openLists[side].add(index, estimatedTotalCost);
+
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openLists[FORWARD].size() + openLists[BACKWARD].size());
+        }
+
+        if (connection == null && side == BACKWARD && searchIds[FORWARD][index] == searchId) {
+            // Start and end nodes are the same
+            bestCost = 0;
+            meetingNode = index;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void generateNodePath(GraphPath<N> outPath) {
+        // From the meeting node back to the start node
+        for (Connection<N> connection = connections[FORWARD][meetingNode]; connection != null;
+             connection = connections[FORWARD][graph.getIndex(connection.getFromNode())]) {
+            outPath.add(connection.getToNode());
+        }
+        outPath.add(startNode);
+        outPath.reverse();
+
+        // Then forward to the end node, walking back the backward search
+        for (Connection<N> connection = connections[BACKWARD][meetingNode]; connection != null;
+             connection = connections[BACKWARD][graph.getIndex(connection.getFromNode())]) {
+            outPath.add(connection.getFromNode());
+        }
+    }
+
+    protected void generateConnectionPath(GraphPath<Connection<N>> outPath) {
+        for (Connection<N> connection = connections[FORWARD][meetingNode]; connection != null;
+             connection = connections[FORWARD][graph.getIndex(connection.getFromNode())]) {
+            outPath.add(connection);
+        }
+        outPath.reverse();
+
+        // The backward search followed reversed connections; add the matching connections of the graph
+        for (Connection<N> connection = connections[BACKWARD][meetingNode]; connection != null;
+             connection = connections[BACKWARD][graph.getIndex(connection.getFromNode())]) {
+            outPath.add(findConnection(connection.getToNode(), connection.getFromNode()));
+        }
+    }
+
+    private Connection<N> findConnection(N fromNode, N toNode) {
+        Array<Connection<N>> outgoing = graph.getConnections(fromNode);
+        for (int i = 0; i < outgoing.size; i++) {
+            Connection<N> connection = outgoing.get(i);
+            if (connection.getToNode() == toNode) return connection;
+        }
+        throw new IllegalStateException("The graph has no connection matching a connection of the reverse graph.");
+    }
+}
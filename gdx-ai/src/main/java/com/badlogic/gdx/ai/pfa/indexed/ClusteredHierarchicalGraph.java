@@ -0,0 +1,575 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.HierarchicalPathFinder;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+
+import java.util.Arrays;
+
+/**
+ * A two level {@link IndexedHierarchicalGraph} built automatically on top of any {@link IndexedGraph}, following the HPA*
+ * (hierarchical path-finding A*) approach.
+ * <p>
+ * The nodes of the base graph are partitioned into clusters, either rectangles of a {@link GridGraph} or regions grown breadth
+ * first from the nodes of any other graph. Wherever connections cross from one cluster into another, each run of adjacent border
+ * nodes gets an entrance: a crossing connection whose two ends become nodes of level 1. Level 1 connects the entrances of a
+ * cluster to each other with the cost of the shortest path between them inside the cluster, and entrances of adjacent clusters
+ * through their crossing connection. The intra-cluster paths are cached, so a path found at level 1 can be turned into a full
+ * level 0 path by {@link #expandPath(GraphPath, GraphPath)} without searching again.
+ * <p>
+ * Level 1 nodes are level 0 nodes, so both levels share the same node indices and a single {@link IndexedAStarPathFinder} can
+ * search both. A level 0 node is converted to level 1 as the nearest entrance of its cluster, which is what
+ * {@link HierarchicalPathFinder} needs to plan at the top level and refine at the bottom one. Nodes that can't reach any entrance
+ * are left as they are and have no level 1 connections.
+ * <p>
+ * When the base graph changes, call {@link #invalidate(Object)} with every node whose connections changed and then
+ * {@link #update()}: only the invalidated clusters and their neighbors are rebuilt. This class is not thread-safe.
+ *
+ * @param <N> Type of node
+ */
+public class ClusteredHierarchicalGraph<N> extends IndexedHierarchicalGraph<N> {
+    private static final int LEVEL_COUNT = 2;
+
+    final IndexedGraph<N> graph;
+    final Object[] nodes;
+    final int[] clusterOf;
+    final Cluster<N>[] clusters;
+
+    /**
+     * Level 1 connections of each entrance, null for nodes that are not entrances.
+     */
+    final Array<Connection<N>>[] abstractConnections;
+    /**
+     * Index of the entrance a node is converted to at level 1, -1 if the node can't reach any entrance.
+     */
+    final int[] nearestEntrances;
+
+    private final Array<Connection<N>> emptyConnections = new Array<>(0);
+    private final IntSet dirtyClusters = new IntSet();
+
+    // Dijkstra scratch data, indexed by node
+    private final float[] distances;
+    private final int[] parents;
+    private final int[] searchIds;
+    private final IntBinaryHeap openList;
+    private int searchId;
+
+    /**
+     * Creates a hierarchical graph on top of a grid graph, with rectangular clusters of the given size.
+     *
+     * @param graph         the base graph
+     * @param clusterWidth  the width of a cluster in cells
+     * @param clusterHeight the height of a cluster in cells
+     */
+    public ClusteredHierarchicalGraph(GridGraph<N> graph, int clusterWidth, int clusterHeight) {
+        this(graph, gridNodes(graph), gridClusters(graph, clusterWidth, clusterHeight));
+    }
+
+    /**
+     * Creates a hierarchical graph on top of any indexed graph. Clusters are grown breadth first from the given nodes, in their
+     * order, until they reach the maximum size or run out of connected nodes.
+     *
+     * @param graph          the base graph
+     * @param nodes          every node of the base graph
+     * @param maxClusterSize the maximum number of nodes in a cluster
+     */
+    public ClusteredHierarchicalGraph(IndexedGraph<N> graph, Array<N> nodes, int maxClusterSize) {
+        this(graph, nodes, growClusters(graph, nodes, maxClusterSize));
+    }
+
+    /**
+     * Creates a hierarchical graph on top of any indexed graph, with the given clusters.
+     *
+     * @param graph     the base graph
+     * @param nodes     every node of the base graph
+     * @param clusterOf the cluster of each node, by node index, numbered from 0
+     */
+    public ClusteredHierarchicalGraph(IndexedGraph<N> graph, Array<N> nodes, int[] clusterOf) {
+        super(LEVEL_COUNT);
+        int nodeCount = graph.getNodeCount();
+        if (clusterOf.length != nodeCount) throw new IllegalArgumentException("clusterOf must have one entry per node");
+
+        this.graph = graph;
+        this.nodes = new Object[nodeCount];
+        this.clusterOf = clusterOf;
+        @SuppressWarnings("unchecked")
+        Array<Connection<N>>[] abstractConnections = (Array<Connection<N>>[]) new Array<?>[nodeCount];
+        this.abstractConnections = abstractConnections;
+        this.nearestEntrances = new int[nodeCount];
+        this.distances = new float[nodeCount];
+        this.parents = new int[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.openList = new IntBinaryHeap(nodeCount);
+
+        int clusterCount = 0;
+        for (int cluster : clusterOf)
+            clusterCount = Math.max(clusterCount, cluster + 1);
+        @SuppressWarnings("unchecked")
+        Cluster<N>[] clusters = (Cluster<N>[]) new Cluster<?>[clusterCount];
+        this.clusters = clusters;
+        for (int i = 0; i < clusterCount; i++)
+            clusters[i] = new Cluster<>();
+
+        for (int i = 0; i < nodes.size; i++) {
+            N node = nodes.get(i);
+            int index = graph.getIndex(node);
+            this.nodes[index] = node;
+            clusters[clusterOf[index]].members.add(index);
+        }
+        Arrays.fill(nearestEntrances, -1);
+
+        for (int i = 0; i < clusterCount; i++)
+            dirtyClusters.add(i);
+        update();
+    }
+
+    @Override
+    public int getIndex(N node) {
+        return graph.getIndex(node);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return graph.getNodeCount();
+    }
+
+    @Override
+    public Array<Connection<N>> getConnections(N fromNode) {
+        if (level == 0) return graph.getConnections(fromNode);
+        Array<Connection<N>> connections = abstractConnections[graph.getIndex(fromNode)];
+        return connections != null ? connections : emptyConnections;
+    }
+
+    @Override
+    public N convertNodeBetweenLevels(int inputLevel, N node, int outputLevel) {
+        if (outputLevel == 0 || inputLevel == outputLevel) return node;
+        int entrance = nearestEntrances[graph.getIndex(node)];
+        return entrance >= 0 ? getNode(entrance) : node;
+    }
+
+    /**
+     * Returns the number of clusters.
+     */
+    public int getClusterCount() {
+        return clusters.length;
+    }
+
+    /**
+     * Returns the cluster of the given node.
+     */
+    public int getCluster(N node) {
+        return clusterOf[graph.getIndex(node)];
+    }
+
+    /**
+     * Returns the entrance nodes of the given cluster, i.e. its level 1 nodes.
+     */
+    public Array<N> getEntrances(int cluster, Array<N> out) {
+        IntArray entrances = clusters[cluster].entrances;
+        for (int i = 0; i < entrances.size; i++)
+            out.add(getNode(entrances.get(i)));
+        return out;
+    }
+
+    /**
+     * Returns whether the given node is a level 1 node.
+     */
+    public boolean isEntrance(N node) {
+        return abstractConnections[graph.getIndex(node)] != null;
+    }
+
+    /**
+     * Marks the cluster of the given node for rebuilding by the next {@link #update()}. Call it for every node whose connections
+     * have changed in the base graph.
+     */
+    public void invalidate(N node) {
+        dirtyClusters.add(clusterOf[graph.getIndex(node)]);
+    }
+
+    /**
+     * Rebuilds the entrances of the invalidated clusters and the intra-cluster paths of these clusters and of their neighbors.
+     */
+    public void update() {
+        if (dirtyClusters.size == 0) return;
+
+        // Find crossings again from and into the dirty clusters, then rebuild every cluster whose entrances may have changed
+        IntSet affected = new IntSet();
+        IntSet.IntSetIterator dirty = dirtyClusters.iterator();
+        while (dirty.hasNext) {
+            int cluster = dirty.next();
+            findNeighbors(cluster);
+            affected.add(cluster);
+            affected.addAll(clusters[cluster].neighbors);
+        }
+
+        dirty = dirtyClusters.iterator();
+        while (dirty.hasNext) {
+            int cluster = dirty.next();
+            IntSet.IntSetIterator neighbors = clusters[cluster].neighbors.iterator();
+            while (neighbors.hasNext) {
+                int neighbor = neighbors.next();
+                findCrossings(cluster, neighbor);
+                if (!dirtyClusters.contains(neighbor)) findCrossings(neighbor, cluster);
+            }
+        }
+
+        IntSet.IntSetIterator iterator = affected.iterator();
+        while (iterator.hasNext)
+            clearEntrances(iterator.next());
+        iterator = affected.iterator();
+        while (iterator.hasNext)
+            collectEntrances(iterator.next());
+        iterator = affected.iterator();
+        while (iterator.hasNext)
+            connectEntrances(iterator.next());
+
+        dirtyClusters.clear();
+    }
+
+    /**
+     * Turns a path made of level 1 nodes into the level 0 path it stands for, using the cached intra-cluster paths. Consecutive
+     * nodes of the input path must be connected at level 1.
+     *
+     * @param abstractPath the level 1 path
+     * @param outPath      the output path, which nodes are appended to
+     */
+    public void expandPath(GraphPath<N> abstractPath, GraphPath<N> outPath) {
+        if (abstractPath.getCount() == 0) return;
+        outPath.add(abstractPath.get(0));
+
+        for (int i = 1; i < abstractPath.getCount(); i++) {
+            N from = abstractPath.get(i - 1);
+            N to = abstractPath.get(i);
+            ClusterConnection<N> connection = findAbstractConnection(from, to);
+            if (connection == null) throw new IllegalArgumentException("Nodes " + from + " and " + to + " are not connected at level 1");
+
+            int[] path = connection.path;
+            if (path == null) {
+                outPath.add(to);
+            } else {
+                for (int j = 1; j < path.length; j++)
+                    outPath.add(getNode(path[j]));
+            }
+        }
+    }
+
+    private ClusterConnection<N> findAbstractConnection(N from, N to) {
+        Array<Connection<N>> connections = abstractConnections[graph.getIndex(from)];
+        if (connections == null) return null;
+
+        ClusterConnection<N> best = null;
+        for (int i = 0; i < connections.size; i++) {
+            ClusterConnection<N> connection = (ClusterConnection<N>) connections.get(i);
+            if (connection.toNode == to && (best == null || connection.cost < best.cost)) best = connection;
+        }
+        return best;
+    }
+
+    /**
+     * Adds the clusters reached by the connections of the cluster members to its neighbors, both ways.
+     */
+    private void findNeighbors(int cluster) {
+        IntArray members = clusters[cluster].members;
+        for (int i = 0; i < members.size; i++) {
+            Array<Connection<N>> connections = graph.getConnections(getNode(members.get(i)));
+            for (int j = 0; j < connections.size; j++) {
+                int other = clusterOf[graph.getIndex(connections.get(j).getToNode())];
+                if (other != cluster) {
+                    clusters[cluster].neighbors.add(other);
+                    clusters[other].neighbors.add(cluster);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the crossings from cluster {@code from} into cluster {@code to} with one crossing per run of adjacent border nodes,
+     * taken from the middle of the run.
+     */
+    private void findCrossings(int from, int to) {
+        Array<ClusterConnection<N>> crossings = clusters[from].crossings;
+        for (int i = crossings.size - 1; i >= 0; i--) {
+            if (crossings.get(i).toCluster == to) crossings.removeIndex(i);
+        }
+
+        // Border nodes are marked with the current search id, and with -search id once they belong to a run
+        int borderId = nextSearchId();
+        IntArray members = clusters[from].members;
+        for (int i = 0; i < members.size; i++) {
+            int index = members.get(i);
+            if (findCrossing(index, to) != null) searchIds[index] = borderId;
+        }
+
+        IntArray run = new IntArray();
+        for (int i = 0; i < members.size; i++) {
+            int start = members.get(i);
+            if (searchIds[start] != borderId) continue;
+
+            // Breadth first walk of the run of border nodes containing start
+            run.clear();
+            run.add(start);
+            searchIds[start] = -borderId;
+            for (int r = 0; r < run.size; r++) {
+                Array<Connection<N>> connections = graph.getConnections(getNode(run.get(r)));
+                for (int j = 0; j < connections.size; j++) {
+                    int index = graph.getIndex(connections.get(j).getToNode());
+                    if (searchIds[index] == borderId) {
+                        searchIds[index] = -borderId;
+                        run.add(index);
+                    }
+                }
+            }
+
+            Connection<N> crossing = findCrossing(run.get(run.size >> 1), to);
+            crossings.add(new ClusterConnection<>(crossing.getFromNode(), crossing.getToNode(), crossing.getCost(), to, null));
+        }
+    }
+
+    /**
+     * Returns the cheapest connection of the node leading into the given cluster, null if there is none.
+     */
+    private Connection<N> findCrossing(int index, int cluster) {
+        Connection<N> best = null;
+        Array<Connection<N>> connections = graph.getConnections(getNode(index));
+        for (int i = 0; i < connections.size; i++) {
+            Connection<N> connection = connections.get(i);
+            if (clusterOf[graph.getIndex(connection.getToNode())] == cluster && (best == null || connection.getCost() < best.getCost()))
+                best = connection;
+        }
+        return best;
+    }
+
+    private void clearEntrances(int cluster) {
+        IntArray entrances = clusters[cluster].entrances;
+        for (int i = 0; i < entrances.size; i++)
+            abstractConnections[entrances.get(i)] = null;
+        entrances.clear();
+    }
+
+    /**
+     * Makes entrances of the sources of the outgoing crossings of the cluster and of the targets of the crossings coming in.
+     */
+    private void collectEntrances(int cluster) {
+        Cluster<N> c = clusters[cluster];
+        for (int i = 0; i < c.crossings.size; i++) {
+            ClusterConnection<N> crossing = c.crossings.get(i);
+            addEntrance(cluster, graph.getIndex(crossing.fromNode)).add(crossing);
+        }
+
+        IntSet.IntSetIterator neighbors = c.neighbors.iterator();
+        while (neighbors.hasNext) {
+            Array<ClusterConnection<N>> crossings = clusters[neighbors.next()].crossings;
+            for (int i = 0; i < crossings.size; i++) {
+                ClusterConnection<N> crossing = crossings.get(i);
+                if (crossing.toCluster == cluster) addEntrance(cluster, graph.getIndex(crossing.toNode));
+            }
+        }
+    }
+
+    private Array<Connection<N>> addEntrance(int cluster, int index) {
+        Array<Connection<N>> connections = abstractConnections[index];
+        if (connections == null) {
+            connections = abstractConnections[index] = new Array<>(false, 8);
+            clusters[cluster].entrances.add(index);
+        }
+        return connections;
+    }
+
+    /**
+     * Connects each entrance of the cluster to the others through the shortest path inside the cluster, and converts every member
+     * of the cluster to its nearest entrance.
+     */
+    private void connectEntrances(int cluster) {
+        Cluster<N> c = clusters[cluster];
+        IntArray members = c.members;
+        IntArray entrances = c.entrances;
+        float[] nearestDistances = new float[members.size];
+        Arrays.fill(nearestDistances, Float.POSITIVE_INFINITY);
+        for (int i = 0; i < members.size; i++)
+            nearestEntrances[members.get(i)] = -1;
+
+        for (int e = 0; e < entrances.size; e++) {
+            int entrance = entrances.get(e);
+            int id = searchCluster(entrance, cluster);
+
+            Array<Connection<N>> connections = abstractConnections[entrance];
+            for (int o = 0; o < entrances.size; o++) {
+                int other = entrances.get(o);
+                if (other == entrance || searchIds[other] != id) continue;
+                connections.add(new ClusterConnection<>(getNode(entrance), getNode(other), distances[other], cluster, buildPath(other)));
+            }
+
+            for (int i = 0; i < members.size; i++) {
+                int member = members.get(i);
+                if (searchIds[member] == id && distances[member] < nearestDistances[i]) {
+                    nearestDistances[i] = distances[member];
+                    nearestEntrances[member] = entrance;
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra search from the given node restricted to its cluster. Reached nodes are marked with the returned search id.
+     */
+    private int searchCluster(int source, int cluster) {
+        int id = nextSearchId();
+        openList.clear();
+        searchIds[source] = id;
+        distances[source] = 0;
+        parents[source] = -1;
+        openList.add(source, 0);
+
+        while (openList.size() > 0) {
+            int current = openList.pop();
+            float currentDistance = distances[current];
+            Array<Connection<N>> connections = graph.getConnections(getNode(current));
+            for (int i = 0; i < connections.size; i++) {
+                Connection<N> connection = connections.get(i);
+                int index = graph.getIndex(connection.getToNode());
+                if (clusterOf[index] != cluster) continue;
+
+                float distance = currentDistance + connection.getCost();
+                if (searchIds[index] != id || distance < distances[index]) {
+                    // Costs are not negative, so a node that has left the open list never gets a shorter distance
+                    searchIds[index] = id;
+                    distances[index] = distance;
+                    parents[index] = current;
+                    openList.add(index, distance);
+                }
+            }
+        }
+        return id;
+    }
+
+    private int[] buildPath(int target) {
+        int length = 0;
+        for (int index = target; index >= 0; index = parents[index])
+            length++;
+        int[] path = new int[length];
+        for (int index = target; index >= 0; index = parents[index])
+            path[--length] = index;
+        return path;
+    }
+
+    private int nextSearchId() {
+        if (++searchId < 0) {
+            Arrays.fill(searchIds, 0);
+            searchId = 1;
+        }
+        return searchId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private N getNode(int index) {
+        return (N) nodes[index];
+    }
+
+    private static <N> Array<N> gridNodes(GridGraph<N> graph) {
+        Array<N> nodes = new Array<>(graph.getWidth() * graph.getHeight());
+        for (int y = 0; y < graph.getHeight(); y++) {
+            for (int x = 0; x < graph.getWidth(); x++)
+                nodes.add(graph.getNode(x, y));
+        }
+        return nodes;
+    }
+
+    private static int[] gridClusters(GridGraph<?> graph, int clusterWidth, int clusterHeight) {
+        if (clusterWidth <= 0 || clusterHeight <= 0) throw new IllegalArgumentException("cluster size must be greater than zero");
+        int width = graph.getWidth();
+        int clustersPerRow = (width + clusterWidth - 1) / clusterWidth;
+        int[] clusterOf = new int[width * graph.getHeight()];
+        for (int i = 0; i < clusterOf.length; i++)
+            clusterOf[i] = (i / width / clusterHeight) * clustersPerRow + (i % width) / clusterWidth;
+        return clusterOf;
+    }
+
+    private static <N> int[] growClusters(IndexedGraph<N> graph, Array<N> nodes, int maxClusterSize) {
+        if (maxClusterSize <= 0) throw new IllegalArgumentException("maxClusterSize must be greater than zero");
+        int[] clusterOf = new int[graph.getNodeCount()];
+        Arrays.fill(clusterOf, -1);
+
+        int clusterCount = 0;
+        Array<N> queue = new Array<>();
+        for (int i = 0; i < nodes.size; i++) {
+            N start = nodes.get(i);
+            if (clusterOf[graph.getIndex(start)] >= 0) continue;
+
+            int cluster = clusterCount++;
+            queue.clear();
+            queue.add(start);
+            clusterOf[graph.getIndex(start)] = cluster;
+            for (int q = 0; q < queue.size && queue.size < maxClusterSize; q++) {
+                Array<Connection<N>> connections = graph.getConnections(queue.get(q));
+                for (int j = 0; j < connections.size && queue.size < maxClusterSize; j++) {
+                    N node = connections.get(j).getToNode();
+                    int index = graph.getIndex(node);
+                    if (clusterOf[index] < 0) {
+                        clusterOf[index] = cluster;
+                        queue.add(node);
+                    }
+                }
+            }
+        }
+        return clusterOf;
+    }
+
+    static class Cluster<N> {
+        final IntArray members = new IntArray();
+        final IntArray entrances = new IntArray();
+        final IntSet neighbors = new IntSet();
+        /**
+         * Crossings from this cluster into its neighbors, the connections whose ends are entrances.
+         */
+        final Array<ClusterConnection<N>> crossings = new Array<>();
+    }
+
+    /**
+     * A level 1 connection: either a crossing between two clusters or the cached shortest path between two entrances of a cluster.
+     *
+     * @param <N> Type of node
+     */
+    public static class ClusterConnection<N> implements Connection<N> {
+        final N fromNode;
+        final N toNode;
+        final float cost;
+        final int toCluster;
+        /**
+         * Indices of the nodes along the intra-cluster path, both ends included; null for crossings.
+         */
+        final int[] path;
+
+        ClusterConnection(N fromNode, N toNode, float cost, int toCluster, int[] path) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+            this.cost = cost;
+            this.toCluster = toCluster;
+            this.path = path;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+
+        @Override
+        public N getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public N getToNode() {
+            return toNode;
+        }
+
+        /**
+         * Returns whether this connection crosses from a cluster into another one.
+         */
+        public boolean isCrossing() {
+            return path == null;
+        }
+    }
+}
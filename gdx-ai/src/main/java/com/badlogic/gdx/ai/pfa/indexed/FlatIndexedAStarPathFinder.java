@@ -0,0 +1,285 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderQueue;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.EqualsByReferenceStopCondition;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.Metrics;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder.StopCondition;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * An indexed A* {@link PathFinder} producing the same paths as {@link IndexedAStarPathFinder}, but keeping its node records as a
+ * struct of arrays instead of one {@code NodeRecord} object per node.
+ * <p>
+ * The cost so far, parent node, incoming connection, category and search id of every node live in parallel primitive arrays
+ * indexed by {@link IndexedGraph#getIndex(Object)}, and the open list is a binary heap of node indices whose values double as the
+ * estimated total costs. The only references held per node are the nodes themselves. Nothing is allocated while searching and there
+ * are no per node object headers or heap nodes to trace, which matters on graphs with millions of nodes.
+ * <p>
+ * The incoming connection of a node is stored as its position in the array returned by {@link IndexedGraph#getConnections(Object)}
+ * for the parent node, so that array must not change between the search and the generation of a connection path.
+ *
+ * @param <N> Type of node
+ */
+public class FlatIndexedAStarPathFinder<N> implements PathFinder<N> {
+    private static final byte UNVISITED = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+
+    /**
+     * A {@link StopCondition} with the same node type as this path finder; defaults to a {@link EqualsByReferenceStopCondition} if
+     * unspecified.
+     */
+    public StopCondition<N> stopCondition;
+    public Metrics metrics;
+    IndexedGraph<N> graph;
+
+    final Object[] nodes;
+    final float[] costSoFar;
+    final int[] parents;
+    final int[] connectionIndices;
+    final byte[] categories;
+    final int[] searchIds;
+    final IntBinaryHeap openList;
+    int current;
+
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+
+    public FlatIndexedAStarPathFinder(IndexedGraph<N> graph) {
+        this(graph, false);
+    }
+
+    public FlatIndexedAStarPathFinder(IndexedGraph<N> graph, boolean calculateMetrics) {
+        this(graph, calculateMetrics, new EqualsByReferenceStopCondition<>());
+    }
+
+    public FlatIndexedAStarPathFinder(IndexedGraph<N> graph, boolean calculateMetrics, StopCondition<N> stopCondition) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.nodes = new Object[nodeCount];
+        this.costSoFar = new float[nodeCount];
+        this.parents = new int[nodeCount];
+        this.connectionIndices = new int[nodeCount];
+        this.categories = new byte[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.openList = new IntBinaryHeap(nodeCount);
+        this.stopCondition = stopCondition;
+        if (calculateMetrics) this.metrics = new Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+
+        // Perform AStar
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of connections
+            generateConnectionPath(startNode, outPath);
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+
+        // Perform AStar
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            // Create a path made of nodes
+            generateNodePath(startNode, outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+
+        initSearch(startNode, endNode, heuristic);
+
+        // Iterate through processing each node
+        do {
+            // Retrieve the node with smallest estimated total cost from the open list
+            current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the stop condition
+            if (stopCondition.shouldStopSearch(getNode(current), endNode)) return true;
+
+            visitChildren(endNode, heuristic);
+        } while (openList.size() > 0);
+
+        // We've run out of nodes without finding the goal, so there's no solution
+        return false;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        long lastTime = TimeUtils.nanoTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            initSearch(request.startNode, request.endNode, request.heuristic);
+            request.statusChanged = false;
+        }
+
+        // Iterate through processing each node
+        do {
+
+            // Check the available time
+            long currentTime = TimeUtils.nanoTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return false;
+
+            // Retrieve the node with smallest estimated total cost from the open list
+            current = openList.pop();
+            categories[current] = CLOSED;
+
+            // Terminate if we reached the stop condition; we've found a path.
+            if (stopCondition.shouldStopSearch(getNode(current), request.endNode)) {
+                request.pathFound = true;
+
+                generateNodePath(request.startNode, request.resultPath);
+
+                return true;
+            }
+
+            // Visit current node's children
+            visitChildren(request.endNode, request.heuristic);
+
+            // Store the current time
+            lastTime = currentTime;
+        } while (openList.size() > 0);
+
+        // The open list is empty and we've not found a path.
+        request.pathFound = false;
+        return true;
+    }
+
+    protected void initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id
+        if (++searchId < 0) searchId = 1;
+
+        // Initialize the open list
+        openList.clear();
+
+        // Initialize the record for the start node and add it to the open list
+        int startIndex = getNodeRecord(startNode);
+        costSoFar[startIndex] = 0;
+        parents[startIndex] = -1;
+        connectionIndices[startIndex] = -1;
+        addToOpenList(startIndex, heuristic.estimate(startNode, endNode));
+
+        current = -1;
+    }
+
+    protected void visitChildren(N endNode, Heuristic<N> heuristic) {
+        // Get current node's outgoing connections
+        Array<Connection<N>> connections = graph.getConnections(getNode(current));
+        float currentCost = costSoFar[current];
+
+        // Loop through each connection in turn
+        for (int i = 0; i < connections.size; i++) {
+            if (metrics != null) metrics.visitedNodes++;
+
+            Connection<N> connection = connections.get(i);
+
+            // Get the cost estimate for the node
+            N node = connection.getToNode();
+            float nodeCost = currentCost + connection.getCost();
+
+            float nodeHeuristic;
+            int index = getNodeRecord(node);
+            if (categories[index] != UNVISITED) { // The node is open or closed
+
+                // If our route is no better, then skip
+                if (costSoFar[index] <= nodeCost) continue;
+
+                // We can use the node's old cost values to calculate its heuristic
+                // without calling the possibly expensive heuristic function.
+                // If the node is open, adding it again just updates its position in the open list.
+                nodeHeuristic = openList.getValue(index) - costSoFar[index];
+            } else { // the node is unvisited
+
+                // We'll need to calculate the heuristic value using the function,
+                // since we don't have a node record with a previously calculated value
+                nodeHeuristic = heuristic.estimate(node, endNode);
+            }
+
+            // Update node record's cost and connection
+            costSoFar[index] = nodeCost;
+            parents[index] = current;
+            connectionIndices[index] = i;
+
+            // Add it to the open list with the estimated total cost
+            addToOpenList(index, nodeCost + nodeHeuristic);
+        }
+    }
+
+    protected void generateConnectionPath(N startNode, GraphPath<Connection<N>> outPath) {
+
+        // Work back along the path, accumulating connections
+        int startIndex = graph.getIndex(startNode);
+        while (current != startIndex) {
+            int parent = parents[current];
+            outPath.add(graph.getConnections(getNode(parent)).get(connectionIndices[current]));
+            current = parent;
+        }
+
+        // Reverse the path
+        outPath.reverse();
+    }
+
+    protected void generateNodePath(N startNode, GraphPath<N> outPath) {
+
+        // Work back along the path, accumulating nodes
+        while (parents[current] >= 0) {
+            outPath.add(getNode(current));
+            current = parents[current];
+        }
+        outPath.add(startNode);
+
+        // Reverse the path
+        outPath.reverse();
+    }
+
+    protected void addToOpenList(int index, float estimatedTotalCost) {
+        openList.add(index, estimatedTotalCost);
+        categories[index] = OPEN;
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+    }
+
+    /**
+     * Returns the index of the given node, resetting its record if it has not been touched by the current search yet.
+     */
+    protected int getNodeRecord(N node) {
+        int index = graph.getIndex(node);
+        if (searchIds[index] != searchId) {
+            nodes[index] = node;
+            categories[index] = UNVISITED;
+            searchIds[index] = searchId;
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected N getNode(int index) {
+        return (N) nodes[index];
+    }
+}
@@ -0,0 +1,36 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+/**
+ * An {@link IndexedGraph} laid out as a rectangular grid of uniform cost cells, as required by the
+ * {@link JumpPointSearchPathFinder}. The index of the node at {@code (x, y)} must be {@code y * getWidth() + x}.
+ *
+ * @param <N> Type of node
+ */
+public interface GridGraph<N> extends IndexedGraph<N> {
+
+    /**
+     * Returns the number of columns of the grid.
+     */
+    int getWidth();
+
+    /**
+     * Returns the number of rows of the grid.
+     */
+    int getHeight();
+
+    /**
+     * Returns the node at the given cell.
+     *
+     * @param x the column of the cell, in {@code [0, getWidth())}
+     * @param y the row of the cell, in {@code [0, getHeight())}
+     */
+    N getNode(int x, int y);
+
+    /**
+     * Returns whether the given cell can be crossed.
+     *
+     * @param x the column of the cell, in {@code [0, getWidth())}
+     * @param y the row of the cell, in {@code [0, getHeight())}
+     */
+    boolean isWalkable(int x, int y);
+}
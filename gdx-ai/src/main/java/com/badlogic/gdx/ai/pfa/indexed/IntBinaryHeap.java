@@ -0,0 +1,150 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node indices ordered by a float value, storing everything in primitive arrays. Each index can be in the
+ * heap at most once; its position is tracked so its value can be decreased in place.
+ */
+public final class IntBinaryHeap {
+    private final int[] positions;
+    private final float[] values;
+    private int[] items;
+    private int size;
+
+    /**
+     * @param capacity the number of distinct indices, i.e. the node count of the graph
+     */
+    public IntBinaryHeap(int capacity) {
+        positions = new int[capacity];
+        values = new float[capacity];
+        items = new int[Math.max(16, Math.min(capacity, 1024))];
+        Arrays.fill(positions, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int index) {
+        return positions[index] >= 0;
+    }
+
+    /**
+     * @return the value last given to the index, which is kept after the index has left the heap
+     */
+    public float getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return the value of the index at the top of the heap
+     */
+    public float peekValue() {
+        return values[items[0]];
+    }
+
+    /**
+     * Adds the index with the given value, or changes its value if it is already in the heap.
+     */
+    public void add(int index, float value) {
+        int position = positions[index];
+
+        if (position >= 0) {
+            float oldValue = values[index];
+            values[index] = value;
+            if (value < oldValue) {
+                up(position);
+            } else {
+                down(position);
+            }
+            return;
+        }
+
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size << 1);
+        }
+
+        values[index] = value;
+        items[size] = index;
+        positions[index] = size;
+        up(size++);
+    }
+
+    /**
+     * Removes and returns the index with the smallest value.
+     */
+    public int pop() {
+        int[] items = this.items;
+        int result = items[0];
+        positions[result] = -1;
+
+        if (--size > 0) {
+            items[0] = items[size];
+            positions[items[0]] = 0;
+            down(0);
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[items[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void up(int position) {
+        int[] items = this.items;
+        float[] values = this.values;
+        int index = items[position];
+        float value = values[index];
+
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            int parent = items[parentPosition];
+            if (value >= values[parent]) break;
+            items[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+
+        items[position] = index;
+        positions[index] = position;
+    }
+
+    private void down(int position) {
+        int[] items = this.items;
+        float[] values = this.values;
+        int index = items[position];
+        float value = values[index];
+        int size = this.size;
+
+        while (true) {
+            int left = (position << 1) + 1;
+            if (left >= size) break;
+
+            int child = left;
+            float childValue = values[items[left]];
+            int right = left + 1;
+            if (right < size) {
+                float rightValue = values[items[right]];
+                if (rightValue < childValue) {
+                    child = right;
+                    childValue = rightValue;
+                }
+            }
+
+            if (childValue >= value) break;
+
+            int childIndex = items[child];
+            items[position] = childIndex;
+            positions[childIndex] = position;
+            position = child;
+        }
+
+        items[position] = index;
+        positions[index] = position;
+    }
+}
@@ -0,0 +1,364 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathFinder;
+import com.badlogic.gdx.ai.pfa.PathFinderQueue;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+/**
+ * A {@link PathFinder} implementing Jump Point Search, an A* variant for uniform cost grids that can perform both interruptible
+ * and non-interruptible pathfinding.
+ * <p>
+ * Instead of expanding every neighbor of a node, Jump Point Search scans along straight and diagonal lines and only adds to the
+ * open list the "jump points" where an optimal path may turn, because a neighbor is forced by an obstacle. Long stretches of open
+ * cells are crossed without touching the open list or the connections of the graph, which makes searches on large open grids much
+ * faster than with {@link IndexedAStarPathFinder}.
+ * <p>
+ * Agents move in 8 directions: straight moves cost 1 and diagonal moves cost {@code sqrt(2)}. Diagonal moves are not allowed to cut
+ * corners, i.e. both adjacent straight cells must be walkable. The connections of the graph are ignored during the search and only
+ * looked up to build connection paths. Returned paths contain every cell crossed, not just the jump points. Use an admissible
+ * heuristic such as the octile or euclidean distance.
+ *
+ * @param <N> Type of node
+ */
+public class JumpPointSearchPathFinder<N> implements PathFinder<N> {
+    private static final float SQRT2 = 1.4142135f;
+
+    public IndexedAStarPathFinder.Metrics metrics;
+    private final GridGraph<N> graph;
+    private final int width;
+    private final int height;
+    private final float[] costSoFar;
+    private final int[] parents;
+    private final int[] searchIds;
+    private final int[] closedIds;
+    private final IntBinaryHeap openList;
+    private final IntArray jumpPoints = new IntArray();
+    private final DefaultGraphPath<N> nodePath = new DefaultGraphPath<>();
+    /**
+     * The unique ID for each search run. Used to mark nodes.
+     */
+    private int searchId;
+    private int current;
+    private int end;
+
+    public JumpPointSearchPathFinder(GridGraph<N> graph) {
+        this(graph, false);
+    }
+
+    public JumpPointSearchPathFinder(GridGraph<N> graph, boolean calculateMetrics) {
+        this.graph = graph;
+        this.width = graph.getWidth();
+        this.height = graph.getHeight();
+        int nodeCount = width * height;
+        this.costSoFar = new float[nodeCount];
+        this.parents = new int[nodeCount];
+        this.searchIds = new int[nodeCount];
+        this.closedIds = new int[nodeCount];
+        this.openList = new IntBinaryHeap(nodeCount);
+        if (calculateMetrics) this.metrics = new IndexedAStarPathFinder.Metrics();
+    }
+
+    @Override
+    public boolean searchConnectionPath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<Connection<N>> outPath) {
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            nodePath.clear();
+            generateNodePath(nodePath);
+            for (int i = 1; i < nodePath.getCount(); i++) {
+                outPath.add(findConnection(nodePath.get(i - 1), nodePath.get(i)));
+            }
+            nodePath.clear();
+        }
+
+        return found;
+    }
+
+    @Override
+    public boolean searchNodePath(N startNode, N endNode, Heuristic<N> heuristic, GraphPath<N> outPath) {
+        boolean found = search(startNode, endNode, heuristic);
+
+        if (found) {
+            generateNodePath(outPath);
+        }
+
+        return found;
+    }
+
+    protected boolean search(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (!initSearch(startNode, endNode, heuristic)) return false;
+
+        do {
+            current = openList.pop();
+            closedIds[current] = searchId;
+
+            if (current == end) return true;
+
+            visitJumpPoints(endNode, heuristic);
+        } while (openList.size() > 0);
+
+        return false;
+    }
+
+    @Override
+    public boolean search(PathFinderRequest<N> request, long timeToRun) {
+
+        long lastTime = TimeUtils.nanoTime();
+
+        // We have to initialize the search if the status has just changed
+        if (request.statusChanged) {
+            request.statusChanged = false;
+            if (!initSearch(request.startNode, request.endNode, request.heuristic)) {
+                request.pathFound = false;
+                return true;
+            }
+        }
+
+        while (openList.size() > 0) {
+
+            // Check the available time
+            long currentTime = TimeUtils.nanoTime();
+            timeToRun -= currentTime - lastTime;
+            if (timeToRun <= PathFinderQueue.TIME_TOLERANCE) return false;
+
+            current = openList.pop();
+            closedIds[current] = searchId;
+
+            if (current == end) {
+                request.pathFound = true;
+                generateNodePath(request.resultPath);
+                return true;
+            }
+
+            visitJumpPoints(request.endNode, request.heuristic);
+
+            // Store the current time
+            lastTime = currentTime;
+        }
+
+        // The open list is empty and we've not found a path.
+        request.pathFound = false;
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the start or end node is not walkable, in which case there is no path.
+     */
+    protected boolean initSearch(N startNode, N endNode, Heuristic<N> heuristic) {
+        if (metrics != null) metrics.reset();
+
+        // Increment the search id, forgetting older searches on overflow
+        if (++searchId < 0) {
+            Arrays.fill(searchIds, 0);
+            Arrays.fill(closedIds, 0);
+            searchId = 1;
+        }
+
+        openList.clear();
+
+        int start = graph.getIndex(startNode);
+        end = graph.getIndex(endNode);
+        current = -1;
+
+        if (!isWalkable(start % width, start / width) || !isWalkable(end % width, end / width)) return false;
+
+        searchIds[start] = searchId;
+        costSoFar[start] = 0;
+        parents[start] = -1;
+        addToOpenList(start, heuristic.estimate(startNode, endNode));
+        return true;
+    }
+
+    protected void visitJumpPoints(N endNode, Heuristic<N> heuristic) {
+        int x = current % width;
+        int y = current / width;
+        int parent = parents[current];
+
+        if (parent < 0) {
+            // The start node: every direction is open
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if ((dx != 0 || dy != 0) && canStep(x, y, dx, dy)) visitJumpPoint(x, y, dx, dy, endNode, heuristic);
+                }
+            }
+            return;
+        }
+
+        int dx = Integer.signum(x - parent % width);
+        int dy = Integer.signum(y - parent / width);
+
+        if (dx != 0 && dy != 0) {
+            // Diagonal move: the two straight components and the diagonal itself
+            if (isWalkable(x, y + dy)) visitJumpPoint(x, y, 0, dy, endNode, heuristic);
+            if (isWalkable(x + dx, y)) visitJumpPoint(x, y, dx, 0, endNode, heuristic);
+            if (isWalkable(x, y + dy) && isWalkable(x + dx, y)) visitJumpPoint(x, y, dx, dy, endNode, heuristic);
+        } else if (dx != 0) {
+            // Horizontal move: forward, plus the sides and the forward diagonals that may have been forced
+            boolean forward = isWalkable(x + dx, y);
+            boolean up = isWalkable(x, y + 1);
+            boolean down = isWalkable(x, y - 1);
+            if (forward) {
+                visitJumpPoint(x, y, dx, 0, endNode, heuristic);
+                if (up) visitJumpPoint(x, y, dx, 1, endNode, heuristic);
+                if (down) visitJumpPoint(x, y, dx, -1, endNode, heuristic);
+            }
+            if (up) visitJumpPoint(x, y, 0, 1, endNode, heuristic);
+            if (down) visitJumpPoint(x, y, 0, -1, endNode, heuristic);
+        } else {
+            // Vertical move
+            boolean forward = isWalkable(x, y + dy);
+            boolean right = isWalkable(x + 1, y);
+            boolean left = isWalkable(x - 1, y);
+            if (forward) {
+                visitJumpPoint(x, y, 0, dy, endNode, heuristic);
+                if (right) visitJumpPoint(x, y, 1, dy, endNode, heuristic);
+                if (left) visitJumpPoint(x, y, -1, dy, endNode, heuristic);
+            }
+            if (right) visitJumpPoint(x, y, 1, 0, endNode, heuristic);
+            if (left) visitJumpPoint(x, y, -1, 0, endNode, heuristic);
+        }
+    }
+
+    private void visitJumpPoint(int x, int y, int dx, int dy, N endNode, Heuristic<N> heuristic) {
+        int jumpPoint = jump(x, y, dx, dy);
+        if (jumpPoint < 0) return;
+
+        if (metrics != null) metrics.visitedNodes++;
+
+        int distanceX = Math.abs(jumpPoint % width - x);
+        int distanceY = Math.abs(jumpPoint / width - y);
+        float cost = costSoFar[current] + Math.max(distanceX, distanceY) + (SQRT2 - 1) * Math.min(distanceX, distanceY);
+
+        if (searchIds[jumpPoint] == searchId) {
+            // Already reached by a path that is no worse
+            if (closedIds[jumpPoint] == searchId || costSoFar[jumpPoint] <= cost) return;
+        } else {
+            searchIds[jumpPoint] = searchId;
+        }
+
+        costSoFar[jumpPoint] = cost;
+        parents[jumpPoint] = current;
+        addToOpenList(jumpPoint, cost + heuristic.estimate(graph.getNode(jumpPoint % width, jumpPoint / width), endNode));
+    }
+
+    /**
+     * Moves from the given cell in the given direction until reaching a jump point.
+     *
+     * @return the index of the jump point, or -1 if an obstacle or the edge of the grid was hit first
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        while (true) {
+            if (!canStep(x, y, dx, dy)) return -1;
+
+            x += dx;
+            y += dy;
+            int index = y * width + x;
+
+            if (index == end) return index;
+
+            if (dx != 0 && dy != 0) {
+                // A diagonal move turns wherever one of its straight components reaches a jump point
+                if (jump(x, y, dx, 0) >= 0 || jump(x, y, 0, dy) >= 0) return index;
+            } else if (dx != 0) {
+                if ((isWalkable(x, y - 1) && !isWalkable(x - dx, y - 1)) || (isWalkable(x, y + 1) && !isWalkable(x - dx, y + 1))) {
+                    return index;
+                }
+            } else {
+                if ((isWalkable(x - 1, y) && !isWalkable(x - 1, y - dy)) || (isWalkable(x + 1, y) && !isWalkable(x + 1, y - dy))) {
+                    return index;
+                }
+            }
+        }
+    }
+
+    private boolean canStep(int x, int y, int dx, int dy) {
+        if (!isWalkable(x + dx, y + dy)) return false;
+        // Diagonal moves can't cut corners
+        return dx == 0 || dy == 0 || (isWalkable(x + dx, y) && isWalkable(x, y + dy));
+    }
+
+    private boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && graph.isWalkable(x, y);
+    }
+
+    protected void addToOpenList(int index, float estimatedTotalCost) {
+        openList.add(index, estimatedTotalCost);
+        if (metrics != null) {
+            metrics.openListAdditions++;
+            metrics.openListPeak = Math.max(metrics.openListPeak, openList.size());
+        }
+    }
+
+    protected void generateNodePath(GraphPath<N> outPath) {
+        jumpPoints.clear();
+        for (int index = current; index >= 0; index = parents[index]) {
+            jumpPoints.add(index);
+        }
+
+        // Walk the jump points from the start, adding every cell in between
+        int x = jumpPoints.peek() % width;
+        int y = jumpPoints.peek() / width;
+        outPath.add(graph.getNode(x, y));
+        for (int i = jumpPoints.size - 2; i >= 0; i--) {
+            int toX = jumpPoints.get(i) % width;
+            int toY = jumpPoints.get(i) / width;
+            int dx = Integer.signum(toX - x);
+            int dy = Integer.signum(toY - y);
+            while (x != toX || y != toY) {
+                x += dx;
+                y += dy;
+                outPath.add(graph.getNode(x, y));
+            }
+        }
+    }
+
+    private Connection<N> findConnection(N fromNode, N toNode) {
+        Array<Connection<N>> connections = graph.getConnections(fromNode);
+        for (int i = 0; i < connections.size; i++) {
+            Connection<N> connection = connections.get(i);
+            if (connection.getToNode() == toNode) return connection;
+        }
+
+        // The graph may not have diagonal connections; make one with the grid cost
+        int fromIndex = graph.getIndex(fromNode);
+        int toIndex = graph.getIndex(toNode);
+        boolean diagonal = fromIndex % width != toIndex % width && fromIndex / width != toIndex / width;
+        return new GridConnection<>(fromNode, toNode, diagonal ? SQRT2 : 1);
+    }
+
+    private static class GridConnection<N> implements Connection<N> {
+        private final N fromNode;
+        private final N toNode;
+        private final float cost;
+
+        GridConnection(N fromNode, N toNode, float cost) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+            this.cost = cost;
+        }
+
+        @Override
+        public float getCost() {
+            return cost;
+        }
+
+        @Override
+        public N getFromNode() {
+            return fromNode;
+        }
+
+        @Override
+        public N getToNode() {
+            return toNode;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.SerializationException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An ALT (A*, landmarks and triangle inequality) {@link Heuristic} for an {@link IndexedGraph}. The shortest distances between a
+ * few landmark nodes and every node of the graph are computed once, then the triangle inequality gives a lower bound of the
+ * distance between any two nodes:
+ *
+ * <pre>
+ * d(n, goal) &gt;= d(L, goal) - d(L, n)
+ * d(n, goal) &gt;= d(n, L) - d(goal, L)
+ * </pre>
+ * <p>
+ * The estimate is the largest of these bounds over all the landmarks, so it never overestimates and it knows about walls, which
+ * makes it much more informed than a straight line distance on maze-like levels. Landmarks work best on the outskirts of the
+ * graph, behind the goals, which is what {@link #selectLandmarks(IndexedGraph, Object, int)} tries to achieve.
+ * <p>
+ * Distances are kept in float arrays of {@code nodeCount * landmarkCount} elements and can be saved with {@link #write(FileHandle)}
+ * and loaded back at startup with {@link #read(FileHandle, IndexedGraph)}, since they only change with the graph. Connection costs
+ * must not be negative, and the heuristic only stays admissible as long as the costs don't drop below the ones it was built with.
+ *
+ * @param <N> Type of node
+ */
+public class LandmarkHeuristic<N> implements Heuristic<N> {
+    private static final int MAGIC = 0x414C5448; // "ALTH"
+    private static final int VERSION = 1;
+
+    final IndexedGraph<N> graph;
+    final int landmarkCount;
+    /**
+     * Distances from each landmark to the node, {@code landmarkCount} consecutive values per node index.
+     */
+    final float[] fromLandmarks;
+    /**
+     * Distances from the node to each landmark, laid out like {@link #fromLandmarks}. Same array as {@link #fromLandmarks} when the
+     * graph is undirected.
+     */
+    final float[] toLandmarks;
+
+    LandmarkHeuristic(IndexedGraph<N> graph, int landmarkCount, float[] fromLandmarks, float[] toLandmarks) {
+        this.graph = graph;
+        this.landmarkCount = landmarkCount;
+        this.fromLandmarks = fromLandmarks;
+        this.toLandmarks = toLandmarks;
+    }
+
+    /**
+     * Builds the heuristic of an undirected graph, i.e. a graph where every connection has a reverse connection of the same cost.
+     *
+     * @param graph     the graph
+     * @param landmarks the landmark nodes
+     */
+    public static <N> LandmarkHeuristic<N> build(IndexedGraph<N> graph, Array<N> landmarks) {
+        return build(graph, graph, landmarks);
+    }
+
+    /**
+     * Builds the heuristic of a directed graph.
+     *
+     * @param graph        the graph
+     * @param reverseGraph the graph with every connection reversed; if it is the same as {@code graph} then the graph is considered
+     *                     undirected and half the memory is used.
+     * @param landmarks    the landmark nodes
+     */
+    public static <N> LandmarkHeuristic<N> build(IndexedGraph<N> graph, IndexedGraph<N> reverseGraph, Array<N> landmarks) {
+        if (landmarks.size == 0) throw new IllegalArgumentException("landmarks cannot be empty");
+
+        int nodeCount = graph.getNodeCount();
+        int landmarkCount = landmarks.size;
+        float[] distances = new float[nodeCount];
+        DijkstraSearch<N> search = new DijkstraSearch<>(nodeCount);
+
+        float[] fromLandmarks = new float[nodeCount * landmarkCount];
+        float[] toLandmarks = reverseGraph == graph ? fromLandmarks : new float[nodeCount * landmarkCount];
+        for (int l = 0; l < landmarkCount; l++) {
+            search.run(graph, landmarks.get(l), distances);
+            for (int i = 0, j = l; i < nodeCount; i++, j += landmarkCount)
+                fromLandmarks[j] = distances[i];
+
+            if (toLandmarks != fromLandmarks) {
+                search.run(reverseGraph, landmarks.get(l), distances);
+                for (int i = 0, j = l; i < nodeCount; i++, j += landmarkCount)
+                    toLandmarks[j] = distances[i];
+            }
+        }
+
+        return new LandmarkHeuristic<>(graph, landmarkCount, fromLandmarks, toLandmarks);
+    }
+
+    /**
+     * Picks landmarks spread over the part of the graph reachable from the given node. The first landmark is the node farthest from
+     * {@code seed}; each following one is the node whose distance to its closest landmark is the largest.
+     *
+     * @param graph the graph
+     * @param seed  any node of the graph
+     * @param count the number of landmarks to pick; fewer are returned if there are not enough reachable nodes
+     * @return the landmarks
+     */
+    public static <N> Array<N> selectLandmarks(IndexedGraph<N> graph, N seed, int count) {
+        int nodeCount = graph.getNodeCount();
+        float[] distances = new float[nodeCount];
+        float[] closest = new float[nodeCount];
+        DijkstraSearch<N> search = new DijkstraSearch<>(nodeCount);
+        Array<N> landmarks = new Array<>(count);
+
+        search.run(graph, seed, closest);
+        while (landmarks.size < count) {
+            int farthest = -1;
+            for (int i = 0; i < nodeCount; i++) {
+                float distance = closest[i];
+                if (distance != Float.POSITIVE_INFINITY && distance > 0 && (farthest < 0 || distance > closest[farthest]))
+                    farthest = i;
+            }
+            if (farthest < 0) break;
+
+            N landmark = search.getNode(farthest);
+            landmarks.add(landmark);
+            if (landmarks.size == 1) Arrays.fill(closest, Float.POSITIVE_INFINITY);
+            search.run(graph, landmark, distances);
+            for (int i = 0; i < nodeCount; i++)
+                closest[i] = Math.min(closest[i], distances[i]);
+        }
+
+        return landmarks;
+    }
+
+    /**
+     * Reads a heuristic previously written with {@link #write(FileHandle)}.
+     *
+     * @param file  the file to read
+     * @param graph the graph the heuristic was built for
+     * @throws SerializationException if the file can't be read or was built for a graph with a different node count.
+     */
+    public static <N> LandmarkHeuristic<N> read(FileHandle file, IndexedGraph<N> graph) {
+        return read(file.read(), graph);
+    }
+
+    /**
+     * Reads a heuristic previously written with {@link #write(OutputStream)}. The stream is closed.
+     *
+     * @param input the stream to read
+     * @param graph the graph the heuristic was built for
+     * @throws SerializationException if the stream can't be read or was built for a graph with a different node count.
+     */
+    public static <N> LandmarkHeuristic<N> read(InputStream input, IndexedGraph<N> graph) {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+        try {
+            if (data.readInt() != MAGIC) throw new SerializationException("Not a landmark heuristic");
+            int version = data.readInt();
+            if (version != VERSION) throw new SerializationException("Unsupported landmark heuristic version: " + version);
+            int nodeCount = data.readInt();
+            if (nodeCount != graph.getNodeCount())
+                throw new SerializationException("Node count mismatch: " + nodeCount + " != " + graph.getNodeCount());
+            int landmarkCount = data.readInt();
+            boolean directed = data.readBoolean();
+
+            float[] fromLandmarks = readFloats(data, nodeCount * landmarkCount);
+            float[] toLandmarks = directed ? readFloats(data, nodeCount * landmarkCount) : fromLandmarks;
+            return new LandmarkHeuristic<>(graph, landmarkCount, fromLandmarks, toLandmarks);
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        } finally {
+            StreamUtils.closeQuietly(data);
+        }
+    }
+
+    /**
+     * Writes the landmark distances to the given file.
+     */
+    public void write(FileHandle file) {
+        write(file.write(false));
+    }
+
+    /**
+     * Writes the landmark distances to the given stream, which is closed.
+     */
+    public void write(OutputStream output) {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        try {
+            boolean directed = toLandmarks != fromLandmarks;
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(graph.getNodeCount());
+            data.writeInt(landmarkCount);
+            data.writeBoolean(directed);
+            writeFloats(data, fromLandmarks);
+            if (directed) writeFloats(data, toLandmarks);
+            data.flush();
+        } catch (IOException ex) {
+            throw new GdxRuntimeException("Error writing landmark heuristic", ex);
+        } finally {
+            StreamUtils.closeQuietly(data);
+        }
+    }
+
+    /**
+     * Returns the number of landmarks.
+     */
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Returns the shortest distance from the given landmark to the node, or {@link Float#POSITIVE_INFINITY} if the node can't be
+     * reached from the landmark.
+     */
+    public float getDistanceFromLandmark(int landmark, N node) {
+        return fromLandmarks[graph.getIndex(node) * landmarkCount + landmark];
+    }
+
+    /**
+     * Returns the shortest distance from the node to the given landmark, or {@link Float#POSITIVE_INFINITY} if the landmark can't be
+     * reached from the node.
+     */
+    public float getDistanceToLandmark(int landmark, N node) {
+        return toLandmarks[graph.getIndex(node) * landmarkCount + landmark];
+    }
+
+    @Override
+    public float estimate(N node, N endNode) {
+        int landmarkCount = this.landmarkCount;
+        float[] fromLandmarks = this.fromLandmarks;
+        float[] toLandmarks = this.toLandmarks;
+        int n = graph.getIndex(node) * landmarkCount;
+        int goal = graph.getIndex(endNode) * landmarkCount;
+
+        // Bounds involving unreachable landmarks are skipped: infinite differences would poison the costs of the search
+        float estimate = 0;
+        for (int l = 0; l < landmarkCount; l++) {
+            float fromGoal = fromLandmarks[goal + l];
+            float fromNode = fromLandmarks[n + l];
+            if (fromGoal != Float.POSITIVE_INFINITY && fromNode != Float.POSITIVE_INFINITY)
+                estimate = Math.max(estimate, fromGoal - fromNode);
+
+            float toNode = toLandmarks[n + l];
+            float toGoal = toLandmarks[goal + l];
+            if (toNode != Float.POSITIVE_INFINITY && toGoal != Float.POSITIVE_INFINITY)
+                estimate = Math.max(estimate, toNode - toGoal);
+        }
+        return estimate;
+    }
+
+    private static void writeFloats(DataOutputStream data, float[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        for (int offset = 0; offset < values.length; ) {
+            int count = Math.min(values.length - offset, buffer.capacity() >> 2);
+            buffer.clear();
+            buffer.asFloatBuffer().put(values, offset, count);
+            data.write(buffer.array(), 0, count << 2);
+            offset += count;
+        }
+    }
+
+    private static float[] readFloats(DataInputStream data, int length) throws IOException {
+        float[] values = new float[length];
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        for (int offset = 0; offset < length; ) {
+            int count = Math.min(length - offset, buffer.capacity() >> 2);
+            data.readFully(buffer.array(), 0, count << 2);
+            buffer.clear();
+            buffer.asFloatBuffer().get(values, offset, count);
+            offset += count;
+        }
+        return values;
+    }
+
+    /**
+     * Single source Dijkstra search over an {@link IndexedGraph}, filling the distance of every node from the source.
+     */
+    static final class DijkstraSearch<N> {
+        final Object[] nodes;
+        final boolean[] closed;
+        final IntBinaryHeap openList;
+
+        DijkstraSearch(int nodeCount) {
+            nodes = new Object[nodeCount];
+            closed = new boolean[nodeCount];
+            openList = new IntBinaryHeap(nodeCount);
+        }
+
+        void run(IndexedGraph<N> graph, N source, float[] distances) {
+            Arrays.fill(distances, Float.POSITIVE_INFINITY);
+            Arrays.fill(closed, false);
+            openList.clear();
+
+            int sourceIndex = graph.getIndex(source);
+            nodes[sourceIndex] = source;
+            distances[sourceIndex] = 0;
+            openList.add(sourceIndex, 0);
+
+            while (openList.size() > 0) {
+                int current = openList.pop();
+                closed[current] = true;
+                float currentDistance = distances[current];
+
+                Array<Connection<N>> connections = graph.getConnections(getNode(current));
+                for (int i = 0; i < connections.size; i++) {
+                    Connection<N> connection = connections.get(i);
+                    N node = connection.getToNode();
+                    int index = graph.getIndex(node);
+                    if (closed[index]) continue;
+
+                    float distance = currentDistance + connection.getCost();
+                    if (distance < distances[index]) {
+                        nodes[index] = node;
+                        distances[index] = distance;
+                        openList.add(index, distance);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        N getNode(int index) {
+            return (N) nodes[index];
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+
+/**
+ * {@code BatchArrive} is the batch counterpart of {@link Arrive}: it moves every agent of a batch towards its own target position,
+ * slowing down within the deceleration radius so as to arrive with a zero velocity.
+ */
+public class BatchArrive extends BatchSteeringBehavior {
+
+    /**
+     * The target positions of the agents, with the same layout as {@link SteeringBatch#positions}.
+     */
+    protected float[] targets;
+
+    /**
+     * The tolerance for arriving at the target. It lets the agents get near enough to the target without letting small errors keep
+     * them in motion.
+     */
+    protected float arrivalTolerance;
+
+    /**
+     * The radius for beginning to slow down
+     */
+    protected float decelerationRadius;
+
+    /**
+     * The time over which to achieve target speed
+     */
+    protected float timeToTarget = 0.1f;
+
+    /**
+     * Creates a {@code BatchArrive} behavior for the specified target positions.
+     *
+     * @param targets the target positions of the agents, with the same layout as {@link SteeringBatch#positions}
+     */
+    public BatchArrive(float[] targets) {
+        this.targets = targets;
+    }
+
+    @Override
+    protected void calculateRealSteering(SteeringBatch batch, BatchSteeringAcceleration steering, int from, int to) {
+        float[] positions = batch.positions;
+        float[] velocities = batch.linearVelocities;
+        float[] targets = this.targets;
+        float[] linear = steering.linear;
+        int dimensions = batch.dimensions;
+        float inverseTimeToTarget = 1f / timeToTarget;
+
+        for (int i = from; i < to; i++) {
+            int offset = i * dimensions;
+
+            // No angular acceleration
+            steering.angular[i] = 0;
+
+            // Get the direction and distance to the target
+            float len2 = 0;
+            for (int k = offset; k < offset + dimensions; k++) {
+                float delta = targets[k] - positions[k];
+                linear[k] = delta;
+                len2 += delta * delta;
+            }
+            float distance = (float) Math.sqrt(len2);
+
+            // Check if we are there, return no steering
+            if (distance <= arrivalTolerance) {
+                for (int k = offset; k < offset + dimensions; k++)
+                    linear[k] = 0;
+                continue;
+            }
+
+            // Go max speed, or a scaled speed inside the slow down radius
+            float targetSpeed = batch.maxLinearSpeeds[i];
+            if (distance <= decelerationRadius) targetSpeed *= distance / decelerationRadius;
+
+            // Acceleration tries to get to the target velocity without exceeding max acceleration
+            float speedScale = targetSpeed / distance;
+            for (int k = offset; k < offset + dimensions; k++)
+                linear[k] = (linear[k] * speedScale - velocities[k]) * inverseTimeToTarget;
+            limit(linear, offset, dimensions, batch.maxLinearAccelerations[i]);
+        }
+    }
+
+    /**
+     * Returns the target positions of the agents.
+     */
+    public float[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Sets the target positions of the agents.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchArrive setTargets(float[] targets) {
+        this.targets = targets;
+        return this;
+    }
+
+    /**
+     * Returns the tolerance for arriving at the target.
+     */
+    public float getArrivalTolerance() {
+        return arrivalTolerance;
+    }
+
+    /**
+     * Sets the tolerance for arriving at the target.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchArrive setArrivalTolerance(float arrivalTolerance) {
+        this.arrivalTolerance = arrivalTolerance;
+        return this;
+    }
+
+    /**
+     * Returns the radius for beginning to slow down.
+     */
+    public float getDecelerationRadius() {
+        return decelerationRadius;
+    }
+
+    /**
+     * Sets the radius for beginning to slow down.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchArrive setDecelerationRadius(float decelerationRadius) {
+        this.decelerationRadius = decelerationRadius;
+        return this;
+    }
+
+    /**
+     * Returns the time over which to achieve target speed.
+     */
+    public float getTimeToTarget() {
+        return timeToTarget;
+    }
+
+    /**
+     * Sets the time over which to achieve target speed.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchArrive setTimeToTarget(float timeToTarget) {
+        this.timeToTarget = timeToTarget;
+        return this;
+    }
+}
@@ -0,0 +1,122 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * {@code BatchBlendedSteering} is the batch counterpart of {@link BlendedSteering}: it sums up the steering of its behaviors
+ * multiplied by their weights, then truncates the result of every agent to the agent's maximum accelerations.
+ * <p>
+ * The steering of each behavior is calculated into a scratch buffer shared by all the threads, which is safe because each thread
+ * only touches the agents of its own range.
+ */
+public class BatchBlendedSteering extends BatchSteeringBehavior {
+
+    /**
+     * The list of behaviors and their corresponding blending weights.
+     */
+    protected Array<BatchBehaviorAndWeight> list;
+
+    private BatchSteeringAcceleration steering;
+
+    /**
+     * Creates an empty {@code BatchBlendedSteering}.
+     */
+    public BatchBlendedSteering() {
+        this.list = new Array<>();
+    }
+
+    /**
+     * Adds a steering behavior and its weight to the list.
+     *
+     * @param behavior the steering behavior to add
+     * @param weight   the weight of the behavior
+     * @return this behavior for chaining.
+     */
+    public BatchBlendedSteering add(BatchSteeringBehavior behavior, float weight) {
+        list.add(new BatchBehaviorAndWeight(behavior, weight));
+        return this;
+    }
+
+    /**
+     * Removes a steering behavior from the list.
+     *
+     * @param behavior the steering behavior to remove
+     */
+    public void remove(BatchSteeringBehavior behavior) {
+        for (int i = 0; i < list.size; i++) {
+            if (list.get(i).behavior == behavior) {
+                list.removeIndex(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the weighted behavior at the specified index.
+     *
+     * @param index the index of the weighted behavior to return
+     */
+    public BatchBehaviorAndWeight get(int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public void prepare(SteeringBatch batch) {
+        if (steering == null || steering.dimensions != batch.dimensions || steering.angular.length < batch.getCapacity())
+            steering = new BatchSteeringAcceleration(batch);
+        for (int i = 0; i < list.size; i++)
+            list.get(i).behavior.prepare(batch);
+    }
+
+    @Override
+    protected void calculateRealSteering(SteeringBatch batch, BatchSteeringAcceleration blendedSteering, int from, int to) {
+        // Clear the output to start with
+        blendedSteering.setZero(from, to);
+
+        // Go through all the behaviors, scaling and adding their steering to the accumulator
+        for (int i = 0; i < list.size; i++) {
+            BatchBehaviorAndWeight bw = list.get(i);
+            bw.behavior.calculateSteering(batch, steering, from, to);
+            blendedSteering.mulAdd(steering, bw.weight, from, to);
+        }
+
+        // Crop the result
+        int dimensions = batch.dimensions;
+        for (int i = from; i < to; i++) {
+            limit(blendedSteering.linear, i * dimensions, dimensions, batch.maxLinearAccelerations[i]);
+            if (blendedSteering.angular[i] > batch.maxAngularAccelerations[i])
+                blendedSteering.angular[i] = batch.maxAngularAccelerations[i];
+        }
+    }
+
+    /**
+     * A batch steering behavior and its weight.
+     */
+    public static class BatchBehaviorAndWeight {
+
+        protected BatchSteeringBehavior behavior;
+        protected float weight;
+
+        public BatchBehaviorAndWeight(BatchSteeringBehavior behavior, float weight) {
+            this.behavior = behavior;
+            this.weight = weight;
+        }
+
+        public BatchSteeringBehavior getBehavior() {
+            return behavior;
+        }
+
+        public void setBehavior(BatchSteeringBehavior behavior) {
+            this.behavior = behavior;
+        }
+
+        public float getWeight() {
+            return weight;
+        }
+
+        public void setWeight(float weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.behaviors.Seek;
+
+/**
+ * {@code BatchSeek} is the batch counterpart of {@link Seek}: it moves every agent of a batch towards its own target position as
+ * fast as possible.
+ */
+public class BatchSeek extends BatchSteeringBehavior {
+
+    /**
+     * The target positions of the agents, with the same layout as {@link SteeringBatch#positions}.
+     */
+    protected float[] targets;
+
+    /**
+     * Creates a {@code BatchSeek} behavior for the specified target positions.
+     *
+     * @param targets the target positions of the agents, with the same layout as {@link SteeringBatch#positions}
+     */
+    public BatchSeek(float[] targets) {
+        this.targets = targets;
+    }
+
+    @Override
+    protected void calculateRealSteering(SteeringBatch batch, BatchSteeringAcceleration steering, int from, int to) {
+        float[] positions = batch.positions;
+        float[] targets = this.targets;
+        float[] linear = steering.linear;
+        int dimensions = batch.dimensions;
+
+        for (int i = from; i < to; i++) {
+            int offset = i * dimensions;
+
+            // Direction to the target scaled to the max linear acceleration
+            float len2 = 0;
+            for (int k = offset; k < offset + dimensions; k++) {
+                float delta = targets[k] - positions[k];
+                linear[k] = delta;
+                len2 += delta * delta;
+            }
+            float scale = len2 != 0 ? batch.maxLinearAccelerations[i] / (float) Math.sqrt(len2) : 0;
+            for (int k = offset; k < offset + dimensions; k++)
+                linear[k] *= scale;
+
+            // No angular acceleration
+            steering.angular[i] = 0;
+        }
+    }
+
+    /**
+     * Returns the target positions of the agents.
+     */
+    public float[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Sets the target positions of the agents.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchSeek setTargets(float[] targets) {
+        this.targets = targets;
+        return this;
+    }
+}
@@ -0,0 +1,136 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.ai.utils.SpatialHash;
+
+/**
+ * {@code BatchSeparation} is the batch counterpart of a {@link Separation} whose proximity is a {@link RadiusProximity} over all
+ * the agents of the batch: every agent is repelled by the agents closer than the radius plus their bounding radius, with a
+ * strength decaying with the square of their distance.
+ * <p>
+ * The neighbors are found through a {@link SpatialHash} of the agent positions built by {@link #prepare(SteeringBatch)}, so the cost of
+ * a tick grows with the number of agents times their neighbors rather than with the square of the number of agents. The agents
+ * must not move between the preparation and the calculation.
+ */
+public class BatchSeparation extends BatchSteeringBehavior {
+
+    /**
+     * The radius within which the agents are repelled by their neighbors.
+     */
+    protected float radius;
+
+    /**
+     * The constant coefficient of decay for the inverse square law force.
+     */
+    protected float decayCoefficient = 1f;
+
+    private final SpatialHash hash = new SpatialHash();
+    private float maxBoundingRadius;
+
+    /**
+     * Creates a {@code BatchSeparation} behavior with the specified radius.
+     *
+     * @param radius the radius within which the agents are repelled by their neighbors
+     */
+    public BatchSeparation(float radius) {
+        this.radius = radius;
+    }
+
+    @Override
+    public void prepare(SteeringBatch batch) {
+        maxBoundingRadius = 0;
+        for (int i = 0; i < batch.size; i++)
+            maxBoundingRadius = Math.max(maxBoundingRadius, batch.boundingRadii[i]);
+        hash.setCellSize(Math.max(radius + maxBoundingRadius, 1e-6f));
+        hash.build(batch.positions, batch.dimensions, batch.size);
+    }
+
+    @Override
+    protected void calculateRealSteering(SteeringBatch batch, BatchSteeringAcceleration steering, int from, int to) {
+        float[] positions = batch.positions;
+        float[] linear = steering.linear;
+        int dimensions = batch.dimensions;
+        float range = radius + maxBoundingRadius;
+        SpatialHash hash = this.hash;
+
+        for (int i = from; i < to; i++) {
+            int offset = i * dimensions;
+            float x = positions[offset], y = positions[offset + 1], z = dimensions == 3 ? positions[offset + 2] : 0;
+            float maxAcceleration = batch.maxLinearAccelerations[i];
+            float ax = 0, ay = 0, az = 0;
+
+            int minZ = dimensions == 3 ? hash.cell(z - range) : 0, maxZ = dimensions == 3 ? hash.cell(z + range) : 0;
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                for (int cy = hash.cell(y - range), maxY = hash.cell(y + range); cy <= maxY; cy++) {
+                    for (int cx = hash.cell(x - range), maxX = hash.cell(x + range); cx <= maxX; cx++) {
+                        for (int s = hash.bucketStart(cx, cy, cz), end = hash.bucketEnd(cx, cy, cz); s < end; s++) {
+                            if (!hash.isInCell(s, cx, cy, cz)) continue;
+                            int j = hash.getIndex(s);
+                            if (j == i) continue;
+
+                            int neighborOffset = j * dimensions;
+                            float dx = x - positions[neighborOffset];
+                            float dy = y - positions[neighborOffset + 1];
+                            float dz = dimensions == 3 ? z - positions[neighborOffset + 2] : 0;
+                            float distanceSqr = dx * dx + dy * dy + dz * dz;
+
+                            // The bounding radius of the neighbor is taken into account by adding it to the range
+                            float neighborRange = radius + batch.boundingRadii[j];
+                            if (distanceSqr >= neighborRange * neighborRange || distanceSqr == 0) continue;
+
+                            // Calculate the strength of repulsion through inverse square law decay
+                            float strength = decayCoefficient / distanceSqr;
+                            if (strength > maxAcceleration) strength = maxAcceleration;
+
+                            // Add the acceleration along the normalized direction away from the neighbor
+                            float scale = strength / (float) Math.sqrt(distanceSqr);
+                            ax += dx * scale;
+                            ay += dy * scale;
+                            az += dz * scale;
+                        }
+                    }
+                }
+            }
+
+            linear[offset] = ax;
+            linear[offset + 1] = ay;
+            if (dimensions == 3) linear[offset + 2] = az;
+            steering.angular[i] = 0;
+        }
+    }
+
+    /**
+     * Returns the radius within which the agents are repelled by their neighbors.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets the radius within which the agents are repelled by their neighbors.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchSeparation setRadius(float radius) {
+        this.radius = radius;
+        return this;
+    }
+
+    /**
+     * Returns the coefficient of decay for the inverse square law force.
+     */
+    public float getDecayCoefficient() {
+        return decayCoefficient;
+    }
+
+    /**
+     * Sets the coefficient of decay for the inverse square law force.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchSeparation setDecayCoefficient(float decayCoefficient) {
+        this.decayCoefficient = decayCoefficient;
+        return this;
+    }
+}
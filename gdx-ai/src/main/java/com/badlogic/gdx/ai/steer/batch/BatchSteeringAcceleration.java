@@ -0,0 +1,75 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+
+/**
+ * A {@code BatchSteeringAcceleration} holds one {@link SteeringAcceleration steering acceleration} per agent of a
+ * {@link SteeringBatch}, with the same interleaved layout as the vectors of the batch.
+ */
+public class BatchSteeringAcceleration {
+
+    /**
+     * The number of coordinates of a vector, either 2 or 3.
+     */
+    public final int dimensions;
+
+    /**
+     * The linear accelerations of the agents.
+     */
+    public final float[] linear;
+
+    /**
+     * The angular accelerations of the agents.
+     */
+    public final float[] angular;
+
+    /**
+     * Creates a {@code BatchSteeringAcceleration} for the agents of the given batch.
+     */
+    public BatchSteeringAcceleration(SteeringBatch batch) {
+        this(batch.getCapacity(), batch.dimensions);
+    }
+
+    /**
+     * Creates a {@code BatchSteeringAcceleration} for the given number of agents.
+     *
+     * @param capacity   the maximum number of agents
+     * @param dimensions the number of coordinates of a vector, either 2 or 3
+     * @throws IllegalArgumentException if {@code dimensions} is neither 2 nor 3
+     */
+    public BatchSteeringAcceleration(int capacity, int dimensions) {
+        if (dimensions != 2 && dimensions != 3) throw new IllegalArgumentException("dimensions must be 2 or 3");
+        this.dimensions = dimensions;
+        this.linear = new float[capacity * dimensions];
+        this.angular = new float[capacity];
+    }
+
+    /**
+     * Zeros the steering accelerations of the agents {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @return this steering acceleration for chaining
+     */
+    public BatchSteeringAcceleration setZero(int from, int to) {
+        for (int i = from * dimensions, n = to * dimensions; i < n; i++)
+            linear[i] = 0;
+        for (int i = from; i < to; i++)
+            angular[i] = 0;
+        return this;
+    }
+
+    /**
+     * Adds the given steering accelerations, multiplied by the given scalar, to the steering accelerations of the agents
+     * {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @return this steering acceleration for chaining
+     */
+    public BatchSteeringAcceleration mulAdd(BatchSteeringAcceleration steering, float scalar, int from, int to) {
+        float[] otherLinear = steering.linear;
+        for (int i = from * dimensions, n = to * dimensions; i < n; i++)
+            linear[i] += otherLinear[i] * scalar;
+        float[] otherAngular = steering.angular;
+        for (int i = from; i < to; i++)
+            angular[i] += otherAngular[i] * scalar;
+        return this;
+    }
+}
@@ -0,0 +1,157 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A {@code BatchSteeringBehavior} calculates the same steering acceleration as its {@link SteeringBehavior} counterpart, but for
+ * every agent of a {@link SteeringBatch} at once, with the limits of each agent taken from the batch.
+ * <p>
+ * The steering of a tick is calculated in two steps. {@link #prepare(SteeringBatch)} is called once, from a single thread, to
+ * build whatever the behavior derives from the batch as a whole. Then
+ * {@link #calculateSteering(SteeringBatch, BatchSteeringAcceleration, int, int)} may be called on disjoint ranges of agents from
+ * several threads at the same time: it only reads the batch and the behavior, and only writes the steering of its range.
+ * {@link #calculateSteering(SteeringBatch, BatchSteeringAcceleration)} and
+ * {@link #calculateSteering(SteeringBatch, BatchSteeringAcceleration, ExecutorService, int)} do both steps for the whole batch.
+ * The configuration of a behavior must not change while it is calculating.
+ */
+public abstract class BatchSteeringBehavior {
+
+    /**
+     * A flag indicating whether this steering behavior is enabled or not.
+     */
+    protected boolean enabled;
+
+    /**
+     * Creates a {@code BatchSteeringBehavior}.
+     */
+    public BatchSteeringBehavior() {
+        this.enabled = true;
+    }
+
+    /**
+     * Prepares this behavior for calculating the steering of the given batch, in its current state.
+     * <p>
+     * This implementation does nothing.
+     */
+    public void prepare(SteeringBatch batch) {
+    }
+
+    /**
+     * Calculates the steering acceleration of the agents {@code from} (inclusive) to {@code to} (exclusive) of the given batch.
+     * If this steering behavior is disabled, their steering acceleration is set to zero. This behavior must have been prepared for
+     * the batch.
+     *
+     * @param batch    the agents
+     * @param steering the steering accelerations to be calculated
+     * @param from     the first agent
+     * @param to       the agent after the last one
+     */
+    public void calculateSteering(SteeringBatch batch, BatchSteeringAcceleration steering, int from, int to) {
+        if (enabled) {
+            calculateRealSteering(batch, steering, from, to);
+        } else {
+            steering.setZero(from, to);
+        }
+    }
+
+    /**
+     * Prepares this behavior and calculates the steering acceleration of all the agents of the given batch on the calling thread.
+     *
+     * @param batch    the agents
+     * @param steering the steering accelerations to be calculated
+     */
+    public void calculateSteering(SteeringBatch batch, BatchSteeringAcceleration steering) {
+        prepare(batch);
+        calculateSteering(batch, steering, 0, batch.size);
+    }
+
+    /**
+     * Prepares this behavior and calculates the steering acceleration of all the agents of the given batch, split into chunks
+     * calculated on the given executor. The method returns when all the chunks are done.
+     *
+     * @param batch     the agents
+     * @param steering  the steering accelerations to be calculated
+     * @param executor  the executor running the chunks
+     * @param chunkSize the number of agents of a chunk
+     */
+    public void calculateSteering(final SteeringBatch batch, final BatchSteeringAcceleration steering, ExecutorService executor,
+                                  int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be greater than zero");
+        prepare(batch);
+
+        List<Callable<Void>> chunks = new ArrayList<>((batch.size + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < batch.size; from += chunkSize) {
+            final int chunkFrom = from, chunkTo = Math.min(batch.size, from + chunkSize);
+            chunks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    calculateSteering(batch, steering, chunkFrom, chunkTo);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(chunks))
+                future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Batch steering interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new GdxRuntimeException("Batch steering failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Calculates the steering acceleration of the agents {@code from} (inclusive) to {@code to} (exclusive) of the given batch.
+     * <p>
+     * This method is called by {@link #calculateSteering(SteeringBatch, BatchSteeringAcceleration, int, int)} when this steering
+     * behavior is enabled, possibly from several threads at the same time for disjoint ranges.
+     *
+     * @param batch    the agents
+     * @param steering the steering accelerations to be calculated
+     * @param from     the first agent
+     * @param to       the agent after the last one
+     */
+    protected abstract void calculateRealSteering(SteeringBatch batch, BatchSteeringAcceleration steering, int from, int to);
+
+    /**
+     * Returns true if this steering behavior is enabled; false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets this steering behavior on/off.
+     *
+     * @return this behavior for chaining.
+     */
+    public BatchSteeringBehavior setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * Limits the length of the given vector of the given array to the given maximum length.
+     */
+    static void limit(float[] vectors, int offset, int dimensions, float limit) {
+        float len2 = 0;
+        for (int k = 0; k < dimensions; k++)
+            len2 += vectors[offset + k] * vectors[offset + k];
+        float limit2 = limit * limit;
+        if (len2 > limit2) {
+            float scale = (float) Math.sqrt(limit2 / len2);
+            for (int k = 0; k < dimensions; k++)
+                vectors[offset + k] *= scale;
+        }
+    }
+}
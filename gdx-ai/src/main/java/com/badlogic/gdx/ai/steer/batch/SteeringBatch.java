@@ -0,0 +1,100 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.steer.Steerable;
+
+/**
+ * A {@code SteeringBatch} holds the kinematic state of many agents as a struct of arrays, so that {@link BatchSteeringBehavior
+ * batch steering behaviors} can process all of them in tight loops over primitive arrays instead of going through one
+ * {@link Steerable} and its vectors at a time.
+ * <p>
+ * Vector quantities are stored interleaved: the coordinates of agent {@code i} are at {@code i * dimensions} to
+ * {@code i * dimensions + dimensions - 1} of their array. Only the first {@link #size} agents are processed. The arrays are
+ * public and meant to be written directly by the simulation, typically once per tick before the steering is calculated.
+ */
+public class SteeringBatch {
+
+    /**
+     * The number of coordinates of a vector, either 2 or 3.
+     */
+    public final int dimensions;
+
+    /**
+     * The positions of the agents.
+     */
+    public final float[] positions;
+
+    /**
+     * The linear velocities of the agents.
+     */
+    public final float[] linearVelocities;
+
+    /**
+     * The orientations of the agents in radians.
+     */
+    public final float[] orientations;
+
+    /**
+     * The bounding radii of the agents.
+     */
+    public final float[] boundingRadii;
+
+    /**
+     * The maximum linear speeds of the agents.
+     */
+    public final float[] maxLinearSpeeds;
+
+    /**
+     * The maximum linear accelerations of the agents.
+     */
+    public final float[] maxLinearAccelerations;
+
+    /**
+     * The maximum angular accelerations of the agents.
+     */
+    public final float[] maxAngularAccelerations;
+
+    /**
+     * The number of agents in this batch.
+     */
+    public int size;
+
+    /**
+     * Creates an empty {@code SteeringBatch} able to hold the given number of agents.
+     *
+     * @param capacity   the maximum number of agents
+     * @param dimensions the number of coordinates of a vector, either 2 or 3
+     * @throws IllegalArgumentException if {@code dimensions} is neither 2 nor 3
+     */
+    public SteeringBatch(int capacity, int dimensions) {
+        if (dimensions != 2 && dimensions != 3) throw new IllegalArgumentException("dimensions must be 2 or 3");
+        this.dimensions = dimensions;
+        this.positions = new float[capacity * dimensions];
+        this.linearVelocities = new float[capacity * dimensions];
+        this.orientations = new float[capacity];
+        this.boundingRadii = new float[capacity];
+        this.maxLinearSpeeds = new float[capacity];
+        this.maxLinearAccelerations = new float[capacity];
+        this.maxAngularAccelerations = new float[capacity];
+    }
+
+    /**
+     * Returns the maximum number of agents of this batch.
+     */
+    public int getCapacity() {
+        return orientations.length;
+    }
+
+    /**
+     * Sets the limits of all the agents of this batch, up to its capacity.
+     *
+     * @return this batch for chaining
+     */
+    public SteeringBatch setLimits(float maxLinearSpeed, float maxLinearAcceleration, float maxAngularAcceleration) {
+        for (int i = 0; i < orientations.length; i++) {
+            maxLinearSpeeds[i] = maxLinearSpeed;
+            maxLinearAccelerations[i] = maxLinearAcceleration;
+            maxAngularAccelerations[i] = maxAngularAcceleration;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,195 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.utils.SpatialHash;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@code SpatialHashGrid} owns a set of agents and buckets them by the uniform grid cell containing their position, so that the
+ * agents within a given radius can be found by visiting only the cells around it. It is typically shared by the
+ * {@link SpatialHashProximity spatial hash proximities} of all the agents of a flock, turning their neighbor search from a scan of
+ * every agent into a scan of a few cells.
+ * <p>
+ * The grid is a snapshot of the agent positions. It is rebuilt by {@link #update()}, which the proximities call through
+ * {@link #refresh()} at most once per frame by checking the AI time through the {@link Timepiece#getTime()
+ * GdxAI.getTimepiece().getTime()} method. Rebuilding is a counting sort of the agents by cell through a {@link SpatialHash} and
+ * doesn't allocate once the grid has seen its largest number of agents.
+ * <p>
+ * The cell size should be about the largest query radius: queries then visit 3 cells per axis. Only {@link Vector2} and
+ * {@link Vector3} positions are supported.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ */
+public class SpatialHashGrid<T extends Vector<T>> {
+
+    private final Array<Steerable<T>> agents;
+
+    // The agents and their coordinates as of the last rebuild, indexed like the points of the hash
+    private final SpatialHash hash;
+    private Object[] agentSnapshot = new Object[0];
+    private float[] coordinates = new float[0];
+    private int agentCount;
+    private float maxBoundingRadius;
+
+    private float lastTime;
+    private boolean dirty = true;
+
+    /**
+     * Creates an empty {@code SpatialHashGrid} with the specified cell size.
+     *
+     * @param cellSize the width, height and depth of a cell
+     * @throws IllegalArgumentException if {@code cellSize} is not greater than zero
+     */
+    public SpatialHashGrid(float cellSize) {
+        this.agents = new Array<>();
+        this.hash = new SpatialHash();
+        hash.setCellSize(cellSize);
+    }
+
+    /**
+     * Returns the cell size of this grid.
+     */
+    public float getCellSize() {
+        return hash.getCellSize();
+    }
+
+    /**
+     * Returns the agents of this grid. Don't modify the returned array; use {@link #addAgent(Steerable)} and
+     * {@link #removeAgent(Steerable)} instead.
+     */
+    public Array<Steerable<T>> getAgents() {
+        return agents;
+    }
+
+    /**
+     * Adds an agent to this grid. It can be found by queries after the next rebuild.
+     */
+    public void addAgent(Steerable<T> agent) {
+        agents.add(agent);
+        dirty = true;
+    }
+
+    /**
+     * Removes an agent from this grid. It can't be found by queries after the next rebuild.
+     *
+     * @return {@code true} if the agent was in this grid
+     */
+    public boolean removeAgent(Steerable<T> agent) {
+        if (!agents.removeValue(agent, true)) return false;
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Rebuilds this grid if the AI time has changed or agents have been added or removed since it was last rebuilt.
+     */
+    public void refresh() {
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (dirty || lastTime != currentTime) {
+            lastTime = currentTime;
+            update();
+        }
+    }
+
+    /**
+     * Rebuilds this grid from the current positions of its agents.
+     */
+    public void update() {
+        dirty = false;
+        int n = agents.size;
+        if (agentSnapshot.length < n) {
+            agentSnapshot = new Object[n];
+            coordinates = new float[n * 3];
+        }
+        maxBoundingRadius = 0;
+        for (int i = 0; i < n; i++) {
+            Steerable<T> agent = agents.get(i);
+            T position = agent.getPosition();
+            agentSnapshot[i] = agent;
+            coordinates[i * 3] = x(position);
+            coordinates[i * 3 + 1] = y(position);
+            coordinates[i * 3 + 2] = z(position);
+            maxBoundingRadius = Math.max(maxBoundingRadius, agent.getBoundingRadius());
+        }
+        hash.build(coordinates, 3, n);
+
+        // Drop references to agents removed since the previous rebuild
+        for (int i = n; i < agentCount; i++)
+            agentSnapshot[i] = null;
+        agentCount = n;
+    }
+
+    /**
+     * Reports to the given callback every agent of this grid, except the excluded one, whose distance from the given center is less
+     * than the given radius plus the bounding radius of the agent. The agents are those of the last rebuild, at their current
+     * positions.
+     *
+     * @param center   the center of the query
+     * @param radius   the radius of the query
+     * @param excluded the agent not to report, typically the owner of the query; can be {@code null}
+     * @param callback the callback receiving the agents
+     * @return the number of agents accepted by the callback
+     */
+    public int findNeighbors(T center, float radius, Steerable<T> excluded, ProximityCallback<T> callback) {
+        float x = x(center), y = y(center), z = z(center);
+        float range = radius + maxBoundingRadius;
+        SpatialHash hash = this.hash;
+        int minX = hash.cell(x - range), maxX = hash.cell(x + range);
+        int minY = hash.cell(y - range), maxY = hash.cell(y + range);
+        int minZ = hash.cell(z - range), maxZ = hash.cell(z + range);
+
+        // A query covering more cells than there are agents is cheaper as a plain scan
+        long cellCount = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (cellCount > agentCount) {
+            int neighborCount = 0;
+            for (int i = 0; i < agentCount; i++)
+                if (report(i, center, radius, excluded, callback)) neighborCount++;
+            return neighborCount;
+        }
+
+        int neighborCount = 0;
+        for (int cz = minZ; cz <= maxZ; cz++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                for (int cx = minX; cx <= maxX; cx++) {
+                    for (int s = hash.bucketStart(cx, cy, cz), end = hash.bucketEnd(cx, cy, cz); s < end; s++) {
+                        if (!hash.isInCell(s, cx, cy, cz)) continue;
+                        if (report(hash.getIndex(s), center, radius, excluded, callback)) neighborCount++;
+                    }
+                }
+            }
+        }
+        return neighborCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean report(int index, T center, float radius, Steerable<T> excluded, ProximityCallback<T> callback) {
+        Steerable<T> agent = (Steerable<T>) agentSnapshot[index];
+        if (agent == excluded) return false;
+
+        // The bounding radius of the agent is taken into account by adding it to the range
+        float range = radius + agent.getBoundingRadius();
+        return center.dst2(agent.getPosition()) < range * range && callback.reportNeighbor(agent);
+    }
+
+    private static float x(Vector<?> position) {
+        if (position instanceof Vector2) return ((Vector2) position).x;
+        if (position instanceof Vector3) return ((Vector3) position).x;
+        throw new IllegalArgumentException("Unsupported vector type: " + position.getClass().getName());
+    }
+
+    private static float y(Vector<?> position) {
+        if (position instanceof Vector2) return ((Vector2) position).y;
+        return ((Vector3) position).y;
+    }
+
+    private static float z(Vector<?> position) {
+        if (position instanceof Vector3) return ((Vector3) position).z;
+        return 0;
+    }
+}
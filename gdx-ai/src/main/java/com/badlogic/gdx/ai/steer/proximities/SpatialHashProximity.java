@@ -0,0 +1,136 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.Timepiece;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * A {@code SpatialHashProximity} finds the same neighbors as a {@link RadiusProximity}, but only examines the agents of a
+ * {@link SpatialHashGrid} lying in the grid cells around the owner. Sharing one grid among the proximities of a whole flock makes
+ * the group behaviors of its agents roughly linear in the number of agents instead of quadratic.
+ * <p>
+ * Note that this implementation checks the AI time of the current frame through the {@link Timepiece#getTime()
+ * GdxAI.getTimepiece().getTime()} method in order to rebuild the grid and calculate neighbors only once per frame (assuming delta
+ * time is always greater than 0, if time has changed the frame has changed too). The neighbors are remembered by the proximity
+ * itself rather than by tagging the agents, so proximities sharing the same agents don't overwrite each other's results. This
+ * means that
+ * <ul>
+ * <li>if you forget to {@link Timepiece#update(float) update the timepiece} on each frame the proximity instance will be
+ * calculated only the very first time, which is not what you want of course.</li>
+ * <li>ideally the timepiece should be updated before the proximity is updated by the {@link #findNeighbors(ProximityCallback)}
+ * method.</li>
+ * </ul>
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface
+ */
+public class SpatialHashProximity<T extends Vector<T>> extends ProximityBase<T> {
+
+    /**
+     * The grid holding the agents of this proximity.
+     */
+    protected final SpatialHashGrid<T> grid;
+
+    /**
+     * The radius of this proximity.
+     */
+    protected float radius;
+
+    private float lastTime;
+    private final Array<Steerable<T>> neighbors;
+    private final NeighborCollector<T> collector;
+
+    /**
+     * Creates a {@code SpatialHashProximity} for the specified owner, grid and radius.
+     *
+     * @param owner  the owner of this proximity
+     * @param grid   the grid holding the agents
+     * @param radius the radius of this proximity
+     */
+    public SpatialHashProximity(Steerable<T> owner, SpatialHashGrid<T> grid, float radius) {
+        super(owner, grid.getAgents());
+        this.grid = grid;
+        this.radius = radius;
+        this.lastTime = 0;
+        this.neighbors = new Array<>();
+        this.collector = new NeighborCollector<>(neighbors);
+    }
+
+    /**
+     * Returns the grid holding the agents of this proximity.
+     */
+    public SpatialHashGrid<T> getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the radius of this proximity.
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets the radius of this proximity.
+     */
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    /**
+     * Not supported: the agents of this proximity are those of its grid.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setAgents(Iterable<Steerable<T>> agents) {
+        throw new UnsupportedOperationException("The agents of a SpatialHashProximity are those of its grid");
+    }
+
+    @Override
+    public int findNeighbors(ProximityCallback<T> callback) {
+        // If the frame is new then avoid repeating calculations
+        // when this proximity is used by multiple group behaviors.
+        float currentTime = GdxAI.getTimepiece().getTime();
+        if (this.lastTime != currentTime) {
+            // Save the current time
+            this.lastTime = currentTime;
+
+            // Rebuild the grid, unless another proximity already did it in this frame
+            grid.refresh();
+
+            // Query the cells around the owner, remembering the neighbors accepted by the callback
+            neighbors.clear();
+            collector.callback = callback;
+            int neighborCount = grid.findNeighbors(owner.getPosition(), radius, owner, collector);
+            collector.callback = null;
+            return neighborCount;
+        }
+
+        // Report the neighbors found earlier in this frame
+        int neighborCount = 0;
+        for (int i = 0; i < neighbors.size; i++) {
+            if (callback.reportNeighbor(neighbors.get(i))) {
+                neighborCount++;
+            }
+        }
+        return neighborCount;
+    }
+
+    private static class NeighborCollector<T extends Vector<T>> implements ProximityCallback<T> {
+        final Array<Steerable<T>> neighbors;
+        ProximityCallback<T> callback;
+
+        NeighborCollector(Array<Steerable<T>> neighbors) {
+            this.neighbors = neighbors;
+        }
+
+        @Override
+        public boolean reportNeighbor(Steerable<T> neighbor) {
+            if (!callback.reportNeighbor(neighbor)) return false;
+            neighbors.add(neighbor);
+            return true;
+        }
+    }
+}
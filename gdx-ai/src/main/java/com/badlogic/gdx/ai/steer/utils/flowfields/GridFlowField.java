@@ -0,0 +1,493 @@
+package com.badlogic.gdx.ai.steer.utils.flowfields;
+
+import com.badlogic.gdx.ai.pfa.indexed.GridGraph;
+import com.badlogic.gdx.ai.pfa.indexed.IntBinaryHeap;
+import com.badlogic.gdx.ai.steer.behaviors.FollowFlowField;
+import com.badlogic.gdx.ai.steer.behaviors.FollowFlowField.FlowField;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link FlowField} over a grid of cells leading to a set of goal cells, to be followed by the {@link FollowFlowField} behavior.
+ * A single field guides any number of agents heading to the same goals, replacing one path search per agent.
+ * <p>
+ * Each cell has a cost of entering it, {@code 1} by default and {@link Float#POSITIVE_INFINITY} for walls. Generating the field
+ * runs a Dijkstra search from all the goals at once, which gives the integration field (the cost of the cheapest way from each cell
+ * to its nearest goal) and the flow: the direction of the neighbor each cell should move to. Agents move in 8 directions, diagonal
+ * moves cost {@code sqrt(2)} times the cost of the entered cell and can't cut the corner of a wall.
+ * <p>
+ * After changing some costs, {@link #update()} repairs the field incrementally, searching again only from the cells whose
+ * shortest path went through a changed cell. Large fields can also be generated on several threads with
+ * {@link #generate(ExecutorService, int)}, which splits the grid into square sectors searched in parallel until the sector borders
+ * agree.
+ * <p>
+ * Cell {@code (x, y)} covers the area from {@code (originX + x * cellSize, originY + y * cellSize)} to one cell size further, and
+ * has the index {@code y * width + x}.
+ */
+public class GridFlowField implements FlowField<Vector2> {
+    private static final float SQRT2 = 1.4142135f;
+
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DY = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final Vector2[] DIRECTIONS = new Vector2[8];
+
+    static {
+        for (int i = 0; i < 8; i++)
+            DIRECTIONS[i] = new Vector2(DX[i], DY[i]).nor();
+    }
+
+    private static final byte NO_DIRECTION = -1;
+
+    protected final int width;
+    protected final int height;
+    protected final float cellSize;
+    protected final float originX;
+    protected final float originY;
+
+    final float[] costs;
+    final float[] distances;
+    /**
+     * Index in {@link #DX}/{@link #DY} of the move each cell makes toward its goal, {@link #NO_DIRECTION} for goals and cells that
+     * can't reach any goal.
+     */
+    final byte[] directions;
+    final IntArray goals = new IntArray();
+
+    private final IntBinaryHeap openList;
+    private final Vector2 flow = new Vector2();
+
+    // Cells changed since the last generation, with their cost at that time
+    private final IntArray changedCells = new IntArray();
+    private final FloatArray changedCosts = new FloatArray();
+    private final boolean[] changed;
+
+    /**
+     * Creates a flow field of the given size, with every cell walkable and the origin of the grid at {@code (0, 0)}.
+     */
+    public GridFlowField(int width, int height, float cellSize) {
+        this(width, height, cellSize, 0, 0);
+    }
+
+    /**
+     * Creates a flow field of the given size, with every cell walkable.
+     */
+    public GridFlowField(int width, int height, float cellSize, float originX, float originY) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("width and height must be greater than zero");
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originY = originY;
+
+        int cellCount = width * height;
+        this.costs = new float[cellCount];
+        this.distances = new float[cellCount];
+        this.directions = new byte[cellCount];
+        this.changed = new boolean[cellCount];
+        this.openList = new IntBinaryHeap(cellCount);
+        Arrays.fill(costs, 1);
+        Arrays.fill(distances, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NO_DIRECTION);
+    }
+
+    /**
+     * Creates a flow field with the walls of the given grid graph.
+     */
+    public GridFlowField(GridGraph<?> graph, float cellSize, float originX, float originY) {
+        this(graph.getWidth(), graph.getHeight(), cellSize, originX, originY);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                if (!graph.isWalkable(x, y)) costs[y * width + x] = Float.POSITIVE_INFINITY;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Returns the cost of entering the given cell.
+     */
+    public float getCost(int x, int y) {
+        return costs[y * width + x];
+    }
+
+    /**
+     * Sets the cost of entering the given cell; use {@link Float#POSITIVE_INFINITY} for walls. The field is not updated until the
+     * next call to {@link #update()} or to one of the generate methods.
+     *
+     * @param cost the cost, greater than 0
+     */
+    public void setCost(int x, int y, float cost) {
+        if (!(cost > 0)) throw new IllegalArgumentException("cost must be greater than zero");
+        int cell = y * width + x;
+        if (costs[cell] == cost) return;
+        if (!changed[cell]) {
+            changed[cell] = true;
+            changedCells.add(cell);
+            changedCosts.add(costs[cell]);
+        }
+        costs[cell] = cost;
+    }
+
+    /**
+     * Makes the given cell a wall or a walkable cell of cost {@code 1}. See {@link #setCost(int, int, float)}.
+     */
+    public void setWalkable(int x, int y, boolean walkable) {
+        setCost(x, y, walkable ? 1 : Float.POSITIVE_INFINITY);
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && costs[y * width + x] != Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Adds a goal cell. Goals are only taken into account by the next generation of the field.
+     */
+    public void addGoal(int x, int y) {
+        goals.add(y * width + x);
+    }
+
+    public void clearGoals() {
+        goals.clear();
+    }
+
+    /**
+     * Returns the cost of the cheapest way from the given cell to a goal, {@link Float#POSITIVE_INFINITY} if no goal can be
+     * reached.
+     */
+    public float getDistance(int x, int y) {
+        return distances[y * width + x];
+    }
+
+    /**
+     * Returns the unit vector pointing from the given cell to the next cell on its way to the goal, or the zero vector for goals and
+     * cells that can't reach any goal.
+     *
+     * @param out the output vector
+     * @return the output vector for chaining
+     */
+    public Vector2 getFlow(int x, int y, Vector2 out) {
+        int direction = directions[y * width + x];
+        return direction == NO_DIRECTION ? out.setZero() : out.set(DIRECTIONS[direction]);
+    }
+
+    /**
+     * Returns the flow vector of the cell containing the given position, or {@code null} if the position is outside the grid. The
+     * returned vector is reused by subsequent calls.
+     */
+    @Override
+    public Vector2 lookup(Vector2 position) {
+        int x = (int) Math.floor((position.x - originX) / cellSize);
+        int y = (int) Math.floor((position.y - originY) / cellSize);
+        if (x < 0 || y < 0 || x >= width || y >= height) return null;
+        return getFlow(x, y, flow);
+    }
+
+    /**
+     * Generates the whole field from the current goals and costs.
+     */
+    public void generate() {
+        clearChanges();
+        resetField();
+
+        openList.clear();
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            if (costs[goal] == Float.POSITIVE_INFINITY) continue;
+            distances[goal] = 0;
+            openList.add(goal, 0);
+        }
+        search(openList);
+    }
+
+    /**
+     * Generates the whole field from the current goals and costs, searching square sectors of the grid in parallel. Each round
+     * searches every sector whose border values may have changed on the given executor, until a round changes nothing. The result
+     * is the same as {@link #generate()}, except for the choice between equally short moves.
+     *
+     * @param executor   the executor running the sector searches
+     * @param sectorSize the width and height of a sector in cells
+     */
+    public void generate(ExecutorService executor, int sectorSize) {
+        if (sectorSize <= 0) throw new IllegalArgumentException("sectorSize must be greater than zero");
+        clearChanges();
+        resetField();
+
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            if (costs[goal] != Float.POSITIVE_INFINITY) distances[goal] = 0;
+        }
+
+        int sectorsX = (width + sectorSize - 1) / sectorSize;
+        int sectorsY = (height + sectorSize - 1) / sectorSize;
+        Sector[] sectors = new Sector[sectorsX * sectorsY];
+        for (int sy = 0; sy < sectorsY; sy++) {
+            for (int sx = 0; sx < sectorsX; sx++) {
+                int x0 = sx * sectorSize, y0 = sy * sectorSize;
+                sectors[sy * sectorsX + sx] = new Sector(x0, y0, Math.min(width, x0 + sectorSize), Math.min(height, y0 + sectorSize));
+            }
+        }
+
+        boolean[] pending = new boolean[sectors.length];
+        Arrays.fill(pending, true);
+        List<Sector> tasks = new ArrayList<>(sectors.length);
+        while (true) {
+            tasks.clear();
+            for (int i = 0; i < sectors.length; i++)
+                if (pending[i]) tasks.add(sectors[i]);
+            if (tasks.isEmpty()) break;
+
+            try {
+                for (Future<Boolean> future : executor.invokeAll(tasks))
+                    future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new GdxRuntimeException("Flow field generation interrupted", ex);
+            } catch (ExecutionException ex) {
+                throw new GdxRuntimeException("Flow field generation failed", ex.getCause());
+            }
+
+            // A sector changed by this round may improve the borders of its neighbors
+            Arrays.fill(pending, false);
+            for (int sy = 0; sy < sectorsY; sy++) {
+                for (int sx = 0; sx < sectorsX; sx++) {
+                    Sector sector = sectors[sy * sectorsX + sx];
+                    if (!sector.changed) continue;
+                    sector.changed = false;
+                    for (int ny = Math.max(0, sy - 1); ny <= Math.min(sectorsY - 1, sy + 1); ny++) {
+                        for (int nx = Math.max(0, sx - 1); nx <= Math.min(sectorsX - 1, sx + 1); nx++)
+                            if (nx != sx || ny != sy) pending[ny * sectorsX + nx] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs the field after costs have changed, searching again only from the cells whose shortest path is affected. Goals added
+     * or removed since the last generation require {@link #generate()} instead.
+     */
+    public void update() {
+        if (changedCells.size == 0) return;
+
+        // Cells whose move goes through a more expensive cell, or around the corner of a new wall, lose their distance along with
+        // every cell leading to them
+        IntArray invalidated = new IntArray();
+        for (int i = 0; i < changedCells.size; i++) {
+            int cell = changedCells.get(i);
+            float oldCost = changedCosts.get(i);
+            int x = cell % width, y = cell / width;
+
+            if (costs[cell] == Float.POSITIVE_INFINITY || oldCost == Float.POSITIVE_INFINITY) invalidate(cell, invalidated);
+            if (costs[cell] > oldCost) invalidateChildren(cell, invalidated);
+            if (costs[cell] == Float.POSITIVE_INFINITY) {
+                // Diagonal moves of the orthogonal neighbors that now cut the corner of the new wall
+                for (int side = 0; side < 8; side += 2) {
+                    int cx = x - DX[side], cy = y - DY[side];
+                    if (!inside(cx, cy)) continue;
+                    int neighbor = cy * width + cx;
+                    int direction = directions[neighbor];
+                    if (direction == NO_DIRECTION || (direction & 1) == 0) continue;
+                    if ((cx + DX[direction] == x && cy == y) || (cx == x && cy + DY[direction] == y))
+                        invalidate(neighbor, invalidated);
+                }
+            }
+        }
+        for (int i = 0; i < invalidated.size; i++)
+            invalidateChildren(invalidated.get(i), invalidated);
+
+        // Search again from every valid cell next to a change, which relaxes both lower costs and the neighbors of invalidated cells
+        openList.clear();
+        for (int i = 0; i < goals.size; i++) {
+            int goal = goals.get(i);
+            if (costs[goal] != Float.POSITIVE_INFINITY && distances[goal] > 0) {
+                distances[goal] = 0;
+                directions[goal] = NO_DIRECTION;
+                openList.add(goal, 0);
+            }
+        }
+        for (int i = 0; i < changedCells.size; i++)
+            pushValidNeighbors(changedCells.get(i));
+        for (int i = 0; i < invalidated.size; i++)
+            pushValidNeighbors(invalidated.get(i));
+
+        clearChanges();
+        search(openList);
+    }
+
+    private void invalidate(int cell, IntArray invalidated) {
+        if (distances[cell] == Float.POSITIVE_INFINITY) return;
+        distances[cell] = Float.POSITIVE_INFINITY;
+        directions[cell] = NO_DIRECTION;
+        invalidated.add(cell);
+    }
+
+    /**
+     * Invalidates the neighbors moving into the given cell, and recursively the cells moving into them.
+     */
+    private void invalidateChildren(int cell, IntArray invalidated) {
+        int x = cell % width, y = cell / width;
+        for (int d = 0; d < 8; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (!inside(nx, ny)) continue;
+            int neighbor = ny * width + nx;
+            // The neighbor moves into the cell if its direction is the opposite of d
+            if (directions[neighbor] == ((d + 4) & 7)) invalidate(neighbor, invalidated);
+        }
+    }
+
+    private void pushValidNeighbors(int cell) {
+        int x = cell % width, y = cell / width;
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                int neighbor = ny * width + nx;
+                if (distances[neighbor] != Float.POSITIVE_INFINITY) openList.add(neighbor, distances[neighbor]);
+            }
+        }
+    }
+
+    /**
+     * Dijkstra search from the cells in the open list, relaxing the neighbors that can move into each popped cell.
+     */
+    private void search(IntBinaryHeap openList) {
+        while (openList.size() > 0) {
+            int cell = openList.pop();
+            int x = cell % width, y = cell / width;
+            float distance = distances[cell];
+            float cost = costs[cell];
+
+            for (int d = 0; d < 8; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (!isWalkable(nx, ny) || !canMove(nx, ny, (d + 4) & 7)) continue;
+                int neighbor = ny * width + nx;
+                float newDistance = distance + ((d & 1) == 0 ? cost : cost * SQRT2);
+                if (newDistance < distances[neighbor]) {
+                    distances[neighbor] = newDistance;
+                    directions[neighbor] = (byte) ((d + 4) & 7);
+                    openList.add(neighbor, newDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a diagonal move in the given direction from the given cell doesn't cut the corner of a wall.
+     */
+    private boolean canMove(int x, int y, int direction) {
+        return (direction & 1) == 0 || (isWalkable(x + DX[direction], y) && isWalkable(x, y + DY[direction]));
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private void resetField() {
+        Arrays.fill(distances, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NO_DIRECTION);
+    }
+
+    private void clearChanges() {
+        for (int i = 0; i < changedCells.size; i++)
+            changed[changedCells.get(i)] = false;
+        changedCells.clear();
+        changedCosts.clear();
+    }
+
+    /**
+     * A rectangle of cells searched on its own by {@link #generate(ExecutorService, int)}. The search only writes the cells of its
+     * sector and reads the distances of the cells around it, which other sectors may be lowering at the same time; any value read is
+     * still an upper bound of the final one, and the final round changing nothing makes the field consistent.
+     */
+    private class Sector implements Callable<Boolean> {
+        final int x0, y0, x1, y1;
+        final int sectorWidth;
+        final IntBinaryHeap openList;
+        boolean changed;
+
+        Sector(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.sectorWidth = x1 - x0;
+            this.openList = new IntBinaryHeap(sectorWidth * (y1 - y0));
+        }
+
+        @Override
+        public Boolean call() {
+            changed = false;
+
+            // Pull the distances of the cells around the sector into its border
+            for (int y = y0; y < y1; y++) {
+                for (int x = x0; x < x1; x++) {
+                    boolean border = x == x0 || y == y0 || x == x1 - 1 || y == y1 - 1;
+                    if (border && isWalkable(x, y)) relaxFromOutside(x, y);
+                    float distance = distances[y * width + x];
+                    if (distance != Float.POSITIVE_INFINITY) openList.add(local(x, y), distance);
+                }
+            }
+
+            while (openList.size() > 0) {
+                int local = openList.pop();
+                int x = x0 + local % sectorWidth, y = y0 + local / sectorWidth;
+                int cell = y * width + x;
+                float distance = distances[cell];
+                float cost = costs[cell];
+
+                for (int d = 0; d < 8; d++) {
+                    int nx = x + DX[d], ny = y + DY[d];
+                    if (nx < x0 || ny < y0 || nx >= x1 || ny >= y1) continue;
+                    if (!isWalkable(nx, ny) || !canMove(nx, ny, (d + 4) & 7)) continue;
+                    int neighbor = ny * width + nx;
+                    float newDistance = distance + ((d & 1) == 0 ? cost : cost * SQRT2);
+                    if (newDistance < distances[neighbor]) {
+                        distances[neighbor] = newDistance;
+                        directions[neighbor] = (byte) ((d + 4) & 7);
+                        openList.add(local(nx, ny), newDistance);
+                        changed = true;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        private void relaxFromOutside(int x, int y) {
+            int cell = y * width + x;
+            for (int d = 0; d < 8; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (nx >= x0 && ny >= y0 && nx < x1 && ny < y1) continue;
+                if (!isWalkable(nx, ny) || !canMove(x, y, d)) continue;
+                int neighbor = ny * width + nx;
+                float newDistance = distances[neighbor] + ((d & 1) == 0 ? costs[neighbor] : costs[neighbor] * SQRT2);
+                if (newDistance < distances[cell]) {
+                    distances[cell] = newDistance;
+                    directions[cell] = (byte) d;
+                    changed = true;
+                }
+            }
+        }
+
+        private int local(int x, int y) {
+            return (y - y0) * sectorWidth + (x - x0);
+        }
+    }
+}
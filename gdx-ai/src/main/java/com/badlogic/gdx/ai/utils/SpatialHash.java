@@ -0,0 +1,151 @@
+package com.badlogic.gdx.ai.utils;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * A {@code SpatialHash} buckets a set of points, identified by their index, by the uniform grid cell containing them, so that the
+ * points around a given position can be found by visiting only the cells around it.
+ * <p>
+ * The hash is a snapshot built by {@link #build(float[], int, int)}, a counting sort of the points by cell hash that doesn't
+ * allocate once the hash has seen its largest number of points. The points of a cell are then found by visiting the slots of its
+ * bucket:
+ *
+ * <pre>
+ * for (int slot = hash.bucketStart(x, y, z), end = hash.bucketEnd(x, y, z); slot &lt; end; slot++)
+ *     if (hash.isInCell(slot, x, y, z)) visit(hash.getIndex(slot));
+ * </pre>
+ *
+ * Buckets are shared by colliding cells, so the {@link #isInCell(int, int, int, int)} check is needed to avoid visiting a point
+ * from several cells. Once built, the hash can be read from several threads at the same time.
+ */
+public class SpatialHash {
+
+    private float cellSize = 1f;
+    private float inverseCellSize = 1f;
+
+    // Points sorted by bucket, with the coordinates of their cell
+    private int[] sortedIndices = new int[0];
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    private int[] cellZ = new int[0];
+    private int[] pointBuckets = new int[0];
+
+    // The points of bucket b are in the slots bucketStarts[b] to bucketStarts[b + 1] - 1
+    private int[] bucketStarts = new int[1];
+    private int bucketMask;
+    private int size;
+
+    /**
+     * Returns the cell size of this hash.
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Sets the cell size of this hash, taking effect at the next {@link #build(float[], int, int) build}.
+     *
+     * @param cellSize the width, height and depth of a cell
+     * @throws IllegalArgumentException if {@code cellSize} is not greater than zero
+     */
+    public void setCellSize(float cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("cellSize must be greater than zero");
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+    }
+
+    /**
+     * Returns the number of points of the last build.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuilds this hash from the given points. The coordinates of point {@code i} are
+     * {@code coordinates[i * dimensions]} to {@code coordinates[i * dimensions + dimensions - 1]}; 2D points lie in the cells of
+     * z coordinate 0.
+     *
+     * @param coordinates the coordinates of the points
+     * @param dimensions  the number of coordinates of a point, either 2 or 3
+     * @param count       the number of points
+     */
+    public void build(float[] coordinates, int dimensions, int count) {
+        if (sortedIndices.length < count) {
+            sortedIndices = new int[count];
+            cellX = new int[count];
+            cellY = new int[count];
+            cellZ = new int[count];
+            pointBuckets = new int[count];
+        }
+        int bucketCount = MathUtils.nextPowerOfTwo(Math.max(16, count));
+        if (bucketStarts.length != bucketCount + 1) bucketStarts = new int[bucketCount + 1];
+        bucketMask = bucketCount - 1;
+        size = count;
+
+        // Count the points of each bucket
+        int[] bucketStarts = this.bucketStarts;
+        for (int b = 0; b <= bucketCount; b++)
+            bucketStarts[b] = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = i * dimensions;
+            int bucket = bucket(cell(coordinates[offset]), cell(coordinates[offset + 1]),
+                dimensions == 3 ? cell(coordinates[offset + 2]) : 0);
+            pointBuckets[i] = bucket;
+            bucketStarts[bucket]++;
+        }
+
+        // Turn the counts into bucket ends, then place the points backwards so that they become bucket starts
+        for (int b = 1; b < bucketCount; b++)
+            bucketStarts[b] += bucketStarts[b - 1];
+        bucketStarts[bucketCount] = count;
+        for (int i = count - 1; i >= 0; i--) {
+            int slot = --bucketStarts[pointBuckets[i]];
+            int offset = i * dimensions;
+            sortedIndices[slot] = i;
+            cellX[slot] = cell(coordinates[offset]);
+            cellY[slot] = cell(coordinates[offset + 1]);
+            cellZ[slot] = dimensions == 3 ? cell(coordinates[offset + 2]) : 0;
+        }
+    }
+
+    /**
+     * Returns the cell coordinate containing the given coordinate.
+     */
+    public int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    /**
+     * Returns the first slot of the bucket of the given cell.
+     */
+    public int bucketStart(int x, int y, int z) {
+        return bucketStarts[bucket(x, y, z)];
+    }
+
+    /**
+     * Returns the slot following the last slot of the bucket of the given cell.
+     */
+    public int bucketEnd(int x, int y, int z) {
+        return bucketStarts[bucket(x, y, z) + 1];
+    }
+
+    /**
+     * Returns whether the point in the given slot lies in the given cell rather than in a cell colliding with it.
+     */
+    public boolean isInCell(int slot, int x, int y, int z) {
+        return cellX[slot] == x && cellY[slot] == y && cellZ[slot] == z;
+    }
+
+    /**
+     * Returns the index of the point in the given slot.
+     */
+    public int getIndex(int slot) {
+        return sortedIndices[slot];
+    }
+
+    private int bucket(int x, int y, int z) {
+        int hash = x * 73856093 ^ y * 19349663 ^ z * 83492791;
+        return (hash ^ hash >>> 16) & bucketMask;
+    }
+}
@@ -0,0 +1,343 @@
+package com.badlogic.gdx.ai.btree;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.FileSystem;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.StandaloneFileSystem;
+import com.badlogic.gdx.ai.btree.Task.Status;
+import com.badlogic.gdx.ai.btree.branch.DynamicGuardSelector;
+import com.badlogic.gdx.ai.btree.branch.Parallel;
+import com.badlogic.gdx.ai.btree.branch.RandomSelector;
+import com.badlogic.gdx.ai.btree.branch.RandomSequence;
+import com.badlogic.gdx.ai.btree.branch.Selector;
+import com.badlogic.gdx.ai.btree.branch.Sequence;
+import com.badlogic.gdx.ai.btree.decorator.AlwaysFail;
+import com.badlogic.gdx.ai.btree.decorator.AlwaysSucceed;
+import com.badlogic.gdx.ai.btree.decorator.Include;
+import com.badlogic.gdx.ai.btree.decorator.Invert;
+import com.badlogic.gdx.ai.btree.decorator.Random;
+import com.badlogic.gdx.ai.btree.decorator.Repeat;
+import com.badlogic.gdx.ai.btree.decorator.SemaphoreGuard;
+import com.badlogic.gdx.ai.btree.decorator.UntilFail;
+import com.badlogic.gdx.ai.btree.decorator.UntilSuccess;
+import com.badlogic.gdx.ai.btree.leaf.Failure;
+import com.badlogic.gdx.ai.btree.leaf.Success;
+import com.badlogic.gdx.ai.btree.leaf.Wait;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeLibrary;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeLibraryManager;
+import com.badlogic.gdx.ai.btree.utils.BehaviorTreeParser;
+import com.badlogic.gdx.ai.utils.NonBlockingSemaphoreRepository;
+import com.badlogic.gdx.ai.utils.random.ConstantIntegerDistribution;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledBehaviorTreeTest {
+
+    private static final int STEPS = 24;
+
+    private DefaultTimepiece timepiece;
+    private FileSystem originalFileSystem;
+    private BehaviorTreeLibrary originalLibrary;
+
+    @Before
+    public void setUp() {
+        // The library manager creates its default library from the file system when it's first used
+        originalFileSystem = GdxAI.getFileSystem();
+        GdxAI.setFileSystem(new StandaloneFileSystem());
+        originalLibrary = BehaviorTreeLibraryManager.getInstance().getLibrary();
+        timepiece = new DefaultTimepiece();
+        GdxAI.setTimepiece(timepiece);
+        NonBlockingSemaphoreRepository.clear();
+        NonBlockingSemaphoreRepository.addSemaphore("gate", 1);
+    }
+
+    @After
+    public void tearDown() {
+        BehaviorTreeLibraryManager.getInstance().setLibrary(originalLibrary);
+        GdxAI.setFileSystem(originalFileSystem);
+        NonBlockingSemaphoreRepository.clear();
+    }
+
+    @Test
+    public void step_WhenBranchesAndDecorators_ExpectedSameAsBehaviorTree() {
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                return new Sequence<>(
+                        new Act("a", "RS"),
+                        new Selector<>(new Act("b", "F"), new Act("c", "RRSF")),
+                        new Invert<>(new Act("d", "FS")),
+                        new AlwaysSucceed<>(new Act("e", "RF")),
+                        new AlwaysFail<>(new Success<Board>()));
+            }
+        });
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                return new Selector<>(new Failure<Board>(), new Sequence<>(new Act("a", "SRS"), new Act("b", "RFS")), new Act("c", "S"));
+            }
+        });
+    }
+
+    @Test
+    public void step_WhenLoopDecorators_ExpectedSameAsBehaviorTree() {
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                return new Sequence<>(
+                        new Repeat<>(new ConstantIntegerDistribution(3), new Act("a", "RSF")),
+                        new UntilSuccess<>(new Act("b", "FRFS")),
+                        new UntilFail<>(new Act("c", "SRSF")));
+            }
+        });
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                return new Repeat<>(new Selector<>(new Act("a", "FR"), new Act("b", "RS")));
+            }
+        });
+    }
+
+    @Test
+    public void step_WhenParallel_ExpectedSameAsBehaviorTree() {
+        for (final Parallel.Policy policy : Parallel.Policy.values()) {
+            for (final Parallel.Orchestrator orchestrator : Parallel.Orchestrator.values()) {
+                assertSameAsBehaviorTree(new TreeFactory() {
+                    @Override
+                    public Task<Board> create() {
+                        // Join resets its children through Poolable.reset(), which empties a branch child, so only leaves
+                        // are put under it
+                        Task<Board> third = orchestrator == Parallel.Orchestrator.Join ? new Act("c", "RSF")
+                                : new Sequence<>(new Act("c", "RS"), new Act("d", "SF"));
+                        return new Parallel<>(policy, orchestrator, new Array<Task<Board>>(new Task[]{
+                                new Act("a", "RRS"), new Act("b", "RSRF"), third}));
+                    }
+                });
+            }
+        }
+    }
+
+    @Test
+    public void step_WhenGuards_ExpectedSameAsBehaviorTree() {
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                Task<Board> attack = new Act("attack", "RRS");
+                attack.setGuard(new Act("canAttack", "SSSFF"));
+                Task<Board> flee = new Act("flee", "RS");
+                flee.setGuard(new Invert<>(new Act("safe", "SFFS")));
+                Task<Board> idle = new Act("idle", "R");
+                return new DynamicGuardSelector<>(attack, flee, idle);
+            }
+        });
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                Task<Board> guarded = new Act("guarded", "S");
+                Task<Board> guard = new Act("guard", "SF");
+                guard.setGuard(new Act("guardOfGuard", "SSF"));
+                guarded.setGuard(guard);
+                return new Selector<>(guarded, new Act("fallback", "RF"));
+            }
+        });
+    }
+
+    @Test
+    public void step_WhenWaitAndSemaphore_ExpectedSameAsBehaviorTree() {
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                return new Sequence<>(new Wait<Board>(2.5f), new SemaphoreGuard<>("gate", new Act("a", "RRS")), new Act("b", "S"));
+            }
+        });
+    }
+
+    @Test
+    public void step_WhenRandomTasks_ExpectedSameAsBehaviorTreeWithSameSeed() {
+        assertSameAsBehaviorTree(new TreeFactory() {
+            @Override
+            public Task<Board> create() {
+                return new Sequence<>(
+                        new RandomSelector<>(new Act("a", "F"), new Act("b", "RS"), new Act("c", "FS")),
+                        new RandomSequence<>(new Act("d", "S"), new Act("e", "RS"), new Act("f", "SF")),
+                        new Random<>(new Act("g", "S")),
+                        new Random<Board>());
+            }
+        });
+    }
+
+    @Test
+    public void step_WhenManyAgents_ExpectedIndependentStates() {
+        CompiledBehaviorTree<Board> template = new CompiledBehaviorTree<>(new BehaviorTree<>(
+                new Sequence<>(new Act("a", "RS"), new Act("b", "RRS"))));
+        Board first = new Board();
+        Board second = new Board();
+        CompiledBehaviorTree.State<Board> firstState = template.newState(first);
+        CompiledBehaviorTree.State<Board> secondState = template.newState(second);
+
+        firstState.step();
+        firstState.step();
+        secondState.step();
+
+        Assert.assertEquals(Status.RUNNING, firstState.getStatus());
+        Assert.assertEquals(Status.RUNNING, secondState.getStatus());
+        Assert.assertEquals(Status.SUCCEEDED, firstState.getStatus(1));
+        Assert.assertEquals(Status.RUNNING, firstState.getStatus(2));
+        Assert.assertEquals(Status.RUNNING, secondState.getStatus(1));
+        Assert.assertEquals(Status.FRESH, secondState.getStatus(2));
+        Assert.assertEquals("start a;run a;running a;run a;succeeded a;end a;start b;run b;running b;", first.log.toString());
+        Assert.assertEquals("start a;run a;running a;", second.log.toString());
+    }
+
+    @Test
+    public void resetTask_WhenRunning_ExpectedRunningLeavesEndedAndFreshState() {
+        CompiledBehaviorTree<Board> template = new CompiledBehaviorTree<>(new BehaviorTree<>(new Sequence<>(new Act("a", "R"))));
+        Board board = new Board();
+        CompiledBehaviorTree.State<Board> state = template.newState(board);
+        state.step();
+
+        state.resetTask();
+
+        Assert.assertEquals("start a;run a;running a;end a;", board.log.toString());
+        Assert.assertEquals(Status.FRESH, state.getStatus());
+        Assert.assertEquals(Status.FRESH, state.getStatus(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenCustomBranch_ExpectedException() {
+        new CompiledBehaviorTree<>(new BehaviorTree<>(new Sequence<Board>(new Success<Board>()) {
+        }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenNoRootTask_ExpectedException() {
+        new CompiledBehaviorTree<>(new BehaviorTree<Board>());
+    }
+
+    @Test
+    public void constructor_WhenSubtreeIncludedTwice_ExpectedBothGrafted() {
+        BehaviorTreeLibrary library = newLibrary();
+        library.registerArchetypeTree("leaf", new BehaviorTree<>(new Act("a", "S")));
+        BehaviorTreeLibraryManager.getInstance().setLibrary(library);
+        CompiledBehaviorTree<Board> template = new CompiledBehaviorTree<>(new BehaviorTree<>(
+                new Sequence<>(new Include<Board>("leaf", true), new Include<Board>("leaf", true))));
+        Board board = new Board();
+        template.newState(board).step();
+
+        Assert.assertEquals("start a;run a;succeeded a;end a;start a;run a;succeeded a;end a;", board.log.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenLazyIncludeCycle_ExpectedException() {
+        BehaviorTreeLibrary library = newLibrary();
+        library.registerArchetypeTree("outer", new BehaviorTree<>(new Sequence<>(new Success<>(), new Include<>("inner", true))));
+        library.registerArchetypeTree("inner", new BehaviorTree<>(new Selector<>(new Include<>("outer", true))));
+        BehaviorTreeLibraryManager.getInstance().setLibrary(library);
+        new CompiledBehaviorTree<>(new BehaviorTree<Board>(new Include<Board>("outer", true)));
+    }
+
+    private static BehaviorTreeLibrary newLibrary() {
+        return new BehaviorTreeLibrary(GdxAI.getFileSystem().newResolver(FileType.Internal), BehaviorTreeParser.DEBUG_NONE);
+    }
+
+    /**
+     * Steps a behavior tree and a compiled state of the same tree, with the same random seed and times, and checks they log the
+     * same leaf calls and end up with the same statuses.
+     */
+    private void assertSameAsBehaviorTree(TreeFactory factory) {
+        Board expectedBoard = new Board();
+        BehaviorTree<Board> tree = new BehaviorTree<>(factory.create(), expectedBoard);
+        Array<Status> expectedStatuses = new Array<>();
+        MathUtils.random.setSeed(42);
+        for (int i = 0; i < STEPS; i++) {
+            timepiece.update(1);
+            tree.step();
+            expectedStatuses.add(tree.getChild(0).getStatus());
+            expectedBoard.log.append('|');
+        }
+
+        Board actualBoard = new Board();
+        CompiledBehaviorTree.State<Board> state = new CompiledBehaviorTree<>(new BehaviorTree<>(factory.create())).newState(actualBoard);
+        Array<Status> actualStatuses = new Array<>();
+        MathUtils.random.setSeed(42);
+        for (int i = 0; i < STEPS; i++) {
+            timepiece.update(1);
+            state.step();
+            actualStatuses.add(state.getStatus(0));
+            actualBoard.log.append('|');
+        }
+
+        Assert.assertEquals(expectedBoard.log.toString(), actualBoard.log.toString());
+        Assert.assertEquals(expectedStatuses, actualStatuses);
+    }
+
+    private interface TreeFactory {
+        Task<Board> create();
+    }
+
+    private static class Board {
+        final StringBuilder log = new StringBuilder();
+        final ObjectIntMap<String> runs = new ObjectIntMap<>();
+    }
+
+    /**
+     * A leaf cycling through the statuses of its pattern, with S, F and R standing for succeeded, failed and running. Everything
+     * specific to an agent is kept in the blackboard, so the leaf can be shared.
+     */
+    public static class Act extends LeafTask<Board> {
+        String name;
+        String pattern;
+
+        public Act() {
+        }
+
+        Act(String name, String pattern) {
+            this.name = name;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public void start() {
+            getObject().log.append("start ").append(name).append(';');
+        }
+
+        @Override
+        public Status execute() {
+            Board board = getObject();
+            int run = board.runs.getAndIncrement(name, 0, 1);
+            board.log.append("run ").append(name).append(';');
+            Status status;
+            switch (pattern.charAt(run % pattern.length())) {
+                case 'S':
+                    status = Status.SUCCEEDED;
+                    break;
+                case 'F':
+                    status = Status.FAILED;
+                    break;
+                default:
+                    status = Status.RUNNING;
+            }
+            board.log.append(status.name().toLowerCase()).append(' ').append(name).append(';');
+            return status;
+        }
+
+        @Override
+        public void end() {
+            getObject().log.append("end ").append(name).append(';');
+        }
+
+        @Override
+        protected Task<Board> copyTo(Task<Board> task) {
+            ((Act) task).name = name;
+            ((Act) task).pattern = pattern;
+            return task;
+        }
+    }
+}
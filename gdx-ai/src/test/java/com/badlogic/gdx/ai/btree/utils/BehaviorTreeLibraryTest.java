@@ -2,6 +2,7 @@ package com.badlogic.gdx.ai.btree.utils;
 
 import com.badlogic.gdx.ai.GdxAI;
 import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.CompiledBehaviorTree;
 import com.badlogic.gdx.ai.btree.LeafTask;
 import com.badlogic.gdx.ai.btree.Task;
 import com.badlogic.gdx.ai.btree.TaskCloner;
@@ -235,6 +236,33 @@ public class BehaviorTreeLibraryTest {
         Assert.assertNotNull("Root task should be cloned", createdTree.getChild(0));
     }
 
+    @Test
+    public void testCreateCompiledBehaviorTreeIsShared() {
+        String treeReference = "test.tree";
+        library.registerArchetypeTree(treeReference, testTree);
+
+        CompiledBehaviorTree<String> first = library.createCompiledBehaviorTree(treeReference);
+        CompiledBehaviorTree<String> second = library.createCompiledBehaviorTree(treeReference);
+
+        Assert.assertNotNull("Compiled tree should be created", first);
+        Assert.assertSame("Compiled tree should be shared", first, second);
+        Assert.assertEquals("Compiled tree should have the root only", 1, first.getNodeCount());
+        CompiledBehaviorTree.State<String> state = first.newState("agent");
+        state.step();
+        Assert.assertEquals("Compiled tree should run", Task.Status.SUCCEEDED, state.getStatus());
+    }
+
+    @Test
+    public void testRegisterArchetypeTreeDiscardsCompiledTree() {
+        String treeReference = "test.tree";
+        library.registerArchetypeTree(treeReference, testTree);
+        CompiledBehaviorTree<String> first = library.createCompiledBehaviorTree(treeReference);
+
+        library.registerArchetypeTree(treeReference, new BehaviorTree<>(new TestTask()));
+
+        Assert.assertNotSame("Compiled tree should be recompiled", first, library.createCompiledBehaviorTree(treeReference));
+    }
+
     @Test(expected = SerializationException.class)
     public void testCreateBehaviorTreeWithNonExistentReference() {
         // This should trigger parsing which will fail with invalid content
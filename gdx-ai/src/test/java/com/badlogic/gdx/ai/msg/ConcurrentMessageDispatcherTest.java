@@ -0,0 +1,204 @@
+package com.badlogic.gdx.ai.msg;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.utils.IntArray;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentMessageDispatcherTest {
+
+    private static final int MSG = 1;
+
+    private ConcurrentMessageDispatcher dispatcher;
+    private DefaultTimepiece timepiece;
+    private Recorder listener;
+
+    @Before
+    public void setUp() {
+        timepiece = new DefaultTimepiece();
+        GdxAI.setTimepiece(timepiece);
+        dispatcher = new ConcurrentMessageDispatcher(4);
+        listener = new Recorder();
+        dispatcher.addListener(listener, MSG);
+    }
+
+    @After
+    public void tearDown() {
+        GdxAI.setTimepiece(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenCapacityNotPositive_ExpectedException() {
+        new ConcurrentMessageDispatcher(0);
+    }
+
+    @Test
+    public void dispatchMessage_WhenDispatchThread_ExpectedHandledImmediately() {
+        dispatcher.dispatchMessage(MSG, (Object) 7);
+
+        Assert.assertEquals(1, listener.values.size);
+        Assert.assertEquals(7, listener.values.get(0));
+    }
+
+    @Test
+    public void dispatchMessage_WhenOtherThread_ExpectedHandledOnUpdate() throws InterruptedException {
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.dispatchMessage(MSG, (Object) 7);
+            }
+        });
+
+        Assert.assertEquals(0, listener.values.size);
+        dispatcher.update();
+        Assert.assertEquals(1, listener.values.size);
+        Assert.assertEquals(7, listener.values.get(0));
+    }
+
+    @Test
+    public void dispatchMessage_WhenOtherThreadWithDelay_ExpectedDelayCountedFromUpdate() throws InterruptedException {
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.dispatchMessage(2f, MSG, (Object) 7);
+            }
+        });
+
+        timepiece.update(5);
+        dispatcher.update();
+        Assert.assertEquals(0, listener.values.size);
+        timepiece.update(2);
+        dispatcher.update();
+        Assert.assertEquals(1, listener.values.size);
+    }
+
+    @Test
+    public void dispatchMessage_WhenManyThreadsOverflowing_ExpectedAllHandledInPostOrderPerThread() throws InterruptedException {
+        final int threads = 4;
+        final int messagesPerThread = 2000;
+        Thread[] producers = new Thread[threads];
+        for (int p = 0; p < threads; p++) {
+            final int producer = p;
+            producers[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < messagesPerThread; i++)
+                        dispatcher.dispatchMessage(MSG, (Object) (producer * messagesPerThread + i));
+                }
+            });
+            producers[p].start();
+        }
+
+        // Merge while the producers are posting, so that the rings fill up and drain repeatedly
+        boolean alive = true;
+        while (alive) {
+            dispatcher.update();
+            alive = false;
+            for (Thread producer : producers)
+                alive |= producer.isAlive();
+        }
+        for (Thread producer : producers)
+            producer.join();
+        dispatcher.update();
+
+        Assert.assertEquals(threads * messagesPerThread, listener.values.size);
+        int[] next = new int[threads];
+        for (int i = 0; i < listener.values.size; i++) {
+            int value = listener.values.get(i);
+            int producer = value / messagesPerThread;
+            Assert.assertEquals("message of thread " + producer, producer * messagesPerThread + next[producer], value);
+            next[producer]++;
+        }
+    }
+
+    @Test
+    public void dispatchMessage_WhenOtherThreadNeedsReceiptWithoutSender_ExpectedExceptionOnPostingThread()
+            throws InterruptedException {
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dispatcher.dispatchMessage(null, MSG, true);
+                } catch (IllegalArgumentException e) {
+                    thrown.set(e);
+                }
+            }
+        });
+
+        Assert.assertNotNull(thrown.get());
+    }
+
+    @Test
+    public void dispatchMessage_WhenOtherThreadNeedsReceipt_ExpectedReceiptOnUpdate() throws InterruptedException {
+        final Recorder sender = new Recorder();
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.dispatchMessage(sender, MSG, 7, true);
+            }
+        });
+
+        dispatcher.update();
+
+        Assert.assertEquals(1, listener.values.size);
+        Assert.assertEquals(1, sender.values.size);
+        Assert.assertEquals(Telegram.RETURN_RECEIPT_SENT, sender.lastReturnReceiptStatus);
+    }
+
+    @Test
+    public void clearQueue_WhenPostedTelegrams_ExpectedDiscarded() throws InterruptedException {
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 10; i++)
+                    dispatcher.dispatchMessage(MSG, (Object) i);
+            }
+        });
+
+        dispatcher.clearQueue();
+        dispatcher.update();
+
+        Assert.assertEquals(0, listener.values.size);
+    }
+
+    @Test
+    public void update_WhenCalledFromAnotherThread_ExpectedItBecomesTheDispatchThread() throws InterruptedException {
+        final Thread[] updater = new Thread[1];
+        runOnOtherThread(new Runnable() {
+            @Override
+            public void run() {
+                updater[0] = Thread.currentThread();
+                dispatcher.update();
+                dispatcher.dispatchMessage(MSG, (Object) 7);
+            }
+        });
+
+        Assert.assertSame(updater[0], dispatcher.getDispatchThread());
+        Assert.assertEquals(1, listener.values.size);
+    }
+
+    private static void runOnOtherThread(Runnable runnable) throws InterruptedException {
+        Thread thread = new Thread(runnable);
+        thread.start();
+        thread.join();
+    }
+
+    private static class Recorder implements Telegraph {
+        final IntArray values = new IntArray();
+        int lastReturnReceiptStatus;
+
+        @Override
+        public boolean handleMessage(Telegram msg) {
+            values.add(msg.extraInfo == null ? -1 : (Integer) msg.extraInfo);
+            lastReturnReceiptStatus = msg.returnReceiptStatus;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.badlogic.gdx.ai.pfa;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.NullLogger;
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+public class ConcurrentPathFinderQueueTest {
+
+    private static final int PATH_RESPONSE = 1;
+    private static final int NUM_NODES = 200;
+
+    private ConcurrentPathFinderQueue<Integer> queue;
+    private MessageDispatcher dispatcher;
+    private LineGraph graph;
+
+    @Before
+    public void setUp() {
+        GdxAI.setLogger(new NullLogger());
+        GdxAI.setTimepiece(new DefaultTimepiece());
+        dispatcher = new MessageDispatcher();
+        graph = new LineGraph(NUM_NODES);
+    }
+
+    @After
+    public void tearDown() {
+        if (queue != null) queue.dispose();
+    }
+
+    @Test
+    public void constructor_ExpectedOnePathFinderPerWorker() {
+        final Set<PathFinder<Integer>> pathFinders = Collections.newSetFromMap(new IdentityHashMap<PathFinder<Integer>, Boolean>());
+        queue = new ConcurrentPathFinderQueue<>(new ConcurrentPathFinderQueue.PathFinderFactory<Integer>() {
+            @Override
+            public PathFinder<Integer> newPathFinder() {
+                PathFinder<Integer> pathFinder = new IndexedAStarPathFinder<>(graph);
+                pathFinders.add(pathFinder);
+                return pathFinder;
+            }
+        }, 3);
+
+        Assert.assertEquals(3, queue.getNumWorkers());
+        Assert.assertEquals(3, pathFinders.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenNoWorkers_ExpectedException() {
+        queue = new ConcurrentPathFinderQueue<>(newFactory(), 0);
+    }
+
+    @Test
+    public void run_WhenManyRequests_ExpectedEveryClientNotifiedWithItsPath() throws InterruptedException {
+        queue = new ConcurrentPathFinderQueue<>(newFactory(), 4);
+        Client[] clients = new Client[100];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new Client();
+            int start = (i * 37) % NUM_NODES;
+            int end = (i * 91 + 13) % NUM_NODES;
+            PathFinderRequest<Integer> request = new PathFinderRequest<>(graph.nodes[start], graph.nodes[end], graph, new DefaultGraphPath<Integer>(), dispatcher);
+            request.responseMessageCode = PATH_RESPONSE;
+            dispatcher.dispatchMessage(clients[i], queue, 0, request);
+        }
+
+        drain();
+
+        Assert.assertEquals(0, queue.size());
+        for (int i = 0; i < clients.length; i++) {
+            Client client = clients[i];
+            Assert.assertEquals(1, client.responses);
+            Assert.assertSame(queue, client.sender);
+            PathFinderRequest<Integer> request = client.request;
+            Assert.assertTrue(request.pathFound);
+            Assert.assertEquals(PathFinderRequest.SEARCH_FINALIZED, request.status);
+            Assert.assertEquals(Math.abs(request.endNode - request.startNode) + 1, request.resultPath.getCount());
+            Assert.assertSame(request.startNode, request.resultPath.get(0));
+            Assert.assertSame(request.endNode, request.resultPath.get(request.resultPath.getCount() - 1));
+        }
+    }
+
+    @Test
+    public void run_WhenSearchFails_ExpectedClientNotifiedWithoutPath() throws InterruptedException {
+        queue = new ConcurrentPathFinderQueue<>(newFactory(), 1);
+        Client client = new Client();
+        PathFinderRequest<Integer> request = new PathFinderRequest<Integer>(graph.nodes[0], graph.nodes[5], graph, new DefaultGraphPath<Integer>(), dispatcher) {
+            @Override
+            public boolean search(PathFinder<Integer> pathFinder, long timeToRun) {
+                throw new IllegalStateException("broken request");
+            }
+        };
+        request.responseMessageCode = PATH_RESPONSE;
+        dispatcher.dispatchMessage(client, queue, 0, request);
+
+        drain();
+
+        Assert.assertEquals(1, client.responses);
+        Assert.assertFalse(request.pathFound);
+        Assert.assertEquals(PathFinderRequest.SEARCH_FINALIZED, request.status);
+    }
+
+    @Test
+    public void run_WhenNoTimeLeft_ExpectedOneResultDispatchedPerCall() throws InterruptedException {
+        queue = new ConcurrentPathFinderQueue<>(newFactory(), 2);
+        Client client = new Client();
+        for (int i = 0; i < 3; i++) {
+            PathFinderRequest<Integer> request = new PathFinderRequest<>(graph.nodes[0], graph.nodes[i], graph, new DefaultGraphPath<Integer>(), dispatcher);
+            request.responseMessageCode = PATH_RESPONSE;
+            dispatcher.dispatchMessage(client, queue, 0, request);
+        }
+        while (queue.resultQueue.size() < 3) {
+            Thread.sleep(1);
+        }
+
+        queue.run(0);
+
+        Assert.assertEquals(1, client.responses);
+        Assert.assertEquals(2, queue.size());
+    }
+
+    private void drain() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (queue.size() > 0) {
+            Assert.assertTrue("Requests not served in time", System.currentTimeMillis() < deadline);
+            queue.run(Long.MAX_VALUE);
+            Thread.sleep(1);
+        }
+    }
+
+    private ConcurrentPathFinderQueue.PathFinderFactory<Integer> newFactory() {
+        return new ConcurrentPathFinderQueue.PathFinderFactory<Integer>() {
+            @Override
+            public PathFinder<Integer> newPathFinder() {
+                return new IndexedAStarPathFinder<>(graph);
+            }
+        };
+    }
+
+    private static class Client implements Telegraph {
+        int responses;
+        Telegraph sender;
+        PathFinderRequest<Integer> request;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean handleMessage(Telegram msg) {
+            Assert.assertEquals(PATH_RESPONSE, msg.message);
+            responses++;
+            sender = msg.sender;
+            request = (PathFinderRequest<Integer>) msg.extraInfo;
+            return true;
+        }
+    }
+
+    /**
+     * Nodes 0 to n - 1 connected to their neighbors in both directions. Path finders compare nodes by identity, so the boxed nodes
+     * are created once.
+     */
+    private static class LineGraph implements IndexedGraph<Integer>, Heuristic<Integer> {
+        final Integer[] nodes;
+        final Array<Array<Connection<Integer>>> connections;
+
+        LineGraph(int n) {
+            nodes = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                nodes[i] = i;
+            }
+            connections = new Array<>(n);
+            for (int i = 0; i < n; i++) {
+                Array<Connection<Integer>> nodeConnections = new Array<>(2);
+                if (i > 0) nodeConnections.add(new DefaultConnection<>(nodes[i], nodes[i - 1]));
+                if (i < n - 1) nodeConnections.add(new DefaultConnection<>(nodes[i], nodes[i + 1]));
+                connections.add(nodeConnections);
+            }
+        }
+
+        @Override
+        public int getIndex(Integer node) {
+            return node;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return connections.size;
+        }
+
+        @Override
+        public Array<Connection<Integer>> getConnections(Integer fromNode) {
+            return connections.get(fromNode);
+        }
+
+        @Override
+        public float estimate(Integer node, Integer endNode) {
+            return Math.abs(endNode - node);
+        }
+    }
+}
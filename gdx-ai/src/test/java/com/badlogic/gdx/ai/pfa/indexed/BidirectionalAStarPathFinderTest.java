@@ -0,0 +1,123 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.TestGridGraph.Cell;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BidirectionalAStarPathFinderTest {
+
+    @Test
+    public void searchNodePath_WhenSearchingAdjacentTile_ExpectedOutputPathLengthEquals2() {
+        TestGridGraph graph = new TestGridGraph("....");
+        BidirectionalAStarPathFinder<Cell> finder = new BidirectionalAStarPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchNodePath(graph.getNode(1, 0), graph.getNode(2, 0), TestGridGraph.OCTILE, path));
+
+        Assert.assertEquals(2, path.getCount());
+        Assert.assertSame(graph.getNode(1, 0), path.get(0));
+        Assert.assertSame(graph.getNode(2, 0), path.get(1));
+    }
+
+    @Test
+    public void searchNodePath_WhenStartIsEnd_ExpectedSingleNodePath() {
+        TestGridGraph graph = new TestGridGraph("...");
+        BidirectionalAStarPathFinder<Cell> finder = new BidirectionalAStarPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchNodePath(graph.getNode(1, 0), graph.getNode(1, 0), TestGridGraph.OCTILE, path));
+        Assert.assertEquals(1, path.getCount());
+    }
+
+    @Test
+    public void searchNodePath_WhenDestinationUnreachable_ExpectedNoOutputPathFound() {
+        TestGridGraph graph = new TestGridGraph(
+                "...#...",
+                "...#...");
+        BidirectionalAStarPathFinder<Cell> finder = new BidirectionalAStarPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+
+        Assert.assertFalse(finder.searchNodePath(graph.getNode(0, 0), graph.getNode(6, 1), TestGridGraph.OCTILE, path));
+        Assert.assertEquals(0, path.getCount());
+    }
+
+    @Test
+    public void searchNodePath_OnRandomGrids_ExpectedSameCostAsIndexedAStar() {
+        for (int seed = 0; seed < 30; seed++) {
+            TestGridGraph graph = new TestGridGraph(40, 30, 0.3f, seed);
+            BidirectionalAStarPathFinder<Cell> finder = new BidirectionalAStarPathFinder<>(graph);
+            IndexedAStarPathFinder<Cell> reference = new IndexedAStarPathFinder<>(graph);
+
+            for (int i = 0; i < 20; i++) {
+                Cell start = graph.cells[(seed * 7919 + i * 104729) % graph.cells.length];
+                Cell end = graph.cells[(seed * 15485863 + i * 32452843) % graph.cells.length];
+                if (graph.walls[start.index] || graph.walls[end.index]) continue;
+
+                DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+                DefaultGraphPath<Cell> referencePath = new DefaultGraphPath<>();
+                boolean found = finder.searchNodePath(start, end, TestGridGraph.OCTILE, path);
+                boolean referenceFound = reference.searchNodePath(start, end, TestGridGraph.OCTILE, referencePath);
+
+                Assert.assertEquals(referenceFound, found);
+                if (found) {
+                    Assert.assertSame(start, path.get(0));
+                    Assert.assertSame(end, path.get(path.getCount() - 1));
+                    Assert.assertEquals(TestGridGraph.cost(referencePath.nodes), TestGridGraph.cost(path.nodes), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void searchConnectionPath_ExpectedChainedConnectionsOfTheGraph() {
+        TestGridGraph graph = new TestGridGraph(
+                "......#...",
+                ".####.#.#.",
+                ".#....#.#.",
+                ".#.####.#.",
+                "........#.");
+        BidirectionalAStarPathFinder<Cell> finder = new BidirectionalAStarPathFinder<>(graph);
+        Cell start = graph.getNode(2, 2);
+        Cell end = graph.getNode(9, 0);
+        DefaultGraphPath<Connection<Cell>> path = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchConnectionPath(start, end, TestGridGraph.OCTILE, path));
+
+        Assert.assertSame(start, path.get(0).getFromNode());
+        Assert.assertSame(end, path.get(path.getCount() - 1).getToNode());
+        for (int i = 0; i < path.getCount(); i++) {
+            Assert.assertTrue(graph.getConnections(path.get(i).getFromNode()).contains(path.get(i), true));
+            if (i > 0) Assert.assertSame(path.get(i - 1).getToNode(), path.get(i).getFromNode());
+        }
+    }
+
+    @Test
+    public void search_WithRequest_ExpectedOptimalPath() {
+        TestGridGraph graph = new TestGridGraph(50, 50, 0.25f, 3);
+        BidirectionalAStarPathFinder<Cell> finder = new BidirectionalAStarPathFinder<>(graph);
+        IndexedAStarPathFinder<Cell> reference = new IndexedAStarPathFinder<>(graph);
+        Cell start = null;
+        Cell end = null;
+        for (Cell cell : graph.cells) {
+            if (graph.walls[cell.index]) continue;
+            if (start == null) start = cell;
+            end = cell;
+        }
+
+        PathFinderRequest<Cell> request = new PathFinderRequest<>(start, end, TestGridGraph.OCTILE, new DefaultGraphPath<Cell>(), null);
+        request.statusChanged = true;
+        while (!finder.search(request, Long.MAX_VALUE)) {
+        }
+
+        DefaultGraphPath<Cell> referencePath = new DefaultGraphPath<>();
+        Assert.assertEquals(reference.searchNodePath(start, end, TestGridGraph.OCTILE, referencePath), request.pathFound);
+        if (request.pathFound) {
+            Assert.assertEquals(TestGridGraph.cost(referencePath.nodes),
+                    TestGridGraph.cost(((DefaultGraphPath<Cell>) request.resultPath).nodes), 0.001f);
+        }
+    }
+}
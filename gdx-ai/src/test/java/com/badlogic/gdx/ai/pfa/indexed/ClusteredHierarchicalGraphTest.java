@@ -0,0 +1,162 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.HierarchicalPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.TestGridGraph.Cell;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClusteredHierarchicalGraphTest {
+
+    @Test
+    public void constructor_WhenGridIsOpen_ExpectedOneEntranceOnEachSideOfEveryBorder() {
+        TestGridGraph grid = new TestGridGraph(20, 10, 0, 0);
+        ClusteredHierarchicalGraph<Cell> graph = new ClusteredHierarchicalGraph<>(grid, 10, 10);
+
+        Assert.assertEquals(2, graph.getClusterCount());
+        Array<Cell> left = graph.getEntrances(0, new Array<Cell>());
+        Array<Cell> right = graph.getEntrances(1, new Array<Cell>());
+        Assert.assertTrue(left.size >= 1 && left.size <= 2);
+        Assert.assertTrue(right.size >= 1 && right.size <= 2);
+        for (Cell cell : left) {
+            Assert.assertEquals(9, cell.x);
+        }
+        for (Cell cell : right) {
+            Assert.assertEquals(10, cell.x);
+        }
+    }
+
+    @Test
+    public void expandPath_OnRandomGrids_ExpectedValidPathWheneverOneExists() {
+        for (int seed = 0; seed < 10; seed++) {
+            TestGridGraph grid = new TestGridGraph(40, 40, 0.25f, seed);
+            ClusteredHierarchicalGraph<Cell> graph = new ClusteredHierarchicalGraph<>(grid, 8, 8);
+            IndexedAStarPathFinder<Cell> finder = new IndexedAStarPathFinder<>(graph);
+
+            for (int i = 0; i < 20; i++) {
+                Cell start = grid.cells[(seed * 7919 + i * 104729) % grid.cells.length];
+                Cell end = grid.cells[(seed * 15485863 + i * 32452843) % grid.cells.length];
+                if (grid.walls[start.index] || grid.walls[end.index]) continue;
+                if (graph.getCluster(start) == graph.getCluster(end)) continue;
+
+                graph.setLevel(0);
+                DefaultGraphPath<Cell> basePath = new DefaultGraphPath<>();
+                boolean baseFound = finder.searchNodePath(start, end, TestGridGraph.OCTILE, basePath);
+
+                Cell startEntrance = graph.convertNodeBetweenLevels(0, start, 1);
+                Cell endEntrance = graph.convertNodeBetweenLevels(0, end, 1);
+                if (!graph.isEntrance(startEntrance) || !graph.isEntrance(endEntrance)) {
+                    // Walled in a pocket of its cluster
+                    continue;
+                }
+
+                graph.setLevel(1);
+                DefaultGraphPath<Cell> abstractPath = new DefaultGraphPath<>();
+                boolean abstractFound = finder.searchNodePath(startEntrance, endEntrance, TestGridGraph.OCTILE, abstractPath);
+                Assert.assertEquals(baseFound, abstractFound);
+                if (!abstractFound) continue;
+
+                DefaultGraphPath<Cell> expandedPath = new DefaultGraphPath<>();
+                graph.expandPath(abstractPath, expandedPath);
+                Assert.assertSame(startEntrance, expandedPath.get(0));
+                Assert.assertSame(endEntrance, expandedPath.get(expandedPath.getCount() - 1));
+                assertConnected(grid, expandedPath);
+            }
+        }
+    }
+
+    @Test
+    public void searchNodePath_WithHierarchicalPathFinder_ExpectedToReachTheGoalWaypointByWaypoint() {
+        TestGridGraph grid = new TestGridGraph(
+                "..........#.........",
+                "..........#.........",
+                "..........#....#....",
+                "..........#....#....",
+                "...............#....",
+                "..........#....#....",
+                "..........#....#....",
+                "..........#....#....",
+                "..........#....#....",
+                "..........#....#....");
+        ClusteredHierarchicalGraph<Cell> graph = new ClusteredHierarchicalGraph<>(grid, 5, 5);
+        HierarchicalPathFinder<Cell> finder = new HierarchicalPathFinder<>(graph, new IndexedAStarPathFinder<>(graph));
+        Cell current = grid.getNode(0, 0);
+        Cell goal = grid.getNode(19, 9);
+
+        for (int steps = 0; current != goal; steps++) {
+            Assert.assertTrue("Goal not reached", steps < 50);
+            DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+            Assert.assertTrue(finder.searchNodePath(current, goal, TestGridGraph.OCTILE, path));
+            assertConnected(grid, path);
+            Assert.assertSame(current, path.get(0));
+            current = path.get(path.getCount() - 1);
+        }
+    }
+
+    @Test
+    public void update_AfterAddingAndRemovingWalls_ExpectedSameLevelOneAsFreshBuild() {
+        TestGridGraph grid = new TestGridGraph(30, 30, 0.2f, 3);
+        ClusteredHierarchicalGraph<Cell> graph = new ClusteredHierarchicalGraph<>(grid, 10, 10);
+
+        int[][] changes = {{9, 4}, {10, 4}, {15, 15}, {20, 21}, {5, 19}, {19, 19}};
+        for (int[] change : changes) {
+            grid.setWall(change[0], change[1], grid.isWalkable(change[0], change[1]));
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int x = change[0] + dx, y = change[1] + dy;
+                    if (x >= 0 && y >= 0 && x < grid.width && y < grid.height) graph.invalidate(grid.getNode(x, y));
+                }
+            }
+        }
+        graph.update();
+
+        ClusteredHierarchicalGraph<Cell> fresh = new ClusteredHierarchicalGraph<>(grid, 10, 10);
+        graph.setLevel(1);
+        fresh.setLevel(1);
+        for (Cell cell : grid.cells) {
+            Assert.assertEquals(fresh.isEntrance(cell), graph.isEntrance(cell));
+            Array<Connection<Cell>> expected = fresh.getConnections(cell);
+            Array<Connection<Cell>> actual = graph.getConnections(cell);
+            Assert.assertEquals(expected.size, actual.size);
+            for (Connection<Cell> connection : expected) {
+                Assert.assertTrue(containsConnection(actual, connection));
+            }
+        }
+    }
+
+    @Test
+    public void constructor_WithGrownClusters_ExpectedEveryNodeInAClusterNotLargerThanMaxSize() {
+        TestGridGraph grid = new TestGridGraph(20, 20, 0.2f, 9);
+        Array<Cell> nodes = new Array<>(grid.cells);
+        ClusteredHierarchicalGraph<Cell> graph = new ClusteredHierarchicalGraph<>(grid, nodes, 25);
+
+        int[] sizes = new int[graph.getClusterCount()];
+        for (Cell cell : grid.cells) {
+            sizes[graph.getCluster(cell)]++;
+        }
+        for (int size : sizes) {
+            Assert.assertTrue(size > 0 && size <= 25);
+        }
+    }
+
+    private static boolean containsConnection(Array<Connection<Cell>> connections, Connection<Cell> connection) {
+        for (Connection<Cell> other : connections) {
+            if (other.getToNode() == connection.getToNode() && Math.abs(other.getCost() - connection.getCost()) < 0.001f) return true;
+        }
+        return false;
+    }
+
+    private static void assertConnected(TestGridGraph grid, DefaultGraphPath<Cell> path) {
+        for (int i = 1; i < path.getCount(); i++) {
+            Cell from = path.get(i - 1);
+            boolean connected = false;
+            for (Connection<Cell> connection : grid.getConnections(from)) {
+                connected |= connection.getToNode() == path.get(i);
+            }
+            Assert.assertTrue("No connection from " + from + " to " + path.get(i), connected);
+        }
+    }
+}
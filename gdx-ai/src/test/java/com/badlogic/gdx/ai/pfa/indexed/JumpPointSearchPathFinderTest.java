@@ -0,0 +1,150 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.PathFinderRequest;
+import com.badlogic.gdx.ai.pfa.indexed.TestGridGraph.Cell;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JumpPointSearchPathFinderTest {
+
+    @Test
+    public void searchNodePath_WhenGridIsOpen_ExpectedStraightPathThroughEveryCell() {
+        TestGridGraph graph = new TestGridGraph(
+                "..........",
+                "..........",
+                "..........");
+        JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchNodePath(graph.getNode(0, 1), graph.getNode(9, 1), TestGridGraph.OCTILE, path));
+
+        Assert.assertEquals(10, path.getCount());
+        Assert.assertSame(graph.getNode(0, 1), path.get(0));
+        Assert.assertSame(graph.getNode(9, 1), path.get(9));
+        Assert.assertEquals(9f, TestGridGraph.cost(path.nodes), 0.0001f);
+    }
+
+    @Test
+    public void searchNodePath_WhenPathGoesAroundWalls_ExpectedOptimalPath() {
+        TestGridGraph graph = new TestGridGraph(
+                "..#.......",
+                "..#..###..",
+                "..#....#..",
+                "..####.#..",
+                ".......#..");
+        JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph);
+        IndexedAStarPathFinder<Cell> reference = new IndexedAStarPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+        DefaultGraphPath<Cell> referencePath = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchNodePath(graph.getNode(0, 0), graph.getNode(9, 0), TestGridGraph.OCTILE, path));
+        Assert.assertTrue(reference.searchNodePath(graph.getNode(0, 0), graph.getNode(9, 0), TestGridGraph.OCTILE, referencePath));
+
+        Assert.assertEquals(TestGridGraph.cost(referencePath.nodes), TestGridGraph.cost(path.nodes), 0.0001f);
+    }
+
+    @Test
+    public void searchNodePath_WhenDestinationUnreachable_ExpectedNoOutputPathFound() {
+        TestGridGraph graph = new TestGridGraph(
+                "...#...",
+                "...#...",
+                "...#...");
+        JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+
+        Assert.assertFalse(finder.searchNodePath(graph.getNode(0, 0), graph.getNode(6, 2), TestGridGraph.OCTILE, path));
+        Assert.assertEquals(0, path.getCount());
+
+        // Walls are never a start or end node
+        Assert.assertFalse(finder.searchNodePath(graph.getNode(3, 0), graph.getNode(6, 2), TestGridGraph.OCTILE, path));
+    }
+
+    @Test
+    public void searchNodePath_WhenStartIsEnd_ExpectedSingleNodePath() {
+        TestGridGraph graph = new TestGridGraph("...");
+        JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph);
+        DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchNodePath(graph.getNode(1, 0), graph.getNode(1, 0), TestGridGraph.OCTILE, path));
+        Assert.assertEquals(1, path.getCount());
+    }
+
+    @Test
+    public void searchNodePath_OnRandomGrids_ExpectedSameCostAsIndexedAStar() {
+        for (int seed = 0; seed < 30; seed++) {
+            TestGridGraph graph = new TestGridGraph(40, 30, 0.3f, seed);
+            JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph);
+            IndexedAStarPathFinder<Cell> reference = new IndexedAStarPathFinder<>(graph);
+
+            for (int i = 0; i < 20; i++) {
+                Cell start = graph.cells[(seed * 7919 + i * 104729) % graph.cells.length];
+                Cell end = graph.cells[(seed * 15485863 + i * 32452843) % graph.cells.length];
+                if (graph.walls[start.index] || graph.walls[end.index]) continue;
+
+                DefaultGraphPath<Cell> path = new DefaultGraphPath<>();
+                DefaultGraphPath<Cell> referencePath = new DefaultGraphPath<>();
+                boolean found = finder.searchNodePath(start, end, TestGridGraph.OCTILE, path);
+                boolean referenceFound = reference.searchNodePath(start, end, TestGridGraph.OCTILE, referencePath);
+
+                Assert.assertEquals(referenceFound, found);
+                if (found) {
+                    Assert.assertSame(start, path.get(0));
+                    Assert.assertSame(end, path.get(path.getCount() - 1));
+                    Assert.assertEquals(TestGridGraph.cost(referencePath.nodes), TestGridGraph.cost(path.nodes), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void searchConnectionPath_ExpectedConnectionsOfTheGraph() {
+        TestGridGraph graph = new TestGridGraph(
+                ".....",
+                ".###.",
+                ".....");
+        JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph);
+        DefaultGraphPath<Connection<Cell>> path = new DefaultGraphPath<>();
+
+        Assert.assertTrue(finder.searchConnectionPath(graph.getNode(0, 1), graph.getNode(4, 1), TestGridGraph.OCTILE, path));
+
+        Assert.assertSame(graph.getNode(0, 1), path.get(0).getFromNode());
+        Assert.assertSame(graph.getNode(4, 1), path.get(path.getCount() - 1).getToNode());
+        for (int i = 0; i < path.getCount(); i++) {
+            Assert.assertTrue(graph.getConnections(path.get(i).getFromNode()).contains(path.get(i), true));
+        }
+    }
+
+    @Test
+    public void search_WithRequest_ExpectedPathFound() {
+        TestGridGraph graph = new TestGridGraph(60, 60, 0.2f, 42);
+        JumpPointSearchPathFinder<Cell> finder = new JumpPointSearchPathFinder<>(graph, true);
+        IndexedAStarPathFinder<Cell> reference = new IndexedAStarPathFinder<>(graph, true);
+        Cell start = null;
+        Cell end = null;
+        for (Cell cell : graph.cells) {
+            if (graph.walls[cell.index]) continue;
+            if (start == null) start = cell;
+            end = cell;
+        }
+
+        PathFinderRequest<Cell> request = new PathFinderRequest<>(start, end, TestGridGraph.OCTILE, new DefaultGraphPath<Cell>(), null);
+        request.statusChanged = true;
+        boolean done;
+        do {
+            done = finder.search(request, Long.MAX_VALUE);
+        } while (!done);
+
+        DefaultGraphPath<Cell> referencePath = new DefaultGraphPath<>();
+        boolean referenceFound = reference.searchNodePath(start, end, TestGridGraph.OCTILE, referencePath);
+
+        Assert.assertEquals(referenceFound, request.pathFound);
+        if (referenceFound) {
+            Assert.assertEquals(TestGridGraph.cost(referencePath.nodes),
+                    TestGridGraph.cost(((DefaultGraphPath<Cell>) request.resultPath).nodes), 0.001f);
+            Assert.assertTrue(finder.metrics.openListAdditions < reference.metrics.openListAdditions);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.TestGridGraph.Cell;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.SerializationException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class LandmarkHeuristicTest {
+
+    private static final String[] MAZE = {
+            "......................",
+            ".####################.",
+            ".#..................#.",
+            ".#.################.#.",
+            ".#.#..............#.#.",
+            ".#.#.############.#.#.",
+            ".#.#.#..........#.#.#.",
+            ".#.#.#.########.#.#.#.",
+            ".#.#.#........#...#.#.",
+            ".#.#.##########.###.#.",
+            ".#.#................#.",
+            ".#.##################.",
+            ".#....................",
+    };
+
+    @Test
+    public void selectLandmarks_ExpectedDistinctReachableNodes() {
+        TestGridGraph graph = new TestGridGraph(MAZE);
+
+        Array<Cell> landmarks = LandmarkHeuristic.selectLandmarks(graph, graph.getNode(0, 0), 4);
+
+        Assert.assertEquals(4, landmarks.size);
+        for (int i = 0; i < landmarks.size; i++) {
+            Assert.assertFalse(graph.walls[landmarks.get(i).index]);
+            for (int j = i + 1; j < landmarks.size; j++) {
+                Assert.assertNotSame(landmarks.get(i), landmarks.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void estimate_OnRandomGrid_ExpectedNeverOverestimates() {
+        TestGridGraph graph = new TestGridGraph(30, 30, 0.3f, 5);
+        Cell seed = firstWalkable(graph);
+        LandmarkHeuristic<Cell> heuristic = LandmarkHeuristic.build(graph, LandmarkHeuristic.selectLandmarks(graph, seed, 6));
+        LandmarkHeuristic.DijkstraSearch<Cell> search = new LandmarkHeuristic.DijkstraSearch<>(graph.getNodeCount());
+        float[] distances = new float[graph.getNodeCount()];
+
+        for (int i = 0; i < 40; i++) {
+            Cell start = graph.cells[(i * 7919) % graph.cells.length];
+            if (graph.walls[start.index]) continue;
+            search.run(graph, start, distances);
+            for (Cell end : graph.cells) {
+                if (distances[end.index] == Float.POSITIVE_INFINITY) continue;
+                Assert.assertTrue(heuristic.estimate(start, end) <= distances[end.index] + 0.001f);
+            }
+        }
+    }
+
+    @Test
+    public void estimate_OnMaze_ExpectedOptimalPathWithFewerVisitedNodes() {
+        TestGridGraph graph = new TestGridGraph(MAZE);
+        LandmarkHeuristic<Cell> heuristic = LandmarkHeuristic.build(graph,
+                LandmarkHeuristic.selectLandmarks(graph, graph.getNode(0, 0), 4));
+        IndexedAStarPathFinder<Cell> finder = new IndexedAStarPathFinder<>(graph, true);
+        Cell start = graph.getNode(7, 8);
+        Cell end = graph.getNode(21, 12);
+
+        DefaultGraphPath<Cell> octilePath = new DefaultGraphPath<>();
+        Assert.assertTrue(finder.searchNodePath(start, end, TestGridGraph.OCTILE, octilePath));
+        int octileVisits = finder.metrics.visitedNodes;
+
+        DefaultGraphPath<Cell> landmarkPath = new DefaultGraphPath<>();
+        Assert.assertTrue(finder.searchNodePath(start, end, heuristic, landmarkPath));
+
+        Assert.assertEquals(TestGridGraph.cost(octilePath.nodes), TestGridGraph.cost(landmarkPath.nodes), 0.001f);
+        Assert.assertTrue(finder.metrics.visitedNodes < octileVisits);
+    }
+
+    @Test
+    public void estimate_OnDirectedGraph_ExpectedDistancesOfBothDirections() {
+        // A one-way ring 0 -> 1 -> ... -> 5 -> 0
+        RingGraph graph = new RingGraph(6, false);
+        RingGraph reverseGraph = new RingGraph(6, true);
+        Array<Integer> landmarks = new Array<>();
+        landmarks.add(graph.nodes[0]);
+
+        LandmarkHeuristic<Integer> heuristic = LandmarkHeuristic.build(graph, reverseGraph, landmarks);
+
+        Assert.assertEquals(2f, heuristic.getDistanceFromLandmark(0, graph.nodes[2]), 0f);
+        Assert.assertEquals(4f, heuristic.getDistanceToLandmark(0, graph.nodes[2]), 0f);
+        // The only landmark is the goal, so the estimate is the exact distance along the ring
+        Assert.assertEquals(5f, heuristic.estimate(graph.nodes[1], graph.nodes[0]), 0f);
+        // Going from 3 to 1 takes 4 steps
+        Assert.assertTrue(heuristic.estimate(graph.nodes[3], graph.nodes[1]) <= 4f);
+    }
+
+    @Test
+    public void write_ThenRead_ExpectedSameEstimates() {
+        TestGridGraph graph = new TestGridGraph(MAZE);
+        LandmarkHeuristic<Cell> heuristic = LandmarkHeuristic.build(graph,
+                LandmarkHeuristic.selectLandmarks(graph, graph.getNode(0, 0), 3));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        heuristic.write(output);
+        LandmarkHeuristic<Cell> read = LandmarkHeuristic.read(new ByteArrayInputStream(output.toByteArray()), graph);
+
+        Assert.assertEquals(3, read.getLandmarkCount());
+        Assert.assertArrayEquals(heuristic.fromLandmarks, read.fromLandmarks, 0f);
+        Assert.assertSame(read.fromLandmarks, read.toLandmarks);
+        for (int i = 0; i < graph.cells.length; i += 7) {
+            Assert.assertEquals(heuristic.estimate(graph.cells[i], graph.cells[0]), read.estimate(graph.cells[i], graph.cells[0]), 0f);
+        }
+    }
+
+    @Test(expected = SerializationException.class)
+    public void read_WhenNodeCountDiffers_ExpectedSerializationException() {
+        TestGridGraph graph = new TestGridGraph(MAZE);
+        LandmarkHeuristic<Cell> heuristic = LandmarkHeuristic.build(graph,
+                LandmarkHeuristic.selectLandmarks(graph, graph.getNode(0, 0), 2));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        heuristic.write(output);
+
+        LandmarkHeuristic.read(new ByteArrayInputStream(output.toByteArray()), new TestGridGraph("...."));
+    }
+
+    private static Cell firstWalkable(TestGridGraph graph) {
+        for (Cell cell : graph.cells) {
+            if (!graph.walls[cell.index]) return cell;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static class RingGraph implements IndexedGraph<Integer> {
+        final Integer[] nodes;
+        final Array<Array<Connection<Integer>>> connections;
+
+        RingGraph(int n, boolean reversed) {
+            nodes = new Integer[n];
+            connections = new Array<>(n);
+            for (int i = 0; i < n; i++) {
+                nodes[i] = i;
+                connections.add(new Array<Connection<Integer>>(1));
+            }
+            for (int i = 0; i < n; i++) {
+                int next = (i + 1) % n;
+                if (reversed) connections.get(next).add(new DefaultConnection<>(nodes[next], nodes[i]));
+                else connections.get(i).add(new DefaultConnection<>(nodes[i], nodes[next]));
+            }
+        }
+
+        @Override
+        public int getIndex(Integer node) {
+            return node;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return nodes.length;
+        }
+
+        @Override
+        public Array<Connection<Integer>> getConnections(Integer fromNode) {
+            return connections.get(fromNode);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.badlogic.gdx.ai.pfa.indexed;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Random;
+
+/**
+ * An 8-connected grid without corner cutting, with straight connections costing 1 and diagonal ones sqrt(2), shared by the grid
+ * path finder tests.
+ */
+class TestGridGraph implements GridGraph<TestGridGraph.Cell> {
+    static final float SQRT2 = 1.4142135f;
+
+    final int width;
+    final int height;
+    final boolean[] walls;
+    final Cell[] cells;
+
+    static final Heuristic<Cell> OCTILE = new Heuristic<Cell>() {
+        @Override
+        public float estimate(Cell node, Cell endNode) {
+            int dx = Math.abs(node.x - endNode.x);
+            int dy = Math.abs(node.y - endNode.y);
+            return Math.max(dx, dy) + (SQRT2 - 1) * Math.min(dx, dy);
+        }
+    };
+
+    TestGridGraph(String... rows) {
+        this(rows[0].length(), rows.length);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                walls[y * width + x] = rows[y].charAt(x) == '#';
+            }
+        }
+        connect();
+    }
+
+    TestGridGraph(int width, int height, float wallDensity, long seed) {
+        this(width, height);
+        Random random = new Random(seed);
+        for (int i = 0; i < walls.length; i++) {
+            walls[i] = random.nextFloat() < wallDensity;
+        }
+        connect();
+    }
+
+    private TestGridGraph(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.walls = new boolean[width * height];
+        this.cells = new Cell[width * height];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Cell(i % width, i / width, i);
+        }
+    }
+
+    private void connect() {
+        for (Cell cell : cells) {
+            cell.connections.clear();
+            if (walls[cell.index]) continue;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dx == 0 && dy == 0) continue;
+                    if (!isWalkable(cell.x + dx, cell.y + dy)) continue;
+                    if (dx != 0 && dy != 0 && (!isWalkable(cell.x + dx, cell.y) || !isWalkable(cell.x, cell.y + dy))) continue;
+                    final boolean diagonal = dx != 0 && dy != 0;
+                    cell.connections.add(new DefaultConnection<Cell>(cell, getNode(cell.x + dx, cell.y + dy)) {
+                        @Override
+                        public float getCost() {
+                            return diagonal ? SQRT2 : 1;
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or removes a wall, updating the connections of the cell and of its neighbors.
+     */
+    void setWall(int x, int y, boolean wall) {
+        walls[y * width + x] = wall;
+        connect();
+    }
+
+    static float cost(Array<Cell> path) {
+        float cost = 0;
+        for (int i = 1; i < path.size; i++) {
+            Cell a = path.get(i - 1);
+            Cell b = path.get(i);
+            Assert.adjacent(a, b);
+            cost += a.x != b.x && a.y != b.y ? SQRT2 : 1;
+        }
+        return cost;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Cell getNode(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && !walls[y * width + x];
+    }
+
+    @Override
+    public int getIndex(Cell node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return cells.length;
+    }
+
+    @Override
+    public Array<Connection<Cell>> getConnections(Cell fromNode) {
+        return fromNode.connections;
+    }
+
+    static class Cell {
+        final int x;
+        final int y;
+        final int index;
+        final Array<Connection<Cell>> connections = new Array<>(8);
+
+        Cell(int x, int y, int index) {
+            this.x = x;
+            this.y = y;
+            this.index = index;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + x + ", " + y + ")";
+        }
+    }
+
+    private static class Assert {
+        static void adjacent(Cell a, Cell b) {
+            org.junit.Assert.assertTrue("Cells " + a + " and " + b + " are not adjacent",
+                    Math.abs(a.x - b.x) <= 1 && Math.abs(a.y - b.y) <= 1 && a != b);
+        }
+    }
+}
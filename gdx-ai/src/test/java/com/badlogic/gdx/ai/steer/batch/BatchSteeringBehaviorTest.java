@@ -0,0 +1,232 @@
+package com.badlogic.gdx.ai.steer.batch;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.SteerableAdapter;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Seek;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BatchSteeringBehaviorTest {
+
+    private static final int NUM_AGENTS = 400;
+
+    private Array<Agent> agents;
+    private Array<Agent> targets;
+    private SteeringBatch batch;
+    private float[] targetPositions;
+
+    @Before
+    public void setUp() {
+        DefaultTimepiece timepiece = new DefaultTimepiece();
+        GdxAI.setTimepiece(timepiece);
+        timepiece.update(1);
+
+        Random random = new Random(3);
+        agents = new Array<>();
+        targets = new Array<>();
+        batch = new SteeringBatch(NUM_AGENTS, 2);
+        targetPositions = new float[NUM_AGENTS * 2];
+        for (int i = 0; i < NUM_AGENTS; i++) {
+            Agent agent = new Agent();
+            agent.position.set(random.nextFloat() * 60, random.nextFloat() * 60);
+            agent.linearVelocity.set(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            agent.boundingRadius = random.nextFloat() * 0.5f;
+            agent.maxLinearSpeed = 3 + random.nextFloat();
+            agent.maxLinearAcceleration = 5 + random.nextFloat() * 5;
+            agent.maxAngularAcceleration = 1;
+            agents.add(agent);
+
+            Agent target = new Agent();
+            target.position.set(i % 7 == 0 ? agent.position : new Vector2(random.nextFloat() * 60, random.nextFloat() * 60));
+            targets.add(target);
+
+            batch.positions[i * 2] = agent.position.x;
+            batch.positions[i * 2 + 1] = agent.position.y;
+            batch.linearVelocities[i * 2] = agent.linearVelocity.x;
+            batch.linearVelocities[i * 2 + 1] = agent.linearVelocity.y;
+            batch.boundingRadii[i] = agent.boundingRadius;
+            batch.maxLinearSpeeds[i] = agent.maxLinearSpeed;
+            batch.maxLinearAccelerations[i] = agent.maxLinearAcceleration;
+            batch.maxAngularAccelerations[i] = agent.maxAngularAcceleration;
+            targetPositions[i * 2] = target.position.x;
+            targetPositions[i * 2 + 1] = target.position.y;
+        }
+        batch.size = NUM_AGENTS;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenOneDimension_ExpectedException() {
+        new SteeringBatch(10, 1);
+    }
+
+    @Test
+    public void calculateSteering_WhenSeek_ExpectedSameAsSeek() {
+        BatchSteeringAcceleration steering = new BatchSteeringAcceleration(batch);
+        new BatchSeek(targetPositions).calculateSteering(batch, steering);
+
+        for (int i = 0; i < NUM_AGENTS; i++)
+            assertSteering(new Seek<>(agents.get(i), targets.get(i)), steering, i);
+    }
+
+    @Test
+    public void calculateSteering_WhenArrive_ExpectedSameAsArrive() {
+        BatchSteeringAcceleration steering = new BatchSteeringAcceleration(batch);
+        new BatchArrive(targetPositions).setArrivalTolerance(0.5f).setDecelerationRadius(10).setTimeToTarget(0.2f)
+                .calculateSteering(batch, steering);
+
+        for (int i = 0; i < NUM_AGENTS; i++) {
+            Arrive<Vector2> arrive = new Arrive<>(agents.get(i), targets.get(i)).setArrivalTolerance(0.5f).setDecelerationRadius(10)
+                    .setTimeToTarget(0.2f);
+            assertSteering(arrive, steering, i);
+        }
+    }
+
+    @Test
+    public void calculateSteering_WhenSeparation_ExpectedSameAsSeparationWithRadiusProximity() {
+        BatchSteeringAcceleration steering = new BatchSteeringAcceleration(batch);
+        new BatchSeparation(2.5f).setDecayCoefficient(4).calculateSteering(batch, steering);
+
+        for (int i = 0; i < NUM_AGENTS; i++) {
+            Separation<Vector2> separation = new Separation<>(agents.get(i), new RadiusProximity<>(agents.get(i), agents, 2.5f))
+                    .setDecayCoefficient(4);
+            assertSteering(separation, steering, i);
+        }
+    }
+
+    @Test
+    public void calculateSteering_WhenSeparationIn3D_ExpectedRepelledAlongEveryAxis() {
+        SteeringBatch batch3 = new SteeringBatch(2, 3).setLimits(10, 100, 1);
+        batch3.size = 2;
+        batch3.positions[3] = 1;
+        batch3.positions[4] = 1;
+        batch3.positions[5] = 1;
+        BatchSteeringAcceleration steering = new BatchSteeringAcceleration(batch3);
+
+        new BatchSeparation(2).calculateSteering(batch3, steering);
+
+        // Strength 1/3 along the normalized direction (-1, -1, -1)
+        float expected = (float) (1 / 3d / Math.sqrt(3));
+        for (int k = 0; k < 3; k++) {
+            Assert.assertEquals(-expected, steering.linear[k], 1e-6f);
+            Assert.assertEquals(expected, steering.linear[3 + k], 1e-6f);
+        }
+    }
+
+    @Test
+    public void calculateSteering_WhenBlended_ExpectedSameAsBlendedSteering() {
+        BatchSteeringAcceleration steering = new BatchSteeringAcceleration(batch);
+        BatchBlendedSteering blended = new BatchBlendedSteering().add(new BatchSeek(targetPositions), 0.7f)
+                .add(new BatchSeparation(2.5f).setDecayCoefficient(4), 2);
+        blended.calculateSteering(batch, steering);
+
+        for (int i = 0; i < NUM_AGENTS; i++) {
+            Agent agent = agents.get(i);
+            BlendedSteering<Vector2> expected = new BlendedSteering<>(agent).add(new Seek<>(agent, targets.get(i)), 0.7f)
+                    .add(new Separation<>(agent, new RadiusProximity<>(agent, agents, 2.5f)).setDecayCoefficient(4), 2);
+            assertSteering(expected, steering, i);
+        }
+    }
+
+    @Test
+    public void calculateSteering_WhenDisabled_ExpectedZeroSteering() {
+        BatchSteeringAcceleration steering = new BatchSteeringAcceleration(batch);
+        for (int i = 0; i < steering.linear.length; i++)
+            steering.linear[i] = 1;
+
+        new BatchSeek(targetPositions).setEnabled(false).calculateSteering(batch, steering);
+
+        for (int i = 0; i < steering.linear.length; i++)
+            Assert.assertEquals(0, steering.linear[i], 0);
+    }
+
+    @Test
+    public void calculateSteering_WhenExecutor_ExpectedSameAsSingleThread() {
+        BatchBlendedSteering blended = new BatchBlendedSteering().add(new BatchArrive(targetPositions).setDecelerationRadius(5), 1)
+                .add(new BatchSeparation(3), 1.5f);
+        BatchSteeringAcceleration expected = new BatchSteeringAcceleration(batch);
+        blended.calculateSteering(batch, expected);
+
+        BatchSteeringAcceleration actual = new BatchSteeringAcceleration(batch);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            blended.calculateSteering(batch, actual, executor, 37);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertArrayEquals(expected.linear, actual.linear, 0);
+        Assert.assertArrayEquals(expected.angular, actual.angular, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void calculateSteering_WhenChunkSizeNotPositive_ExpectedException() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new BatchSeek(targetPositions).calculateSteering(batch, new BatchSteeringAcceleration(batch), executor, 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertSteering(SteeringBehavior<Vector2> behavior, BatchSteeringAcceleration steering, int index) {
+        SteeringAcceleration<Vector2> expected = behavior.calculateSteering(new SteeringAcceleration<>(new Vector2()));
+        float tolerance = 1e-4f * Math.max(1, expected.linear.len());
+        Assert.assertEquals("x of agent " + index, expected.linear.x, steering.linear[index * 2], tolerance);
+        Assert.assertEquals("y of agent " + index, expected.linear.y, steering.linear[index * 2 + 1], tolerance);
+        Assert.assertEquals("angular of agent " + index, expected.angular, steering.angular[index], 1e-6f);
+    }
+
+    private static class Agent extends SteerableAdapter<Vector2> {
+        final Vector2 position = new Vector2();
+        final Vector2 linearVelocity = new Vector2();
+        float boundingRadius;
+        float maxLinearSpeed;
+        float maxLinearAcceleration;
+        float maxAngularAcceleration;
+
+        @Override
+        public Vector2 getPosition() {
+            return position;
+        }
+
+        @Override
+        public Vector2 getLinearVelocity() {
+            return linearVelocity;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return boundingRadius;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return maxLinearSpeed;
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return maxLinearAcceleration;
+        }
+
+        @Override
+        public float getMaxAngularAcceleration() {
+            return maxAngularAcceleration;
+        }
+    }
+}
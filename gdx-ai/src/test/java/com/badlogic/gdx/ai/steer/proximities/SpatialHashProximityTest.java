@@ -0,0 +1,276 @@
+package com.badlogic.gdx.ai.steer.proximities;
+
+import com.badlogic.gdx.ai.DefaultTimepiece;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.steer.Proximity.ProximityCallback;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+public class SpatialHashProximityTest {
+
+    private DefaultTimepiece timepiece;
+
+    @Before
+    public void setUp() {
+        timepiece = new DefaultTimepiece();
+        GdxAI.setTimepiece(timepiece);
+        timepiece.update(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_WhenCellSizeNotPositive_ExpectedException() {
+        new SpatialHashGrid<Vector2>(0);
+    }
+
+    @Test
+    public void findNeighbors_WhenRandom2DFlock_ExpectedSameNeighborsAsRadiusProximity() {
+        Random random = new Random(7);
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(4);
+        for (int i = 0; i < 500; i++) {
+            Vector2 position = new Vector2(random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50);
+            grid.addAgent(new Agent<>(position, random.nextFloat()));
+        }
+
+        for (float radius : new float[]{0.5f, 3, 10, 200}) {
+            for (int i = 0; i < grid.getAgents().size; i++) {
+                Steerable<Vector2> owner = grid.getAgents().get(i);
+                Set<Steerable<Vector2>> expected = collect(new RadiusProximity<>(owner, grid.getAgents(), radius));
+                timepiece.update(1);
+                Set<Steerable<Vector2>> actual = collect(new SpatialHashProximity<>(owner, grid, radius));
+                Assert.assertEquals(expected, actual);
+                Assert.assertFalse(actual.contains(owner));
+            }
+        }
+    }
+
+    @Test
+    public void findNeighbors_WhenRandom3DFlock_ExpectedSameNeighborsAsRadiusProximity() {
+        Random random = new Random(11);
+        SpatialHashGrid<Vector3> grid = new SpatialHashGrid<>(5);
+        for (int i = 0; i < 300; i++) {
+            Vector3 position = new Vector3(random.nextFloat() * 40, random.nextFloat() * 40, random.nextFloat() * 40 - 20);
+            grid.addAgent(new Agent<>(position, 0.5f));
+        }
+
+        for (int i = 0; i < grid.getAgents().size; i++) {
+            Steerable<Vector3> owner = grid.getAgents().get(i);
+            Set<Steerable<Vector3>> expected = collect(new RadiusProximity<>(owner, grid.getAgents(), 4));
+            timepiece.update(1);
+            Set<Steerable<Vector3>> actual = collect(new SpatialHashProximity<>(owner, grid, 4));
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void findNeighbors_WhenCalledTwiceInSameFrame_ExpectedCachedNeighborsAcceptedByCallback() {
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(2);
+        Agent<Vector2> owner = new Agent<>(new Vector2(0, 0), 0);
+        final Agent<Vector2> accepted = new Agent<>(new Vector2(1, 0), 0);
+        Agent<Vector2> rejected = new Agent<>(new Vector2(0, 1), 0);
+        grid.addAgent(owner);
+        grid.addAgent(accepted);
+        grid.addAgent(rejected);
+        SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<>(owner, grid, 2);
+
+        int first = proximity.findNeighbors(new ProximityCallback<Vector2>() {
+            @Override
+            public boolean reportNeighbor(Steerable<Vector2> neighbor) {
+                return neighbor == accepted;
+            }
+        });
+        accepted.getPosition().set(100, 100);
+        Set<Steerable<Vector2>> second = collect(proximity);
+
+        Assert.assertEquals(1, first);
+        Assert.assertEquals(Collections.<Steerable<Vector2>>singleton(accepted), second);
+    }
+
+    @Test
+    public void findNeighbors_WhenAgentsMovedInNextFrame_ExpectedGridRebuilt() {
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(2);
+        Agent<Vector2> owner = new Agent<>(new Vector2(0, 0), 0);
+        Agent<Vector2> other = new Agent<>(new Vector2(50, 50), 0);
+        grid.addAgent(owner);
+        grid.addAgent(other);
+        SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<>(owner, grid, 1);
+        Assert.assertTrue(collect(proximity).isEmpty());
+
+        other.getPosition().set(0.5f, 0);
+        timepiece.update(1);
+
+        Assert.assertEquals(Collections.<Steerable<Vector2>>singleton(other), collect(proximity));
+    }
+
+    @Test
+    public void findNeighbors_WhenAgentRemoved_ExpectedNotReported() {
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(2);
+        Agent<Vector2> owner = new Agent<>(new Vector2(0, 0), 0);
+        Agent<Vector2> other = new Agent<>(new Vector2(0.5f, 0), 0);
+        grid.addAgent(owner);
+        grid.addAgent(other);
+        SpatialHashProximity<Vector2> proximity = new SpatialHashProximity<>(owner, grid, 1);
+        Assert.assertEquals(1, collect(proximity).size());
+
+        Assert.assertTrue(grid.removeAgent(other));
+        Assert.assertFalse(grid.removeAgent(other));
+        timepiece.update(1);
+
+        Assert.assertTrue(collect(proximity).isEmpty());
+    }
+
+    @Test
+    public void findNeighbors_WhenNeighborHasLargeBoundingRadius_ExpectedReportedFromDistantCell() {
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(1);
+        Agent<Vector2> owner = new Agent<>(new Vector2(0, 0), 0);
+        Agent<Vector2> large = new Agent<>(new Vector2(10, 0), 9.5f);
+        grid.addAgent(owner);
+        grid.addAgent(large);
+        for (int i = 0; i < 200; i++)
+            grid.addAgent(new Agent<>(new Vector2(-100 - i, 0), 0));
+
+        Assert.assertEquals(Collections.<Steerable<Vector2>>singleton(large), collect(new SpatialHashProximity<>(owner, grid, 1)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setAgents_ExpectedException() {
+        SpatialHashGrid<Vector2> grid = new SpatialHashGrid<>(1);
+        Agent<Vector2> owner = new Agent<>(new Vector2(), 0);
+        new SpatialHashProximity<>(owner, grid, 1).setAgents(new Array<Steerable<Vector2>>());
+    }
+
+    private static <T extends Vector<T>> Set<Steerable<T>> collect(ProximityBase<T> proximity) {
+        final Set<Steerable<T>> neighbors = Collections.newSetFromMap(new IdentityHashMap<Steerable<T>, Boolean>());
+        int count = proximity.findNeighbors(new ProximityCallback<T>() {
+            @Override
+            public boolean reportNeighbor(Steerable<T> neighbor) {
+                Assert.assertTrue("Neighbor reported twice", neighbors.add(neighbor));
+                return true;
+            }
+        });
+        Assert.assertEquals(neighbors.size(), count);
+        return neighbors;
+    }
+
+    private static class Agent<T extends Vector<T>> implements Steerable<T> {
+        private final T position;
+        private final float boundingRadius;
+        private boolean tagged;
+
+        Agent(T position, float boundingRadius) {
+            this.position = position;
+            this.boundingRadius = boundingRadius;
+        }
+
+        @Override
+        public T getPosition() {
+            return position;
+        }
+
+        @Override
+        public float getBoundingRadius() {
+            return boundingRadius;
+        }
+
+        @Override
+        public boolean isTagged() {
+            return tagged;
+        }
+
+        @Override
+        public void setTagged(boolean tagged) {
+            this.tagged = tagged;
+        }
+
+        @Override
+        public T getLinearVelocity() {
+            return null;
+        }
+
+        @Override
+        public float getAngularVelocity() {
+            return 0;
+        }
+
+        @Override
+        public float getMaxLinearSpeed() {
+            return 0;
+        }
+
+        @Override
+        public void setMaxLinearSpeed(float maxLinearSpeed) {
+        }
+
+        @Override
+        public float getMaxLinearAcceleration() {
+            return 0;
+        }
+
+        @Override
+        public void setMaxLinearAcceleration(float maxLinearAcceleration) {
+        }
+
+        @Override
+        public float getMaxAngularSpeed() {
+            return 0;
+        }
+
+        @Override
+        public void setMaxAngularSpeed(float maxAngularSpeed) {
+        }
+
+        @Override
+        public float getMaxAngularAcceleration() {
+            return 0;
+        }
+
+        @Override
+        public void setMaxAngularAcceleration(float maxAngularAcceleration) {
+        }
+
+        @Override
+        public float getZeroLinearSpeedThreshold() {
+            return 0;
+        }
+
+        @Override
+        public void setZeroLinearSpeedThreshold(float value) {
+        }
+
+        @Override
+        public float getOrientation() {
+            return 0;
+        }
+
+        @Override
+        public void setOrientation(float orientation) {
+        }
+
+        @Override
+        public float vectorToAngle(T vector) {
+            return 0;
+        }
+
+        @Override
+        public T angleToVector(T outVector, float angle) {
+            return outVector;
+        }
+
+        @Override
+        public Location<T> newLocation() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.badlogic.gdx.ai.steer.utils.flowfields;
+
+import com.badlogic.gdx.math.Vector2;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class GridFlowFieldTest {
+
+    private static final float SQRT2 = 1.4142135f;
+    private static final float EPSILON = 0.001f;
+
+    @Test
+    public void generate_OnOpenGrid_ExpectedOctileDistances() {
+        GridFlowField field = new GridFlowField(10, 8, 1);
+        field.addGoal(0, 0);
+
+        field.generate();
+
+        Assert.assertEquals(0, field.getDistance(0, 0), 0);
+        Assert.assertEquals(3 * SQRT2 + 1, field.getDistance(3, 4), EPSILON);
+        Assert.assertEquals(7 * SQRT2 + 2, field.getDistance(9, 7), EPSILON);
+        Assert.assertTrue(field.getFlow(0, 0, new Vector2()).isZero());
+        Vector2 flow = field.getFlow(5, 5, new Vector2());
+        Assert.assertEquals(-1 / SQRT2, flow.x, EPSILON);
+        Assert.assertEquals(-1 / SQRT2, flow.y, EPSILON);
+    }
+
+    @Test
+    public void generate_WithSeveralGoals_ExpectedDistanceToNearestGoal() {
+        GridFlowField field = new GridFlowField(20, 1, 1);
+        field.addGoal(0, 0);
+        field.addGoal(19, 0);
+
+        field.generate();
+
+        Assert.assertEquals(5, field.getDistance(5, 0), 0);
+        Assert.assertEquals(4, field.getDistance(15, 0), 0);
+        Assert.assertEquals(1, field.getFlow(15, 0, new Vector2()).x, 0);
+    }
+
+    @Test
+    public void generate_WithWallsAndCosts_ExpectedFlowLeadingToTheGoalAtTheIntegratedCost() {
+        GridFlowField field = randomField(40, 30, 1);
+        field.generate();
+
+        assertFlowsReachGoal(field);
+    }
+
+    @Test
+    public void generate_WhenGoalIsWalledIn_ExpectedNoFlow() {
+        GridFlowField field = new GridFlowField(5, 5, 1);
+        for (int i = 0; i < 5; i++) {
+            field.setWalkable(2, i, false);
+        }
+        field.addGoal(0, 0);
+
+        field.generate();
+
+        Assert.assertEquals(Float.POSITIVE_INFINITY, field.getDistance(4, 4), 0);
+        Assert.assertTrue(field.getFlow(4, 4, new Vector2()).isZero());
+    }
+
+    @Test
+    public void generate_WhenWallsBlockTheDiagonal_ExpectedNoCornerCutting() {
+        GridFlowField field = new GridFlowField(2, 2, 1);
+        field.setWalkable(1, 0, false);
+        field.addGoal(0, 0);
+
+        field.generate();
+
+        // (1, 1) can't move diagonally next to the wall at (1, 0)
+        Assert.assertEquals(2, field.getDistance(1, 1), 0);
+    }
+
+    @Test
+    public void update_AfterRandomChanges_ExpectedSameDistancesAsFullGeneration() {
+        Random random = new Random(17);
+        GridFlowField field = randomField(30, 30, 2);
+        field.generate();
+
+        for (int round = 0; round < 30; round++) {
+            for (int i = 0; i < 5; i++) {
+                int x = random.nextInt(30), y = random.nextInt(30);
+                float r = random.nextFloat();
+                field.setCost(x, y, r < 0.4f ? Float.POSITIVE_INFINITY : 1 + random.nextInt(4));
+            }
+            field.update();
+
+            GridFlowField reference = copy(field);
+            reference.generate();
+            assertSameDistances(reference, field);
+            assertFlowsReachGoal(field);
+        }
+    }
+
+    @Test
+    public void generate_WithExecutor_ExpectedSameDistancesAsSingleThreadedGeneration() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int seed = 0; seed < 5; seed++) {
+                GridFlowField field = randomField(64, 48, seed);
+                GridFlowField reference = copy(field);
+
+                field.generate(executor, 8);
+                reference.generate();
+
+                assertSameDistances(reference, field);
+                assertFlowsReachGoal(field);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void lookup_ExpectedFlowOfTheCellContainingThePosition() {
+        GridFlowField field = new GridFlowField(4, 4, 2, -4, -4);
+        field.addGoal(3, 0);
+        field.generate();
+
+        Vector2 flow = field.lookup(new Vector2(-3, -3));
+        Assert.assertEquals(1, flow.x, 0);
+        Assert.assertEquals(0, flow.y, 0);
+        Assert.assertNull(field.lookup(new Vector2(4.5f, 0)));
+        Assert.assertNull(field.lookup(new Vector2(-4.5f, 0)));
+    }
+
+    private static GridFlowField randomField(int width, int height, long seed) {
+        Random random = new Random(seed);
+        GridFlowField field = new GridFlowField(width, height, 1);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float r = random.nextFloat();
+                if (r < 0.25f) field.setWalkable(x, y, false);
+                else if (r < 0.4f) field.setCost(x, y, 3);
+            }
+        }
+        field.setWalkable(width / 2, height / 2, true);
+        field.addGoal(width / 2, height / 2);
+        field.setWalkable(1, 1, true);
+        field.addGoal(1, 1);
+        return field;
+    }
+
+    private static GridFlowField copy(GridFlowField field) {
+        GridFlowField copy = new GridFlowField(field.getWidth(), field.getHeight(), field.getCellSize());
+        System.arraycopy(field.costs, 0, copy.costs, 0, field.costs.length);
+        copy.goals.addAll(field.goals);
+        return copy;
+    }
+
+    private static void assertSameDistances(GridFlowField expected, GridFlowField actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                float e = expected.getDistance(x, y), a = actual.getDistance(x, y);
+                if (e == Float.POSITIVE_INFINITY) Assert.assertEquals("Distance at " + x + ", " + y, e, a, 0);
+                else Assert.assertEquals("Distance at " + x + ", " + y, e, a, EPSILON * e);
+            }
+        }
+    }
+
+    /**
+     * Follows the flow from every cell and checks the cost of the walk is the distance of the cell.
+     */
+    private static void assertFlowsReachGoal(GridFlowField field) {
+        Vector2 flow = new Vector2();
+        for (int y = 0; y < field.getHeight(); y++) {
+            for (int x = 0; x < field.getWidth(); x++) {
+                float distance = field.getDistance(x, y);
+                if (distance == Float.POSITIVE_INFINITY) continue;
+
+                int cx = x, cy = y;
+                float cost = 0;
+                for (int steps = 0; !field.getFlow(cx, cy, flow).isZero(); steps++) {
+                    Assert.assertTrue(steps < field.getWidth() * field.getHeight());
+                    int dx = Math.round(Math.signum(flow.x)), dy = Math.round(Math.signum(flow.y));
+                    cx += dx;
+                    cy += dy;
+                    Assert.assertTrue(field.isWalkable(cx, cy));
+                    if (dx != 0 && dy != 0) {
+                        Assert.assertTrue(field.isWalkable(cx - dx, cy) && field.isWalkable(cx, cy - dy));
+                    }
+                    cost += field.getCost(cx, cy) * (dx != 0 && dy != 0 ? SQRT2 : 1);
+                }
+                Assert.assertEquals(0, field.getDistance(cx, cy), 0);
+                Assert.assertEquals(distance, cost, EPSILON * Math.max(1, distance));
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.badlogic.gdx.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link Pool} that can be used from any number of threads at the same time. {@link #newObject()} may be called concurrently
+ * and must be thread safe.
+ * <p>
+ * Each thread caches free objects in two magazines of its own, so most calls to {@link #obtain()} and {@link #free(Object)} touch
+ * no shared state. When both magazines of a thread are full, one is handed to a depot shared by all the threads, and when both are
+ * empty a full one is taken back from the depot. The depot is a bounded lock-free queue which never allocates, so a pool that has
+ * warmed up doesn't allocate either. Objects may be freed from another thread than the one that obtained them.
+ * <p>
+ * {@link #max} bounds the free objects kept in the depot, rounded up to whole magazines and to at least two magazines, and each
+ * thread caches up to two magazines on top of it. The depot is allocated up front, so it also never holds more than 4096
+ * magazines: a pool with a larger max, such as the default {@link Integer#MAX_VALUE}, keeps at most {@code 4096 * magazineSize}
+ * free objects in its depot (65,536 with the default magazine size) and discards the objects freed beyond that.
+ * {@link #getFree()} and {@link #fill(int)} see the depot and the magazines of the calling thread only, and {@link #clear()}
+ * can't discard the objects cached by other threads.
+ */
+public abstract class ConcurrentPool<T> extends Pool<T> {
+    static private final int MAX_DEPOT_MAGAZINES = 4096;
+
+    /**
+     * The number of free objects in a magazine.
+     */
+    public final int magazineSize;
+
+    private final MagazineQueue fullMagazines;
+    private final MagazineQueue emptyMagazines;
+    private final ThreadLocal<Magazines> localMagazines = new ThreadLocal<>();
+    private final AtomicInteger peakFree = new AtomicInteger();
+
+    public ConcurrentPool() {
+        this(16, Integer.MAX_VALUE);
+    }
+
+    public ConcurrentPool(int magazineSize) {
+        this(magazineSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param magazineSize The number of free objects in a magazine, capped by the max.
+     * @param max          The maximum number of free objects kept in the depot, which can't exceed 4096 magazines.
+     */
+    public ConcurrentPool(int magazineSize, int max) {
+        super(0, max);
+        if (magazineSize <= 0) throw new IllegalArgumentException("magazineSize must be > 0: " + magazineSize);
+        if (max < 0) throw new IllegalArgumentException("max must be >= 0: " + max);
+        this.magazineSize = Math.min(magazineSize, Math.max(1, max));
+        int depotMagazines = (int) Math.min((max + (long) this.magazineSize - 1) / this.magazineSize, MAX_DEPOT_MAGAZINES);
+        // The depot queue can't tell a full slot from an empty one with a single slot
+        if (depotMagazines == 1) depotMagazines = 2;
+        fullMagazines = new MagazineQueue(depotMagazines);
+        emptyMagazines = new MagazineQueue(depotMagazines);
+    }
+
+    @Override
+    public T obtain() {
+        Magazines local = localMagazines();
+        Magazine loaded = local.loaded;
+        if (loaded.count == 0) {
+            if (local.previous.count > 0) {
+                local.loaded = local.previous;
+                local.previous = loaded;
+                loaded = local.loaded;
+            } else {
+                Magazine full = fullMagazines.poll();
+                if (full == null) {
+                    T object = newObject();
+                    if (stats != null) stats.obtained(object, true);
+                    return object;
+                }
+                // Both local magazines are empty, one of them goes back to the depot.
+                emptyMagazines.offer(local.previous);
+                local.previous = loaded;
+                local.loaded = loaded = full;
+            }
+        }
+        Object[] objects = loaded.objects;
+        @SuppressWarnings("unchecked")
+        T object = (T) objects[--loaded.count];
+        objects[loaded.count] = null;
+        if (stats != null) stats.obtained(object, false);
+        return object;
+    }
+
+    /**
+     * Puts the specified object in the pool, making it eligible to be returned by {@link #obtain()}. If the magazines of the
+     * calling thread are full and the depot is full, the specified object is
+     * {@link #discard(Object) discarded}, it is not reset and not added to the pool.
+     * <p>
+     * The pool does not check if an object is already freed, so the same object must not be freed multiple times.
+     */
+    @Override
+    public void free(T object) {
+        Magazines local = localMagazines();
+        if (!put(local, object)) {
+            if (stats != null) stats.freed(object, true);
+            discard(object);
+            return;
+        }
+        if (stats != null) stats.freed(object, false);
+        reset(object);
+        updatePeak(local);
+    }
+
+    @Override
+    public void freeAll(Array<T> objects) {
+        Magazines local = localMagazines();
+        for (int i = 0, n = objects.size; i < n; i++) {
+            T object = objects.get(i);
+            if (object == null) continue;
+            boolean added = put(local, object);
+            if (stats != null) stats.freed(object, !added);
+            if (added)
+                reset(object);
+            else
+                discard(object);
+        }
+        updatePeak(local);
+    }
+
+    /**
+     * Adds the specified number of new free objects to the magazines of the calling thread and to the depot.
+     */
+    @Override
+    public void fill(int size) {
+        Magazines local = localMagazines();
+        for (int i = 0; i < size; i++)
+            if (!put(local, newObject())) break;
+        updatePeak(local);
+    }
+
+    /**
+     * Removes and discards all free objects of the depot and of the magazines of the calling thread.
+     */
+    @Override
+    public void clear() {
+        Magazines local = localMagazines();
+        discardAll(local.loaded);
+        discardAll(local.previous);
+        Magazine magazine;
+        while ((magazine = fullMagazines.poll()) != null) {
+            discardAll(magazine);
+            emptyMagazines.offer(magazine);
+        }
+    }
+
+    /**
+     * The number of objects available to be obtained by the calling thread without creating new ones.
+     */
+    @Override
+    public int getFree() {
+        return getFree(localMagazines());
+    }
+
+    /**
+     * The highest number of free objects seen by a thread freeing or filling. Can be reset at any time.
+     */
+    @Override
+    public int getPeak() {
+        return peakFree.get();
+    }
+
+    @Override
+    public void setPeak(int peak) {
+        peakFree.set(peak);
+    }
+
+    private int getFree(Magazines local) {
+        return local.loaded.count + local.previous.count + fullMagazines.size() * magazineSize;
+    }
+
+    private void updatePeak(Magazines local) {
+        int free = getFree(local);
+        for (int peak; free > (peak = peakFree.get()); )
+            if (peakFree.compareAndSet(peak, free)) break;
+    }
+
+    /**
+     * Adds the object to the loaded magazine, exchanging magazines with the depot when both are full. Returns false if the depot
+     * has no room for a full magazine.
+     */
+    private boolean put(Magazines local, T object) {
+        Magazine loaded = local.loaded;
+        if (loaded.count == magazineSize) {
+            Magazine previous = local.previous;
+            if (previous.count == 0) {
+                local.loaded = previous;
+                local.previous = loaded;
+                loaded = previous;
+            } else {
+                if (!fullMagazines.offer(previous)) return false;
+                Magazine empty = emptyMagazines.poll();
+                if (empty == null) empty = new Magazine(magazineSize);
+                local.previous = loaded;
+                local.loaded = loaded = empty;
+            }
+        }
+        loaded.objects[loaded.count++] = object;
+        return true;
+    }
+
+    private void discardAll(Magazine magazine) {
+        if (stats != null) stats.cleared(magazine.count);
+        Object[] objects = magazine.objects;
+        for (int i = 0, n = magazine.count; i < n; i++) {
+            @SuppressWarnings("unchecked")
+            T object = (T) objects[i];
+            discard(object);
+            objects[i] = null;
+        }
+        magazine.count = 0;
+    }
+
+    private Magazines localMagazines() {
+        Magazines local = localMagazines.get();
+        if (local == null) {
+            local = new Magazines();
+            local.loaded = new Magazine(magazineSize);
+            local.previous = new Magazine(magazineSize);
+            localMagazines.set(local);
+        }
+        return local;
+    }
+
+    static private final class Magazines {
+        Magazine loaded, previous;
+    }
+
+    static private final class Magazine {
+        final Object[] objects;
+        int count;
+
+        Magazine(int size) {
+            objects = new Object[size];
+        }
+    }
+
+    /**
+     * A bounded multi-producer multi-consumer queue of magazines. Each slot has a sequence number telling whether it's ready to be
+     * written or read at a given position, which keeps the queue free of locks, ABA problems and allocations.
+     */
+    static private final class MagazineQueue {
+        private final Magazine[] magazines;
+        private final AtomicLongArray sequences;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        MagazineQueue(int capacity) {
+            magazines = new Magazine[capacity];
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++)
+                sequences.set(i, i);
+        }
+
+        boolean offer(Magazine magazine) {
+            int capacity = magazines.length;
+            if (capacity == 0) return false;
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position % capacity);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        magazines[index] = magazine;
+                        sequences.lazySet(index, position + 1);
+                        return true;
+                    }
+                } else if (difference < 0) {
+                    return false; // Full.
+                }
+                position = tail.get();
+            }
+        }
+
+        @Null
+        Magazine poll() {
+            int capacity = magazines.length;
+            if (capacity == 0) return null;
+            long position = head.get();
+            while (true) {
+                int index = (int) (position % capacity);
+                long difference = sequences.get(index) - (position + 1);
+                if (difference == 0) {
+                    if (head.compareAndSet(position, position + 1)) {
+                        Magazine magazine = magazines[index];
+                        magazines[index] = null;
+                        sequences.lazySet(index, position + capacity);
+                        return magazine;
+                    }
+                } else if (difference < 0) {
+                    return null; // Empty.
+                }
+                position = head.get();
+            }
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+    }
+}
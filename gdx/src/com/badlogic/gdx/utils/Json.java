@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Info : This class was moved to Kerman game engine.
@@ -48,6 +49,8 @@ public class Json {
     private boolean readDeprecated;
     private boolean enumNames = true;
     private boolean sortFields;
+    private @Null FieldAccessorFactory fieldAccessorFactory;
+    private @Null ForkJoinPool parallelPool;
     private Serializer defaultSerializer;
 
     public Json() {
@@ -204,6 +207,25 @@ public class Json {
         this.sortFields = sortFields;
     }
 
+    /**
+     * Sets the factory creating the accessors used to read and write fields, eg to replace reflection with a faster mechanism of
+     * the platform. When null, or when the factory returns null for a field, {@link Field#get(Object)} and
+     * {@link Field#set(Object, Object)} are used. Only affects the classes whose fields are first used after it's set. Default is
+     * null.
+     */
+    public void setFieldAccessorFactory(@Null FieldAccessorFactory fieldAccessorFactory) {
+        this.fieldAccessorFactory = fieldAccessorFactory;
+    }
+
+    /**
+     * When set, {@link #fromJson(Class, FileHandle)} and {@link #fromJson(Class, Class, FileHandle)} parse files for
+     * {@link Array} and array types with {@link JsonReader#parseParallel(FileHandle, ForkJoinPool)}, which decodes the elements
+     * on the pool. The objects are still created on the calling thread. Default is null.
+     */
+    public void setParallelPool(@Null ForkJoinPool parallelPool) {
+        this.parallelPool = parallelPool;
+    }
+
     /**
      * Called to sort the fields for a class. Default implementation sorts alphabetically if {@link #setSortFields(boolean)} is
      * true.
@@ -242,7 +264,7 @@ public class Json {
                 }
             }
 
-            nameToField.put(field.getName(), new FieldMetadata(field));
+            nameToField.put(field.getName(), new FieldMetadata(field, fieldAccessorFactory));
         }
         sortFields(type, nameToField.keys);
         typeToFields.put(type, nameToField);
@@ -360,7 +382,7 @@ public class Json {
             if (ignoreDeprecated && metadata.deprecated) continue;
             Field field = metadata.field;
             try {
-                Object value = field.get(object);
+                Object value = metadata.get(object);
                 if (defaultValues != null) {
                     Object defaultValue = defaultValues[defaultIndex++];
                     if (value == null && defaultValue == null) continue;
@@ -412,7 +434,7 @@ public class Json {
             if (ignoreDeprecated && metadata.deprecated) continue;
             Field field = metadata.field;
             try {
-                values[defaultIndex++] = field.get(object);
+                values[defaultIndex++] = metadata.get(object);
             } catch (ReflectionException ex) {
                 throw new SerializationException("Error accessing field: " + field.getName() + " (" + type.getName() + ")", ex);
             } catch (SerializationException ex) {
@@ -463,7 +485,7 @@ public class Json {
         try {
             if (debug) System.out.println("Writing field: " + field.getName() + " (" + type.getName() + ")");
             writer.name(jsonName);
-            writeValue(field.get(object), field.getType(), elementType);
+            writeValue(metadata.get(object), field.getType(), elementType);
         } catch (ReflectionException ex) {
             throw new SerializationException("Error accessing field: " + field.getName() + " (" + type.getName() + ")", ex);
         } catch (SerializationException ex) {
@@ -891,7 +913,7 @@ public class Json {
      */
     public @Null <T> T fromJson(Class<T> type, FileHandle file) {
         try {
-            return readValue(type, null, this.reader.parse(file));
+            return readValue(type, null, parse(type, file));
         } catch (Exception ex) {
             throw new SerializationException("Error reading file: " + file, ex);
         }
@@ -904,12 +926,18 @@ public class Json {
      */
     public @Null <T> T fromJson(Class<T> type, Class elementType, FileHandle file) {
         try {
-            return readValue(type, elementType, this.reader.parse(file));
+            return readValue(type, elementType, parse(type, file));
         } catch (Exception ex) {
             throw new SerializationException("Error reading file: " + file, ex);
         }
     }
 
+    private @Null JsonValue parse(@Null Class type, FileHandle file) {
+        if (parallelPool != null && type != null && (type.isArray() || ClassReflection.isAssignableFrom(Array.class, type)))
+            return reader.parseParallel(file, parallelPool);
+        return reader.parse(file);
+    }
+
     /**
      * @param type May be null if the type is unknown.
      * @return May be null.
@@ -975,7 +1003,12 @@ public class Json {
         JsonValue jsonValue = jsonMap.get(jsonName);
         if (jsonValue == null) return;
         try {
-            field.set(object, readValue(field.getType(), elementType, jsonValue));
+            Object value = readValue(field.getType(), elementType, jsonValue);
+            FieldMetadata metadata = getFieldMetadata(object, field);
+            if (metadata != null)
+                metadata.set(object, value);
+            else
+                field.set(object, value);
         } catch (ReflectionException ex) {
             throw new SerializationException(
                     "Error accessing field: " + field.getName() + " (" + field.getDeclaringClass().getName() + ")", ex);
@@ -990,11 +1023,22 @@ public class Json {
         }
     }
 
+    /**
+     * Returns the metadata of the field, so it is written through its {@link FieldAccessor}, or null if the field isn't one of the
+     * serialized fields of the object's class.
+     */
+    private @Null FieldMetadata getFieldMetadata(@Null Object object, Field field) {
+        if (object == null) return null;
+        FieldMetadata metadata = getFields(object.getClass()).get(field.getName());
+        if (metadata == null || metadata.field.getDeclaringClass() != field.getDeclaringClass()) return null;
+        return metadata;
+    }
+
     public void readFields(Object object, JsonValue jsonMap) {
         Class type = object.getClass();
         OrderedMap<String, FieldMetadata> fields = getFields(type);
         for (JsonValue child = jsonMap.child; child != null; child = child.next) {
-            FieldMetadata metadata = fields.get(child.name().replace(" ", "_"));
+            FieldMetadata metadata = fields.get(child.name().replace(' ', '_'));
             if (metadata == null) {
                 if (child.name.equals(typeName)) continue;
                 if (ignoreUnknownFields || ignoreUnknownField(type, child.name)) {
@@ -1011,7 +1055,7 @@ public class Json {
             }
             Field field = metadata.field;
             try {
-                field.set(object, readValue(field.getType(), metadata.elementType, child));
+                metadata.set(object, readValue(field.getType(), metadata.elementType, child));
             } catch (ReflectionException ex) {
                 throw new SerializationException("Error accessing field: " + field.getName() + " (" + type.getName() + ")", ex);
             } catch (SerializationException ex) {
@@ -1313,7 +1357,7 @@ public class Json {
             Field fromField = entry.value.field;
             if (toField == null) throw new SerializationException("To object is missing field: " + entry.key);
             try {
-                toField.field.set(to, fromField.get(from));
+                toField.set(to, entry.value.get(from));
             } catch (ReflectionException ex) {
                 throw new SerializationException("Error copying field: " + fromField.getName(), ex);
             }
@@ -1394,17 +1438,51 @@ public class Json {
         void read(Json json, JsonValue jsonData);
     }
 
+    /**
+     * Reads and writes the value of a field of an object.
+     *
+     * @see Json#setFieldAccessorFactory(FieldAccessorFactory)
+     */
+    public interface FieldAccessor {
+        @Null
+        Object get(Object object) throws ReflectionException;
+
+        void set(Object object, @Null Object value) throws ReflectionException;
+    }
+
+    public interface FieldAccessorFactory {
+        /**
+         * Returns the accessor of the specified field, or null to use reflection. The field has been made accessible.
+         */
+        @Null
+        FieldAccessor newFieldAccessor(Field field);
+    }
+
     static private class FieldMetadata {
         final Field field;
         Class elementType;
         boolean deprecated;
+        @Null
+        final FieldAccessor accessor;
 
-        public FieldMetadata(Field field) {
+        public FieldMetadata(Field field, @Null FieldAccessorFactory accessorFactory) {
             this.field = field;
             int index = (ClassReflection.isAssignableFrom(ObjectMap.class, field.getType())
                     || ClassReflection.isAssignableFrom(Map.class, field.getType())) ? 1 : 0;
             this.elementType = field.getElementType(index);
             deprecated = field.isAnnotationPresent(Deprecated.class);
+            accessor = accessorFactory == null ? null : accessorFactory.newFieldAccessor(field);
+        }
+
+        Object get(Object object) throws ReflectionException {
+            return accessor == null ? field.get(object) : accessor.get(object);
+        }
+
+        void set(Object object, @Null Object value) throws ReflectionException {
+            if (accessor == null)
+                field.set(object, value);
+            else
+                accessor.set(object, value);
         }
     }
 
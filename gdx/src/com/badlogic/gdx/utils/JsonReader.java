@@ -11,8 +11,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Info : This class was moved to Kerman game engine.
@@ -158,6 +160,47 @@ public class JsonReader implements BaseJsonReader {
         }
     }
 
+    /**
+     * Parses the UTF-8 JSON file in parallel, memory mapping it unless it's a classpath file.
+     *
+     * @see #parseParallel(ByteBuffer, ForkJoinPool)
+     */
+    public @Null JsonValue parseParallel(FileHandle file, ForkJoinPool pool) {
+        try {
+            return parseParallel(JsonStreamReader.map(file), pool);
+        } catch (Exception ex) {
+            throw new SerializationException("Error parsing file: " + file, ex);
+        }
+    }
+
+    /**
+     * Parses the UTF-8 JSON in the remaining bytes of the buffer. When the root is an array, the boundaries of its elements are
+     * found with a scan that only follows brackets, strings and comments, then chunks of elements are decoded on the pool and
+     * linked in their order. Other roots are decoded on the calling thread.
+     * <p>
+     * The values are the same as {@link #parse(String)} returns, but they are built by {@link JsonStreamReader}, so the methods
+     * of this reader called for each object, array and value are not used.
+     */
+    public @Null JsonValue parseParallel(ByteBuffer buffer, ForkJoinPool pool) {
+        JsonStreamReader reader = new JsonStreamReader(buffer);
+        JsonStreamReader.Event event = reader.next();
+        if (event == JsonStreamReader.Event.end) return null;
+        if (event != JsonStreamReader.Event.startArray) {
+            JsonValue root = reader.readValue();
+            reader.next(); // Fails if anything follows the root.
+            return root;
+        }
+        ParallelArrayDecoder decoder = new ParallelArrayDecoder(buffer.remaining(), pool) {
+            @Override
+            void decode(int start, int limit, int count, JsonValue array) {
+                new JsonStreamReader(buffer.duplicate()).readElements(start, limit, count, array);
+            }
+        };
+        reader.scanElements(decoder);
+        reader.next(); // Fails if anything follows the root.
+        return decoder.decode(pool);
+    }
+
     public JsonValue parse(char[] data, int offset, int length) {
         stop = false;
         int cs, p = offset, pe = length, eof = pe, top = 0;
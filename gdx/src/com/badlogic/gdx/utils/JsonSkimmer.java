@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
@@ -172,6 +173,41 @@ public class JsonSkimmer {
         }
     }
 
+    /**
+     * Parses UTF-8 JSON from the remaining bytes of the buffer, such as a {@link FileHandle#map() memory mapped} file, without
+     * reading the whole input into a char array first. Each name and value is decoded to a reused char array when it's reached.
+     *
+     * @see JsonStreamReader
+     */
+    public void parse(ByteBuffer buffer) {
+        stop = false;
+        JsonStreamReader reader = new JsonStreamReader(buffer);
+        JsonToken nameString = this.nameString, value = this.value;
+        CharArray nameChars = new CharArray(32), valueChars = new CharArray(32);
+        while (true) {
+            JsonStreamReader.Event event = reader.next();
+            JsonToken name = reader.hasName() ? reader.nameToken(nameString, nameChars) : null;
+            switch (event) {
+                case startObject:
+                    push(name, true);
+                    break;
+                case startArray:
+                    push(name, false);
+                    break;
+                case endObject:
+                case endArray:
+                    pop();
+                    break;
+                case value:
+                    value(name, reader.valueToken(value, valueChars));
+                    break;
+                default:
+                    return;
+            }
+            if (stop) return;
+        }
+    }
+
     // line 323 "JsonSkimmer.rl"
 
     public void parse(char[] data, int offset, int length) {
@@ -0,0 +1,929 @@
+package com.badlogic.gdx.utils;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonSkimmer.JsonToken;
+import com.badlogic.gdx.utils.JsonSkimmer.JsonToken.TokenType;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Pull parser for UTF-8 JSON that reads straight from a {@link ByteBuffer}, such as a {@link FileHandle#map() memory mapped}
+ * file, without copying the input to a char array and without building a {@link JsonValue} tree. The same relaxed syntax as
+ * {@link JsonReader} is supported: comments, unquoted names and values, and optional commas.
+ * <p>
+ * {@link #next()} moves to the next event. Names and values are only decoded when asked for, {@link #skip()} passes over a
+ * whole object or array, and {@link #readValue()} materializes only the current object, array or value. This allows a few
+ * values to be pulled out of a huge document with little allocation:
+ *
+ * <pre>
+ * JsonStreamReader reader = new JsonStreamReader(file);
+ * reader.next(); // The root object.
+ * if (reader.find("settings")) settings = reader.readValue();
+ * </pre>
+ * <p>
+ * The buffer's position and limit are read when the reader is created and are not changed.
+ *
+ * @see JsonSkimmer#parse(ByteBuffer)
+ */
+public class JsonStreamReader {
+    private final ByteBuffer buffer;
+    private final int start, end;
+    private int p;
+
+    private Event event;
+    private boolean[] objects = new boolean[8];
+    private int depth;
+    private boolean afterElement, rootRead;
+
+    private boolean hasName, nameEscaped;
+    private int nameStart, nameLength;
+    private boolean valueQuoted, valueEscaped;
+    private int valueStart, valueLength;
+    private @Null ValueType valueType;
+    private long longValue;
+    private double doubleValue;
+
+    private final CharArray chars = new CharArray(32);
+
+    /**
+     * Reads from the remaining bytes of the buffer. A leading byte order mark is skipped.
+     */
+    public JsonStreamReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int start = buffer.position();
+        end = buffer.limit();
+        if (end - start >= 3 && buffer.get(start) == (byte) 0xef && buffer.get(start + 1) == (byte) 0xbb
+                && buffer.get(start + 2) == (byte) 0xbf) start += 3;
+        this.start = start;
+        p = start;
+    }
+
+    /**
+     * Reads from the file, which is memory mapped unless it's a {@link FileType#Classpath} file.
+     */
+    public JsonStreamReader(FileHandle file) {
+        this(map(file));
+    }
+
+    /**
+     * Moves to the next object, array, value or end of an object or array.
+     *
+     * @return {@link Event#end} once the root value has been read.
+     * @throws SerializationException if the JSON is invalid.
+     */
+    public Event next() {
+        hasName = false;
+        valueType = null;
+        int p = skipWhitespace(this.p);
+        if (depth == 0) {
+            if (p != end && rootRead) throw error("unexpected data after the root value", p);
+            if (p == end) {
+                this.p = p;
+                return event = Event.end;
+            }
+            return value(p);
+        }
+        if (p == end) throw error(objects[depth - 1] ? "unmatched brace" : "unmatched bracket", p);
+        byte b = buffer.get(p);
+        if (b == ',') {
+            if (!afterElement) throw error("unexpected ','", p);
+            afterElement = false;
+            p = skipWhitespace(p + 1);
+            if (p == end) throw error(objects[depth - 1] ? "unmatched brace" : "unmatched bracket", p);
+            b = buffer.get(p);
+        }
+        if (objects[depth - 1]) {
+            if (b == '}') return pop(p, Event.endObject);
+            p = name(p);
+        } else if (b == ']') //
+            return pop(p, Event.endArray);
+        return value(p);
+    }
+
+    /**
+     * Returns the event {@link #next()} moved to, or null before the first call.
+     */
+    public @Null Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the number of objects and arrays the reader is in. Starting an object or array increases it.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns true if the current object, array or value is a member of an object.
+     */
+    public boolean hasName() {
+        return hasName;
+    }
+
+    /**
+     * Allocates the unescaped name of the current object, array or value.
+     *
+     * @return May be null if it's not a member of an object.
+     */
+    public @Null String getName() {
+        if (!hasName) return null;
+        return decode(nameStart, nameLength, nameEscaped, chars).toString();
+    }
+
+    /**
+     * Returns true if the name of the current object, array or value is the specified string. Doesn't allocate unless the name
+     * has escapes or non-ASCII characters.
+     */
+    public boolean nameEquals(String name) {
+        if (!hasName || name == null) return false;
+        int length = nameLength, n = name.length();
+        if (length < n) return false; // A character takes at least one byte.
+        if (!nameEscaped && length == n) {
+            ByteBuffer buffer = this.buffer;
+            for (int i = 0, b = nameStart; i < n; i++, b++) {
+                byte c = buffer.get(b);
+                if (c < 0) return decode(nameStart, length, false, chars).equalsString(name);
+                if (c != name.charAt(i)) return false;
+            }
+            return true;
+        }
+        return decode(nameStart, length, nameEscaped, chars).equalsString(name);
+    }
+
+    /**
+     * Returns the type of the current object, array or value, or null after the end of an object or array. For values the type
+     * is found the same way as {@link JsonReader} does: unquoted true, false, null and numbers have their own type, anything
+     * else is a string.
+     */
+    public @Null ValueType getType() {
+        if (event == null) return null;
+        switch (event) {
+            case startObject:
+                return ValueType.objectValue;
+            case startArray:
+                return ValueType.array;
+            case value:
+                if (valueType == null) valueType = valueType();
+                return valueType;
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the current value is an unquoted null.
+     */
+    public boolean isNull() {
+        return event == Event.value && !valueQuoted && equalsAscii(valueStart, valueLength, "null");
+    }
+
+    /**
+     * Allocates the unescaped string of the current value.
+     *
+     * @return May be null if the value is null.
+     * @throws IllegalStateException if the current event is not a value.
+     */
+    public @Null String getString() {
+        checkValue();
+        if (isNull()) return null;
+        return decode(valueStart, valueLength, valueEscaped, chars).toString();
+    }
+
+    /**
+     * Returns the current value as a long, parsed without allocating unless it's a string or a double.
+     *
+     * @throws IllegalStateException if the current event is not a value or the value is null.
+     */
+    public long getLong() {
+        checkValue();
+        ValueType type = getType();
+        switch (type) {
+            case stringValue:
+                return Long.parseLong(getString());
+            case doubleValue:
+                return (long) doubleValue;
+            case longValue:
+                return longValue;
+            case booleanValue:
+                return longValue;
+        }
+        throw new IllegalStateException("Value cannot be converted to long: " + type);
+    }
+
+    /**
+     * Returns the current value as an int.
+     *
+     * @throws IllegalStateException if the current event is not a value or the value is null.
+     */
+    public int getInt() {
+        return (int) getLong();
+    }
+
+    /**
+     * Returns the current value as a double.
+     *
+     * @throws IllegalStateException if the current event is not a value or the value is null.
+     */
+    public double getDouble() {
+        checkValue();
+        ValueType type = getType();
+        switch (type) {
+            case stringValue:
+                return Double.parseDouble(getString());
+            case doubleValue:
+                return doubleValue;
+            case longValue:
+                return longValue;
+            case booleanValue:
+                return longValue;
+        }
+        throw new IllegalStateException("Value cannot be converted to double: " + type);
+    }
+
+    /**
+     * Returns the current value as a float.
+     *
+     * @throws IllegalStateException if the current event is not a value or the value is null.
+     */
+    public float getFloat() {
+        return (float) getDouble();
+    }
+
+    /**
+     * Returns the current value as a boolean.
+     *
+     * @throws IllegalStateException if the current event is not a value or the value is null.
+     */
+    public boolean getBoolean() {
+        checkValue();
+        ValueType type = getType();
+        switch (type) {
+            case stringValue:
+                return getString().equalsIgnoreCase("true");
+            case doubleValue:
+                return doubleValue != 0;
+            case longValue:
+            case booleanValue:
+                return longValue != 0;
+        }
+        throw new IllegalStateException("Value cannot be converted to boolean: " + type);
+    }
+
+    /**
+     * If the current event starts an object or array, moves to its end without decoding anything inside it. Otherwise does
+     * nothing.
+     */
+    public void skip() {
+        if (event != Event.startObject && event != Event.startArray) return;
+        int depth = this.depth - 1;
+        while (this.depth > depth)
+            next();
+    }
+
+    /**
+     * Moves to the member with the specified name of the object the reader is in, skipping the members before it.
+     *
+     * @return False if the end of the object was reached without finding the member.
+     * @throws IllegalStateException if the reader is not in an object.
+     */
+    public boolean find(String name) {
+        int depth = this.depth;
+        if (depth == 0 || !objects[depth - 1]) throw new IllegalStateException("The reader is not in an object.");
+        while (true) {
+            Event event = next();
+            if (event == Event.endObject && this.depth < depth) return false;
+            if (nameEquals(name)) return true;
+            skip();
+        }
+    }
+
+    /**
+     * Materializes the current object, array or value and its name, and moves to the end of it. Nothing else is read, so this
+     * can be used to build the few subtrees that are needed from a huge document.
+     *
+     * @throws IllegalStateException if the current event doesn't start an object, array or value.
+     */
+    public JsonValue readValue() {
+        if (event == Event.value) {
+            JsonValue value = value();
+            value.setName(getName());
+            return value;
+        }
+        if (event != Event.startObject && event != Event.startArray)
+            throw new IllegalStateException("The current event is not an object, array or value: " + event);
+        JsonValue root = new JsonValue(event == Event.startObject ? ValueType.objectValue : ValueType.array);
+        root.setName(getName());
+        JsonValue current = root;
+        int depth = this.depth - 1;
+        while (true) {
+            switch (next()) {
+                case startObject:
+                case startArray:
+                    JsonValue child = new JsonValue(event == Event.startObject ? ValueType.objectValue : ValueType.array);
+                    child.setName(getName());
+                    current.addChild(child);
+                    current = child;
+                    break;
+                case value:
+                    JsonValue value = value();
+                    value.setName(getName());
+                    current.addChild(value);
+                    break;
+                default:
+                    if (this.depth == depth) return root;
+                    current = current.parent;
+            }
+        }
+    }
+
+    /**
+     * Called at the start of the root array instead of reading it: reports the position of each of its elements to the decoder
+     * and moves to the end of the array. Only the root array is checked. Inside an element, only the brackets, the strings and
+     * the comments are followed to find where the element ends, the element is checked when it's read by
+     * {@link #readElements(int, int, int, JsonValue)}.
+     */
+    void scanElements(ParallelArrayDecoder decoder) {
+        ByteBuffer buffer = this.buffer;
+        int end = this.end, p = this.p;
+        boolean afterElement = false;
+        while (true) {
+            p = skipWhitespace(p);
+            if (p == end) throw error("unmatched bracket", p);
+            byte b = buffer.get(p);
+            if (b == ',') {
+                if (!afterElement) throw error("unexpected ','", p);
+                afterElement = false;
+                p++;
+                continue;
+            }
+            if (b == ']') {
+                decoder.end(p);
+                break;
+            }
+            decoder.element(p);
+            afterElement = true;
+            switch (b) {
+                case '"':
+                    p = skipString(p);
+                    continue;
+                case '{':
+                case '[':
+                    break;
+                case '}':
+                case ':':
+                    throw error("unexpected '" + (char) b + "'", p);
+                default:
+                    p = skipUnquoted(p);
+                    continue;
+            }
+
+            // A string, or an object or array, can only start where a name or value starts.
+            int depth = 1;
+            boolean tokenStart = true;
+            p++;
+            while (depth > 0) {
+                if (p == end) throw error("unmatched bracket", p);
+                b = buffer.get(p);
+                switch (b) {
+                    case '"':
+                        if (tokenStart) {
+                            p = skipString(p);
+                            continue;
+                        }
+                        break;
+                    case '{':
+                    case '[':
+                        if (tokenStart) depth++;
+                        break;
+                    case '}':
+                    case ']':
+                        depth--;
+                        tokenStart = true;
+                        break;
+                    case ',':
+                    case ':':
+                    case '\r':
+                    case '\n':
+                        tokenStart = true;
+                        break;
+                    case ' ':
+                    case '\t':
+                    case '\f':
+                        break;
+                    case '/':
+                        if (isCommentStart(p)) {
+                            p = skipWhitespace(p);
+                            tokenStart = true;
+                            continue;
+                        }
+                        tokenStart = false;
+                        break;
+                    default:
+                        tokenStart = false;
+                }
+                p++;
+            }
+        }
+        this.p = p + 1;
+        this.depth = 0;
+        this.afterElement = true;
+        rootRead = true;
+        event = Event.endArray;
+    }
+
+    /**
+     * Reads the specified number of array elements, starting with the element at the position, and adds them to the array.
+     *
+     * @param limit The position of the element following the last one, or of the end of the array, or -1 to not check it.
+     * @throws SerializationException if the elements don't end at the limit.
+     */
+    void readElements(int start, int limit, int count, JsonValue array) {
+        p = start;
+        event = Event.startArray;
+        objects[0] = false;
+        depth = 1;
+        afterElement = false;
+        rootRead = false;
+        for (int i = 0; i < count; i++) {
+            next();
+            array.addChild(readValue());
+        }
+        if (limit == -1) return;
+        int p = skipWhitespace(this.p);
+        if (p < end && buffer.get(p) == ',') p = skipWhitespace(p + 1);
+        if (p != limit) throw error("unexpected data after an element", p);
+    }
+
+    /**
+     * Returns the bytes of the file, memory mapped unless it's a {@link FileType#Classpath} file.
+     */
+    static ByteBuffer map(FileHandle file) {
+        return file.type() == FileType.Classpath ? ByteBuffer.wrap(file.readBytes()) : file.map();
+    }
+
+    /**
+     * Sets the token to the name of the current event, decoded without unescaping.
+     */
+    JsonToken nameToken(JsonToken token, CharArray chars) {
+        decode(nameStart, nameLength, false, chars);
+        token.chars = chars.items;
+        token.start = 0;
+        token.length = chars.size;
+        token.unescape = nameEscaped;
+        token.type = TokenType.other;
+        return token;
+    }
+
+    /**
+     * Sets the token to the current value, decoded without unescaping.
+     */
+    JsonToken valueToken(JsonToken token, CharArray chars) {
+        decode(valueStart, valueLength, false, chars);
+        token.chars = chars.items;
+        token.start = 0;
+        token.length = chars.size;
+        token.unescape = valueEscaped;
+        token.type = TokenType.other;
+        if (!valueQuoted) {
+            if (equalsAscii(valueStart, valueLength, "true"))
+                token.type = TokenType.trueValue;
+            else if (equalsAscii(valueStart, valueLength, "false"))
+                token.type = TokenType.falseValue;
+            else if (equalsAscii(valueStart, valueLength, "null")) //
+                token.type = TokenType.nullValue;
+        }
+        return token;
+    }
+
+    private Event pop(int p, Event event) {
+        this.p = p + 1;
+        if (--depth == 0) rootRead = true;
+        afterElement = true;
+        return this.event = event;
+    }
+
+    private void push(boolean object) {
+        if (depth == objects.length) objects = Arrays.copyOf(objects, depth << 1);
+        objects[depth++] = object;
+    }
+
+    /**
+     * Reads the name of an object member and the colon after it, returning the position of the value.
+     */
+    private int name(int p) {
+        ByteBuffer buffer = this.buffer;
+        int end = this.end;
+        boolean escaped = false;
+        if (buffer.get(p) == '"') {
+            int i = p + 1;
+            while (true) {
+                if (i >= end) throw error("unterminated string", p);
+                byte b = buffer.get(i);
+                if (b == '"') break;
+                if (b == '\\') {
+                    escaped = true;
+                    i++;
+                }
+                i++;
+            }
+            nameStart = p + 1;
+            nameLength = i - nameStart;
+            p = i + 1;
+        } else {
+            int i = p;
+            outer:
+            for (; i < end; i++) {
+                switch (buffer.get(i)) {
+                    case '\\':
+                        escaped = true;
+                        break;
+                    case '/':
+                        if (isCommentStart(i)) break outer;
+                        break;
+                    case ':':
+                    case '\r':
+                    case '\n':
+                        break outer;
+                    case '{':
+                    case '}':
+                    case '[':
+                    case ']':
+                    case ',':
+                        if (i == p) throw error("unexpected '" + (char) buffer.get(i) + "'", i);
+                }
+            }
+            int last = i;
+            while (last > p && isSpace(buffer.get(last - 1)))
+                last--;
+            if (last == p) throw error("missing name", p);
+            nameStart = p;
+            nameLength = last - p;
+            p = i;
+        }
+        nameEscaped = escaped;
+        hasName = true;
+        p = skipWhitespace(p);
+        if (p == end || buffer.get(p) != ':') throw error("expected ':'", p);
+        p = skipWhitespace(p + 1);
+        if (p == end) throw error("missing value", p);
+        return p;
+    }
+
+    /**
+     * Reads an object or array start or a value.
+     */
+    private Event value(int p) {
+        ByteBuffer buffer = this.buffer;
+        int end = this.end;
+        byte b = buffer.get(p);
+        switch (b) {
+            case '{':
+                push(true);
+                afterElement = false;
+                this.p = p + 1;
+                return event = Event.startObject;
+            case '[':
+                push(false);
+                afterElement = false;
+                this.p = p + 1;
+                return event = Event.startArray;
+            case '}':
+            case ']':
+            case ',':
+            case ':':
+                throw error("unexpected '" + (char) b + "'", p);
+        }
+        boolean escaped = false;
+        if (b == '"') {
+            int i = p + 1;
+            while (true) {
+                if (i >= end) throw error("unterminated string", p);
+                b = buffer.get(i);
+                if (b == '"') break;
+                if (b == '\\') {
+                    escaped = true;
+                    i++;
+                }
+                i++;
+            }
+            valueQuoted = true;
+            valueStart = p + 1;
+            valueLength = i - valueStart;
+            this.p = i + 1;
+        } else {
+            int i = p;
+            outer:
+            for (; i < end; i++) {
+                switch (buffer.get(i)) {
+                    case '\\':
+                        escaped = true;
+                        break;
+                    case '/':
+                        if (isCommentStart(i)) break outer;
+                        break;
+                    case '}':
+                    case ']':
+                    case ',':
+                    case '\r':
+                    case '\n':
+                        break outer;
+                }
+            }
+            int last = i;
+            while (last > p && isSpace(buffer.get(last - 1)))
+                last--;
+            valueQuoted = false;
+            valueStart = p;
+            valueLength = last - p;
+            this.p = i;
+        }
+        valueEscaped = escaped;
+        afterElement = true;
+        if (depth == 0) rootRead = true;
+        return event = Event.value;
+    }
+
+    /**
+     * Returns the position following the string starting with the quote at the specified position.
+     */
+    private int skipString(int p) {
+        ByteBuffer buffer = this.buffer;
+        int end = this.end;
+        for (int i = p + 1; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') return i + 1;
+            if (b == '\\') i++;
+        }
+        throw error("unterminated string", p);
+    }
+
+    /**
+     * Returns the position of the byte ending the unquoted value starting at the specified position.
+     */
+    private int skipUnquoted(int p) {
+        ByteBuffer buffer = this.buffer;
+        int end = this.end;
+        for (; p < end; p++) {
+            switch (buffer.get(p)) {
+                case '/':
+                    if (isCommentStart(p)) return p;
+                    break;
+                case '}':
+                case ']':
+                case ',':
+                case '\r':
+                case '\n':
+                    return p;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Returns the position of the first byte at or after the specified position that is not whitespace or in a comment.
+     */
+    private int skipWhitespace(int p) {
+        ByteBuffer buffer = this.buffer;
+        int end = this.end;
+        while (p < end) {
+            byte b = buffer.get(p);
+            if (isSpace(b)) {
+                p++;
+                continue;
+            }
+            if (b != '/' || !isCommentStart(p)) break;
+            if (buffer.get(p + 1) == '/') {
+                p += 2;
+                while (p < end && buffer.get(p) != '\n')
+                    p++;
+            } else {
+                p += 2;
+                while (p + 1 < end && (buffer.get(p) != '*' || buffer.get(p + 1) != '/'))
+                    p++;
+                p = Math.min(p + 2, end);
+            }
+        }
+        return p;
+    }
+
+    private boolean isCommentStart(int p) {
+        if (p + 1 >= end) return false;
+        byte b = buffer.get(p + 1);
+        return b == '/' || b == '*';
+    }
+
+    static private boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f';
+    }
+
+    private void checkValue() {
+        if (event != Event.value) throw new IllegalStateException("The current event is not a value: " + event);
+    }
+
+    private ValueType valueType() {
+        if (valueQuoted) return ValueType.stringValue;
+        int start = valueStart, length = valueLength;
+        if (equalsAscii(start, length, "true")) {
+            longValue = 1;
+            return ValueType.booleanValue;
+        }
+        if (equalsAscii(start, length, "false")) {
+            longValue = 0;
+            return ValueType.booleanValue;
+        }
+        if (equalsAscii(start, length, "null")) return ValueType.nullValue;
+        boolean couldBeDouble = false, couldBeLong = true;
+        outer:
+        for (int i = start, n = start + length; i < n; i++) {
+            switch (buffer.get(i)) {
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                case '-':
+                case '+':
+                    break;
+                case '.':
+                case 'e':
+                case 'E':
+                    couldBeDouble = true;
+                    couldBeLong = false;
+                    break;
+                default:
+                    couldBeDouble = false;
+                    couldBeLong = false;
+                    break outer;
+            }
+        }
+        if (couldBeDouble) {
+            try {
+                doubleValue = Double.parseDouble(decode(start, length, false, chars).toString());
+                return ValueType.doubleValue;
+            } catch (NumberFormatException ignored) {
+            }
+        } else if (couldBeLong && parseLong(start, start + length)) //
+            return ValueType.longValue;
+        return ValueType.stringValue;
+    }
+
+    /**
+     * Parses the bytes like {@link Long#parseLong(String)}, without allocating.
+     *
+     * @return False if the bytes are not a long.
+     */
+    private boolean parseLong(int i, int n) {
+        ByteBuffer buffer = this.buffer;
+        if (i == n) return false;
+        boolean negative = false;
+        byte sign = buffer.get(i);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            if (++i == n) return false;
+        }
+        long value = 0; // Accumulated negatively so Long.MIN_VALUE fits.
+        for (; i < n; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) return false;
+            if (value < Long.MIN_VALUE / 10) return false;
+            value *= 10;
+            if (value < Long.MIN_VALUE + digit) return false;
+            value -= digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) return false;
+            value = -value;
+        }
+        longValue = value;
+        return true;
+    }
+
+    private JsonValue value() {
+        switch (getType()) {
+            case nullValue:
+                return new JsonValue(ValueType.nullValue);
+            case booleanValue:
+                return new JsonValue(longValue != 0);
+            case longValue:
+                return new JsonValue(longValue, decode(valueStart, valueLength, false, chars).toString());
+            case doubleValue:
+                return new JsonValue(doubleValue, decode(valueStart, valueLength, false, chars).toString());
+            default:
+                return new JsonValue(decode(valueStart, valueLength, valueEscaped, chars).toString());
+        }
+    }
+
+    private boolean equalsAscii(int start, int length, String string) {
+        if (length != string.length()) return false;
+        for (int i = 0; i < length; i++)
+            if (buffer.get(start + i) != string.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * Decodes the UTF-8 bytes to the chars, replacing malformed sequences with U+FFFD.
+     *
+     * @param unescape True to replace JSON escape sequences.
+     */
+    private CharArray decode(int i, int length, boolean unescape, CharArray chars) {
+        ByteBuffer buffer = this.buffer;
+        chars.clear();
+        chars.ensureCapacity(length);
+        for (int n = i + length; i < n; ) {
+            int b = buffer.get(i++);
+            if (b >= 0) {
+                if (b == '\\' && unescape)
+                    i = unescape(i, n, chars);
+                else
+                    chars.append((char) b);
+                continue;
+            }
+            int codePoint, remaining;
+            if ((b & 0xe0) == 0xc0) {
+                codePoint = b & 0x1f;
+                remaining = 1;
+            } else if ((b & 0xf0) == 0xe0) {
+                codePoint = b & 0x0f;
+                remaining = 2;
+            } else if ((b & 0xf8) == 0xf0) {
+                codePoint = b & 0x07;
+                remaining = 3;
+            } else {
+                chars.append('\uFFFD');
+                continue;
+            }
+            for (; remaining > 0 && i < n; remaining--, i++) {
+                int c = buffer.get(i);
+                if ((c & 0xc0) != 0x80) break;
+                codePoint = codePoint << 6 | (c & 0x3f);
+            }
+            if (remaining > 0 || codePoint > Character.MAX_CODE_POINT)
+                chars.append('\uFFFD');
+            else
+                chars.appendCodePoint(codePoint);
+        }
+        return chars;
+    }
+
+    /**
+     * Appends the character of the escape sequence after a backslash, returning the position after the sequence.
+     */
+    private int unescape(int i, int n, CharArray chars) {
+        if (i == n) throw new SerializationException("Illegal escape sequence: \\");
+        char c = (char) buffer.get(i++);
+        switch (c) {
+            case 'u':
+                if (i + 4 > n) throw new SerializationException("Illegal escape sequence: \\u");
+                chars.append((char) ((Character.digit(buffer.get(i), 16) << 12) //
+                        | (Character.digit(buffer.get(i + 1), 16) << 8) //
+                        | (Character.digit(buffer.get(i + 2), 16) << 4) //
+                        | Character.digit(buffer.get(i + 3), 16)));
+                return i + 4;
+            case '"':
+            case '\\':
+            case '/':
+                break;
+            case 'b':
+                c = '\b';
+                break;
+            case 'f':
+                c = '\f';
+                break;
+            case 'n':
+                c = '\n';
+                break;
+            case 'r':
+                c = '\r';
+                break;
+            case 't':
+                c = '\t';
+                break;
+            default:
+                throw new SerializationException("Illegal escaped character: \\" + c);
+        }
+        chars.append(c);
+        return i;
+    }
+
+    private SerializationException error(String message, int p) {
+        int lineNumber = 1;
+        for (int i = start; i < p; i++)
+            if (buffer.get(i) == '\n') lineNumber++;
+        int before = Math.max(start, p - 32), after = Math.min(end, p + 64);
+        String near = decode(before, p - before, false, chars).toString();
+        return new SerializationException("Error parsing JSON on line " + lineNumber + ", " + message + ", near: " + near
+                + "*ERROR*" + decode(p, after - p, false, chars));
+    }
+
+    public enum Event {
+        startObject, endObject, startArray, endArray, value, end
+    }
+}
@@ -0,0 +1,108 @@
+package com.badlogic.gdx.utils;
+
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Decodes the elements of a large array in parallel. While a reader scans the array, it reports where each element starts and
+ * the elements are grouped in chunks of consecutive elements. Each chunk is then decoded by a task on a fork-join pool and the
+ * chunks are linked into one array, keeping the order of the elements.
+ *
+ * @see JsonReader#parseParallel(java.nio.ByteBuffer, ForkJoinPool)
+ * @see UBJsonReader#parseParallel(byte[], int, int, ForkJoinPool)
+ */
+abstract class ParallelArrayDecoder {
+    /**
+     * The minimum number of bytes of the elements of a chunk, below which the tasks cost more than they save.
+     */
+    static final int minChunkBytes = 32 * 1024;
+
+    private final int chunkBytes;
+    private final IntArray starts = new IntArray(), counts = new IntArray();
+    private int end = -1;
+
+    /**
+     * @param bytes The size of the array, used to give a few chunks to each thread of the pool.
+     */
+    ParallelArrayDecoder(int bytes, ForkJoinPool pool) {
+        chunkBytes = Math.max(minChunkBytes, bytes / (pool.getParallelism() * 4));
+    }
+
+    /**
+     * Called for each element in order, with the position where it starts.
+     */
+    void element(int start) {
+        if (starts.size == 0 || start - starts.peek() >= chunkBytes) {
+            starts.add(start);
+            counts.add(1);
+        } else
+            counts.incr(counts.size - 1, 1);
+    }
+
+    /**
+     * Optionally called after the last element, with the position where the array ends, so that each chunk can check it ends
+     * where the next one starts.
+     */
+    void end(int end) {
+        this.end = end;
+    }
+
+    /**
+     * Decodes the specified number of elements, starting with the element at the position, and adds them to the array. Called
+     * on the threads of the pool.
+     *
+     * @param limit The position of the element following the last one, or of the end of the array, or -1 if it's unknown.
+     */
+    abstract void decode(int start, int limit, int count, JsonValue array);
+
+    /**
+     * Decodes the chunks on the pool, or on the calling thread if there is only one.
+     */
+    JsonValue decode(ForkJoinPool pool) {
+        JsonValue result = new JsonValue(ValueType.array);
+        int chunks = starts.size;
+        if (chunks == 0) return result;
+        if (chunks == 1) {
+            decode(starts.get(0), end, counts.get(0), result);
+            return result;
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[chunks];
+        for (int i = 0; i < chunks; i++) {
+            int start = starts.get(i), limit = i + 1 < chunks ? starts.get(i + 1) : end, count = counts.get(i);
+            tasks[i] = pool.submit(() -> {
+                JsonValue chunk = new JsonValue(ValueType.array);
+                decode(start, limit, count, chunk);
+                return chunk;
+            });
+        }
+        try {
+            for (ForkJoinTask<?> task : tasks)
+                append(result, (JsonValue) task.join());
+        } catch (RuntimeException ex) {
+            for (ForkJoinTask<?> task : tasks)
+                task.cancel(false);
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * Moves the children of the chunk to the end of the array.
+     */
+    static private void append(JsonValue array, JsonValue chunk) {
+        JsonValue first = chunk.child;
+        if (first == null) return;
+        for (JsonValue value = first; value != null; value = value.next)
+            value.parent = array;
+        if (array.last == null)
+            array.child = first;
+        else {
+            array.last.next = first;
+            first.prev = array.last;
+        }
+        array.last = chunk.last;
+        array.size += chunk.size;
+    }
+}
@@ -17,7 +17,14 @@ abstract class Pool<T> @JvmOverloads constructor(initialCapacity: Int = 16, @Jvm
     /**
      * The highest number of free objects. Can be reset at any time.
      */
-    var peak = 0
+    open var peak = 0
+
+    /**
+     * The statistics of this pool, or null if it isn't instrumented. Counting costs a few atomic operations per call.
+     * @see PoolStats
+     */
+    @JvmField
+    var stats: PoolStats? = null
 
     protected abstract fun newObject(): T
 
@@ -25,7 +32,13 @@ abstract class Pool<T> @JvmOverloads constructor(initialCapacity: Int = 16, @Jvm
      * Returns an object from this pool. The object may be new (from [.newObject]) or reused (previously
      * [freed][.free]).
      */
-    open fun obtain(): T = if (freeObjects.size == 0) newObject() else freeObjects.pop()
+    open fun obtain(): T {
+        val stats = stats ?: return if (freeObjects.size == 0) newObject() else freeObjects.pop()
+        val miss = freeObjects.size == 0
+        val pooledObject = if (miss) newObject() else freeObjects.pop()
+        stats.obtained(pooledObject, miss)
+        return pooledObject
+    }
 
     /**
      * Puts the specified object in the pool, making it eligible to be returned by [.obtain]. If the pool already contains
@@ -35,6 +48,7 @@ abstract class Pool<T> @JvmOverloads constructor(initialCapacity: Int = 16, @Jvm
      * The pool does not check if an object is already freed, so the same object must not be freed multiple times.
      */
     open fun free(pooledObject: T) {
+        stats?.freed(pooledObject, freeObjects.size >= max)
         if (freeObjects.size < max) {
             freeObjects.add(pooledObject)
             peak = max(peak, freeObjects.size)
@@ -48,7 +62,7 @@ abstract class Pool<T> @JvmOverloads constructor(initialCapacity: Int = 16, @Jvm
      *
      * @param size the number of objects to be added
      */
-    fun fill(size: Int) {
+    open fun fill(size: Int) {
         for (i in 0..<size)
             if (freeObjects.size < max)
                 freeObjects.add(newObject())
@@ -87,6 +101,7 @@ abstract class Pool<T> @JvmOverloads constructor(initialCapacity: Int = 16, @Jvm
                 i++
                 continue
             }
+            stats?.freed(pooledObject, freeObjects.size >= max)
             if (freeObjects.size < max) {
                 freeObjects.add(pooledObject)
                 reset(pooledObject)
@@ -109,13 +124,14 @@ abstract class Pool<T> @JvmOverloads constructor(initialCapacity: Int = 16, @Jvm
             discard(freeObjects.get(i))
             i++
         }
+        stats?.cleared(n)
         freeObjects.clear()
     }
 
     /**
      * The number of objects available to be obtained.
      */
-    fun getFree() = freeObjects.size
+    open fun getFree() = freeObjects.size
 
     /**
      * Objects implementing this interface will have [.reset] called when passed to [Pool.free].
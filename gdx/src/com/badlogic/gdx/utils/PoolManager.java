@@ -12,6 +12,8 @@ import com.badlogic.gdx.utils.DefaultPool.PoolSupplier;
 public class PoolManager {
 
     private final ObjectMap<Class<?>, Pool<?>> typePools = new ObjectMap<>();
+    private boolean instrumented;
+    private int sampleInterval;
 
     public PoolManager() {
 
@@ -48,6 +50,7 @@ public class PoolManager {
         Class<T> clazz = (Class<T>) object.getClass();
         pool.free(object);
 
+        if (instrumented && pool.stats == null) pool.stats = new PoolStats(sampleInterval);
         Pool<?> oldPool = typePools.put(clazz, pool);
         if (oldPool != null) {
             throw new GdxRuntimeException("Attempt to add pool with already existing class: " + clazz
@@ -120,4 +123,41 @@ public class PoolManager {
             pool.clear();
         }
     }
+
+    /**
+     * Returns true if the managed pools collect {@link PoolStats statistics}.
+     */
+    public boolean isInstrumented() {
+        return instrumented;
+    }
+
+    /**
+     * Sets whether the managed pools collect {@link PoolStats statistics}, including the pools added from then on. Disabling it
+     * drops the statistics collected so far.
+     *
+     * @param sampleInterval One out of that many obtained objects is tracked until it's freed, or 0 to track none.
+     */
+    public void setInstrumented(boolean instrumented, int sampleInterval) {
+        if (sampleInterval < 0) throw new IllegalArgumentException("sampleInterval must be >= 0: " + sampleInterval);
+        this.instrumented = instrumented;
+        this.sampleInterval = sampleInterval;
+        for (Pool<?> pool : typePools.values()) {
+            if (!instrumented)
+                pool.stats = null;
+            else if (pool.stats == null)
+                pool.stats = new PoolStats(sampleInterval);
+            else
+                pool.stats.setSampleInterval(sampleInterval);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the {@link PoolStats statistics} of the managed pools, one line per type followed by the obtain sites
+     * of the sampled objects that haven't been freed.
+     */
+    public String report() {
+        StringBuilder builder = new StringBuilder();
+        PoolStats.report(typePools, builder);
+        return builder.toString();
+    }
 }
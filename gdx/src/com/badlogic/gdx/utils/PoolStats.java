@@ -0,0 +1,252 @@
+package com.badlogic.gdx.utils;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a {@link Pool}, collected once they are set to {@link Pool#stats}: the number of obtained objects, of misses
+ * where a new object had to be created, of freed objects and of discarded objects. They can be updated from any thread.
+ * <p>
+ * When a sample interval is set, one out of that many obtained objects is tracked with the stack trace of the obtain until it's
+ * freed, so that objects that are never returned to the pool can be found in the {@link #report(StringBuilder) report}. At most
+ * {@link #maxSamples} objects are tracked at the same time, and tracked objects can't be garbage collected until they are freed.
+ *
+ * @see Pools#setInstrumented(boolean, int)
+ * @see PoolManager#setInstrumented(boolean, int)
+ */
+public class PoolStats {
+    /**
+     * The maximum number of obtained objects tracked at the same time.
+     */
+    public int maxSamples = 1000;
+
+    /**
+     * The maximum number of obtain sites listed by the {@link #report(StringBuilder) report}.
+     */
+    public int maxReportedSites = 10;
+
+    private final AtomicLong obtained = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong freed = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final IdentityHashMap<Object, Throwable> samples = new IdentityHashMap<>();
+    private volatile int sampleCount;
+    private volatile int sampleInterval;
+
+    public PoolStats() {
+        this(0);
+    }
+
+    /**
+     * @param sampleInterval One out of that many obtained objects is tracked until it's freed, or 0 to track none.
+     */
+    public PoolStats(int sampleInterval) {
+        setSampleInterval(sampleInterval);
+    }
+
+    /**
+     * Records an obtained object.
+     *
+     * @param miss True if the object had to be created.
+     */
+    public void obtained(Object object, boolean miss) {
+        obtained.incrementAndGet();
+        if (miss) misses.incrementAndGet();
+        int sampleInterval = this.sampleInterval;
+        if (sampleInterval > 0) {
+            if (sampleCounter.incrementAndGet() % sampleInterval == 0 && sampleCount < maxSamples) {
+                Throwable site = new Throwable("Obtained");
+                synchronized (samples) {
+                    if (samples.size() < maxSamples) {
+                        samples.put(object, site);
+                        sampleCount = samples.size();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a freed object.
+     *
+     * @param discarded True if the pool was full and the object was discarded.
+     */
+    public void freed(Object object, boolean discarded) {
+        freed.incrementAndGet();
+        if (discarded) this.discarded.incrementAndGet();
+        if (sampleCount > 0) {
+            synchronized (samples) {
+                if (samples.remove(object) != null) sampleCount = samples.size();
+            }
+        }
+    }
+
+    /**
+     * Records free objects discarded when the pool was cleared.
+     */
+    public void cleared(int count) {
+        discarded.addAndGet(count);
+    }
+
+    /**
+     * Returns the number of obtained objects.
+     */
+    public long getObtained() {
+        return obtained.get();
+    }
+
+    /**
+     * Returns the number of obtained objects that had to be created.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the ratio of obtained objects that had to be created, between 0 and 1.
+     */
+    public float getMissRate() {
+        long obtained = getObtained();
+        return obtained == 0 ? 0 : getMisses() / (float) obtained;
+    }
+
+    /**
+     * Returns the number of freed objects, including the discarded ones.
+     */
+    public long getFreed() {
+        return freed.get();
+    }
+
+    /**
+     * Returns the number of objects discarded because the pool was full or cleared.
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * Returns the number of obtained objects that haven't been freed yet.
+     */
+    public long getOutstanding() {
+        return getObtained() - getFreed();
+    }
+
+    /**
+     * Returns the number of tracked objects that haven't been freed yet.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * @param sampleInterval One out of that many obtained objects is tracked until it's freed, or 0 to track none. Objects already
+     *                       tracked stay tracked.
+     */
+    public void setSampleInterval(int sampleInterval) {
+        if (sampleInterval < 0) throw new IllegalArgumentException("sampleInterval must be >= 0: " + sampleInterval);
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Returns the stack traces of the obtains of the tracked objects that haven't been freed yet, mapped to their number of
+     * objects.
+     */
+    public ObjectIntMap<String> getSampleSites() {
+        ObjectIntMap<String> sites = new ObjectIntMap<>();
+        synchronized (samples) {
+            for (Map.Entry<Object, Throwable> entry : samples.entrySet())
+                sites.getAndIncrement(siteOf(entry.getValue()), 0, 1);
+        }
+        return sites;
+    }
+
+    /**
+     * Resets the counters and stops tracking the tracked objects.
+     */
+    public void reset() {
+        obtained.set(0);
+        misses.set(0);
+        freed.set(0);
+        discarded.set(0);
+        sampleCounter.set(0);
+        synchronized (samples) {
+            samples.clear();
+            sampleCount = 0;
+        }
+    }
+
+    /**
+     * Appends the counters on one line, followed by the most frequent obtain sites of the tracked objects that haven't been freed.
+     */
+    public void report(StringBuilder builder) {
+        long obtained = getObtained();
+        builder.append("obtained ").append(obtained);
+        builder.append(", misses ").append(getMisses());
+        builder.append(" (").append(Math.round(getMissRate() * 1000) / 10f).append("%)");
+        builder.append(", freed ").append(getFreed());
+        builder.append(", discarded ").append(getDiscarded());
+        builder.append(", outstanding ").append(getOutstanding());
+        builder.append('\n');
+
+        ObjectIntMap<String> sites = getSampleSites();
+        if (sites.size == 0) return;
+        Array<ObjectIntMap.Entry<String>> entries = new Array<>(sites.size);
+        for (ObjectIntMap.Entry<String> entry : sites.entries()) {
+            ObjectIntMap.Entry<String> copy = new ObjectIntMap.Entry<>();
+            copy.key = entry.key;
+            copy.value = entry.value;
+            entries.add(copy);
+        }
+        entries.sort((a, b) -> b.value - a.value);
+        builder.append("  ").append(sampleCount).append(" sampled objects not freed:\n");
+        for (int i = 0, n = Math.min(entries.size, maxReportedSites); i < n; i++) {
+            ObjectIntMap.Entry<String> entry = entries.get(i);
+            builder.append("    ").append(entry.value).append(" obtained at:\n").append(entry.key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        report(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the report of each instrumented pool of the map, sorted by type name, with its number of free objects and its peak.
+     */
+    static void report(ObjectMap<Class<?>, Pool<?>> typePools, StringBuilder builder) {
+        Array<Class<?>> types = typePools.keys().toArray();
+        types.sort((a, b) -> a.getName().compareTo(b.getName()));
+        for (int i = 0; i < types.size; i++) {
+            Class<?> type = types.get(i);
+            Pool<?> pool = typePools.get(type);
+            PoolStats stats = pool.stats;
+            if (stats == null) continue;
+            builder.append(type.getName()).append(" (free ").append(pool.getFree()).append(", peak ").append(pool.getPeak())
+                    .append("): ");
+            stats.report(builder);
+        }
+    }
+
+    /**
+     * Returns the stack trace of an obtain, without the frames of the statistics and of the obtain methods.
+     */
+    private static String siteOf(Throwable site) {
+        StringBuilder builder = new StringBuilder();
+        StackTraceElement[] elements = site.getStackTrace();
+        int i = 0;
+        while (i < elements.length && (elements[i].getClassName().equals(PoolStats.class.getName())
+                || elements[i].getMethodName().startsWith("obtain")))
+            i++;
+        for (int n = Math.min(elements.length, i + 8); i < n; i++)
+            builder.append("      at ").append(elements[i]).append('\n');
+        return builder.toString();
+    }
+}
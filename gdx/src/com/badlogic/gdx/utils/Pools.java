@@ -46,9 +46,14 @@ import com.badlogic.gdx.utils.DefaultPool.PoolSupplier;
  */
 @Deprecated
 public class Pools {
-    static private final ObjectMap<Class<?>, Pool<?>> typePools = new ObjectMap<>();
+    static private volatile ObjectMap<Class<?>, Pool<?>> typePools = new ObjectMap<>();
+    static private final Object typePoolsLock = new Object();
     static public boolean WARN_ON_REFLECTION_POOL_CREATION = true;
     static public boolean THROW_ON_REFLECTION_POOL_CREATION = false;
+    static private final int CONCURRENT_MAGAZINE_SIZE = 16;
+    static private volatile boolean concurrent;
+    static private volatile boolean instrumented;
+    static private int sampleInterval;
 
     static {
         set(Array::new);
@@ -100,14 +105,28 @@ public class Pools {
      * if this is not the first time this pool has been requested.
      */
     static public <T> Pool<T> get(Class<T> type, int max) {
-        Pool pool = typePools.get(type);
+        @SuppressWarnings("unchecked")
+        Pool<T> pool = (Pool<T>) typePools.get(type);
+        if (pool != null) return pool;
+        if (concurrent) {
+            synchronized (typePoolsLock) {
+                return create(type, max);
+            }
+        }
+        return create(type, max);
+    }
+
+    static private <T> Pool<T> create(Class<T> type, int max) {
+        @SuppressWarnings("unchecked")
+        Pool<T> pool = (Pool<T>) typePools.get(type);
         if (pool == null) {
             if (THROW_ON_REFLECTION_POOL_CREATION) throw new RuntimeException(
                     "Please manually define a Pool for " + type + " by calling Pools#set before calling Pools#get");
             if (WARN_ON_REFLECTION_POOL_CREATION && Gdx.app != null) Gdx.app.error("Pools",
                     "Please manually define a Pool for " + type + " by calling Pools#set before calling Pools#get");
-            pool = new ReflectionPool(type, 4, max);
-            typePools.put(type, pool);
+            pool = new ReflectionPool<T>(type, 4, max);
+            if (concurrent) pool = newConcurrentPool(pool);
+            put(type, pool);
         }
         return pool;
     }
@@ -124,7 +143,12 @@ public class Pools {
      * Sets an existing pool for the specified type, stored in a Class to {@link Pool} map.
      */
     static public <T> void set(Class<T> type, Pool<T> pool) {
-        typePools.put(type, pool);
+        if (concurrent) {
+            synchronized (typePoolsLock) {
+                put(type, pool);
+            }
+        } else
+            put(type, pool);
     }
 
     /**
@@ -132,7 +156,10 @@ public class Pools {
      * references: {@code Pools.set(MyClass::new, max)}
      */
     static public <T> void set(PoolSupplier<T> poolTypeSupplier, int max) {
-        set((Class<T>) poolTypeSupplier.get().getClass(), new DefaultPool<>(poolTypeSupplier, 4, max));
+        Pool<T> pool = new DefaultPool<>(poolTypeSupplier, 4, max);
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) poolTypeSupplier.get().getClass();
+        set(type, concurrent ? newConcurrentPool(pool) : pool);
     }
 
     /**
@@ -187,4 +214,103 @@ public class Pools {
             if (!samePool) pool = null;
         }
     }
+
+    /**
+     * Returns true if the pools can be used from any thread.
+     */
+    static public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Sets whether the pools can be used from any thread. When enabled, the pools created from then on are {@link ConcurrentPool}s,
+     * and the pools already created by this class, either through reflection or from a {@link PoolSupplier}, are replaced by
+     * {@link ConcurrentPool}s whose free objects start empty. Pools set explicitly with {@link #set(Class, Pool)} are kept, so they
+     * must be thread safe themselves. When disabled, the existing pools are kept.
+     * <p>
+     * It should be enabled early, before pools are shared between threads.
+     */
+    static public void setConcurrent(boolean concurrent) {
+        synchronized (typePoolsLock) {
+            if (concurrent && !Pools.concurrent) {
+                ObjectMap<Class<?>, Pool<?>> typePools = new ObjectMap<>(Pools.typePools);
+                for (ObjectMap.Entry<Class<?>, Pool<?>> entry : Pools.typePools) {
+                    Pool<?> pool = entry.value;
+                    if (pool.getClass() == DefaultPool.class || pool.getClass() == ReflectionPool.class)
+                        typePools.put(entry.key, newConcurrentPool(pool));
+                }
+                Pools.typePools = typePools;
+            }
+            Pools.concurrent = concurrent;
+        }
+    }
+
+    /**
+     * Returns true if the pools collect {@link PoolStats statistics}.
+     */
+    static public boolean isInstrumented() {
+        return instrumented;
+    }
+
+    /**
+     * Sets whether the pools collect {@link PoolStats statistics}, including the pools created or set from then on. Disabling it
+     * drops the statistics collected so far.
+     *
+     * @param sampleInterval One out of that many obtained objects is tracked until it's freed, or 0 to track none.
+     */
+    static public void setInstrumented(boolean instrumented, int sampleInterval) {
+        if (sampleInterval < 0) throw new IllegalArgumentException("sampleInterval must be >= 0: " + sampleInterval);
+        synchronized (typePoolsLock) {
+            Pools.sampleInterval = sampleInterval;
+            Pools.instrumented = instrumented;
+            for (Pool<?> pool : typePools.values()) {
+                if (!instrumented)
+                    pool.stats = null;
+                else if (pool.stats == null)
+                    pool.stats = new PoolStats(sampleInterval);
+                else
+                    pool.stats.setSampleInterval(sampleInterval);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the {@link PoolStats statistics} of the pools, one line per type followed by the obtain sites of the
+     * sampled objects that haven't been freed.
+     */
+    static public String report() {
+        StringBuilder builder = new StringBuilder();
+        synchronized (typePoolsLock) {
+            PoolStats.report(typePools, builder);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Puts a pool in the map. When the pools are concurrent the map is read without locking, so it's copied on write rather than
+     * modified once published, and the caller must hold the lock.
+     */
+    static private void put(Class<?> type, Pool<?> pool) {
+        if (instrumented && pool.stats == null) pool.stats = new PoolStats(sampleInterval);
+        if (concurrent) {
+            ObjectMap<Class<?>, Pool<?>> typePools = new ObjectMap<>(Pools.typePools);
+            typePools.put(type, pool);
+            Pools.typePools = typePools;
+        } else
+            typePools.put(type, pool);
+    }
+
+    /**
+     * Returns a {@link ConcurrentPool} creating its objects through the specified pool, which must do so in a thread safe way.
+     */
+    static private <T> Pool<T> newConcurrentPool(final Pool<T> pool) {
+        Pool<T> concurrentPool = new ConcurrentPool<T>(CONCURRENT_MAGAZINE_SIZE, pool.max) {
+            @Override
+            protected T newObject() {
+                return pool.newObject();
+            }
+        };
+        concurrentPool.stats = pool.stats;
+        return concurrentPool;
+    }
 }
@@ -4,10 +4,12 @@ import com.badlogic.gdx.files.FileHandle;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Info : This class was moved to Kerman game engine.
@@ -56,6 +58,68 @@ public class UBJsonReader implements BaseJsonReader {
         }
     }
 
+    /**
+     * Reads the UBJSON file and parses it in parallel.
+     *
+     * @see #parseParallel(byte[], int, int, ForkJoinPool)
+     */
+    public JsonValue parseParallel(FileHandle file, ForkJoinPool pool) {
+        try {
+            byte[] data = file.readBytes();
+            return parseParallel(data, 0, data.length, pool);
+        } catch (Exception ex) {
+            throw new SerializationException("Error parsing file: " + file, ex);
+        }
+    }
+
+    /**
+     * Parses the UBJSON in the bytes. When the root is an array, the boundaries of its elements are found using the length
+     * prefixes of the values, then chunks of elements are decoded on the pool and linked in their order. Other roots are
+     * decoded on the calling thread. The parse methods of this reader are called from several threads at the same time.
+     */
+    public JsonValue parseParallel(final byte[] data, int offset, int length, ForkJoinPool pool) {
+        final int end = offset + length;
+        if (length == 0 || data[offset] != '[') return parse(new ByteArrayInputStream(data, offset, length));
+
+        Skipper skipper = new Skipper(data, offset + 1, end, oldFormat);
+        byte type = skipper.readByte();
+        byte valueType = 0;
+        if (type == '$') {
+            valueType = skipper.readByte();
+            type = skipper.readByte();
+        }
+        int size = -1;
+        if (type == '#') {
+            size = (int) skipper.readSize(skipper.readByte(), false);
+            if (size < 0) throw new GdxRuntimeException("Unrecognized data type");
+            if (size == 0) return new JsonValue(JsonValue.ValueType.array);
+            type = valueType == 0 ? skipper.readByte() : valueType;
+        }
+        final byte elementType = valueType;
+        ParallelArrayDecoder decoder = new ParallelArrayDecoder(length, pool) {
+            @Override
+            void decode(int start, int limit, int count, JsonValue array) {
+                DataInputStream din = new DataInputStream(new ByteArrayInputStream(data, start, end - start));
+                try {
+                    for (int i = 0; i < count; i++)
+                        array.addChild(parse(din, elementType == 0 ? din.readByte() : elementType));
+                } catch (IOException ex) {
+                    throw new SerializationException(ex);
+                }
+            }
+        };
+        int c = 0;
+        while (skipper.p < end && type != ']') {
+            // Without a value type, each element starts with its type.
+            decoder.element(valueType == 0 ? skipper.p - 1 : skipper.p);
+            skipper.skip(type);
+            c++;
+            if (size > 0 && c >= size) break;
+            type = valueType == 0 ? skipper.readByte() : valueType;
+        }
+        return decoder.decode(pool);
+    }
+
     protected JsonValue parse(final DataInputStream din, final byte type) throws IOException {
         if (type == '[')
             return parseArray(din);
@@ -238,4 +302,136 @@ public class UBJsonReader implements BaseJsonReader {
         din.readFully(data);
         return new String(data, StandardCharsets.UTF_8);
     }
+
+    /**
+     * Moves past values without decoding them, reading them the same way as the parse methods.
+     */
+    static private class Skipper {
+        final byte[] data;
+        final int end;
+        final boolean oldFormat;
+        int p;
+
+        Skipper(byte[] data, int p, int end, boolean oldFormat) {
+            this.data = data;
+            this.p = p;
+            this.end = end;
+            this.oldFormat = oldFormat;
+        }
+
+        byte readByte() {
+            if (p >= end) throw new SerializationException("Unexpected end of UBJSON.");
+            return data[p++];
+        }
+
+        long readUnsigned(int bytes) {
+            long value = 0;
+            for (int i = 0; i < bytes; i++)
+                value = value << 8 | (readByte() & 0xFF);
+            return value;
+        }
+
+        void skipBytes(long count) {
+            if (count < 0 || count > end - p) throw new SerializationException("Unexpected end of UBJSON.");
+            p += (int) count;
+        }
+
+        long readSize(byte type, boolean useIntOnError) {
+            if (type == 'i') return readUnsigned(1);
+            if (type == 'I') return readUnsigned(2);
+            if (type == 'l') return readUnsigned(4);
+            if (type == 'L') return readUnsigned(8);
+            if (useIntOnError) return (long) (type & 0xFF) << 24 | readUnsigned(3);
+            return -1;
+        }
+
+        void skip(byte type) {
+            switch (type) {
+                case '[':
+                    skipContainer(false);
+                    return;
+                case '{':
+                    skipContainer(true);
+                    return;
+                case 'Z':
+                case 'T':
+                case 'F':
+                    return;
+                case 'B':
+                case 'U':
+                    skipBytes(1);
+                    return;
+                case 'i':
+                    skipBytes(oldFormat ? 2 : 1);
+                    return;
+                case 'I':
+                    skipBytes(oldFormat ? 4 : 2);
+                    return;
+                case 'C':
+                    skipBytes(2);
+                    return;
+                case 'l':
+                case 'd':
+                    skipBytes(4);
+                    return;
+                case 'L':
+                case 'D':
+                    skipBytes(8);
+                    return;
+                case 's':
+                    skipBytes(readUnsigned(1));
+                    return;
+                case 'S':
+                    skipBytes(readSize(readByte(), true));
+                    return;
+                case 'a':
+                case 'A':
+                    byte dataType = readByte();
+                    long size = type == 'A' ? readUnsigned(4) : readUnsigned(1);
+                    for (long i = 0; i < size; i++)
+                        skip(dataType);
+                    return;
+            }
+            throw new GdxRuntimeException("Unrecognized data type");
+        }
+
+        private void skipContainer(boolean object) {
+            byte type = readByte();
+            byte valueType = 0;
+            if (type == '$') {
+                valueType = readByte();
+                type = readByte();
+            }
+            int size = -1;
+            if (type == '#') {
+                size = (int) readSize(readByte(), false);
+                if (size < 0) throw new GdxRuntimeException("Unrecognized data type");
+                if (size == 0) return;
+                type = object || valueType == 0 ? readByte() : valueType;
+            }
+            int c = 0;
+            while (p < end && type != (object ? '}' : ']')) {
+                if (object) {
+                    skipKey(type);
+                    skip(valueType == 0 ? readByte() : valueType);
+                } else
+                    skip(type);
+                c++;
+                if (size > 0 && c >= size) break;
+                type = object || valueType == 0 ? readByte() : valueType;
+            }
+        }
+
+        private void skipKey(byte type) {
+            long size;
+            if (type == 'S')
+                size = readSize(readByte(), true);
+            else if (type == 's')
+                size = readUnsigned(1);
+            else
+                size = readSize(type, false);
+            if (size < 0) throw new GdxRuntimeException("Unrecognized data type, string expected");
+            skipBytes(size);
+        }
+    }
 }
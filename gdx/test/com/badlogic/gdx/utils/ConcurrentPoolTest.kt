@@ -0,0 +1,179 @@
+package com.badlogic.gdx.utils
+
+import com.badlogic.gdx.math.Vector3
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+class ConcurrentPoolTest {
+    @Test
+    fun obtainFreedObjectTest() {
+        val pool = ItemPool(4, 100)
+        val item = pool.obtain()
+        item.value = 7
+        pool.free(item)
+
+        assertEquals(1, pool.getFree())
+        assertEquals(0, item.value)
+        assertSame(item, pool.obtain())
+        assertEquals(1, pool.created.get())
+    }
+
+    @Test
+    fun freeBeyondMaxTest() {
+        val pool = ItemPool(2, 2)
+        for (i in 0 until 9)
+            pool.free(Item())
+
+        // Two magazines of the thread and two magazines of the depot, which keeps at least two
+        assertEquals(8, pool.getFree())
+        assertEquals(1, pool.discarded.get())
+        assertEquals(8, pool.peak)
+    }
+
+    @Test
+    fun depotCapTest() {
+        val pool = ItemPool(1, Int.MAX_VALUE)
+        pool.fill(5000)
+
+        // Two magazines of the thread and at most 4096 magazines of the depot
+        assertEquals(4098, pool.getFree())
+        assertEquals(4099, pool.created.get())
+        pool.free(Item())
+        assertEquals(1, pool.discarded.get())
+    }
+
+    @Test
+    fun fillTest() {
+        val pool = ItemPool(4, 8)
+        pool.fill(100)
+
+        // Two magazines of the thread and two magazines of the depot
+        assertEquals(16, pool.getFree())
+        assertEquals(16, pool.peak)
+        for (i in 0 until 16)
+            pool.obtain()
+        assertEquals(0, pool.getFree())
+        assertEquals(17, pool.created.get())
+    }
+
+    @Test
+    fun clearTest() {
+        val pool = ItemPool(2, 100)
+        pool.fill(9)
+        pool.clear()
+
+        assertEquals(0, pool.getFree())
+        assertEquals(9, pool.discarded.get())
+        pool.obtain()
+        assertEquals(10, pool.created.get())
+    }
+
+    @Test
+    fun freeAllTest() {
+        val pool = ItemPool(2, 100)
+        val items = Array<Item?>()
+        items.add(Item())
+        items.add(null)
+        items.add(Item())
+        @Suppress("UNCHECKED_CAST")
+        pool.freeAll(items as Array<Item>)
+
+        assertEquals(2, pool.getFree())
+    }
+
+    @Test
+    fun objectsFreedOnAnotherThreadTest() {
+        val pool = ItemPool(4, 1000)
+        val items = Array<Item>()
+        for (i in 0 until 100)
+            items.add(pool.obtain())
+        val thread = Thread { pool.freeAll(items) }
+        thread.start()
+        thread.join()
+
+        // The freeing thread keeps at most two magazines, the others are in the depot
+        for (i in 0 until 92)
+            pool.obtain()
+        assertEquals(100, pool.created.get())
+    }
+
+    @Test
+    fun concurrentObtainAndFreeTest() {
+        val pool = ItemPool(8, 64)
+        val failures = AtomicInteger()
+        val threads = Array<Thread>()
+        for (t in 0 until 8) {
+            val thread = Thread {
+                val held = Array<Item>()
+                for (i in 0 until 20000) {
+                    if (held.size < 16 && (held.size == 0 || (i * 31 + t) % 3 != 0)) {
+                        val item = pool.obtain()
+                        if (!item.inUse.compareAndSet(false, true)) failures.incrementAndGet()
+                        held.add(item)
+                    } else {
+                        val item = held.pop()
+                        item.inUse.set(false)
+                        pool.free(item)
+                    }
+                }
+            }
+            threads.add(thread)
+            thread.start()
+        }
+        for (thread in threads)
+            thread.join()
+
+        assertEquals(0, failures.get())
+        // Live objects are held by the threads, cached in their two magazines or kept in the depot
+        assertTrue(pool.created.get() - pool.discarded.get() <= 8 * (16 + 2 * 8) + 64)
+    }
+
+    @Test
+    fun poolsConcurrentTest() {
+        Pools.setConcurrent(true)
+        try {
+            assertTrue(Pools.isConcurrent())
+            assertTrue(Pools.get(Array::class.java) is ConcurrentPool)
+            assertTrue(Pools.get(Vector3::class.java) is ConcurrentPool)
+
+            val vectors = Array<Vector3>()
+            val thread = Thread { vectors.add(Pools.obtain(Vector3::class.java)) }
+            thread.start()
+            thread.join()
+            Pools.free(vectors.first())
+            assertEquals(1, Pools.get(Vector3::class.java).getFree())
+        } finally {
+            Pools.setConcurrent(false)
+        }
+        assertFalse(Pools.isConcurrent())
+    }
+
+    class Item : Pool.Poolable {
+        val inUse = AtomicBoolean()
+        var value = 0
+
+        override fun reset() {
+            value = 0
+        }
+    }
+
+    class ItemPool(magazineSize: Int, max: Int) : ConcurrentPool<Item>(magazineSize, max) {
+        val created = AtomicInteger()
+        val discarded = AtomicInteger()
+
+        override fun newObject(): Item {
+            created.incrementAndGet()
+            return Item()
+        }
+
+        override fun discard(pooledObject: Item) {
+            discarded.incrementAndGet()
+            super.discard(pooledObject)
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.badlogic.gdx.utils
+
+import com.badlogic.gdx.utils.JsonWriter.OutputType
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import java.nio.ByteBuffer
+import java.util.concurrent.ForkJoinPool
+
+class JsonReaderTest {
+    private val pool = ForkJoinPool(4)
+
+    @Test
+    fun parseParallelTest() {
+        val text = largeArray(5000)
+        val expected = JsonReader().parse(text)
+        val actual = JsonReader().parseParallel(ByteBuffer.wrap(text.toByteArray()), pool)!!
+
+        assertEquals(5000, actual.size)
+        assertEquals(expected.toJson(OutputType.json), actual.toJson(OutputType.json))
+        var previous: JsonValue? = null
+        var count = 0
+        var value = actual.child
+        while (value != null) {
+            assertSame(actual, value.parent)
+            assertSame(previous, value.prev)
+            previous = value
+            value = value.next
+            count++
+        }
+        assertEquals(5000, count)
+        assertSame(previous, actual.last)
+    }
+
+    @Test
+    fun parseParallelSmallTest() {
+        val reader = JsonReader()
+        assertEquals("[1,a,{b:2}]", reader.parseParallel(buffer("[1, a, {b: 2}]"), pool)!!.toJson(OutputType.minimal))
+        assertEquals(0, reader.parseParallel(buffer(" [ ] "), pool)!!.size)
+        assertEquals("{a:[1,2]}", reader.parseParallel(buffer("{a: [1, 2]}"), pool)!!.toJson(OutputType.minimal))
+        assertEquals(5L, reader.parseParallel(buffer("5"), pool)!!.asLong())
+        assertNull(reader.parseParallel(buffer(" // nothing"), pool))
+    }
+
+    @Test
+    fun parseParallelScanTest() {
+        // Brackets and quotes in strings, comments and unquoted values, which the boundary scan must not follow.
+        val builder = StringBuilder("[\n")
+        for (i in 0 until 4000) {
+            when (i % 5) {
+                0 -> builder.append("{ \"k}\": \"v]\\\"[\", /* } ] */ n: [ ").append(i).append(", // ]\n 2 ] }")
+                1 -> builder.append("[ a\"b, c{d, \"e\" \"f\" ]")
+                2 -> builder.append("x/y ").append(i)
+                3 -> builder.append("\"s]\" /* ] */")
+                else -> builder.append("{ a: [], b: {} }")
+            }
+            builder.append(if (i % 2 == 0) ",\n" else "\n")
+        }
+        val text = builder.append("]").toString()
+        val reader = JsonStreamReader(buffer(text))
+        reader.next()
+        val expected = reader.readValue()
+        val actual = JsonReader().parseParallel(buffer(text), pool)!!
+
+        assertEquals(4000, actual.size)
+        assertEquals(expected.toJson(OutputType.json), actual.toJson(OutputType.json))
+    }
+
+    @Test
+    fun parseParallelErrorsTest() {
+        val large = largeArray(5000)
+        for (invalid in arrayOf(large.substring(0, large.length - 2), large.replace("\"k-4000\"", "\"k-4000"),
+            "[1, 2] 3", "{a: 1} }", "[1,,2]", "[,1]", "[1 }", "[{a: 1]"))
+            try {
+                JsonReader().parseParallel(buffer(invalid), pool)
+                throw AssertionError("Expected an error for: " + invalid.take(40))
+            } catch (ignored: SerializationException) {
+            }
+    }
+
+    private fun buffer(json: String) = ByteBuffer.wrap(json.toByteArray())
+
+    private fun largeArray(count: Int): String {
+        val builder = StringBuilder("// Generated\n[\n")
+        for (i in 0 until count) {
+            when (i % 4) {
+                0 -> builder.append("{ id: ").append(i).append(", \"name\": \"k-").append(i).append("\", tags: [ \"a,]\", b, 1.5 ] }")
+                1 -> builder.append("[ ").append(i).append(", [ true, null ], \"x\\\"y\" ]")
+                2 -> builder.append("unquoted text ").append(i)
+                else -> builder.append("/* comment */ ").append(i * 0.25)
+            }
+            builder.append(if (i % 3 == 0) ",\n" else "\n")
+        }
+        return builder.append("]\n").toString()
+    }
+}
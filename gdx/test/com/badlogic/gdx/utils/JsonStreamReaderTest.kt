@@ -0,0 +1,186 @@
+package com.badlogic.gdx.utils
+
+import com.badlogic.gdx.files.FileHandle
+import com.badlogic.gdx.utils.JsonSkimmer.JsonToken
+import com.badlogic.gdx.utils.JsonStreamReader.Event
+import com.badlogic.gdx.utils.JsonValue.ValueType
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+import java.nio.ByteBuffer
+
+class JsonStreamReaderTest {
+    private val json = """
+        // Settings of the level.
+        {
+            name: "Level \"1\" é",
+            size: 1024,
+            scale: 0.5,
+            enabled: true
+            parent: null
+            tags: [ a, "b", /* c */ 3 ]
+            "entities": [
+                { id: 1, position: { x: 1.5, y: -2 } },
+                { id: 2, position: { x: 3, y: 4e2 } },
+            ]
+            unquoted: some text
+        }
+        """.trimIndent()
+
+    @Test
+    fun eventsTest() {
+        val reader = reader("{a:1,b:[true,\"x\"],c:{}}")
+        val events = Array<Event>()
+        while (true) {
+            val event = reader.next()
+            events.add(event)
+            if (event == Event.end) break
+        }
+        assertEquals(Array.with(Event.startObject, Event.value, Event.startArray, Event.value, Event.value, Event.endArray,
+            Event.startObject, Event.endObject, Event.endObject, Event.end), events)
+        assertEquals(Event.end, reader.next())
+    }
+
+    @Test
+    fun valuesTest() {
+        val reader = reader(json)
+        assertEquals(Event.startObject, reader.next())
+
+        assertEquals(Event.value, reader.next())
+        assertTrue(reader.nameEquals("name"))
+        assertEquals(ValueType.stringValue, reader.type)
+        assertEquals("Level \"1\" é", reader.string)
+
+        reader.next()
+        assertEquals("size", reader.name)
+        assertEquals(ValueType.longValue, reader.type)
+        assertEquals(1024L, reader.long)
+
+        reader.next()
+        assertEquals(ValueType.doubleValue, reader.type)
+        assertEquals(0.5f, reader.float, 0f)
+
+        reader.next()
+        assertEquals(ValueType.booleanValue, reader.type)
+        assertTrue(reader.boolean)
+
+        reader.next()
+        assertTrue(reader.isNull)
+        assertEquals(ValueType.nullValue, reader.type)
+        assertNull(reader.string)
+
+        assertEquals(Event.startArray, reader.next())
+        assertEquals(ValueType.array, reader.type)
+        reader.next()
+        assertEquals("a", reader.string)
+        assertFalse(reader.hasName())
+        reader.next()
+        assertEquals("b", reader.string)
+        reader.next()
+        assertEquals(3, reader.int)
+        assertEquals(Event.endArray, reader.next())
+    }
+
+    @Test
+    fun readValueMatchesJsonReaderTest() {
+        val expected = JsonReader().parse(json)
+        val reader = reader(json)
+        reader.next()
+        val actual = reader.readValue()
+
+        assertEquals(expected.toJson(JsonWriter.OutputType.json), actual.toJson(JsonWriter.OutputType.json))
+        assertEquals(Event.end, reader.next())
+    }
+
+    @Test
+    fun findAndReadSubtreeTest() {
+        val reader = reader(json)
+        reader.next()
+        assertTrue(reader.find("entities"))
+        assertEquals(Event.startArray, reader.event)
+        reader.next()
+        reader.skip()
+        reader.next()
+        assertTrue(reader.find("position"))
+        val position = reader.readValue()
+        assertEquals("position", position.name)
+        assertEquals(400f, position.getFloat("y"), 0f)
+        assertFalse(reader.find("missing"))
+        assertEquals(2, reader.depth)
+
+        assertEquals(Event.endArray, reader.next())
+        assertTrue(reader.find("unquoted"))
+        assertEquals("some text", reader.string)
+        assertFalse(reader.find("name"))
+        assertEquals(0, reader.depth)
+    }
+
+    @Test
+    fun bufferPositionTest() {
+        val bytes = "xx[1, 2]yy".toByteArray()
+        val buffer = ByteBuffer.allocateDirect(bytes.size)
+        buffer.put(bytes)
+        buffer.position(2).limit(8)
+        val reader = JsonStreamReader(buffer)
+
+        val array = reader.apply { next() }.readValue()
+        assertEquals(2, array.size)
+        assertEquals(2L, array.getLong(1))
+        assertEquals(2, buffer.position())
+    }
+
+    @Test
+    fun mappedFileTest() {
+        val file = File.createTempFile("JsonStreamReaderTest", ".json")
+        try {
+            file.writeBytes(("\uFEFF" + json).toByteArray())
+            val reader = JsonStreamReader(FileHandle(file))
+            reader.next()
+            assertTrue(reader.find("size"))
+            assertEquals(1024, reader.int)
+        } finally {
+            file.delete()
+        }
+    }
+
+    @Test
+    fun errorsTest() {
+        for (invalid in arrayOf("{a:1", "[1,,2]", "{a 1}", "[1] 2", "\"abc", "}"))
+            try {
+                val reader = reader(invalid)
+                while (reader.next() != Event.end) {
+                }
+                throw AssertionError("Expected an error for: $invalid")
+            } catch (ignored: SerializationException) {
+            }
+    }
+
+    @Test
+    fun skimmerTest() {
+        val expected = StringBuilder()
+        val actual = StringBuilder()
+        recordingSkimmer(expected).parse(json)
+        recordingSkimmer(actual).parse(ByteBuffer.wrap(json.toByteArray()))
+
+        assertEquals(expected.toString(), actual.toString())
+    }
+
+    private fun reader(json: String) = JsonStreamReader(ByteBuffer.wrap(json.toByteArray()))
+
+    private fun recordingSkimmer(out: StringBuilder) = object : JsonSkimmer() {
+        override fun push(name: JsonToken?, `object`: Boolean) {
+            out.append(name).append(if (`object`) " {\n" else " [\n")
+        }
+
+        override fun pop() {
+            out.append("end\n")
+        }
+
+        override fun value(name: JsonToken?, value: JsonToken) {
+            out.append(name).append('=').append(value).append(' ').append(value.type).append('\n')
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.badlogic.gdx.utils
 
+import com.badlogic.gdx.files.FileHandle
+import com.badlogic.gdx.utils.reflect.ClassReflection
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
 import org.junit.Test
+import java.io.File
+import java.util.concurrent.ForkJoinPool
 
 class JsonTest {
     @Test
@@ -34,4 +39,132 @@ class JsonTest {
         value = json.fromJson(null, JsonValue::class.java, "{\"key2\":\"value2\"}")
         assertEquals("value2", value.getString("key2"))
     }
+
+    @Test
+    fun testFieldsRoundTrip() {
+        val data = FieldData()
+        data.count = 3
+        data.ratio = 1.5f
+        data.flag = true
+        data.name = "a"
+        data.values = intArrayOf(1, 2)
+        data.skipped = 9
+
+        for (accessors in arrayOf(null, CountingAccessors())) {
+            val json = Json()
+            json.setFieldAccessorFactory(accessors)
+            val text = json.toJson(data)
+            assertEquals("{count:3,ratio:1.5,flag:true,name:a,values:[1,2]}", text)
+
+            val read = json.fromJson(FieldData::class.java, text)
+            assertEquals(3, read.count)
+            assertEquals(1.5f, read.ratio, 0f)
+            assertEquals(true, read.flag)
+            assertEquals("a", read.name)
+            assertEquals(2, read.values!![1])
+            assertEquals(0, read.skipped)
+            // The five fields of the prototype and of the data are read, then the five fields of the result are written
+            if (accessors != null) assertEquals(15, accessors.accesses)
+        }
+    }
+
+    @Test
+    fun testReadFieldAccessor() {
+        val accessors = CountingAccessors()
+        val json = Json()
+        json.setFieldAccessorFactory(accessors)
+        val data = FieldData()
+        val jsonMap = JsonReader().parse("{count:4,label:c}")
+
+        json.readField(data, "count", jsonMap)
+        assertEquals(4, data.count)
+        assertEquals(1, accessors.accesses)
+
+        json.readField(data, ClassReflection.getDeclaredField(FieldData::class.java, "name"), "label", null, jsonMap)
+        assertEquals("c", data.name)
+        assertEquals(2, accessors.accesses)
+    }
+
+    @Test
+    fun testFinalField() {
+        val read = Json().fromJson(FinalFieldData::class.java, "{id:5}")
+        assertEquals(5, read.id)
+    }
+
+    @Test
+    fun testNullPrimitiveField() {
+        val json = Json()
+        try {
+            json.fromJson(FieldData::class.java, "{count:null}")
+            throw AssertionError()
+        } catch (ignored: SerializationException) {
+        }
+        assertNull(json.fromJson(FieldData::class.java, "{name:null}").name)
+    }
+
+    @Test
+    fun testCopyFields() {
+        val from = FieldData()
+        from.count = 7
+        from.name = "b"
+        val to = FieldData()
+        Json().copyFields(from, to)
+        assertEquals(7, to.count)
+        assertEquals("b", to.name)
+    }
+
+    @Test
+    fun testParallelPool() {
+        val file = File.createTempFile("JsonTest", ".json")
+        try {
+            val builder = StringBuilder("[")
+            for (i in 0 until 5000)
+                builder.append("{count:").append(i).append(",name:\"item ").append(i).append("\"},")
+            file.writeText(builder.append("]").toString())
+            val json = Json()
+            json.setParallelPool(ForkJoinPool(4))
+            @Suppress("UNCHECKED_CAST")
+            val values = json.fromJson(Array::class.java, FieldData::class.java, FileHandle(file)) as Array<FieldData>
+            assertEquals(5000, values.size)
+            for (i in 0 until 5000) {
+                assertEquals(i, values[i].count)
+                assertEquals("item $i", values[i].name)
+            }
+            val first = json.fromJson(FieldData::class.java, FileHandle(file.apply { writeText("{count:3}") }))
+            assertEquals(3, first.count)
+        } finally {
+            file.delete()
+        }
+    }
+
+    class FieldData {
+        var count = 0
+        var ratio = 0f
+        var flag = false
+        var name: String? = null
+        var values: kotlin.IntArray? = null
+
+        @Transient
+        var skipped = 0
+    }
+
+    class FinalFieldData {
+        val id = 1
+    }
+
+    class CountingAccessors : Json.FieldAccessorFactory {
+        var accesses = 0
+
+        override fun newFieldAccessor(field: com.badlogic.gdx.utils.reflect.Field) = object : Json.FieldAccessor {
+            override fun get(`object`: Any): Any? {
+                accesses++
+                return field.get(`object`)
+            }
+
+            override fun set(`object`: Any, value: Any?) {
+                accesses++
+                field.set(`object`, value)
+            }
+        }
+    }
 }
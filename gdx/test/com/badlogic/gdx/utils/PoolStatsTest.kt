@@ -0,0 +1,148 @@
+package com.badlogic.gdx.utils
+
+import com.badlogic.gdx.math.Vector2
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class PoolStatsTest {
+    @Test
+    fun countersTest() {
+        val pool = ItemPool(2)
+        pool.stats = PoolStats()
+        val a = pool.obtain()
+        val b = pool.obtain()
+        val c = pool.obtain()
+        pool.free(a)
+        pool.free(b)
+        pool.free(c)
+        pool.obtain()
+
+        val stats = pool.stats!!
+        assertEquals(4, stats.obtained)
+        assertEquals(3, stats.misses)
+        assertEquals(0.75f, stats.missRate, 0f)
+        assertEquals(3, stats.freed)
+        assertEquals(1, stats.discarded)
+        assertEquals(1, stats.outstanding)
+
+        pool.clear()
+        assertEquals(2, stats.discarded)
+    }
+
+    @Test
+    fun freeAllTest() {
+        val pool = ItemPool(1)
+        pool.stats = PoolStats()
+        val items = Array<Item>()
+        items.add(pool.obtain())
+        items.add(pool.obtain())
+        pool.freeAll(items)
+
+        assertEquals(2, pool.stats!!.freed)
+        assertEquals(1, pool.stats!!.discarded)
+    }
+
+    @Test
+    fun sampledSitesTest() {
+        val pool = ItemPool(100)
+        val stats = PoolStats(2)
+        pool.stats = stats
+        val items = Array<Item>()
+        for (i in 0 until 10)
+            items.add(pool.obtain())
+
+        assertEquals(5, stats.sampleCount)
+        val sites = stats.sampleSites
+        assertEquals(1, sites.size)
+        val site = sites.keys().next()
+        assertTrue(site, site.trimStart().startsWith("at " + PoolStatsTest::class.java.name + ".sampledSitesTest"))
+        assertTrue(stats.toString().contains("5 sampled objects not freed"))
+
+        pool.freeAll(items)
+        assertEquals(0, stats.sampleCount)
+        assertFalse(stats.toString().contains("not freed"))
+    }
+
+    @Test
+    fun maxSamplesTest() {
+        val pool = ItemPool(100)
+        val stats = PoolStats(1)
+        stats.maxSamples = 3
+        pool.stats = stats
+        for (i in 0 until 10)
+            pool.obtain()
+
+        assertEquals(3, stats.sampleCount)
+        stats.reset()
+        assertEquals(0, stats.sampleCount)
+        assertEquals(0, stats.obtained)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun negativeSampleIntervalTest() {
+        PoolStats(-1)
+    }
+
+    @Test
+    fun concurrentPoolTest() {
+        val pool = object : ConcurrentPool<Item>(2, 2) {
+            override fun newObject() = Item()
+        }
+        pool.stats = PoolStats()
+        for (i in 0 until 9)
+            pool.free(Item())
+        pool.obtain()
+        pool.clear()
+
+        val stats = pool.stats!!
+        assertEquals(1, stats.obtained)
+        assertEquals(0, stats.misses)
+        assertEquals(9, stats.freed)
+        // One discarded when the depot was full, seven when cleared
+        assertEquals(8, stats.discarded)
+    }
+
+    @Test
+    fun poolsReportTest() {
+        Pools.setInstrumented(true, 1)
+        try {
+            assertTrue(Pools.isInstrumented())
+            val vector = Pools.obtain(Vector2::class.java)
+            val report = Pools.report()
+            assertTrue(report, report.contains(Vector2::class.java.name + " ("))
+            assertTrue(report, report.contains("sampled objects not freed"))
+            Pools.free(vector)
+        } finally {
+            Pools.setInstrumented(false, 0)
+        }
+        assertFalse(Pools.isInstrumented())
+        assertNull(Pools.get(Vector2::class.java).stats)
+        assertEquals("", Pools.report())
+    }
+
+    @Test
+    fun poolManagerReportTest() {
+        val manager = PoolManager()
+        manager.setInstrumented(true, 0)
+        manager.addPool(::Item)
+        manager.free(manager.obtain(Item::class.java))
+
+        val stats = manager.getPool(Item::class.java).stats!!
+        assertEquals(1, stats.obtained)
+        assertEquals(0, stats.misses)
+        assertEquals(Item::class.java.name + " (free 1, peak 1): obtained 1, misses 0 (0.0%), freed 1, discarded 0, outstanding 0\n",
+            manager.report())
+    }
+
+    class Item : Pool.Poolable {
+        override fun reset() {
+        }
+    }
+
+    class ItemPool(max: Int) : Pool<Item>(16, max) {
+        override fun newObject() = Item()
+    }
+}
@@ -0,0 +1,64 @@
+package com.badlogic.gdx.utils
+
+import com.badlogic.gdx.utils.JsonWriter.OutputType
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.ForkJoinPool
+
+class UBJsonReaderTest {
+    private val pool = ForkJoinPool(4)
+
+    @Test
+    fun parseParallelTest() {
+        val bytes = ByteArrayOutputStream()
+        val writer = UBJsonWriter(bytes)
+        writer.array()
+        for (i in 0 until 5000) {
+            when (i % 4) {
+                0 -> writer.`object`().set("id", i).set("name", "item $i").set("ratio", i * 0.5f).pop()
+                1 -> writer.value(kotlin.intArrayOf(i, i + 1, i + 2))
+                2 -> writer.value("text $i")
+                else -> writer.array().value(true).value(i.toLong() * 100000).pop()
+            }
+        }
+        writer.close()
+        val data = bytes.toByteArray()
+
+        val reader = UBJsonReader()
+        reader.oldFormat = false
+        val expected = reader.parse(ByteArrayInputStream(data))
+        val actual = reader.parseParallel(data, 0, data.size, pool)
+
+        assertEquals(5000, actual.size)
+        assertEquals(expected.toJson(OutputType.json), actual.toJson(OutputType.json))
+    }
+
+    @Test
+    fun parseParallelOptimizedTest() {
+        val reader = UBJsonReader()
+        // Sized array with a shared value type, in the old format where 'i' is 2 bytes.
+        assertEquals("[1,2,258]", parse(reader, '[', '$', 'i', '#', 'i', 3, 0, 1, 0, 2, 1, 2))
+        // Sized array without a value type.
+        assertEquals("[true,5]", parse(reader, '[', '#', 'i', 2, 'T', 'i', 0, 5))
+        assertEquals("[1,ab,[false]]", parse(reader, '[', 'i', 0, 1, 'S', 'i', 2, 'a', 'b', '[', 'F', ']', ']'))
+        assertEquals("[]", parse(reader, '[', ']'))
+        assertEquals("{a:1}", parse(reader, '{', 'i', 1, 'a', 'i', 0, 1, '}'))
+    }
+
+    @Test(expected = SerializationException::class)
+    fun parseParallelTruncatedTest() {
+        UBJsonReader().parseParallel(bytes('[', 'S', 'i', 9, 'a', 'b'), 0, 6, pool)
+    }
+
+    private fun parse(reader: UBJsonReader, vararg values: Any): String {
+        val data = bytes(*values)
+        return reader.parseParallel(data, 0, data.size, pool).toJson(OutputType.minimal)
+    }
+
+    private fun bytes(vararg values: Any) = ByteArray(values.size) {
+        val value = values[it]
+        if (value is Char) value.code.toByte() else (value as Int).toByte()
+    }
+}
@@ -0,0 +1,69 @@
+package com.badlogic.gdx.tests.bench;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares {@link JsonReader#parse(FileHandle)} with {@link JsonReader#parseParallel(FileHandle, ForkJoinPool)} on a file holding
+ * a large root array, and prints the time of each.
+ */
+public class JsonParallelBench extends GdxTest {
+    static final int elements = 200000, warmups = 3, runs = 5;
+
+    @Override
+    public void create() {
+        File file;
+        try {
+            file = File.createTempFile("JsonParallelBench", ".json");
+        } catch (IOException ex) {
+            throw new GdxRuntimeException(ex);
+        }
+        file.deleteOnExit();
+        FileHandle handle = new FileHandle(file);
+        handle.writeString(largeArray(), false, "UTF-8");
+
+        JsonReader reader = new JsonReader();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int i = 0; i < warmups; i++) {
+            check(reader.parse(handle));
+            check(reader.parseParallel(handle, pool));
+        }
+
+        long sequential = 0, parallel = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = TimeUtils.nanoTime();
+            check(reader.parse(handle));
+            sequential += TimeUtils.nanoTime() - start;
+
+            start = TimeUtils.nanoTime();
+            check(reader.parseParallel(handle, pool));
+            parallel += TimeUtils.nanoTime() - start;
+        }
+        System.out.println(elements + " elements, " + handle.length() / 1024 + " KB, average of " + runs + " runs");
+        System.out.println("parse: " + TimeUtils.nanosToMillis(sequential / runs) + " ms");
+        System.out.println("parseParallel (" + pool.getParallelism() + " threads): " + TimeUtils.nanosToMillis(parallel / runs)
+                + " ms");
+        handle.delete();
+    }
+
+    private void check(JsonValue root) {
+        if (root.size != elements) throw new GdxRuntimeException("Wrong number of elements: " + root.size);
+    }
+
+    private String largeArray() {
+        StringBuilder builder = new StringBuilder("[\n");
+        for (int i = 0; i < elements; i++) {
+            builder.append("{ id: ").append(i).append(", name: \"item ").append(i).append("\", tags: [ a, b, ").append(i * 0.5f)
+                    .append(" ], position: { x: ").append(i % 100).append(", y: ").append(i / 100).append(" } },\n");
+        }
+        return builder.append("]\n").toString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.badlogic.gdx.tests.utils;
 
 import com.badlogic.gdx.tests.*;
+import com.badlogic.gdx.tests.bench.JsonParallelBench;
 import com.badlogic.gdx.tests.bench.TiledMapBench;
 import com.badlogic.gdx.tests.conformance.AudioSoundAndMusicIsolationTest;
 import com.badlogic.gdx.tests.conformance.DisplayModeTest;
@@ -329,6 +330,7 @@ public class GdxTests {
             InternationalFontsTest.class,
             PngTest.class,
             JsonTest.class,
+            JsonParallelBench.class,
             QuadTreeFloatTest.class,
             QuadTreeFloatNearestTest.class
             // @on